@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.Properties;
+import org.evosuite.seeding.DynamicConstantPool;
+import org.evosuite.utils.Randomness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Constants drawn from and added to the dynamic constant pool, as done for
+ * each primitive value generated by the test factory and each comparison
+ * traced during test execution, and random choices among collections
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstantPoolBenchmark {
+
+    @Param({"50", "500"})
+    public int poolSize;
+
+    private DynamicConstantPool pool;
+
+    private Set<Integer> set;
+
+    private List<Integer> list;
+
+    private int counter = 0;
+
+    @Setup
+    public void setUp() {
+        Properties.getInstance().resetToDefaults();
+        Properties.DYNAMIC_POOL_SIZE = poolSize;
+        Randomness.setSeed(42);
+
+        pool = new DynamicConstantPool();
+        set = new LinkedHashSet<>();
+        for (int i = 0; i < poolSize; i++) {
+            pool.addInt(i);
+            pool.add((double) i);
+            pool.add("value" + i);
+            set.add(i);
+        }
+        list = new ArrayList<>(set);
+    }
+
+    /**
+     * Half of the added values are already in the pool, the others evict the oldest value
+     */
+    @Benchmark
+    public void addInt() {
+        pool.addInt(counter++ % (2 * poolSize));
+    }
+
+    @Benchmark
+    public int getRandomInt() {
+        return pool.getRandomInt();
+    }
+
+    @Benchmark
+    public double getRandomDouble() {
+        return pool.getRandomDouble();
+    }
+
+    @Benchmark
+    public String getRandomString() {
+        return pool.getRandomString();
+    }
+
+    @Benchmark
+    public Integer choiceOfSet() {
+        return Randomness.choice(set);
+    }
+
+    @Benchmark
+    public Integer choiceOfList() {
+        return Randomness.choice(list);
+    }
+
+    /**
+     * Random choice by copying the set, as the pools and Randomness.choice(Collection)
+     * did before; the baseline for {@link #choiceOfSet()} and {@link #getRandomInt()}
+     */
+    @Benchmark
+    public Object choiceOfSetCopy() {
+        Object[] values = set.toArray();
+        return values[Randomness.nextInt(values.length)];
+    }
+}
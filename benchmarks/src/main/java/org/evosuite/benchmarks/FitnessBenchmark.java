@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fitness evaluation of a whole suite, including the execution of its tests
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FitnessBenchmark {
+
+    @Param({"10"})
+    public int tests;
+
+    @Param({"20"})
+    public int length;
+
+    private TestSuiteChromosome suite;
+
+    private BranchCoverageSuiteFitness fitness;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        Fixtures.analyzeTargetClass(Fixtures.TARGET_CLASS);
+        // otherwise every invocation after the first would hit the execution result cache
+        Properties.EXECUTION_CACHE_SIZE = 0;
+        suite = new TestSuiteChromosome();
+        for (int i = 0; i < tests; i++) {
+            suite.addTest(Fixtures.randomTest(length));
+        }
+        fitness = new BranchCoverageSuiteFitness();
+    }
+
+    @Setup(Level.Invocation)
+    public void invalidateResults() {
+        // otherwise the last execution results of the tests would be reused
+        for (TestChromosome test : suite.getTestChromosomes()) {
+            test.setChanged(true);
+        }
+    }
+
+    @Benchmark
+    public double branchCoverageSuiteFitness() {
+        return fitness.getFitness(suite);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.Randomness;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestFactory;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * Setup shared by the benchmarks: the classes under test are the examples
+ * of the client tests, analysed the same way as in a normal search.
+ */
+public class Fixtures {
+
+    public static final String TARGET_CLASS = "com.examples.with.different.packagename.ArrayStack";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Reset EvoSuite and build the test cluster for {@code targetClass}
+     */
+    public static void analyzeTargetClass(String targetClass) throws ClassNotFoundException {
+        Properties.getInstance().resetToDefaults();
+        Randomness.setSeed(42);
+        TestGenerationContext.getInstance().resetContext();
+
+        Properties.TARGET_CLASS = targetClass;
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+    }
+
+    /**
+     * @return a test of about {@code length} random statements on the analysed class
+     */
+    public static DefaultTestCase randomTest(int length) {
+        TestFactory factory = TestFactory.getInstance();
+        DefaultTestCase test = new DefaultTestCase();
+        for (int attempts = 0; test.size() < length && attempts < 10 * length; attempts++) {
+            factory.insertRandomStatement(test, test.size() - 1);
+        }
+        return test;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.lm.LangModel;
+import org.evosuite.lm.LangModelConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading the default language model, and scoring the candidate strings
+ * of the language model string optimiser with it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LangModelBenchmark {
+
+    @Param({"foo", "The quick brown fox jumps over the lazy dog"})
+    public String value;
+
+    private File binaryModel;
+
+    private LangModel model;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        binaryModel = File.createTempFile("ukwac_char_lm", ".bin");
+        binaryModel.deleteOnExit();
+        LangModelConverter.convert("ukwac_char_lm", binaryModel);
+        model = new LangModel(binaryModel.getAbsolutePath());
+    }
+
+    @Benchmark
+    public double score() {
+        return model.score(value);
+    }
+
+    @Benchmark
+    public LangModel loadTextModel() throws IOException {
+        return new LangModel("ukwac_char_lm");
+    }
+
+    @Benchmark
+    public LangModel loadBinaryModel() throws IOException {
+        return new LangModel(binaryModel.getAbsolutePath());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.coverage.line.LineCoverageTestFitness;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-dominated sorting of a population on random objective values, as
+ * done at every generation of the many-objective algorithms
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankingBenchmark {
+
+    @Param({"50", "200"})
+    public int populationSize;
+
+    @Param({"10", "100"})
+    public int goals;
+
+    private List<TestChromosome> population;
+
+    private Set<TestFitnessFunction> uncoveredGoals;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        uncoveredGoals = new LinkedHashSet<>();
+        for (int i = 0; i < goals; i++) {
+            uncoveredGoals.add(new LineCoverageTestFitness("Fixture", "foo()V", i));
+        }
+        population = new ArrayList<>();
+        for (int i = 0; i < populationSize; i++) {
+            TestChromosome test = new TestChromosome();
+            for (TestFitnessFunction goal : uncoveredGoals) {
+                test.setFitness(goal, random.nextInt(10) / 10.0);
+            }
+            population.add(test);
+        }
+    }
+
+    @Benchmark
+    public int fastNonDominatedSorting() {
+        FastNonDominatedSorting<TestChromosome> ranking = new FastNonDominatedSorting<>();
+        ranking.computeRankingAssignment(population, uncoveredGoals);
+        return ranking.getNumberOfSubfronts();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.sandbox.MSecurityManager;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.ReflectPermission;
+import java.security.Permission;
+import java.util.PropertyPermission;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission checks of the sandbox on a thread running SUT code, as done
+ * each time the SUT uses reflection, reads properties or loads classes.
+ * The security manager is not installed, its checks are called directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityManagerBenchmark {
+
+    /**
+     * Kind of permission that is checked: granted reflection or runtime permissions,
+     * whose decisions are cached, a granted property read, and a denied permission
+     */
+    @Param({"reflect", "runtime", "property", "denied"})
+    public String permission;
+
+    private MSecurityManager manager;
+
+    private Permission perm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RuntimeSettings.sandboxMode = Sandbox.SandboxMode.RECOMMENDED;
+        manager = new MSecurityManager();
+        // the creating thread is privileged, so it has to behave as a SUT thread
+        manager.goingToExecuteUnsafeCodeOnSameThread();
+
+        switch (permission) {
+            case "reflect":
+                perm = new ReflectPermission("suppressAccessChecks");
+                break;
+            case "runtime":
+                perm = new RuntimePermission("accessDeclaredMembers");
+                break;
+            case "property":
+                perm = new PropertyPermission("java.version", "read");
+                break;
+            case "denied":
+                perm = new RuntimePermission("setSecurityManager");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown permission kind: " + permission);
+        }
+    }
+
+    @Benchmark
+    public boolean checkPermission() {
+        try {
+            manager.checkPermission(perm);
+            return true;
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import org.evosuite.instrumentation.testability.StringHelper;
+import org.evosuite.utils.RegexDistanceUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * String distances computed by the testability transformation for every
+ * string comparison and regular expression match of the class under test
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringDistanceBenchmark {
+
+    @Param({"foo", "The quick brown fox jumps over the lazy dog"})
+    public String value;
+
+    @Benchmark
+    public int editDistance() {
+        return StringHelper.editDistance(value, "The lazy dog jumps over the quick brown fox");
+    }
+
+    /**
+     * As done for Collection.contains, where only distances smaller than
+     * the best one so far are of interest
+     */
+    @Benchmark
+    public int boundedEditDistance() {
+        return StringHelper.editDistance(value, "The lazy dog jumps over the quick brown fox", 5);
+    }
+
+    private int counter = 0;
+
+    @Benchmark
+    public int regexDistance() {
+        return RegexDistanceUtils.getStandardDistance(value, "[a-z]+@[a-z]+\\.(com|org)");
+    }
+
+    /**
+     * The first character changes at each evaluation, so nothing of the
+     * previous evaluation can be reused
+     */
+    @Benchmark
+    public int regexDistanceOfNewString() {
+        String changed = (char) ('a' + (counter++ % 26)) + value;
+        return RegexDistanceUtils.getStandardDistance(changed, "[a-z]+@[a-z]+\\.(com|org)");
+    }
+
+    /**
+     * As done by the StringAVM local search, which changes the last character
+     */
+    @Benchmark
+    public double regexDistanceOfChangedTail() {
+        String changed = value + (char) ('a' + (counter++ % 26));
+        return RegexDistanceUtils.getDistanceTailoredForStringAVM(changed, "[a-z]+@[a-z]+\\.(com|org)");
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.evosuite;
 
+import org.apache.commons.lang3.JavaVersion;
+import org.apache.commons.lang3.SystemUtils;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.lm.MutationType;
 import org.evosuite.runtime.LoopCounter;
@@ -128,6 +130,9 @@ public class Properties {
     @Parameter(key = "reset_all_classes_during_assertion_generation", group = "Test Creation", description = "Test Generation does not apply the selective method of selection of class re-initalization")
     public static boolean RESET_ALL_CLASSES_DURING_ASSERTION_GENERATION = true;
 
+    @Parameter(key = "reset_only_dirty_classes", group = "Test Creation", description = "During test generation, when all classes are to be re-initialized after a test, skip those whose static state was not accessed by the test nor shared with classes whose state was")
+    public static boolean RESET_ONLY_DIRTY_CLASSES = true;
+
 
     @Parameter(key = "reset_standard_streams", group = "Test Creation", description = "Restore System.out, System.in and DebugGraphics.logStream after test execution")
     public static boolean RESET_STANDARD_STREAMS = false;
@@ -326,12 +331,16 @@ public class Properties {
     public enum RankingType {
         // Preference sorting is the ranking strategy proposed in
         PREFERENCE_SORTING,
-        FAST_NON_DOMINATED_SORTING
+        FAST_NON_DOMINATED_SORTING,
+        EFFICIENT_NON_DOMINATED_SORTING
     }
 
     @Parameter(key = "ranking_type", group = "Runtime", description = "type of ranking to use in MOSA")
     public static RankingType RANKING_TYPE = RankingType.PREFERENCE_SORTING;
 
+    @Parameter(key = "parallel_ranking", group = "Runtime", description = "Check the dominance of large fronts with several threads when computing non-dominated fronts")
+    public static boolean PARALLEL_RANKING = false;
+
     public enum MapElitesChoice {
         ALL,
         SINGLE,
@@ -502,6 +511,12 @@ public class Properties {
     @Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
     public static String CVC4_PATH = null;
 
+    @Parameter(key = "dse_query_cache_size", group = "DSE", description = "Maximum number of constraint sets kept in the caches of solver results, the least recently used are evicted first (0 for no limit)")
+    public static int DSE_QUERY_CACHE_SIZE = 10000;
+
+    @Parameter(key = "dse_solver_sessions", group = "DSE", description = "Keep the external constraint solver running across queries, and only send the part of a query that differs from the previous one")
+    public static boolean DSE_SOLVER_SESSIONS = false;
+
     public enum DSEStoppingConditionCriterion {
         TARGETCOVERAGE,
         MAXTIME,
@@ -926,6 +941,19 @@ public class Properties {
     @Parameter(key = "ctg_history_file", group = "Continuous Test Generation", description = "File with the list of new(A)/modified(M)/deleted(D) files")
     public static String CTG_HISTORY_FILE = null;
 
+    @Parameter(key = "ctg_instrumentation_cache", group = "Continuous Test Generation", description = "Share the instrumented bytecode of unchanged classes among all the jobs of CTG, through a cache in ctg_dir")
+    public static boolean CTG_INSTRUMENTATION_CACHE = true;
+
+    @Parameter(key = "ctg_warm_workers", group = "Continuous Test Generation", description = "Run the jobs on long-lived worker JVMs, one per core, instead of starting new JVMs for each job. Experimental, as the client then runs on a thread of the worker JVM")
+    public static boolean CTG_WARM_WORKERS = false;
+
+    @Parameter(key = "ctg_worker_max_jobs", group = "Continuous Test Generation", description = "Number of jobs after which a warm worker JVM is replaced by a new one")
+    public static int CTG_WORKER_MAX_JOBS = 10;
+
+    @Parameter(key = "ctg_worker_max_heap_usage", group = "Continuous Test Generation", description = "Ratio of the maximum heap of a warm worker JVM that, if still in use after a job, leads to its replacement")
+    @DoubleValue(min = 0.0, max = 1.0)
+    public static double CTG_WORKER_MAX_HEAP_USAGE = 0.7;
+
     @Parameter(key = "ctg_selected_cuts", group = "Continuous Test Generation", description = "Comma ',' separated list of CUTs to use in CTG. If none specified, then test all classes")
     public static String CTG_SELECTED_CUTS = null;
 
@@ -1074,6 +1102,13 @@ public class Properties {
     @Parameter(key = "minimize_skip_coincidental", group = "Output", description = "Minimize test suite after generation")
     public static boolean MINIMIZE_SKIP_COINCIDENTAL = true;
 
+    public enum MinimizationStrategy {
+        ITERATIVE, SLICE
+    }
+
+    @Parameter(key = "minimization_strategy", group = "Output", description = "How to remove statements from a test covering a goal: one at a time (ITERATIVE), or by reducing it to the dependency slice of the covering statement and then removing chunks of statements (SLICE)")
+    public static MinimizationStrategy MINIMIZATION_STRATEGY = MinimizationStrategy.ITERATIVE;
+
     @Parameter(key = "minimize_old", group = "Output", description = "Minimize test suite using old algorithm")
     @Deprecated
     public static boolean MINIMIZE_OLD = false;
@@ -1087,7 +1122,7 @@ public class Properties {
     @Parameter(key = "minimize_strings", group = "Output", description = "Try to minimise strings by deleting non-printables. The parameter minimize_values must also be true,")
     public static boolean MINIMIZE_STRINGS = true;
 
-    @Parameter(key = "lm_src", description = "Text file for the language model.")
+    @Parameter(key = "lm_src", description = "Text file for the language model, or binary file created from it with org.evosuite.lm.LangModelConverter.")
     public static String LM_SRC = "ukwac_char_lm";
 
     @Parameter(key = "lm_iterations", description = "Number of 1+1EA generations PER STRING PRIMITIVE for language model optimiser.")
@@ -1187,6 +1222,9 @@ public class Properties {
     @Parameter(key = "serialize_result", group = "Output", description = "Serialize result of search to main process")
     public static boolean SERIALIZE_RESULT = false;
 
+    @Parameter(key = "binary_test_serialization", group = "Output", description = "Serialize tests (e.g., seeds, object pools and migrants) in a compact binary format rather than as Java objects")
+    public static boolean BINARY_TEST_SERIALIZATION = true;
+
     @Parameter(key = "new_statistics", group = "Output", description = "Use the new statistics backend on the master")
     public static boolean NEW_STATISTICS = true;
 
@@ -1327,6 +1365,9 @@ public class Properties {
     @Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
     public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+    @Parameter(key = "instrumentation_cache_dir", description = "Folder in which the instrumented bytecode of classes that are not analyzed is stored, to be reused by later runs with the same settings. If not set, no cache is used")
+    public static String INSTRUMENTATION_CACHE_DIR = null;
+
     @Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
     public static boolean INSTRUMENT_PARENT = false;
 
@@ -1491,6 +1532,18 @@ public class Properties {
     @Parameter(key = "max_loop_iterations", group = "Test Execution", description = "Max number of iterations allowed per loop. A negative value means no check is done.")
     public static long MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
 
+    @Parameter(key = "parallel_evaluation_threads", group = "Test Execution", description = "Number of threads used to execute the tests of a population concurrently. Values above 1 are experimental, require the mocked environment (replace_calls, virtual_fs, virtual_net, replace_system_in, replace_gui) and max_loop_iterations to be off, although they are on by default, and are only used as long as the SUT shows no static state writes")
+    public static int PARALLEL_EVALUATION_THREADS = 1;
+
+    @Parameter(key = "method_handle_invocation", group = "Test Execution", description = "Call methods, constructors and fields of the SUT through cached method handles rather than reflection. On by default from Java 9, where handles are faster than reflection; on Java 8 reflection is faster once warmed up")
+    public static boolean METHOD_HANDLE_INVOCATION = SystemUtils.isJavaVersionAtLeast(JavaVersion.JAVA_9);
+
+    @Parameter(key = "execution_cache_size", group = "Test Execution", description = "Number of execution results kept to skip the execution of tests identical to an earlier one, if the SUT is deterministic under the mocks (0 to disable)")
+    public static int EXECUTION_CACHE_SIZE = 1000;
+
+    @Parameter(key = "regex_cache_size", group = "Test Execution", description = "Number of automata of regular expressions kept to compute the distance of strings to regexes used by the SUT")
+    public static int REGEX_CACHE_SIZE = 500;
+
     // ---------------------------------------------------------------
     // Debugging
 
@@ -34,6 +34,7 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.graphs.GraphPool;
 import org.evosuite.graphs.cfg.BytecodeInstructionPool;
 import org.evosuite.graphs.cfg.CFGMethodAdapter;
+import org.evosuite.instrumentation.InstrumentedBytecodeCache;
 import org.evosuite.instrumentation.InstrumentingClassLoader;
 import org.evosuite.instrumentation.LinePool;
 import org.evosuite.runtime.Runtime;
@@ -50,10 +51,15 @@ import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.setup.TestClusterGenerator;
 import org.evosuite.symbolic.dse.DSEStatistics;
+import org.evosuite.symbolic.solver.SmtSolverSession;
 import org.evosuite.testcarver.extraction.CarvingManager;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.MethodHandleCache;
+import org.evosuite.testcase.execution.ParallelTestExecutor;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testcase.execution.reset.StaticStateDependencies;
 import org.evosuite.utils.ArrayUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -222,14 +228,21 @@ public class TestGenerationContext {
         JOptionPaneInputs.resetSingleton();
         Runtime.resetSingleton();
         MethodCallReplacementCache.resetSingleton();
+        ParallelTestExecutor.getInstance().reset();
+        InstrumentedBytecodeCache.resetSingleton();
+        MethodHandleCache.resetSingleton();
+        ExecutionResultCache.resetSingleton();
 
         DSEStatistics.clear();
+        SmtSolverSession.closeAllSessions();
 
         // keep the list of initialized classes (clear them when needed in
         // the system test cases)
         final List<String> initializedClasses = ClassReInitializer.getInstance().getInitializedClasses();
         ClassReInitializer.resetSingleton();
         ClassReInitializer.getInstance().addInitializedClasses(initializedClasses);
+        // the dependencies refer to the classes of the discarded class loader
+        StaticStateDependencies.getInstance().clear();
 
         InspectorManager.resetSingleton();
         ModifiedTargetStaticFields.resetSingleton();
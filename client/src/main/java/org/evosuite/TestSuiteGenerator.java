@@ -216,6 +216,9 @@ public class TestSuiteGenerator {
         TestGenerationResult result = null;
         if (ClientProcess.DEFAULT_CLIENT_NAME.equals(ClientProcess.getIdentifier())) {
             postProcessTests(testCases);
+            ClientServices.track(RuntimeVariable.Static_Resets_Per_Test, ClassReInitializer.getAverageNumberOfResets());
+            ClientServices.track(RuntimeVariable.Static_Reset_Time_Saved_Per_Test, ClassReInitializer.getAverageResetTimeSaved());
+            ClientServices.track(RuntimeVariable.Generator_Lookup_Time, TestCluster.getAverageGeneratorLookupTime());
             ClientServices.getInstance().getClientNode().publishPermissionStatistics();
             PermissionStatistics.getInstance().printStatistics(LoggingUtils.getEvoLogger());
 
@@ -281,6 +284,8 @@ public class TestSuiteGenerator {
         // set the behaviour of the ClassReInitializer
         final boolean reset_all_classes = Properties.RESET_ALL_CLASSES_DURING_TEST_GENERATION;
         ClassReInitializer.getInstance().setReInitializeAllClasses(reset_all_classes);
+        ClassReInitializer.getInstance().setReInitializeOnlyDirtyClasses(Properties.RESET_ONLY_DIRTY_CLASSES);
+        ClassReInitializer.resetStatistics();
     }
 
     private static void writeJUnitTestSuiteForFailedInitialization() throws EvosuiteError {
@@ -203,6 +203,7 @@ public abstract class AssertionGenerator {
         }
         final boolean reset_all_classes = Properties.RESET_ALL_CLASSES_DURING_ASSERTION_GENERATION;
         ClassReInitializer.getInstance().setReInitializeAllClasses(reset_all_classes);
+        ClassReInitializer.getInstance().setReInitializeOnlyDirtyClasses(false);
         changeClassLoader(suite);
     }
 
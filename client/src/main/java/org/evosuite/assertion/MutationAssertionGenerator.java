@@ -178,6 +178,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
         if (Properties.RESET_STATIC_FIELDS) {
             final boolean reset_all_classes = Properties.RESET_ALL_CLASSES_DURING_ASSERTION_GENERATION;
             ClassReInitializer.getInstance().setReInitializeAllClasses(reset_all_classes);
+            ClassReInitializer.getInstance().setReInitializeOnlyDirtyClasses(false);
         }
         changeClassLoader(suite);
         for (Mutation m : MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getMutants()) {
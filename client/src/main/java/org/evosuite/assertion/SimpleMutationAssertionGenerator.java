@@ -145,10 +145,14 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
         Randomness.shuffle(executedMutants);
         logger.debug("Executed mutants: " + origResult.getTrace().getTouchedMutants());
 
+        // A mutant that was reached but never infected the state behaves like
+        // the original, so running the test on it cannot produce any assertion
+        Set<Integer> infectedMutants = origResult.getTrace().getInfectedMutants();
+        int numSkippedMutants = 0;
+
         int numExecutedMutants = 0;
         for (Mutation m : executedMutants) {
 
-            numExecutedMutants++;
             if (!TimeController.getInstance().isThereStillTimeInThisPhase()) {
                 logger.info("Reached maximum time to generate assertions!");
                 break;
@@ -173,6 +177,12 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
                     continue;
                 }
             }
+            if (!infectedMutants.contains(m.getId())) {
+                numSkippedMutants++;
+                continue;
+            }
+
+            numExecutedMutants++;
             if (Properties.MAX_MUTANTS_PER_TEST > 0
                     && numExecutedMutants > Properties.MAX_MUTANTS_PER_TEST)
                 break;
@@ -227,6 +237,8 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
             }
         }
 
+        logger.debug("Skipped {} mutants that were not infected", numSkippedMutants);
+
         List<Assertion> assertions = test.getAssertions();
         logger.info("Got " + assertions.size() + " assertions");
         Map<Integer, Set<Integer>> killMap = new HashMap<>();
@@ -41,6 +41,7 @@ import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.symbolic.dse.DSEStatistics;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.ParallelTestExecutor;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.LoggingUtils;
@@ -566,6 +567,8 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
     protected void calculateFitness() {
         logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+        ParallelTestExecutor.getInstance().execute(this.population);
+
         for (T c : this.population) {
             if (isFinished()) {
                 break;
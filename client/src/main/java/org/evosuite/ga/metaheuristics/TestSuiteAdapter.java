@@ -25,6 +25,7 @@ import org.evosuite.ga.*;
 import org.evosuite.ga.bloatcontrol.BloatControlFunction;
 import org.evosuite.ga.bloatcontrol.MaxSizeBloatControl;
 import org.evosuite.ga.operators.crossover.*;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.evosuite.ga.operators.ranking.RankingFunction;
@@ -289,6 +290,8 @@ public abstract class TestSuiteAdapter<A extends GeneticAlgorithm<TestChromosome
     private static <T extends Chromosome<T>, X extends Chromosome<X>> RankingFunction<T> mapRankingFunction(RankingFunction<X> function) {
         if (function instanceof FastNonDominatedSorting) {
             return new FastNonDominatedSorting<>();
+        } else if (function instanceof EfficientNonDominatedSorting) {
+            return new EfficientNonDominatedSorting<>();
         } else if (function instanceof RankBasedPreferenceSorting) {
             return new RankBasedPreferenceSorting<>();
         } else {
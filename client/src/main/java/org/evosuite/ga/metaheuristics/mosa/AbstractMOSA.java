@@ -32,6 +32,7 @@ import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ParallelTestExecutor;
 import org.evosuite.testcase.secondaryobjectives.TestCaseSecondaryObjective;
 import org.evosuite.testcase.statements.*;
 import org.evosuite.testcase.variable.VariableReference;
@@ -171,7 +172,6 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
             if (offspring1.isChanged()) {
                 this.clearCachedResults(offspring1);
                 offspring1.updateAge(this.currentIteration);
-                this.calculateFitness(offspring1);
                 offspringPopulation.add(offspring1);
             }
 
@@ -180,11 +180,13 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
             if (offspring2.isChanged()) {
                 this.clearCachedResults(offspring2);
                 offspring2.updateAge(this.currentIteration);
-                this.calculateFitness(offspring2);
                 offspringPopulation.add(offspring2);
             }
         }
+        offspringPopulation = this.calculateFitness(offspringPopulation);
+
         // Add new randomly generate tests
+        List<TestChromosome> randomTests = new ArrayList<>();
         for (int i = 0; i < Properties.POPULATION * Properties.P_TEST_INSERTION; i++) {
             final TestChromosome tch;
             if (this.getCoveredGoals().size() == 0 || Randomness.nextBoolean()) {
@@ -197,14 +199,34 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
             }
             if (tch.isChanged()) {
                 tch.updateAge(this.currentIteration);
-                this.calculateFitness(tch);
-                offspringPopulation.add(tch);
+                randomTests.add(tch);
             }
         }
+        offspringPopulation.addAll(this.calculateFitness(randomTests));
         logger.info("Number of offsprings = {}", offspringPopulation.size());
         return offspringPopulation;
     }
 
+    /**
+     * Calculates the fitness of the given offspring. Their tests are executed
+     * first as a batch, which is done in parallel if enabled.
+     *
+     * @param offspring the new individuals
+     * @return the individuals that were evaluated before the search finished
+     */
+    private List<TestChromosome> calculateFitness(List<TestChromosome> offspring) {
+        ParallelTestExecutor.getInstance().execute(offspring);
+
+        List<TestChromosome> evaluated = new ArrayList<>(offspring.size());
+        for (TestChromosome c : offspring) {
+            if (this.isFinished())
+                break;
+            this.calculateFitness(c);
+            evaluated.add(c);
+        }
+        return evaluated;
+    }
+
     /**
      * Method used to mutate an offspring.
      *
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-dominated sorting with the Efficient Non-dominated Sort (ENS-BS) of
+ * Zhang et al. It computes the same fronts as {@link FastNonDominatedSorting},
+ * but the fitness values of each solution are first copied into a dense
+ * vector, and solutions are sorted lexicographically so that each one only
+ * has to be compared with the solutions already assigned to (a binary search
+ * of) the fronts, instead of with the whole population.
+ */
+public class EfficientNonDominatedSorting<T extends Chromosome<T>> implements RankingFunction<T> {
+
+    private static final long serialVersionUID = 4581497185612958932L;
+
+    /**
+     * Number of objective comparisons in a front above which the dominance
+     * check is split among threads, if {@link Properties#PARALLEL_RANKING}
+     */
+    private static final int PARALLEL_THRESHOLD = 20_000;
+
+    private List<List<T>> fronts = new ArrayList<>();
+
+    @Override
+    public void computeRankingAssignment(List<T> solutions,
+                                         Set<? extends FitnessFunction<T>> uncovered_goals) {
+        fronts = getFronts(solutions, uncovered_goals);
+        for (int i = 0; i < fronts.size(); i++) {
+            for (T solution : fronts.get(i)) {
+                // same numbering as FastNonDominatedSorting
+                solution.setRank(i + 1);
+                solution.setDistance(Double.MAX_VALUE);
+            }
+        }
+    }
+
+    @Override
+    public List<T> getSubfront(int rank) {
+        return fronts.get(rank);
+    }
+
+    @Override
+    public int getNumberOfSubfronts() {
+        return fronts.size();
+    }
+
+    /**
+     * Compute the non-dominated fronts without changing the solutions.
+     *
+     * @param solutions the solutions to sort
+     * @param goals     the objectives, all to be minimised
+     * @return the fronts, each in the order of {@code solutions}
+     */
+    static <T extends Chromosome<T>> List<List<T>> getFronts(List<T> solutions,
+                                                             Set<? extends FitnessFunction<T>> goals) {
+        int n = solutions.size();
+        if (n == 0) {
+            return new ArrayList<>();
+        }
+
+        double[][] objectives = new double[n][];
+        for (int i = 0; i < n; i++) {
+            T solution = solutions.get(i);
+            Map<FitnessFunction<T>, Double> fitnessValues = solution.getFitnessValues();
+            double[] vector = new double[goals.size()];
+            int m = 0;
+            for (FitnessFunction<T> goal : goals) {
+                Double value = fitnessValues.get(goal);
+                vector[m++] = value != null ? value : solution.getFitness(goal);
+            }
+            objectives[i] = vector;
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> compareLexicographically(objectives[a], objectives[b]));
+
+        boolean parallel = Properties.PARALLEL_RANKING;
+        List<List<Integer>> indexFronts = new ArrayList<>();
+        for (int solution : order) {
+            // fronts are ordered by dominance, so the first front without a dominating solution can be bisected
+            int low = 0;
+            int high = indexFronts.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (isDominatedByFront(solution, indexFronts.get(middle), objectives, parallel)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low == indexFronts.size()) {
+                indexFronts.add(new ArrayList<>());
+            }
+            indexFronts.get(low).add(solution);
+        }
+
+        List<List<T>> result = new ArrayList<>(indexFronts.size());
+        for (List<Integer> front : indexFronts) {
+            Collections.sort(front);
+            List<T> solutionsOfFront = new ArrayList<>(front.size());
+            for (int index : front) {
+                solutionsOfFront.add(solutions.get(index));
+            }
+            result.add(solutionsOfFront);
+        }
+        return result;
+    }
+
+    private static boolean isDominatedByFront(int solution, List<Integer> front, double[][] objectives,
+                                              boolean parallel) {
+        double[] vector = objectives[solution];
+        if (parallel && (long) front.size() * vector.length > PARALLEL_THRESHOLD) {
+            return front.parallelStream().anyMatch(other -> dominates(objectives[other], vector));
+        }
+        // the most recently added solutions are the most likely to dominate
+        for (int i = front.size() - 1; i >= 0; i--) {
+            if (dominates(objectives[front.get(i)], vector)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same relation as {@link org.evosuite.ga.comparators.DominanceComparator}
+     */
+    private static boolean dominates(double[] first, double[] second) {
+        boolean better = false;
+        for (int m = 0; m < first.length; m++) {
+            int flag = Double.compare(first[m], second[m]);
+            if (flag > 0) {
+                return false;
+            } else if (flag < 0) {
+                better = true;
+            }
+        }
+        return better;
+    }
+
+    private static int compareLexicographically(double[] first, double[] second) {
+        for (int m = 0; m < first.length; m++) {
+            int flag = Double.compare(first[m], second[m]);
+            if (flag != 0) {
+                return flag;
+            }
+        }
+        return 0;
+    }
+}
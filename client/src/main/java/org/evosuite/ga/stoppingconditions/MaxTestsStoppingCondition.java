@@ -22,6 +22,8 @@ package org.evosuite.ga.stoppingconditions;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * <p>MaxTestsStoppingCondition class.</p>
  *
@@ -32,9 +34,10 @@ public class MaxTestsStoppingCondition<T extends Chromosome<T>> extends Stopping
     private static final long serialVersionUID = -3375236459377313641L;
 
     /**
-     * Current number of tests
+     * Current number of tests, also counted by the worker threads of a
+     * {@link org.evosuite.testcase.execution.ParallelTestExecutor}
      */
-    protected static long numTests = 0;
+    protected static final AtomicLong numTests = new AtomicLong();
 
     /**
      * Maximum number of evaluations
@@ -60,14 +63,14 @@ public class MaxTestsStoppingCondition<T extends Chromosome<T>> extends Stopping
      * @return a long.
      */
     public static long getNumExecutedTests() {
-        return numTests;
+        return numTests.get();
     }
 
     /**
      * <p>testExecuted</p>
      */
     public static void testExecuted() {
-        numTests++;
+        numTests.incrementAndGet();
     }
 
     /**
@@ -75,7 +78,7 @@ public class MaxTestsStoppingCondition<T extends Chromosome<T>> extends Stopping
      */
     @Override
     public void reset() {
-        numTests = 0;
+        numTests.set(0);
     }
 
     /**
@@ -83,7 +86,7 @@ public class MaxTestsStoppingCondition<T extends Chromosome<T>> extends Stopping
      */
     @Override
     public boolean isFinished() {
-        return numTests >= maxTests;
+        return numTests.get() >= maxTests;
     }
 
     /* (non-Javadoc)
@@ -95,7 +98,7 @@ public class MaxTestsStoppingCondition<T extends Chromosome<T>> extends Stopping
      */
     @Override
     public long getCurrentValue() {
-        return numTests;
+        return numTests.get();
     }
 
     /* (non-Javadoc)
@@ -124,7 +127,7 @@ public class MaxTestsStoppingCondition<T extends Chromosome<T>> extends Stopping
     @Override
     public void forceCurrentValue(long value) {
         // TODO Auto-generated method stub
-        numTests = value;
+        numTests.set(value);
     }
 
 }
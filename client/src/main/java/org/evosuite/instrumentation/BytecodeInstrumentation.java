@@ -33,6 +33,7 @@ import org.evosuite.junit.writer.TestSuiteWriterUtils;
 import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.instrumentation.*;
 import org.evosuite.runtime.util.ComputeClassWriter;
+import org.evosuite.runtime.util.PrefixTrie;
 import org.evosuite.seeding.PrimitiveClassAdapter;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
@@ -60,6 +61,8 @@ public class BytecodeInstrumentation {
 
     private static final Logger logger = LoggerFactory.getLogger(BytecodeInstrumentation.class);
 
+    private static final PrefixTrie evoSuitePackages = new PrefixTrie(getEvoSuitePackages());
+
     private final Instrumenter testCarvingInstrumenter;
 
     /**
@@ -93,12 +96,7 @@ public class BytecodeInstrumentation {
      * @return a boolean.
      */
     public static boolean checkIfEvoSuitePackage(String className) {
-        for (String s : BytecodeInstrumentation.getEvoSuitePackages()) {
-            if (className.startsWith(s)) {
-                return true;
-            }
-        }
-        return false;
+        return evoSuitePackages.matches(className);
     }
 
     /**
@@ -134,6 +132,54 @@ public class BytecodeInstrumentation {
         return TestCluster.isTargetClassName(className);
     }
 
+    /**
+     * Only classes that are instrumented without analysis can be cached, as
+     * for all other classes instrumenting builds the CFGs and branch pools.
+     */
+    private boolean isCacheable(String classNameWithDots) {
+        return !Properties.TEST_CARVING
+                && !Properties.TT
+                && !DependencyAnalysis.shouldAnalyze(classNameWithDots)
+                && !isTargetClassName(classNameWithDots);
+    }
+
+    /**
+     * Transform the given bytecode, reusing a previous transformation from the
+     * {@link InstrumentedBytecodeCache} if possible. On a cache hit the class
+     * adapters are still applied to the original bytecode, as they also
+     * collect information (e.g., constants and final classes), but the costly
+     * computation of the stack map frames is skipped.
+     *
+     * @param classLoader a {@link java.lang.ClassLoader} object.
+     * @param className   a {@link java.lang.String} object.
+     * @param classBytes  the original bytecode of the class
+     * @return an array of byte.
+     */
+    public byte[] transformBytes(ClassLoader classLoader, String className, byte[] classBytes) {
+        InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+        String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
+        if (!cache.isEnabled() || !checkIfCanInstrument(classNameWithDots) || !isCacheable(classNameWithDots)) {
+            return transformBytes(classLoader, className, new ClassReader(classBytes));
+        }
+
+        String key = cache.getKey(className, classBytes);
+        byte[] cached = cache.get(key);
+        if (cached != null) {
+            int readFlags = ClassReader.SKIP_FRAMES;
+            if (Properties.INSTRUMENTATION_SKIP_DEBUG)
+                readFlags |= ClassReader.SKIP_DEBUG;
+
+            TransformationStatistics.reset();
+            ClassVisitor cv = addClassAdapters(classLoader, new ClassWriter(0), className, classNameWithDots);
+            new ClassReader(classBytes).accept(cv, readFlags);
+            return cached;
+        }
+
+        byte[] result = transformBytes(classLoader, className, new ClassReader(classBytes));
+        cache.put(key, result);
+        return result;
+    }
+
     /**
      * <p>
      * transformBytes
@@ -172,6 +218,63 @@ public class BytecodeInstrumentation {
             cv = new TraceClassVisitor(cv, new PrintWriter(System.err));
         }
 
+        cv = addClassAdapters(classLoader, cv, className, classNameWithDots);
+
+        // Testability Transformations
+        if (classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
+                || (!Properties.TARGET_CLASS_PREFIX.isEmpty()
+                && classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
+                || shouldTransform(classNameWithDots)) {
+
+            ClassNode cn = new AnnotatedClassNode();
+            reader.accept(cn, readFlags);
+            logger.info("Starting transformation of " + className);
+
+            if (Properties.STRING_REPLACEMENT) {
+                StringTransformation st = new StringTransformation(cn);
+                if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots))
+                    cn = st.transform();
+            }
+
+            ComparisonTransformation cmp = new ComparisonTransformation(cn);
+            if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots)) {
+                cn = cmp.transform();
+                ContainerTransformation ct = new ContainerTransformation(cn);
+                cn = ct.transform();
+            }
+
+            if (shouldTransform(classNameWithDots)) {
+                logger.info("Testability Transforming " + className);
+
+                BooleanTestabilityTransformation tt = new BooleanTestabilityTransformation(cn, classLoader);
+                try {
+                    cn = tt.transform();
+                } catch (Throwable t) {
+                    throw new Error(t);
+                }
+                logger.info("Testability Transformation done: " + className);
+            }
+
+            // -----
+            cn.accept(cv);
+
+            if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
+                return handleCarving(className, writer);
+            }
+
+        } else {
+            reader.accept(cv, readFlags);
+        }
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Wrap the visitor with all the class adapters that apply to the given
+     * class.
+     */
+    private ClassVisitor addClassAdapters(ClassLoader classLoader, ClassVisitor cv, String className,
+                                          String classNameWithDots) {
         if (Properties.RESET_STATIC_FIELDS) {
             cv = new StaticAccessClassAdapter(cv, className);
         }
@@ -243,53 +346,7 @@ public class BytecodeInstrumentation {
                 cv = new SerialVersionUIDAdder(cv);
         }
 
-        // Testability Transformations
-        if (classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
-                || (!Properties.TARGET_CLASS_PREFIX.isEmpty()
-                && classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
-                || shouldTransform(classNameWithDots)) {
-
-            ClassNode cn = new AnnotatedClassNode();
-            reader.accept(cn, readFlags);
-            logger.info("Starting transformation of " + className);
-
-            if (Properties.STRING_REPLACEMENT) {
-                StringTransformation st = new StringTransformation(cn);
-                if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots))
-                    cn = st.transform();
-            }
-
-            ComparisonTransformation cmp = new ComparisonTransformation(cn);
-            if (isTargetClassName(classNameWithDots) || shouldTransform(classNameWithDots)) {
-                cn = cmp.transform();
-                ContainerTransformation ct = new ContainerTransformation(cn);
-                cn = ct.transform();
-            }
-
-            if (shouldTransform(classNameWithDots)) {
-                logger.info("Testability Transforming " + className);
-
-                BooleanTestabilityTransformation tt = new BooleanTestabilityTransformation(cn, classLoader);
-                try {
-                    cn = tt.transform();
-                } catch (Throwable t) {
-                    throw new Error(t);
-                }
-                logger.info("Testability Transformation done: " + className);
-            }
-
-            // -----
-            cn.accept(cv);
-
-            if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
-                return handleCarving(className, writer);
-            }
-
-        } else {
-            reader.accept(cv, readFlags);
-        }
-
-        return writer.toByteArray();
+        return cv;
     }
 
     private byte[] handleCarving(String className, ClassWriter writer) {
@@ -31,8 +31,8 @@ import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 
 /**
  * This visitor inserts a callback to at the exit of each <clinit>() method
- * (i.e. after class initialization has ended). If the class has no static
- * fields, no callback is inserted.
+ * (i.e. after class initialization has ended), and one at its entry. If the
+ * class has no static fields, no callback is inserted.
  *
  * @author galeotti
  */
@@ -86,6 +86,13 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
         public void visitCode() {
             super.visitCode();
             if (methodName.equals("<clinit>")) {
+                String executionTracerClassName = ExecutionTracer.class.getName().replace('.', '/');
+                String executionTracerDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class));
+
+                String classNameWithDots = className.replace('/', '.');
+                super.visitLdcInsn(classNameWithDots);
+                super.visitMethodInsn(INVOKESTATIC, executionTracerClassName, ENTER_CLASS_INIT,
+                        executionTracerDescriptor, false);
 
                 startingTryLabel = new Label();
                 endingTryLabel = new Label();
@@ -175,6 +182,8 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
     private boolean clinitFound = false;
     private boolean hasStaticFields = false;
 
+    private static final String ENTER_CLASS_INIT = "enterClassInit";
+
     private static final String EXIT_CLASS_INIT = "exitClassInit";
 
     @Override
@@ -216,6 +225,8 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 
         String classNameWithDots = className.replace('/', '.');
         mv.visitLdcInsn(classNameWithDots);
+        mv.visitMethodInsn(INVOKESTATIC, executionTracerClassName, ENTER_CLASS_INIT, executionTracerDescriptor, false);
+        mv.visitLdcInsn(classNameWithDots);
         mv.visitMethodInsn(INVOKESTATIC, executionTracerClassName, EXIT_CLASS_INIT, executionTracerDescriptor, false);
 
         mv.visitInsn(Opcodes.RETURN);
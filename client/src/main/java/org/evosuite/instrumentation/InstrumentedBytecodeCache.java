@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.evosuite.Properties;
+import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.runtime.RuntimeSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content addressed cache of instrumented bytecode in
+ * {@link Properties#INSTRUMENTATION_CACHE_DIR}, shared by all the processes
+ * using the same folder (e.g., the jobs of CTG).
+ * <p>
+ * An entry is identified by the SHA-256 of the original bytecode, the
+ * criteria, the classpath and all the settings that influence the
+ * instrumentation of a class. Entries are written to a temporary file first
+ * and then atomically moved in place, so concurrent readers either see a
+ * complete entry or none at all.
+ */
+public class InstrumentedBytecodeCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedBytecodeCache.class);
+
+    /**
+     * Has to be increased whenever the instrumentation changes in a way that
+     * is not reflected by the settings in the key
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    private static final String SUFFIX = ".class";
+
+    private static InstrumentedBytecodeCache instance = null;
+
+    private final AtomicInteger hits = new AtomicInteger(0);
+
+    private final AtomicInteger misses = new AtomicInteger(0);
+
+    private InstrumentedBytecodeCache() {
+    }
+
+    public static synchronized InstrumentedBytecodeCache getInstance() {
+        if (instance == null)
+            instance = new InstrumentedBytecodeCache();
+        return instance;
+    }
+
+    public static synchronized void resetSingleton() {
+        instance = null;
+    }
+
+    public boolean isEnabled() {
+        return Properties.INSTRUMENTATION_CACHE_DIR != null && !Properties.INSTRUMENTATION_CACHE_DIR.isEmpty();
+    }
+
+    /**
+     * @param className  name of the class in internal form
+     * @param classBytes the original bytecode of the class
+     * @return the key of the entry for the instrumented version of the class
+     */
+    public String getKey(String className, byte[] classBytes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(getSettings(className).getBytes(StandardCharsets.UTF_8));
+        digest.update(classBytes);
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    private static String getSettings(String className) {
+        return FORMAT_VERSION
+                + ";" + InstrumentedBytecodeCache.class.getPackage().getImplementationVersion()
+                + ";" + className
+                + ";" + Arrays.toString(Properties.CRITERION)
+                + ";" + Properties.CP
+                + ";" + Properties.INSTRUMENTATION_SKIP_DEBUG
+                + ";" + Properties.RESET_STATIC_FIELDS
+                + ";" + Properties.RESET_STATIC_FINAL_FIELDS
+                + ";" + Properties.PURE_INSPECTORS
+                + ";" + Properties.MAX_LOOP_ITERATIONS
+                + ";" + Properties.MAKE_ACCESSIBLE
+                + ";" + TestSuiteWriterUtils.needToUseAgent()
+                + ";" + RuntimeSettings.applyUIDTransformation
+                + ";" + RuntimeSettings.mockJVMNonDeterminism
+                + ";" + RuntimeSettings.mockSystemIn
+                + ";" + RuntimeSettings.mockGUI
+                + ";" + RuntimeSettings.useVFS
+                + ";" + RuntimeSettings.useVNET
+                + ";" + RuntimeSettings.useJEE
+                + ";" + RuntimeSettings.resetStaticState
+                + ";" + RuntimeSettings.maxNumberOfIterationsPerLoop;
+    }
+
+    /**
+     * @return the cached bytecode, or null if there is no entry for the key
+     */
+    public byte[] get(String key) {
+        Path entry = getEntry(key);
+        try {
+            byte[] bytes = Files.readAllBytes(entry);
+            hits.incrementAndGet();
+            return bytes;
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            logger.warn("Cannot read cached bytecode from " + entry + ": " + e);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    public void put(String key, byte[] bytes) {
+        Path entry = getEntry(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            tmp = Files.createTempFile(entry.getParent(), key, ".tmp");
+            Files.write(tmp, bytes);
+            try {
+                Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot write cached bytecode to " + entry + ": " + e);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // nothing else we can do
+                }
+            }
+        }
+    }
+
+    private static Path getEntry(String key) {
+        // two levels, to avoid too many files in a single folder
+        return new File(Properties.INSTRUMENTATION_CACHE_DIR).toPath()
+                .resolve(key.substring(0, 2))
+                .resolve(key + SUFFIX);
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+}
@@ -19,14 +19,15 @@
  */
 package org.evosuite.instrumentation;
 
+import org.apache.commons.io.IOUtils;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.classpath.ResourceList;
 import org.evosuite.runtime.instrumentation.RuntimeInstrumentation;
-import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -82,18 +83,8 @@ public class InstrumentingClassLoader extends ClassLoader {
 
 
     public Class<?> loadClassFromFile(String fullyQualifiedTargetClass, String fileName) throws ClassNotFoundException {
-
-        String className = fullyQualifiedTargetClass.replace('.', '/');
-
         try (InputStream is = new FileInputStream(new File(fileName))) {
-
-            byte[] byteBuffer = getTransformedBytes(className, is);
-
-            createPackageDefinition(fullyQualifiedTargetClass);
-            Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
-
-            classes.put(fullyQualifiedTargetClass, result);
-
+            Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
             logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from " + fileName);
             return result;
         } catch (Throwable t) {
@@ -102,6 +93,31 @@ public class InstrumentingClassLoader extends ClassLoader {
         }
     }
 
+    /**
+     * Load a class from its bytecode, eg compiled in memory
+     */
+    public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytes) throws ClassNotFoundException {
+        try (InputStream is = new ByteArrayInputStream(bytes)) {
+            Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
+            logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from memory");
+            return result;
+        } catch (Throwable t) {
+            logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+            throw new ClassNotFoundException(t.getMessage(), t);
+        }
+    }
+
+    private Class<?> defineClassFromStream(String fullyQualifiedTargetClass, InputStream is) throws IOException {
+        String className = fullyQualifiedTargetClass.replace('.', '/');
+        byte[] byteBuffer = getTransformedBytes(className, is);
+
+        createPackageDefinition(fullyQualifiedTargetClass);
+        Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+
+        classes.put(fullyQualifiedTargetClass, result);
+        return result;
+    }
+
     @Override
     public Class<?> loadClass(String name) throws ClassNotFoundException {
         synchronized (getClassLoadingLock(name)) {
@@ -132,7 +148,7 @@ public class InstrumentingClassLoader extends ClassLoader {
 
     //This is needed, as it is overridden in subclasses
     protected byte[] getTransformedBytes(String className, InputStream is) throws IOException {
-        return instrumentation.transformBytes(this, className, new ClassReader(is));
+        return instrumentation.transformBytes(this, className, IOUtils.toByteArray(is));
     }
 
     private Class<?> instrumentClass(String fullyQualifiedTargetClass) throws ClassNotFoundException {
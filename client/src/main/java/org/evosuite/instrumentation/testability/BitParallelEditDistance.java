@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation.testability;
+
+import java.util.Arrays;
+
+/**
+ * Levenshtein distance computed with the bit-parallel algorithm of Myers
+ * (A fast bit-vector algorithm for approximate string matching based on
+ * dynamic programming, JACM 1999), as formulated by Hyyrö for the edit
+ * distance of two whole strings.
+ * <p>
+ * The columns of the dynamic programming matrix are encoded as bit vectors
+ * of vertical deltas, so that a whole column is computed with a handful of
+ * word operations. The shorter string is encoded in one word if it has up
+ * to 64 characters, and otherwise in blocks of 64 characters, passing the
+ * horizontal delta from one block to the next.
+ * <p>
+ * The scratch buffers are kept per thread, as this is called by
+ * instrumented code of the SUT on each string comparison.
+ */
+final class BitParallelEditDistance {
+
+    private static final int WORD_SIZE = 64;
+
+    private static final ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(Scratch::new);
+
+    private BitParallelEditDistance() {
+    }
+
+    /**
+     * @param s   a string
+     * @param t   a string
+     * @param max the largest distance of interest
+     * @return the edit distance between s and t if it is at most max,
+     * and otherwise some value larger than max
+     */
+    static int distance(String s, String t, int max) {
+        // common prefixes and suffixes do not change the distance
+        int start = 0;
+        int sEnd = s.length();
+        int tEnd = t.length();
+        while (start < sEnd && start < tEnd && s.charAt(start) == t.charAt(start)) {
+            start++;
+        }
+        while (sEnd > start && tEnd > start && s.charAt(sEnd - 1) == t.charAt(tEnd - 1)) {
+            sEnd--;
+            tEnd--;
+        }
+
+        // the shorter string is the one encoded in the bit vectors
+        final String pattern;
+        final String text;
+        final int m;
+        final int n;
+        if (sEnd <= tEnd) {
+            pattern = s;
+            m = sEnd - start;
+            text = t;
+            n = tEnd - start;
+        } else {
+            pattern = t;
+            m = tEnd - start;
+            text = s;
+            n = sEnd - start;
+        }
+
+        // the distance is at least the difference in length
+        if (m == 0 || n - m > max) {
+            return n - m;
+        }
+
+        Scratch scratch = scratches.get();
+        scratch.encode(pattern, start, m);
+        try {
+            if (m <= WORD_SIZE) {
+                return distanceOneWord(scratch, text, start, m, n, max);
+            } else {
+                return distanceBlocks(scratch, text, start, m, n, max);
+            }
+        } finally {
+            scratch.clear(pattern, start, m);
+        }
+    }
+
+    private static int distanceOneWord(Scratch scratch, String text, int start, int m, int n, int max) {
+        final long last = 1L << (m - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = m;
+
+        for (int j = 0; j < n; j++) {
+            final long eq = scratch.getMask(scratch.findSlot(text.charAt(start + j)), 0);
+            final long xv = eq | mv;
+            final long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score++;
+            } else if ((mh & last) != 0) {
+                score--;
+            }
+            // first row of the matrix is 0,1,2,..., ie positive horizontal delta
+            ph = (ph << 1) | 1L;
+            mh = mh << 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+
+            // each remaining character can decrease the distance by at most 1
+            final int bound = score - (n - j - 1);
+            if (bound > max) {
+                return bound;
+            }
+        }
+        return score;
+    }
+
+    private static int distanceBlocks(Scratch scratch, String text, int start, int m, int n, int max) {
+        final int blocks = (m + WORD_SIZE - 1) / WORD_SIZE;
+        final long last = 1L << ((m - 1) % WORD_SIZE);
+        final long[] pvs = scratch.getVerticalPositives(blocks);
+        final long[] mvs = scratch.getVerticalNegatives(blocks);
+        int score = m;
+
+        for (int j = 0; j < n; j++) {
+            final int slot = scratch.findSlot(text.charAt(start + j));
+            int hin = 1;
+            for (int b = 0; b < blocks; b++) {
+                long eq = scratch.getMask(slot, b);
+                final long pv = pvs[b];
+                final long mv = mvs[b];
+                final long xv = eq | mv;
+                if (hin < 0) {
+                    eq |= 1L;
+                }
+                final long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+
+                final long high = b == blocks - 1 ? last : Long.MIN_VALUE;
+                final int hout;
+                if ((ph & high) != 0) {
+                    hout = 1;
+                } else if ((mh & high) != 0) {
+                    hout = -1;
+                } else {
+                    hout = 0;
+                }
+
+                ph <<= 1;
+                mh <<= 1;
+                if (hin < 0) {
+                    mh |= 1L;
+                } else if (hin > 0) {
+                    ph |= 1L;
+                }
+                pvs[b] = mh | ~(xv | ph);
+                mvs[b] = ph & xv;
+                hin = hout;
+            }
+            score += hin;
+
+            final int bound = score - (n - j - 1);
+            if (bound > max) {
+                return bound;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * For each character of the pattern, the bit mask of its positions,
+     * in an open addressing table keyed by character
+     */
+    private static final class Scratch {
+
+        private int[] keys = new int[128];
+
+        private long[] masks = new long[128];
+
+        private int blocks = 1;
+
+        private int slotMask = 127;
+
+        private long[] verticalPositives = new long[0];
+
+        private long[] verticalNegatives = new long[0];
+
+        void encode(String pattern, int start, int m) {
+            blocks = (m + WORD_SIZE - 1) / WORD_SIZE;
+            // at most half of the slots are used, so there is always an empty one
+            int slots = Math.max(128, Integer.highestOneBit(2 * m - 1) << 1);
+            if (keys.length < slots) {
+                keys = new int[slots];
+            }
+            slotMask = slots - 1;
+            if (masks.length < slots * blocks) {
+                masks = new long[slots * blocks];
+            }
+            for (int i = 0; i < m; i++) {
+                int slot = getSlot(pattern.charAt(start + i));
+                masks[slot * blocks + i / WORD_SIZE] |= 1L << (i % WORD_SIZE);
+            }
+        }
+
+        void clear(String pattern, int start, int m) {
+            for (int i = 0; i < m; i++) {
+                int slot = findSlot(pattern.charAt(start + i));
+                if (slot >= 0) {
+                    keys[slot] = 0;
+                    for (int b = 0; b < blocks; b++) {
+                        masks[slot * blocks + b] = 0L;
+                    }
+                }
+            }
+        }
+
+        private int getSlot(char c) {
+            int slot = c & slotMask;
+            while (keys[slot] != 0 && keys[slot] != c + 1) {
+                slot = (slot + 1) & slotMask;
+            }
+            keys[slot] = c + 1;
+            return slot;
+        }
+
+        /**
+         * @return the slot of the character, or -1 if it is not in the pattern
+         */
+        int findSlot(char c) {
+            int slot = c & slotMask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == c + 1) {
+                    return slot;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+            return -1;
+        }
+
+        long getMask(int slot, int block) {
+            return slot < 0 ? 0L : masks[slot * blocks + block];
+        }
+
+        long[] getVerticalPositives(int blocks) {
+            if (verticalPositives.length < blocks) {
+                verticalPositives = new long[blocks];
+            }
+            Arrays.fill(verticalPositives, 0, blocks, -1L);
+            return verticalPositives;
+        }
+
+        long[] getVerticalNegatives(int blocks) {
+            if (verticalNegatives.length < blocks) {
+                verticalNegatives = new long[blocks];
+            }
+            Arrays.fill(verticalNegatives, 0, blocks, 0L);
+            return verticalNegatives;
+        }
+    }
+}
@@ -77,8 +77,10 @@ public class ContainerHelper {
                                             - n2.doubleValue()));
                         } else if (o2 instanceof String) {
                             ConstantPoolManager.getInstance().addDynamicConstant(o1);
+                            // distances larger than the current minimum are not of interest
+                            int max = (int) Math.min(min_distance, Integer.MAX_VALUE);
                             min_distance = Math.min(min_distance,
-                                    StringHelper.editDistance((String) o1, (String) o2));
+                                    StringHelper.editDistance((String) o1, (String) o2, max));
                         }
                     }
                 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the sources of generated test suites without writing either
+ * the sources or the bytecode to disk. The system Java compiler and its
+ * file manager are created once and reused for all compilations.
+ */
+public class InMemoryCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryCompiler.class);
+
+    private static InMemoryCompiler instance = null;
+
+    private final JavaCompiler compiler;
+
+    private final StandardJavaFileManager standardFileManager;
+
+    private InMemoryCompiler() {
+        compiler = ToolProvider.getSystemJavaCompiler();
+        standardFileManager = compiler == null ? null
+                : compiler.getStandardFileManager(null, Locale.getDefault(), StandardCharsets.UTF_8);
+    }
+
+    public static synchronized InMemoryCompiler getInstance() {
+        if (instance == null) {
+            instance = new InMemoryCompiler();
+        }
+        return instance;
+    }
+
+    /**
+     * @return whether a Java compiler is available, ie EvoSuite runs on a JDK
+     */
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    /**
+     * Compile all the given classes in a single compilation task
+     *
+     * @param packageName the package of all the classes, possibly empty
+     * @param sources     the source code of each class, by simple class name
+     * @param classpath   the classpath to compile against
+     * @return the outcome of the compilation
+     */
+    public synchronized Result compile(String packageName, Map<String, String> sources, String classpath) {
+        if (compiler == null) {
+            throw new IllegalStateException("No Java compiler is available");
+        }
+
+        String prefix = packageName.isEmpty() ? "" : packageName + ".";
+        Map<JavaFileObject, String> compilationUnits = new LinkedHashMap<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            compilationUnits.put(new SourceFile(prefix + source.getKey(), source.getValue()), source.getKey());
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        MemoryFileManager fileManager = new MemoryFileManager(standardFileManager);
+        List<String> options = new ArrayList<>();
+        options.add("-classpath");
+        options.add(classpath);
+        boolean compiled;
+        try {
+            compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    compilationUnits.keySet()).call();
+        } catch (RuntimeException e) {
+            // the compiler itself can crash on some inputs
+            logger.error("Failed to run the Java compiler: " + e, e);
+            compiled = false;
+        }
+
+        Result result = new Result(compiled, fileManager.classes);
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+                continue;
+            }
+            result.errors.add(diagnostic);
+            String className = compilationUnits.get(diagnostic.getSource());
+            if (className != null) {
+                result.classesWithErrors.add(className);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Outcome of the compilation of a set of classes
+     */
+    public static class Result {
+
+        private final boolean success;
+
+        private final Map<String, byte[]> classes;
+
+        private final List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+
+        private final Set<String> classesWithErrors = new LinkedHashSet<>();
+
+        private Result(boolean success, Map<String, byte[]> classes) {
+            this.success = success;
+            this.classes = classes;
+        }
+
+        public boolean isSuccessful() {
+            return success;
+        }
+
+        /**
+         * @return the bytecode of all compiled classes, including nested ones, by binary name
+         */
+        public Map<String, byte[]> getClasses() {
+            return Collections.unmodifiableMap(classes);
+        }
+
+        public List<Diagnostic<? extends JavaFileObject>> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        /**
+         * @return the simple names of the given classes whose source has compilation errors
+         */
+        public Set<String> getClassesWithErrors() {
+            return Collections.unmodifiableSet(classesWithErrors);
+        }
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String code;
+
+        SourceFile(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    private static class ClassFile extends SimpleJavaFileObject {
+
+        private final String className;
+
+        private final Map<String, byte[]> classes;
+
+        ClassFile(String className, Map<String, byte[]> classes) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.classes = classes;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    classes.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    /**
+     * Reads the classpath through the standard file manager, but keeps the compiled classes in memory
+     */
+    private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, byte[]> classes = new LinkedHashMap<>();
+
+        MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(JavaFileManager.Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            return new ClassFile(className, classes);
+        }
+
+        @Override
+        public void close() {
+            // the standard file manager is shared among compilations
+        }
+    }
+}
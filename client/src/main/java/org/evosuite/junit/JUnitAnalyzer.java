@@ -22,6 +22,7 @@ package org.evosuite.junit;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.evosuite.Properties;
+import org.evosuite.Properties.OutputGranularity;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.TimeController;
 import org.evosuite.classpath.ClassPathHandler;
@@ -42,12 +43,9 @@ import org.junit.runner.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.tools.*;
-import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -66,9 +64,6 @@ public abstract class JUnitAnalyzer {
 
     private static int dirCounter = 0;
 
-    private static final String JAVA = ".java";
-    private static final String CLASS = ".class";
-
     private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 
     private static final VersionDependentAnalyzing versionDependentAnalyzer;
@@ -92,44 +87,66 @@ public abstract class JUnitAnalyzer {
             return;
         }
 
-        Iterator<TestCase> iter = tests.iterator();
-
-        while (iter.hasNext()) {
+        /*
+         * All the tests are compiled at once, but each one in its own class, so that
+         * compilation errors can be traced back to the tests causing them. As the compiler
+         * might not report all errors in one go, we compile the remaining tests again
+         * until they all compile.
+         */
+        List<TestCase> remaining = new ArrayList<>(tests);
+        while (!remaining.isEmpty()) {
             if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
                 break;
             }
 
-            TestCase test = iter.next();
-
-            File dir = createNewTmpDir();
-            if (dir == null) {
-                logger.warn("Failed to create tmp dir");
+            String name = getNewTestSuiteName();
+            InMemoryCompiler.Result result = compileTests(remaining, name, OutputGranularity.TESTCASE);
+            if (result == null) {
                 return;
             }
-            logger.debug("Created tmp folder: " + dir.getAbsolutePath());
+            if (result.isSuccessful()) {
+                break;
+            }
 
-            try {
-                List<TestCase> singleList = new ArrayList<>();
-                singleList.add(test);
-                List<File> generated = compileTests(singleList, dir);
-                if (generated == null) {
-                    iter.remove();
-                    String code = test.toCode();
-                    logger.error("Failed to compile test case:\n" + code);
-                }
-            } finally {
-                //let's be sure we clean up all what we wrote on disk
-                if (dir != null) {
-                    try {
-                        FileUtils.deleteDirectory(dir);
-                        logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-                    } catch (Exception e) {
-                        logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
-                    }
+            List<TestCase> failing = new ArrayList<>();
+            for (int i = 0; i < remaining.size(); i++) {
+                if (result.getClassesWithErrors().contains(name + "_" + i)) {
+                    failing.add(remaining.get(i));
                 }
             }
 
-        } // end of while
+            if (failing.isEmpty()) {
+                // eg, the scaffolding does not compile: each test has to be checked on its own
+                removeTestsThatDoNotCompileOneByOne(tests, remaining);
+                return;
+            }
+
+            for (TestCase test : failing) {
+                removeTest(tests, test);
+                removeTest(remaining, test);
+                logger.error("Failed to compile test case:\n" + test.toCode());
+            }
+        }
+    }
+
+    private static void removeTestsThatDoNotCompileOneByOne(List<TestCase> tests, List<TestCase> toCheck) {
+        for (TestCase test : toCheck) {
+            if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+                break;
+            }
+
+            InMemoryCompiler.Result result = compileTests(Collections.singletonList(test), getNewTestSuiteName(),
+                    Properties.OUTPUT_GRANULARITY);
+            if (result != null && !result.isSuccessful()) {
+                removeTest(tests, test);
+                logger.error("Failed to compile test case:\n" + test.toCode());
+            }
+        }
+    }
+
+    private static void removeTest(List<TestCase> tests, TestCase test) {
+        // tests are compared by identity, as different tests can be equal
+        tests.removeIf(t -> t == test);
     }
 
     /**
@@ -152,16 +169,9 @@ public abstract class JUnitAnalyzer {
             return numUnstable;
         }
 
-        File dir = createNewTmpDir();
-        if (dir == null) {
-            logger.error("Failed to create tmp dir");
-            return numUnstable;
-        }
-        logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
         try {
-            List<File> generated = compileTests(tests, dir);
-            if (generated == null) {
+            InMemoryCompiler.Result compiled = compileTests(tests, getNewTestSuiteName(), Properties.OUTPUT_GRANULARITY);
+            if (compiled == null || !compiled.isSuccessful()) {
                 /*
                  * Note: in theory this shouldn't really happen, as check for compilation
                  * is done before calling this method
@@ -177,14 +187,14 @@ public abstract class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
             loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(compiled.getClasses());
 
             if (testClasses == null) {
                 logger.error("Found no classes for compiled tests");
                 return numUnstable;
             }
 
-            JUnitResult result = runTests(testClasses, dir);
+            JUnitResult result = runTests(testClasses);
 
             if (result.wasSuccessful()) {
                 return numUnstable; //everything is OK
@@ -264,24 +274,13 @@ public abstract class JUnitAnalyzer {
         } catch (Exception e) {
             logger.error("" + e, e);
             return numUnstable;
-        } finally {
-            //let's be sure we clean up all what we wrote on disk
-
-            if (dir != null) {
-                try {
-                    FileUtils.deleteDirectory(dir);
-                } catch (Exception e) {
-                    logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-                }
-            }
-
         }
 
         //if we arrive here, then it means at least one test was unstable
         return numUnstable;
     }
 
-    private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
+    private static JUnitResult runTests(Class<?>[] testClasses)
             throws JUnitExecutionException {
         return runJUnitOnCurrentProcess(testClasses);
     }
@@ -297,106 +296,80 @@ public abstract class JUnitAnalyzer {
      * @return
      */
     public static boolean isJavaCompilerAvailable() {
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        return compiler != null;
+        return InMemoryCompiler.getInstance().isAvailable();
     }
 
     // We have to have a unique name for this test suite as it is loaded by the
     // EvoSuite classloader, and thus cannot easily be re-loaded
     private static int NUM = 0;
 
-    private static List<File> compileTests(List<TestCase> tests, File dir) {
-
-        TestSuiteWriter suite = new TestSuiteWriter();
-        suite.insertAllTests(tests);
-
+    private static String getNewTestSuiteName() {
         //to get name, remove all package before last '.'
         int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
         String name = Properties.TARGET_CLASS.substring(beginIndex);
         name += "_" + (NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX; //postfix
+        return name;
+    }
 
-        try {
-            //now generate the JUnit test case
-            List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-            for (File file : generated) {
-                if (!file.exists()) {
-                    logger.error("Supposed to generate " + file
-                            + " but it does not exist");
-                    return null;
-                }
-            }
-
-            //try to compile the test cases
-            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-            if (compiler == null) {
-                logger.error("No Java compiler is available");
-                return null;
-            }
+    /**
+     * Generate the JUnit test suite for the tests, and compile it in memory
+     *
+     * @return the result of the compilation, or null if the compiler could not be run
+     */
+    private static InMemoryCompiler.Result compileTests(List<TestCase> tests, String name,
+                                                        OutputGranularity granularity) {
 
-            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-            Locale locale = Locale.getDefault();
-            Charset charset = StandardCharsets.UTF_8;
-            StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-                    locale,
-                    charset);
+        InMemoryCompiler compiler = InMemoryCompiler.getInstance();
+        if (!compiler.isAvailable()) {
+            logger.error("No Java compiler is available");
+            return null;
+        }
 
-            Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
+        TestSuiteWriter suite = new TestSuiteWriter();
+        suite.insertAllTests(tests);
 
-            String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
-            if (JarPathing.containsAPathingJar(evosuiteCP)) {
-                evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
-            }
+        //now generate the JUnit test case
+        Map<String, String> sources = suite.generateTestSuite(name, Collections.emptyList(), granularity);
 
-            String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-            if (JarPathing.containsAPathingJar(targetProjectCP)) {
-                targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
-            }
+        String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+        if (JarPathing.containsAPathingJar(evosuiteCP)) {
+            evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+        }
 
-            String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
+        String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        if (JarPathing.containsAPathingJar(targetProjectCP)) {
+            targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+        }
 
-            List<String> optionList = new ArrayList<>(Arrays.asList("-classpath", classpath));
+        String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
 
-            CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
-                    optionList, null, compilationUnits);
-            boolean compiled = task.call();
-            fileManager.close();
+        //try to compile the test cases
+        InMemoryCompiler.Result result = compiler.compile(Properties.CLASS_PREFIX, sources, classpath);
 
-            if (!compiled) {
-                logger.error("Compilation failed on compilation units: " + compilationUnits);
-                logger.error("Classpath: " + classpath);
-                //TODO remove
-                logger.error("evosuiteCP: " + evosuiteCP);
+        if (!result.isSuccessful()) {
+            logger.error("Compilation failed on compilation units: " + sources.keySet());
+            logger.error("Classpath: " + classpath);
 
+            for (Diagnostic<? extends JavaFileObject> diagnostic : result.getErrors()) {
+                logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
+                        + diagnostic.getLineNumber());
+            }
 
-                for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-                    if (diagnostic.getMessage(null).startsWith("error while writing")) {
-                        logger.error("Error is due to file permissions, ignoring...");
-                        return generated;
-                    }
-                    logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
-                            + diagnostic.getLineNumber());
+            StringBuilder buffer = new StringBuilder();
+            for (Map.Entry<String, String> source : sources.entrySet()) {
+                if (!result.getClassesWithErrors().contains(source.getKey())) {
+                    continue;
                 }
-
-                StringBuffer buffer = new StringBuffer();
-                for (JavaFileObject sourceFile : compilationUnits) {
-                    List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
-
-                    buffer.append(compilationUnits.iterator().next().toString() + "\n");
-
-                    for (int i = 0; i < lines.size(); i++) {
-                        buffer.append((i + 1) + ": " + lines.get(i) + "\n");
-                    }
+                buffer.append(source.getKey()).append("\n");
+                String[] lines = source.getValue().split("\\r?\\n");
+                for (int i = 0; i < lines.length; i++) {
+                    buffer.append(i + 1).append(": ").append(lines[i]).append("\n");
                 }
-                logger.error(buffer.toString());
-                return null;
             }
-
-            return generated;
-
-        } catch (IOException e) {
-            logger.error("" + e, e);
-            return null;
+            logger.error(buffer.toString());
         }
+
+        return result;
     }
 
     protected static File createNewTmpDir() {
@@ -420,7 +393,7 @@ public abstract class JUnitAnalyzer {
         return dir;
     }
 
-    private static Class<?>[] loadTests(List<File> tests) {
+    private static Class<?>[] loadTests(Map<String, byte[]> compiled) {
 
         /*
          * Ideally, when we run a generated test case, it
@@ -434,67 +407,32 @@ public abstract class JUnitAnalyzer {
          * non-instrumenting classloader to re-load the CUT, and so see
          * if the JavaAgent works properly.
          */
-        Class<?>[] testClasses = getClassesFromFiles(tests);
-        List<File> otherClasses = listOnlyFiles(tests);
+
         /*
-         * this is important to force the loading of all files generated
-         * in the target folder.
-         * If we do not do that, then we will miss all the anonymous classes
+         * first load only the scaffolding classes, as the tests depend on them
          */
-        getClassesFromFiles(otherClasses);
-
-        return testClasses;
-    }
-
-    private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException {
-        if (tests == null || tests.isEmpty()) {
-            return null;
-        }
-
-        Set<String> classNames = new LinkedHashSet<>();
-
-        File parentFolder = tests.get(0).getParentFile();
-        for (File file : tests) {
-            if (!file.getParentFile().equals(parentFolder)) {
-                throw new IllegalArgumentException("Tests file are not in the same folder");
+        for (Map.Entry<String, byte[]> entry : compiled.entrySet()) {
+            if (isScaffolding(entry.getKey())) {
+                loadClass(entry.getKey(), entry.getValue());
             }
-            classNames.add(removeFileExtension(file.getName()));
         }
 
-        /*
-         * if we already loaded a CUT due to its .java, do not want
-         * to re-loaded it for a .class file that is in the same folder
-         */
-
-        List<File> otherClasses = new LinkedList<>();
-
-        for (File file : parentFolder.listFiles()) {
-            String name = removeFileExtension(file.getName());
-
-            if (classNames.contains(name)) {
+        List<Class<?>> classes = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : compiled.entrySet()) {
+            if (isScaffolding(entry.getKey())) {
                 continue;
             }
-
-            classNames.add(name);
-            otherClasses.add(file);
-        }
-
-        return otherClasses;
-    }
-
-
-    private static String removeFileExtension(String str) {
-        if (str == null) {
-            return null;
-        }
-
-        int pos = str.lastIndexOf(".");
-
-        if (pos == -1) {
-            return str;
+            /*
+             * this is important to force the loading of all the compiled classes.
+             * If we do not do that, then we will miss all the anonymous classes
+             */
+            Class<?> clazz = loadClass(entry.getKey(), entry.getValue());
+            if (clazz != null && !entry.getKey().contains("$")) {
+                classes.add(clazz);
+            }
         }
 
-        return str.substring(0, pos);
+        return classes.toArray(new Class<?>[classes.size()]);
     }
 
     /**
@@ -522,29 +460,23 @@ public abstract class JUnitAnalyzer {
             return true;
         }
 
-        File dir = createNewTmpDir();
-        if (dir == null) {
-            logger.warn("Failed to create tmp dir");
-            return false;
-        }
-
         try {
-            List<File> generated = compileTests(tests, dir);
-            if (generated == null) {
+            InMemoryCompiler.Result compiled = compileTests(tests, getNewTestSuiteName(), Properties.OUTPUT_GRANULARITY);
+            if (compiled == null || !compiled.isSuccessful()) {
                 logger.warn("Failed to compile the test cases ");
                 return false;
             }
 
             //as last step, execute the generated/compiled test cases
 
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(compiled.getClasses());
 
             if (testClasses == null) {
                 logger.error("Found no classes for compiled tests");
                 return false;
             }
 
-            JUnitResult result = runTests(testClasses, dir);
+            JUnitResult result = runTests(testClasses);
 
             if (!result.wasSuccessful()) {
                 logger.error("" + result.getFailureCount() + " test cases failed");
@@ -568,15 +500,6 @@ public abstract class JUnitAnalyzer {
         } catch (Exception e) {
             logger.error("" + e, e);
             return false;
-        } finally {
-            //let's be sure we clean up all what we wrote on disk
-            if (dir != null) {
-                try {
-                    FileUtils.deleteDirectory(dir);
-                } catch (IOException e) {
-                    logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-                }
-            }
         }
 
         logger.debug("Successfully compiled and run test cases generated for "
@@ -584,89 +507,17 @@ public abstract class JUnitAnalyzer {
         return true;
     }
 
-    /**
-     * Given a list of files representing .java/.class classes, load them (it
-     * assumes the classpath to be correctly set)
-     *
-     * @param files
-     * @return
-     */
-    private static Class<?>[] getClassesFromFiles(Collection<File> files) {
-        /*
-         * first load only the scaffolding files
-         */
-        for (File file : files) {
-            if (!isScaffolding(file)) {
-                continue;
-            }
-            loadClass(file);
-        }
-
-        List<Class<?>> classes = new ArrayList<>();
-
-        /*
-         * once the scaffoldings are loaded, we can load the tests that
-         * depend on them
-         */
-        for (File file : files) {
-            if (isScaffolding(file)) {
-                continue;
-            }
-            Class<?> clazz = loadClass(file);
-            if (clazz != null) {
-                classes.add(clazz);
-            }
-        }
-
-        return classes.toArray(new Class<?>[classes.size()]);
-    }
-
-    private static boolean isScaffolding(File file) {
-        String name = file.getName();
-        return name.endsWith("_" + Properties.SCAFFOLDING_SUFFIX + JAVA) ||
-                name.endsWith("_" + Properties.SCAFFOLDING_SUFFIX + CLASS);
+    private static boolean isScaffolding(String className) {
+        return className.endsWith("_" + Properties.SCAFFOLDING_SUFFIX);
     }
 
-    private static Class<?> loadClass(File file) {
-        if (!file.isFile()) {
-            return null;
-        }
-
-        String packagePrefix = Properties.CLASS_PREFIX;
-        if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-            packagePrefix += ".";
-        }
-
-        String name = file.getName();
-
-        if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-            /*
-             * this could happen when we scan a folder for all src/compiled
-             * files
-             */
-            return null;
-        }
-
-        String fileName = file.getAbsolutePath();
-
-        if (name.endsWith(JAVA)) {
-            name = name.substring(0, name.length() - JAVA.length());
-            fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-        } else {
-            assert name.endsWith(CLASS);
-            name = name.substring(0, name.length() - CLASS.length());
-        }
-
-        String className = packagePrefix + name;
-
+    private static Class<?> loadClass(String className, byte[] bytes) {
         Class<?> testClass = null;
         try {
             logger.info("Loading class " + className);
-            //testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-            testClass = loader.loadClassFromFile(className, fileName);
+            testClass = loader.loadClassFromBytes(className, bytes);
         } catch (ClassNotFoundException e) {
-            logger.error("Failed to load test case " + className + " from file "
-                    + file.getAbsolutePath() + " , error " + e, e);
+            logger.error("Failed to load test case " + className + " , error " + e, e);
         }
         return testClass;
     }
@@ -156,7 +156,8 @@ public class Scaffolding {
             list.add(adapter.afterEach().getCanonicalName());
         }
 
-        if (wasSecurityException || TestSuiteWriterUtils.shouldResetProperties(results)) {
+        // same condition as in generateAfterClass
+        if (Properties.RESET_STATIC_FIELDS || wasSecurityException || TestSuiteWriterUtils.shouldResetProperties(results)) {
             list.add(getAdapter().afterAll().getCanonicalName());
         }
 
@@ -19,185 +19,316 @@
  */
 package org.evosuite.lm;
 
-import java.io.*;
-import java.util.Comparator;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Represents a language model, a set of bigrams, unigrams and associated
  * log-probabilities.
+ * <p>
+ * The model is kept in the compact table described in {@link NGramTableBuilder}.
+ * Models converted to that format with {@link LangModelConverter} are mapped
+ * read-only from disk, and thus shared through the page cache between clients;
+ * text models are parsed into the same table on the heap.
  */
 public class LangModel {
 
-    // class variables
-    // Hashes storing various Language Model probabilities
-    /**
-     * Probability of a unigram occurring.
-     */
-    private final Map<String, Double> unigram_probs = new HashMap<>();
-    /**
-     * Unigram backoff probabilities (used in bigram probability estimation).
-     */
-    private final Map<String, Double> unigram_backoff_probs = new HashMap<>();
+    static final int MAGIC = 0x45564C4D; // "EVLM"
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 36;
+
     /**
-     * Probability that Unigram2 follows Unigram1, where each key is of the form "Unigram1 Unigram2".
+     * Hash table slots and predictions are pairs of 4-byte values
      */
-    private final Map<String, Double> bigram_probs = new HashMap<>();
+    static final int SLOT_SIZE = 8;
+
+    private static final Pattern NGRAM_LENGTH_PATTERN = Pattern.compile("(\\d+)-grams:");
+
+    // Match with <floating point number> <one or more chars> <floating point number>
+    //                        |                   |                 +------ backoff probability
+    //                        |                   +------------------------ unigram
+    //                        +-------------------------------------------- unigram probability
+    private static final Pattern UNIGRAM_PATTERN = Pattern.compile("([-0-9\\.]+)\\s*(\\S+)\\s*([-0-9\\.]+)");
+
+    //Match line with <floating point number> <one or more chars> <one or more chars>
+    //                            |                   |                    +---- end char of bigram
+    //                            |                   +------------------------- start char of bigram
+    //                            +--------------------------------------------- bigram probability
+    private static final Pattern BIGRAM_PATTERN = Pattern.compile("([-0-9\\.]+)\\s*(\\S+) (\\S+)");
+
+    private static final Map<String, LangModel> models = new HashMap<>();
 
     //Sentinel unigram values:
     public static final String START_OF_STRING = "<s>";
     public static final String END_OF_STRING = "</s>";
     public static final String START_NEW_WORD = "<w>";
 
-    private double unknown_char_prob = 0;
+    // Maximum number of characters to predict for each bigram
+    static final int PREDICTED_CHARS = 10;
 
+    private final ByteBuffer table;
 
-    // Hashes to store most probable next characters in bigram
-    /**
-     * Mapping of the nth most likely unigrams to follow each unigram.
-     * Encoded as: <code>(unigram)(n)> -> (unigram)</code>
-     */
-    private final HashMap<String, String> context_char = new HashMap<>();
-    /**
-     * Mapping of the probability of the nth most likely unigram to follow each unigram.
-     * Encoded as: <code>(unigram)(n)> -> (log_probability)</code>
-     */
-    private final HashMap<String, Double> context_prob = new HashMap<>();
+    private final int vocabularySize;
 
-    // Maximum number of characters to predict for each bigram
-    int predicted_chars = 10;
+    private final int predictedChars;
+
+    private final double unknownCharProb;
+
+    private final int startOfString;
+
+    private final int startNewWord;
+
+    private final String[] vocabulary;
 
-    // Constructors
-    // Read in data from language model to be manipulated later
-    // Takes language model file as argument
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    // Offsets of the sections of the table
+    private final int charTable;
+    private final int charTableCapacity;
+    private final int unigramProbs;
+    private final int unigramBackoffProbs;
+    private final int bigramTable;
+    private final int bigramTableCapacity;
+    private final int predictions;
 
     /**
      * Load the language model.
      *
-     * @param lmFileName path to a language model file.
+     * @param lmFileName path to a language model file, or name of a language model resource,
+     *                   in either text or binary format.
      * @throws IOException if the model file can't be found or read.
      */
     public LangModel(String lmFileName) throws IOException {
+        this(open(lmFileName));
+    }
+
+    LangModel(ByteBuffer table) throws IOException {
+        this.table = table;
+        if (table.limit() < HEADER_SIZE || table.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary language model");
+        }
+        if (table.getInt(4) != VERSION) {
+            throw new IOException("Unsupported language model version " + table.getInt(4));
+        }
+        vocabularySize = table.getInt(8);
+        charTableCapacity = table.getInt(12);
+        bigramTableCapacity = table.getInt(16);
+        predictedChars = table.getInt(20);
+        unknownCharProb = table.getFloat(24);
+        startOfString = table.getInt(28);
+        startNewWord = table.getInt(32);
+
+        vocabulary = new String[vocabularySize];
+        int position = HEADER_SIZE;
+        for (int id = 0; id < vocabularySize; id++) {
+            char[] chars = new char[table.getShort(position)];
+            position += 2;
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = table.getChar(position);
+                position += 2;
+            }
+            vocabulary[id] = new String(chars);
+            ids.put(vocabulary[id], id);
+        }
+        charTable = (position + 3) & ~3;
+        unigramProbs = charTable + charTableCapacity * SLOT_SIZE;
+        unigramBackoffProbs = unigramProbs + vocabularySize * 4;
+        bigramTable = unigramBackoffProbs + vocabularySize * 4;
+        predictions = bigramTable + bigramTableCapacity * SLOT_SIZE;
+        if (predictions + vocabularySize * predictedChars * SLOT_SIZE > table.limit()) {
+            throw new IOException("Truncated language model");
+        }
+    }
+
+    /**
+     * Models are immutable, so the ones loaded by the searches of the
+     * different strings of a test suite are shared.
+     *
+     * @param lmFileName path to a language model file, or name of a language model resource
+     * @return the loaded language model
+     * @throws IOException if the model file can't be found or read.
+     */
+    public static synchronized LangModel getLangModel(String lmFileName) throws IOException {
+        LangModel model = models.get(lmFileName);
+        if (model == null) {
+            model = new LangModel(lmFileName);
+            models.put(lmFileName, model);
+        }
+        return model;
+    }
+
+    /**
+     * Binary models in files are mapped, everything else is read into a table on the heap
+     */
+    private static ByteBuffer open(String lmFileName) throws IOException {
+        File file = new File(lmFileName);
+        if (!file.isFile()) {
+            URL url = LangModel.class.getClassLoader().getResource(lmFileName);
+            if (url == null) {
+                throw new FileNotFoundException("Language model not found: " + lmFileName);
+            }
+            file = null;
+            if ("file".equals(url.getProtocol())) {
+                try {
+                    file = new File(url.toURI());
+                } catch (URISyntaxException e) {
+                    // read it as a stream
+                }
+            }
+            if (file == null) {
+                try (InputStream in = url.openStream()) {
+                    return read(in);
+                }
+            }
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() >= 4 && raf.readInt() == MAGIC) {
+                FileChannel channel = raf.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+            }
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
 
+    private static ByteBuffer read(InputStream stream) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(stream);
+        in.mark(4);
+        int magic = new DataInputStream(in).readInt();
+        in.reset();
+        if (magic != MAGIC) {
+            return parse(new BufferedReader(new InputStreamReader(in))).build();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads the unigrams and bigrams of a model in ARPA text format.
+     * Longer n-grams are not used.
+     */
+    static NGramTableBuilder parse(BufferedReader br) throws IOException {
+        NGramTableBuilder builder = new NGramTableBuilder(PREDICTED_CHARS);
 
         // Flag to indicate length of n-grams currently being read (0 == read
         // nothing)
         int ngram_len = 0; //size of the n-grams we're reading (i.e. ngram_len = 5 implies 5-grams).
 
-        InputStream fstream = LangModel.class.getClassLoader().getResourceAsStream(lmFileName);
-        // FileInputStream fstream = new FileInputStream(lmFileName);
-
-        DataInputStream in = new DataInputStream(fstream);
-        BufferedReader br = new BufferedReader(new InputStreamReader(in));
         String strLine;
 
-        double highest_unigram_prob = 0;
-
         // Read file line by line
         while ((strLine = br.readLine()) != null) {
-            Pattern ngram_len_p = Pattern.compile("(\\d+)-grams:");
-            Matcher match_ngram_len = ngram_len_p.matcher(strLine);
+            Matcher match_ngram_len = NGRAM_LENGTH_PATTERN.matcher(strLine);
             //does line match (\d+)-grams: ?
             if (match_ngram_len.find()) {
                 ngram_len = Integer.parseInt(match_ngram_len.group(1));
+                if (ngram_len > 2) {
+                    break;
+                }
 
             } else if (ngram_len == 1) {
                 //We're looking at unigrams;
-                Pattern unigram_p = Pattern
-                        .compile("([-0-9\\.]+)\\s*(\\S+)\\s*([-0-9\\.]+)");
-                // Match with <floating point number> <one or more chars> <floating point number>
-                //                        |                   |                 +------ backoff probability
-                //                        |                   +------------------------ unigram
-                //                        +-------------------------------------------- unigram probability
-                Matcher match_unigram = unigram_p.matcher(strLine);
+                Matcher match_unigram = UNIGRAM_PATTERN.matcher(strLine);
                 if (match_unigram.find()) {
-
-                    double unigram_prob = Double.parseDouble(match_unigram
-                            .group(1));
-                    String unigram = match_unigram.group(2);
-                    double unigram_backoff_prob = Double
-                            .parseDouble(match_unigram.group(3));
-
-                    unigram_probs.put(unigram, unigram_prob);
-                    unigram_backoff_probs.put(unigram, unigram_backoff_prob);
-
-                    if (unigram_prob < unknown_char_prob) {
-                        unknown_char_prob = unigram_prob;
-                    } // if
-                    if (unigram_prob > highest_unigram_prob) {
-                        highest_unigram_prob = unigram_prob;
-                    } //if
-
+                    builder.addUnigram(match_unigram.group(2),
+                            Double.parseDouble(match_unigram.group(1)),
+                            Double.parseDouble(match_unigram.group(3)));
                 } // if
 
             } else if (ngram_len == 2) {
-                Pattern bigram_p = Pattern.compile("([-0-9\\.]+)\\s*(\\S+) (\\S+)");
-                //Match line with <floating point number> <one or more chars> <one or more chars>
-                //                            |                   |                    +---- end char of bigram
-                //                            |                   +------------------------- start char of bigram
-                //                            +--------------------------------------------- bigram probability
-                Matcher match_bigram = bigram_p.matcher(strLine);
+                Matcher match_bigram = BIGRAM_PATTERN.matcher(strLine);
                 if (match_bigram.find()) {
-                    double bigram_prob = Double.parseDouble(match_bigram
-                            .group(1));
-                    String bigram_start = match_bigram.group(2);
-                    String bigram_end = match_bigram.group(3);
-                    String bigram = bigram_start + " " + bigram_end;
-
-                    bigram_probs.put(bigram, bigram_prob);
-
+                    builder.addBigram(match_bigram.group(2), match_bigram.group(3),
+                            Double.parseDouble(match_bigram.group(1)));
                 } // if
 
             } // if/else
         } // while
-        // Close the input stream
-        in.close();
-
-        ValueComparator bvc = new ValueComparator(bigram_probs);
-        TreeMap<String, Double> sorted_bigram_probs = new TreeMap<>(
-                bvc);
-
-        //Store bigrams sorted by probability:
-        sorted_bigram_probs.putAll(bigram_probs);
-
-        // Regular expressions setup
-        Pattern context_p = Pattern.compile("(\\S+) (\\S+)");
-
-        //Go through each bigram in order (most likely first) and build a
-        // table of the predicted_chars most likely characters to follow each character.
-        for (Map.Entry<String, Double> entry : sorted_bigram_probs.entrySet()) {
-            Matcher match_context = context_p.matcher(entry.getKey());
-            if (match_context.find()) {
-                String pre = match_context.group(1);
-                String middle = match_context.group(2);
-
-                // Add to hash (do this by starting counter at 0 and then
-                // testing hash and
-                // filling first empty slot. If no empty slot found then value
-                // is not stored.
-                for (int c = 0; c < predicted_chars; c++) {
-                    String key = pre + c;
-                    if (!context_char.containsKey(key)) {
-                        context_char.put(key, middle);
-                        context_prob.put(key, entry.getValue());
-                        break;
-                    } // if
-                } // for
-            } // if
+        return builder;
+    }
 
-        } // for
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the slot of the open addressing table holding the key, or the empty slot where it would be
+     */
+    static int findSlot(ByteBuffer buffer, int table, int capacity, int key) {
+        int mask = capacity - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            int stored = buffer.getInt(table + slot * SLOT_SIZE);
+            if (stored == key || stored == -1) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return the id of the token for a single character of a string, or -1 if the model does not know it
+     */
+    private int getId(char c) {
+        if (c == ' ') {
+            return startNewWord;
+        }
+        int slot = findSlot(table, charTable, charTableCapacity, c);
+        return table.getInt(charTable + slot * SLOT_SIZE + 4);
+    }
+
+    private int getId(String token) {
+        if (token.equals(" ")) {
+            return startNewWord;
+        }
+        Integer id = ids.get(token);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return the log-probability of the bigram, or NaN if the model does not contain it
+     */
+    private float getBigramProb(int first, int second) {
+        int key = first * vocabularySize + second;
+        int slot = findSlot(table, bigramTable, bigramTableCapacity, key);
+        return table.getFloat(bigramTable + slot * SLOT_SIZE + 4);
+    }
 
-        // Print out as sanity check
-        //for (Map.Entry<String, String> entry : context_char.entrySet()) {
-        // System.out.println("Key = " + entry.getKey() + ", Value = " +
-        // entry.getValue());
-        //}
+    private float getUnigramProb(int id) {
+        return table.getFloat(unigramProbs + id * 4);
+    }
 
-    } // LangModel
+    private float getUnigramBackoffProb(int id) {
+        return table.getFloat(unigramBackoffProbs + id * 4);
+    }
 
     // Method which returns language model score for string str Splits
     // string into bigrams and looks up the probability for each. If
@@ -229,59 +360,42 @@ public class LangModel {
         // Get length of string
         int no_chars = str.length();
 
-        // Break string down into bigrams
-        for (int i = -1; i < (no_chars - 1); i++) {
-            String first_char;
-            String second_char;
-            if (i == -1) {
-                first_char = "<s>";
-                second_char = str.substring(0, 1);
-            } else {
-                first_char = str.substring(i, i + 1);
-                second_char = str.substring(i + 1, i + 2);
-            } // if/else
-
-            if (first_char.equals(" ")) {
-                first_char = "<w>";
-            } // if
-            if (second_char.equals(" ")) {
-                second_char = "<w>";
-            } // if
-            String bigram = first_char + " " + second_char;
+        // Break string down into bigrams, without creating the strings
+        int first = startOfString;
+        for (int i = 0; i < no_chars; i++) {
+            int second = getId(str.charAt(i));
 
             if (verbose == true) {
-                System.out.println("Bigram is " + bigram);
+                System.out.println("Bigram is " + (i == 0 ? START_OF_STRING : str.substring(i - 1, i))
+                        + " " + str.substring(i, i + 1));
             } // if
 
             // Get negative log likelihood for each bigram
             // (Either get directly or estimate using backoff)
-            if (bigram_probs.containsKey(bigram)) {
+            float bigram_prob = first < 0 || second < 0 ? Float.NaN : getBigramProb(first, second);
+            if (!Float.isNaN(bigram_prob)) {
                 // Get direct bigram probabilities
-                double bigram_prob = bigram_probs.get(bigram);
                 log_prob = log_prob + bigram_prob;
                 if (verbose == true) {
                     System.out.println("Direct bigram prob: "
                             + Math.pow(10, bigram_prob) + "\n");
                 } // if
-            } else if (unigram_probs.containsKey(second_char) && unigram_backoff_probs.containsKey(first_char)) {
+            } else if (first >= 0 && second >= 0
+                    && !Float.isNaN(getUnigramProb(second)) && !Float.isNaN(getUnigramBackoffProb(first))) {
 
                 // Otherwise split into unigrams and do backoff
-                double unigram_backoff_prob = unigram_backoff_probs
-                        .get(first_char);
+                double unigram_backoff_prob = getUnigramBackoffProb(first);
                 log_prob = log_prob + unigram_backoff_prob;
-                // System.out.println("Unigram ("+first_char+") backoff prob: "+unigram_backoff_prob);
-
 
-                double unigram_prob = unigram_probs.get(second_char);
+                double unigram_prob = getUnigramProb(second);
                 log_prob = log_prob + unigram_prob;
 
                 if (verbose == true) {
-                    double bigram_prob = unigram_backoff_prob + unigram_prob;
                     System.out.println("Inferred bigram prob: "
-                            + Math.pow(10, bigram_prob)
-                            + " (formed from unigram probs " + first_char
+                            + Math.pow(10, unigram_backoff_prob + unigram_prob)
+                            + " (formed from unigram probs " + vocabulary[first]
                             + ": " + Math.pow(10, unigram_backoff_prob)
-                            + " and " + second_char + ": "
+                            + " and " + vocabulary[second] + ": "
                             + Math.pow(10, unigram_prob) + ")\n");
                 } // if
             } else {
@@ -289,10 +403,11 @@ public class LangModel {
                 //If we hit one (this block), just do nothing.
                 //throw new RuntimeException("Language Model can't give predictions for bigram " + bigram);
 
-                log_prob += unknown_char_prob;
+                log_prob += unknownCharProb;
 
             }
 
+            first = second;
         } // for
 
         // Convert log probs to probs and take geometric mean
@@ -318,17 +433,13 @@ public class LangModel {
      */
     public String predict_char(String pre, int n) {
 
-        if (pre.equals(" ")) {
-            pre = "<w>";
-        }
-
-        String key = pre + n;
-
-        if (n < 0 || n > predicted_chars) {
+        int id = getId(pre);
+        if (n < 0 || n >= predictedChars || id < 0) {
             return null;
-        } else {
-            return context_char.get(key);
-        } // if/else
+        } // if
+
+        int next = table.getInt(predictions + (id * predictedChars + n) * SLOT_SIZE);
+        return next < 0 ? null : vocabulary[next];
 
     } // predict_char
 
@@ -349,20 +460,14 @@ public class LangModel {
      */
     public double predict_char_prob(String pre, int n) {
 
-        if (n < 0 || n > predicted_chars) {
+        int id = getId(pre);
+        if (n < 0 || n >= predictedChars || id < 0) {
             return 0;
         }
 
-        if (pre.equals(" ")) {
-            pre = "<w>";
-        }
-
-        String key = pre + n;
-        Double prob = context_prob.get(key);
-
-        if (prob != null) {
-            prob = Math.pow(10, prob);
-            return prob;
+        float prob = table.getFloat(predictions + (id * predictedChars + n) * SLOT_SIZE + 4);
+        if (!Float.isNaN(prob)) {
+            return Math.pow(10, prob);
         } // if
 
         return 0.0;
@@ -393,32 +498,3 @@ public class LangModel {
 
 
 } // LangModel
-
-/**
- * Compares values based on their values in an associated Map.
- */
-class ValueComparator implements Comparator<String> {
-
-    Map<String, Double> base;
-
-    /**
-     * Create a new comparator using a mapping of probabilities.
-     * The comparator will use the attached probabilities to return the
-     * ordering for two Strings.
-     *
-     * @param base a mapping of probabilities for strings.
-     */
-    public ValueComparator(Map<String, Double> base) {
-        this.base = base;
-    }
-
-    // Note: this comparator imposes orderings that are inconsistent with
-    // equals.
-    public int compare(String a, String b) {
-        if (base.get(a) >= base.get(b)) {
-            return -1;
-        } else {
-            return 1;
-        } // returning 0 would merge keys
-    }
-}
\ No newline at end of file
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.lm;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Converts a language model in ARPA text format into the binary format that
+ * {@link LangModel} maps into memory. For example:
+ *
+ * <pre>
+ * java -cp evosuite.jar org.evosuite.lm.LangModelConverter ukwac_char_lm ukwac_char_lm.bin
+ * </pre>
+ * <p>
+ * and then run EvoSuite with <code>-Dlm_src=ukwac_char_lm.bin</code>.
+ * The source can be a file or a resource on the classpath.
+ */
+public class LangModelConverter {
+
+    public static void convert(String source, File target) throws IOException {
+        InputStream in;
+        if (new File(source).isFile()) {
+            in = new FileInputStream(source);
+        } else {
+            in = LangModelConverter.class.getClassLoader().getResourceAsStream(source);
+            if (in == null) {
+                throw new IOException("Language model not found: " + source);
+            }
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            LangModel.parse(reader).write(target);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LangModelConverter <text model> <binary model>");
+            System.exit(1);
+        }
+        convert(args[0], new File(args[1]));
+    }
+}
@@ -57,7 +57,7 @@ public abstract class LanguageModelSearch implements Comparator<Chromosome> {
 
     public LanguageModelSearch(ValueMinimizer.Minimization objective, ConstantValue constantValue) {
         try {
-            this.languageModel = new LangModel(Properties.LM_SRC);
+            this.languageModel = LangModel.getLangModel(Properties.LM_SRC);
         } catch (Exception e) {
             //FIXME: remove this garbage
             throw new RuntimeException("Couldn't create language model");
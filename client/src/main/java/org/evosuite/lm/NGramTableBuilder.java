@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.lm;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the unigrams and bigrams of a language model, and lays them out
+ * in the binary format read by {@link LangModel}:
+ *
+ * <pre>
+ * header        magic, version, vocabulary size V, capacities C and B of the
+ *               two hash tables, number P of predicted characters, the
+ *               probability of unknown characters, ids of &lt;s&gt; and &lt;w&gt;
+ * vocabulary    V tokens, each as length (short) followed by its chars
+ * char table    C slots (char, token id), open addressing
+ * unigrams      V probabilities, then V backoff probabilities (NaN if unknown)
+ * bigram table  B slots (first id * V + second id, probability), open addressing
+ * predictions   V * P slots (token id, probability), most likely first
+ * </pre>
+ * <p>
+ * All probabilities are log10 floats, all sections are 4-byte aligned.
+ */
+final class NGramTableBuilder {
+
+    /**
+     * Ids are combined into int keys of bigrams
+     */
+    private static final int MAX_VOCABULARY_SIZE = 46340;
+
+    private final int predictedChars;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final List<String> tokens = new ArrayList<>();
+
+    private final List<Double> unigramProbs = new ArrayList<>();
+
+    private final List<Double> unigramBackoffProbs = new ArrayList<>();
+
+    /**
+     * Bigrams in the order they were added, as first id, second id
+     */
+    private final List<int[]> bigrams = new ArrayList<>();
+
+    private final Map<Long, Integer> bigramIndex = new HashMap<>();
+
+    private final List<Double> bigramProbs = new ArrayList<>();
+
+    private double unknownCharProb = 0;
+
+    NGramTableBuilder(int predictedChars) {
+        this.predictedChars = predictedChars;
+    }
+
+    private int getId(String token) {
+        Integer id = ids.get(token);
+        if (id == null) {
+            if (tokens.size() == MAX_VOCABULARY_SIZE) {
+                throw new IllegalArgumentException("Language models are limited to " + MAX_VOCABULARY_SIZE + " tokens");
+            }
+            id = tokens.size();
+            ids.put(token, id);
+            tokens.add(token);
+            unigramProbs.add(Double.NaN);
+            unigramBackoffProbs.add(Double.NaN);
+        }
+        return id;
+    }
+
+    /**
+     * Later definitions of the same unigram replace earlier ones
+     */
+    void addUnigram(String unigram, double prob, double backoffProb) {
+        int id = getId(unigram);
+        unigramProbs.set(id, prob);
+        unigramBackoffProbs.set(id, backoffProb);
+        if (prob < unknownCharProb) {
+            unknownCharProb = prob;
+        }
+    }
+
+    /**
+     * Later definitions of the same bigram replace earlier ones
+     */
+    void addBigram(String first, String second, double prob) {
+        int[] bigram = {getId(first), getId(second)};
+        Long key = ((long) bigram[0] << 32) | bigram[1];
+        Integer index = bigramIndex.get(key);
+        if (index == null) {
+            bigramIndex.put(key, bigrams.size());
+            bigrams.add(bigram);
+            bigramProbs.add(prob);
+        } else {
+            bigramProbs.set(index, prob);
+        }
+    }
+
+    /**
+     * @return the number of slots of an open addressing table with a load factor of at most 0.5
+     */
+    private static int capacityFor(int size) {
+        return Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+    }
+
+    private static int align(int size) {
+        return (size + 3) & ~3;
+    }
+
+    ByteBuffer build() {
+        int size = tokens.size();
+        int charTableCapacity = capacityFor(size);
+        int bigramTableCapacity = capacityFor(bigrams.size());
+
+        int vocabularySize = 0;
+        for (String token : tokens) {
+            vocabularySize += 2 + 2 * token.length();
+        }
+        int totalSize = LangModel.HEADER_SIZE + align(vocabularySize)
+                + charTableCapacity * LangModel.SLOT_SIZE
+                + 2 * size * 4
+                + bigramTableCapacity * LangModel.SLOT_SIZE
+                + size * predictedChars * LangModel.SLOT_SIZE;
+
+        ByteBuffer buffer = ByteBuffer.allocate(totalSize).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(LangModel.MAGIC);
+        buffer.putInt(LangModel.VERSION);
+        buffer.putInt(size);
+        buffer.putInt(charTableCapacity);
+        buffer.putInt(bigramTableCapacity);
+        buffer.putInt(predictedChars);
+        buffer.putFloat((float) unknownCharProb);
+        buffer.putInt(ids.containsKey(LangModel.START_OF_STRING) ? ids.get(LangModel.START_OF_STRING) : -1);
+        buffer.putInt(ids.containsKey(LangModel.START_NEW_WORD) ? ids.get(LangModel.START_NEW_WORD) : -1);
+
+        for (String token : tokens) {
+            buffer.putShort((short) token.length());
+            for (int i = 0; i < token.length(); i++) {
+                buffer.putChar(token.charAt(i));
+            }
+        }
+        buffer.position(LangModel.HEADER_SIZE + align(vocabularySize));
+
+        int charTable = buffer.position();
+        for (int slot = 0; slot < charTableCapacity; slot++) {
+            buffer.putInt(-1);
+            buffer.putInt(-1);
+        }
+        for (int id = 0; id < size; id++) {
+            String token = tokens.get(id);
+            if (token.length() == 1) {
+                int slot = LangModel.findSlot(buffer, charTable, charTableCapacity, token.charAt(0));
+                buffer.putInt(charTable + slot * LangModel.SLOT_SIZE, token.charAt(0));
+                buffer.putInt(charTable + slot * LangModel.SLOT_SIZE + 4, id);
+            }
+        }
+
+        for (Double prob : unigramProbs) {
+            buffer.putFloat(prob.floatValue());
+        }
+        for (Double prob : unigramBackoffProbs) {
+            buffer.putFloat(prob.floatValue());
+        }
+
+        int bigramTable = buffer.position();
+        for (int slot = 0; slot < bigramTableCapacity; slot++) {
+            buffer.putInt(-1);
+            buffer.putFloat(Float.NaN);
+        }
+        for (int i = 0; i < bigrams.size(); i++) {
+            int key = bigrams.get(i)[0] * size + bigrams.get(i)[1];
+            int slot = LangModel.findSlot(buffer, bigramTable, bigramTableCapacity, key);
+            buffer.putInt(bigramTable + slot * LangModel.SLOT_SIZE, key);
+            buffer.putFloat(bigramTable + slot * LangModel.SLOT_SIZE + 4, bigramProbs.get(i).floatValue());
+        }
+
+        writePredictions(buffer);
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * The predictedChars most likely tokens to follow each token. Bigrams with
+     * the same probability are kept in the order they were added.
+     */
+    private void writePredictions(ByteBuffer buffer) {
+        List<List<Integer>> successors = new ArrayList<>();
+        for (int id = 0; id < tokens.size(); id++) {
+            successors.add(new ArrayList<>());
+        }
+        for (int i = 0; i < bigrams.size(); i++) {
+            successors.get(bigrams.get(i)[0]).add(i);
+        }
+        for (List<Integer> candidates : successors) {
+            candidates.sort((a, b) -> Double.compare(bigramProbs.get(b), bigramProbs.get(a)));
+            for (int n = 0; n < predictedChars; n++) {
+                if (n < candidates.size()) {
+                    int index = candidates.get(n);
+                    buffer.putInt(bigrams.get(index)[1]);
+                    buffer.putFloat(bigramProbs.get(index).floatValue());
+                } else {
+                    buffer.putInt(-1);
+                    buffer.putFloat(Float.NaN);
+                }
+            }
+        }
+    }
+
+    void write(File file) throws IOException {
+        ByteBuffer buffer = build();
+        try (FileOutputStream out = new FileOutputStream(file);
+             FileChannel channel = out.getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -47,7 +47,7 @@ public class StringLMOptimizer {
         this.originalString = (String) constantValue.getValue();
 
         try {
-            languageModel = new LangModel(Properties.LM_SRC);
+            languageModel = LangModel.getLangModel(Properties.LM_SRC);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
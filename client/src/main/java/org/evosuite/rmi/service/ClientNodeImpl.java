@@ -33,7 +33,9 @@ import org.evosuite.runtime.sandbox.PermissionStatistics;
 import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.statistics.IndividualSummary;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.statistics.StatisticsBatch;
 import org.evosuite.utils.FileIOUtils;
 import org.evosuite.utils.Listener;
 import org.evosuite.utils.LoggingUtils;
@@ -85,7 +87,30 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 
     protected final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
 
-    private final BlockingQueue<OutputVariable> outputVariableQueue = new LinkedBlockingQueue<>();
+    /**
+     * Maximum time in ms that output variables are collected before being sent to master
+     */
+    private static final long STATISTICS_BATCH_INTERVAL = 200;
+
+    /**
+     * Number of collected output variables after which they are sent to master right away
+     */
+    private static final int STATISTICS_BATCH_SIZE = 500;
+
+    /**
+     * Output variables and individuals not yet sent to master
+     */
+    private StatisticsBatch statisticsBatch = new StatisticsBatch();
+
+    /**
+     * Guards statisticsBatch
+     */
+    private final Object statisticsLock = new Object();
+
+    /**
+     * Held while sending statistics to master, so that batches arrive in order
+     */
+    private final Object statisticsSendLock = new Object();
 
     private Collection<Set<T>> bestSolutions;
 
@@ -104,17 +129,6 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         this.bestSolutions = Collections.synchronizedList(new ArrayList<>(Properties.NUM_PARALLEL_CLIENTS));
     }
 
-    private static class OutputVariable {
-        public RuntimeVariable variable;
-        public Object value;
-
-        public OutputVariable(RuntimeVariable variable, Object value) {
-            super();
-            this.variable = variable;
-            this.value = value;
-        }
-    }
-
     @Override
     public void startNewSearch() throws RemoteException, IllegalStateException {
         if (!state.equals(ClientState.NOT_STARTED)) {
@@ -247,11 +261,14 @@ public class ClientNodeImpl<T extends Chromosome<T>>
     public void updateStatistics(T individual) {
         logger.info("Sending current best individual to master process");
 
-        try {
-            masterNode.evosuite_collectStatistics(clientRmiIdentifier, individual);
-        } catch (RemoteException e) {
-            logger.error("Cannot inform master of change of state", e);
-            throw new IllegalStateException(e);
+        synchronized (statisticsSendLock) {
+            sendStatistics();
+            try {
+                masterNode.evosuite_collectStatistics(clientRmiIdentifier, individual);
+            } catch (RemoteException e) {
+                logger.error("Cannot inform master of change of state", e);
+                throw new IllegalStateException(e);
+            }
         }
     }
 
@@ -259,10 +276,13 @@ public class ClientNodeImpl<T extends Chromosome<T>>
     public void flushStatisticsForClassChange() {
         logger.info("Flushing output variables to master process");
 
-        try {
-            masterNode.evosuite_flushStatisticsForClassChange(clientRmiIdentifier);
-        } catch (RemoteException e) {
-            logger.error("Cannot inform master of change of state", e);
+        synchronized (statisticsSendLock) {
+            sendStatistics();
+            try {
+                masterNode.evosuite_flushStatisticsForClassChange(clientRmiIdentifier);
+            } catch (RemoteException e) {
+                logger.error("Cannot inform master of change of state", e);
+            }
         }
     }
 
@@ -282,10 +302,47 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         logger.info("Sending output variable to master process: " + variable + " = " + value);
 
         /*
-         * As this code might be called from unsafe blocks, we just put the values
-         * on a queue, and have a privileged thread doing the RMI connection to master
+         * As this code might be called from unsafe blocks, we just collect the values
+         * in a batch, and have a privileged thread doing the RMI connection to master
          */
-        outputVariableQueue.offer(new OutputVariable(variable, value));
+        synchronized (statisticsLock) {
+            statisticsBatch.addVariable(variable, value);
+            if (statisticsBatch.size() == 1 || statisticsBatch.size() >= STATISTICS_BATCH_SIZE) {
+                statisticsLock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void trackIndividualSummary(IndividualSummary summary) {
+        logger.debug("Sending summary of individual to master process: " + summary);
+
+        synchronized (statisticsLock) {
+            statisticsBatch.addIndividual(summary);
+            if (statisticsBatch.size() == 1 || statisticsBatch.size() >= STATISTICS_BATCH_SIZE) {
+                statisticsLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Send all the collected output variables and individuals to master with a
+     * single remote call. Must be called while holding the statisticsSendLock
+     */
+    private void sendStatistics() {
+        StatisticsBatch batch;
+        synchronized (statisticsLock) {
+            batch = statisticsBatch;
+            if (batch.isEmpty()) {
+                return;
+            }
+            statisticsBatch = new StatisticsBatch();
+        }
+        try {
+            masterNode.evosuite_collectStatistics(clientRmiIdentifier, batch);
+        } catch (RemoteException e) {
+            logger.error("Error when exporting " + batch.size() + " statistics entries", e);
+        }
     }
 
     @Override
@@ -333,15 +390,8 @@ public class ClientNodeImpl<T extends Chromosome<T>>
     public void stop() {
         if (statisticsThread != null) {
             statisticsThread.interrupt();
-            List<OutputVariable> vars = new ArrayList<>();
-            outputVariableQueue.drainTo(vars);
-            for (OutputVariable ov : vars) {
-                try {
-                    masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
-                } catch (RemoteException e) {
-                    logger.error("Error when exporting statistics: " + ov.variable + "=" + ov.value, e);
-                    break;
-                }
+            synchronized (statisticsSendLock) {
+                sendStatistics();
             }
 
             try {
@@ -355,6 +405,26 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         changeState(ClientState.FINISHED);
     }
 
+    /**
+     * Wait until there are statistics to send, and then either for the batch
+     * interval to pass or for the batch to be full
+     */
+    private void waitForStatistics() throws InterruptedException {
+        synchronized (statisticsLock) {
+            while (statisticsBatch.isEmpty()) {
+                statisticsLock.wait();
+            }
+        }
+        long end = System.currentTimeMillis() + STATISTICS_BATCH_INTERVAL;
+        synchronized (statisticsLock) {
+            long remaining;
+            while (statisticsBatch.size() < STATISTICS_BATCH_SIZE
+                    && (remaining = end - System.currentTimeMillis()) > 0) {
+                statisticsLock.wait(remaining);
+            }
+        }
+    }
+
     @Override
     public boolean init() {
         try {
@@ -367,15 +437,13 @@ public class ClientNodeImpl<T extends Chromosome<T>>
                 @Override
                 public void run() {
                     while (!this.isInterrupted()) {
-                        OutputVariable ov = null;
                         try {
-                            ov = outputVariableQueue.take(); //this is blocking
-                            masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
+                            waitForStatistics();
                         } catch (InterruptedException e) {
                             break;
-                        } catch (RemoteException e) {
-                            logger.error("Error when exporting statistics: " + ov.variable + "=" + ov.value, e);
-                            break;
+                        }
+                        synchronized (statisticsSendLock) {
+                            sendStatistics();
                         }
                     }
                 }
@@ -20,6 +20,7 @@
 package org.evosuite.rmi.service;
 
 import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.IndividualSummary;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.Listenable;
 
@@ -36,6 +37,8 @@ public interface ClientNodeLocal<T extends Chromosome<T>> extends Listenable<Set
 
     void trackOutputVariable(RuntimeVariable variable, Object value);
 
+    void trackIndividualSummary(IndividualSummary summary);
+
     void publishPermissionStatistics();
 
     void changeState(ClientState state);
@@ -20,6 +20,7 @@
 package org.evosuite.rmi.service;
 
 import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.IndividualSummary;
 import org.evosuite.statistics.RuntimeVariable;
 
 import java.rmi.RemoteException;
@@ -69,6 +70,11 @@ public class DummyClientNodeImpl<T extends Chromosome<T>> extends ClientNodeImpl
 
     }
 
+    @Override
+    public void trackIndividualSummary(IndividualSummary summary) {
+
+    }
+
     @Override
     public void waitUntilDone() {
         // TODO Auto-generated method stub
@@ -22,7 +22,7 @@ package org.evosuite.rmi.service;
 import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
-import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.statistics.StatisticsBatch;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
@@ -49,7 +49,7 @@ public interface MasterNodeRemote extends Remote {
 
     void evosuite_collectStatistics(String clientRmiIdentifier, Chromosome<?> individual) throws RemoteException;
 
-    void evosuite_collectStatistics(String clientRmiIdentifier, RuntimeVariable variable, Object value) throws RemoteException;
+    void evosuite_collectStatistics(String clientRmiIdentifier, StatisticsBatch batch) throws RemoteException;
 
     void evosuite_collectTestGenerationResult(String clientRmiIdentifier, List<TestGenerationResult> results) throws RemoteException;
 
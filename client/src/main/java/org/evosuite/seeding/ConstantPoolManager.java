@@ -99,6 +99,19 @@ public class ConstantPoolManager {
         pools[DYNAMIC_POOL_INDEX].add(value);
     }
 
+    /**
+     * Called for every int comparison during execution, so avoids boxing
+     * the value when the dynamic pool can take it directly
+     */
+    public void addDynamicConstant(int value) {
+        ConstantPool pool = pools[DYNAMIC_POOL_INDEX];
+        if (pool instanceof DynamicConstantPool) {
+            ((DynamicConstantPool) pool).addInt(value);
+        } else {
+            pool.add(value);
+        }
+    }
+
     public ConstantPool getConstantPool() {
         double p = Randomness.nextDouble();
         double k = 0d;
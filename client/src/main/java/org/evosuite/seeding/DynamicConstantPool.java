@@ -21,6 +21,7 @@ package org.evosuite.seeding;
 
 import org.evosuite.Properties;
 import org.evosuite.utils.DefaultRandomAccessQueue;
+import org.evosuite.utils.PrimitiveRandomAccessQueue;
 import org.evosuite.utils.RandomAccessQueue;
 import org.objectweb.asm.Type;
 
@@ -33,13 +34,13 @@ public class DynamicConstantPool implements ConstantPool {
 
     private final RandomAccessQueue<Type> typePool = new DefaultRandomAccessQueue<>();
 
-    private final RandomAccessQueue<Integer> intPool = new DefaultRandomAccessQueue<>();
+    private final PrimitiveRandomAccessQueue intPool = new PrimitiveRandomAccessQueue();
 
-    private final RandomAccessQueue<Double> doublePool = new DefaultRandomAccessQueue<>();
+    private final PrimitiveRandomAccessQueue doublePool = new PrimitiveRandomAccessQueue();
 
-    private final RandomAccessQueue<Long> longPool = new DefaultRandomAccessQueue<>();
+    private final PrimitiveRandomAccessQueue longPool = new PrimitiveRandomAccessQueue();
 
-    private final RandomAccessQueue<Float> floatPool = new DefaultRandomAccessQueue<>();
+    private final PrimitiveRandomAccessQueue floatPool = new PrimitiveRandomAccessQueue();
 
     public DynamicConstantPool() {
         /*
@@ -75,7 +76,7 @@ public class DynamicConstantPool implements ConstantPool {
      */
     @Override
     public int getRandomInt() {
-        return intPool.getRandomValue();
+        return intPool.getRandomInt();
     }
 
     /* (non-Javadoc)
@@ -83,7 +84,7 @@ public class DynamicConstantPool implements ConstantPool {
      */
     @Override
     public float getRandomFloat() {
-        return floatPool.getRandomValue();
+        return floatPool.getRandomFloat();
     }
 
     /* (non-Javadoc)
@@ -91,7 +92,7 @@ public class DynamicConstantPool implements ConstantPool {
      */
     @Override
     public double getRandomDouble() {
-        return doublePool.getRandomValue();
+        return doublePool.getRandomDouble();
     }
 
     /* (non-Javadoc)
@@ -123,53 +124,45 @@ public class DynamicConstantPool implements ConstantPool {
         } else if (object instanceof Type) {
             typePool.restrictedAdd((Type) object);
         } else if (object instanceof Integer) {
-            if (Properties.RESTRICT_POOL) {
-                int val = (Integer) object;
-                if (Math.abs(val) < Properties.MAX_INT) {
-                    intPool.restrictedAdd((Integer) object);
-                }
-            } else {
-                intPool.restrictedAdd((Integer) object);
-            }
+            addInt((Integer) object);
         } else if (object instanceof Long) {
-            if (Properties.RESTRICT_POOL) {
-                long val = (Long) object;
-                if (Math.abs(val) < Properties.MAX_INT) {
-                    longPool.restrictedAdd((Long) object);
-                }
-            } else {
-                longPool.restrictedAdd((Long) object);
+            long val = (Long) object;
+            if (!Properties.RESTRICT_POOL || Math.abs(val) < Properties.MAX_INT) {
+                longPool.restrictedAdd(val);
             }
         } else if (object instanceof Float) {
-            if (Properties.RESTRICT_POOL) {
-                float val = (Float) object;
-                if (Math.abs(val) < Properties.MAX_INT) {
-                    floatPool.restrictedAdd((Float) object);
-                }
-            } else {
-                floatPool.restrictedAdd((Float) object);
+            float val = (Float) object;
+            if (!Properties.RESTRICT_POOL || Math.abs(val) < Properties.MAX_INT) {
+                floatPool.restrictedAdd(val);
             }
         } else if (object instanceof Double) {
-            if (Properties.RESTRICT_POOL) {
-                double val = (Double) object;
-                if (Math.abs(val) < Properties.MAX_INT) {
-                    doublePool.restrictedAdd((Double) object);
-                }
-            } else {
-                doublePool.restrictedAdd((Double) object);
+            double val = (Double) object;
+            if (!Properties.RESTRICT_POOL || Math.abs(val) < Properties.MAX_INT) {
+                doublePool.restrictedAdd(val);
             }
         }
     }
 
+    /**
+     * Same as {@link #add(Object)} for an int, without boxing it
+     *
+     * @param val a int.
+     */
+    public void addInt(int val) {
+        if (!Properties.RESTRICT_POOL || Math.abs(val) < Properties.MAX_INT) {
+            intPool.restrictedAdd(val);
+        }
+    }
+
     @Override
     public String toString() {
         String res = "DynamicConstantPool:{";
         res += "stringPool=" + stringPool + " ; ";
         res += "typePool=" + typePool + " ; ";
-        res += "intPool=" + intPool + " ; ";
+        res += "intPool=" + intPool.toString(bits -> (int) bits) + " ; ";
         res += "longPool=" + longPool + " ; ";
-        res += "floatPool=" + floatPool + " ; ";
-        res += "doublePool=" + doublePool + "}";
+        res += "floatPool=" + floatPool.toString(bits -> Float.intBitsToFloat((int) bits)) + " ; ";
+        res += "doublePool=" + doublePool.toString(Double::longBitsToDouble) + "}";
         return res;
     }
 
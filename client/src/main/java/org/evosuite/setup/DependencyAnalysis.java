@@ -29,6 +29,7 @@ import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.mutation.MutationPool;
 import org.evosuite.graphs.cfg.CFGMethodAdapter;
+import org.evosuite.instrumentation.InstrumentedBytecodeCache;
 import org.evosuite.instrumentation.LinePool;
 import org.evosuite.junit.CoverageAnalysis;
 import org.evosuite.rmi.ClientServices;
@@ -369,6 +370,11 @@ public class DependencyAnalysis {
         ClientServices.getInstance().getClientNode()
                 .trackOutputVariable(RuntimeVariable.Lines, LinePool.getNumLines());
 
+        ClientServices.getInstance().getClientNode()
+                .trackOutputVariable(RuntimeVariable.Instrumentation_Cache_Hits, InstrumentedBytecodeCache.getInstance().getHits());
+        ClientServices.getInstance().getClientNode()
+                .trackOutputVariable(RuntimeVariable.Instrumentation_Cache_Misses, InstrumentedBytecodeCache.getInstance().getMisses());
+
         for (Properties.Criterion pc : Properties.CRITERION) {
             switch (pc) {
                 case DEFUSE:
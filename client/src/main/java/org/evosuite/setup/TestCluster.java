@@ -89,6 +89,31 @@ public class TestCluster {
      */
     private final static Map<GenericClass<?>, Set<GenericAccessibleObject<?>>> modifiers = new LinkedHashMap<>();
 
+    /**
+     * The types that have generators, indexed by their raw classes
+     */
+    private final static TypeHierarchyIndex generatorTypes = new TypeHierarchyIndex();
+
+    /**
+     * The types in the generator cache, indexed by their raw classes
+     */
+    private final static TypeHierarchyIndex cachedTypes = new TypeHierarchyIndex();
+
+    /**
+     * Types in the generator cache whose generators were (or might have been)
+     * instantiated with the current cast classes
+     */
+    private final static Set<GenericClass<?>> castClassDependentTypes = new LinkedHashSet<>();
+
+    /**
+     * Classes already observed at runtime for container methods
+     */
+    private final static Set<Class<?>> containerCastClasses = new LinkedHashSet<>();
+
+    private static long generatorLookups = 0;
+
+    private static long generatorLookupTime = 0;
+
     private static InheritanceTree inheritanceTree = null;
 
     private final EnvironmentTestClusterAugmenter environmentAugmenter;
@@ -119,9 +144,14 @@ public class TestCluster {
         analyzedClasses.clear();
         testMethods.clear();
         generators.clear();
-        generatorCache.clear();
+        generatorTypes.clear();
+        resetGeneratorCache();
         modifiers.clear();
+        containerCastClasses.clear();
         CastClassManager.getInstance().clear();
+        GenericClassUtils.clearAssignabilityCache();
+        generatorLookups = 0;
+        generatorLookupTime = 0;
 
         instance = null;
     }
@@ -132,7 +162,7 @@ public class TestCluster {
      */
     public void removeUnusableGenerators() {
 
-        generatorCache.clear();
+        resetGeneratorCache();
         Set<GenericClass<?>> removed = new LinkedHashSet<>();
 
 
@@ -169,7 +199,7 @@ public class TestCluster {
 
         removeDirectCycle();
 
-        generatorCache.clear();
+        resetGeneratorCache();
     }
 
 
@@ -275,8 +305,57 @@ public class TestCluster {
 
     }
 
+    /**
+     * Forget the cached generators of all supertypes of the given type
+     *
+     * @param klass
+     */
     public void invalidateGeneratorCache(GenericClass<?> klass) {
-        generatorCache.keySet().removeIf(clazz -> clazz.isAssignableFrom(klass));
+        for (GenericClass<?> clazz : cachedTypes.getPossibleSupertypes(klass)) {
+            if (clazz.isAssignableFrom(klass)) {
+                removeFromGeneratorCache(clazz);
+            }
+        }
+    }
+
+    private static void putInGeneratorCache(GenericClass<?> clazz, Set<GenericAccessibleObject<?>> calls,
+                                            boolean dependsOnCastClasses) {
+        generatorCache.put(clazz, calls);
+        cachedTypes.add(clazz);
+        if (dependsOnCastClasses) {
+            castClassDependentTypes.add(clazz);
+        }
+    }
+
+    private static void removeFromGeneratorCache(GenericClass<?> clazz) {
+        generatorCache.remove(clazz);
+        cachedTypes.remove(clazz);
+        castClassDependentTypes.remove(clazz);
+    }
+
+    private static void resetGeneratorCache() {
+        generatorCache.clear();
+        cachedTypes.clear();
+        castClassDependentTypes.clear();
+    }
+
+    private static Set<GenericAccessibleObject<?>> getOrCreateGenerators(GenericClass<?> target) {
+        Set<GenericAccessibleObject<?>> calls = generators.get(target);
+        if (calls == null) {
+            calls = new LinkedHashSet<>();
+            generators.put(target, calls);
+            generatorTypes.add(target);
+        }
+        return calls;
+    }
+
+    /**
+     * @return whether the type has no type parameters that could be instantiated with cast classes
+     */
+    private static boolean isNonGeneric(GenericClass<?> clazz) {
+        Type type = clazz.getType();
+        return type instanceof Class && !((Class<?>) type).isArray()
+                && !GenericClassUtils.isMissingTypeParameters(type);
     }
 
     public void handleRuntimeAccesses(TestCase test) {
@@ -330,13 +409,10 @@ public class TestCluster {
      * @param call
      */
     public void addGenerator(GenericClass<?> target, GenericAccessibleObject<?> call) {
-        if (!generators.containsKey(target))
-            generators.put(target, new LinkedHashSet<>());
-
         logger.debug("Adding generator for class " + target + ": " + call);
-        generators.get(target).add(call);
+        getOrCreateGenerators(target).add(call);
         // Make sure cache is up to date
-        generatorCache.entrySet().removeIf(entry -> entry.getKey().isAssignableFrom(target));
+        invalidateGeneratorCache(target);
     }
 
     /**
@@ -378,7 +454,8 @@ public class TestCluster {
      * @param clazz
      */
     public void addCastClassForContainer(Class<?> clazz) {
-        if (TestUsageChecker.canUse(clazz)) {
+        if (!containerCastClasses.contains(clazz) && TestUsageChecker.canUse(clazz)) {
+            containerCastClasses.add(clazz);
             CastClassManager.getInstance().addCastClass(clazz, 1);
             clearGeneratorCache(GenericClassFactory.get(clazz));
         }
@@ -392,13 +469,22 @@ public class TestCluster {
      * @throws ConstructionFailedException
      */
     private void cacheGenerators(GenericClass<?> clazz) throws ConstructionFailedException {
-
-        if (generatorCache.containsKey(clazz)) {
-            return;
+        long start = System.nanoTime();
+        try {
+            if (!generatorCache.containsKey(clazz)) {
+                computeGenerators(clazz);
+            }
+        } finally {
+            generatorLookups++;
+            generatorLookupTime += System.nanoTime() - start;
         }
+    }
+
+    private void computeGenerators(GenericClass<?> clazz) throws ConstructionFailedException {
 
         logger.debug("1. Caching generators for {}", clazz);
 
+        boolean dependsOnCastClasses = !isNonGeneric(clazz);
         Set<GenericAccessibleObject<?>> targetGenerators = new LinkedHashSet<>();
         if (clazz.isObject()) {
             logger.debug("2. Target class is object: {}", clazz);
@@ -409,8 +495,12 @@ public class TestCluster {
             }
         } else {
             logger.debug("2. Target class is not object: {}", clazz);
-            for (GenericClass<?> generatorClazz : generators.keySet()) {
+            // Only types whose raw class is a subclass can be instantiated to clazz
+            for (GenericClass<?> generatorClazz : generatorTypes.getPossibleSubtypes(clazz)) {
                 // logger.debug("3. Considering original generator: " + generatorClazz + " for " + clazz);
+                if (!isNonGeneric(generatorClazz)) {
+                    dependsOnCastClasses = true;
+                }
 
                 if (generatorClazz.canBeInstantiatedTo(clazz)) {
                     //logger.debug("4. generator " + generatorClazz + " can be instantiated to " + clazz);
@@ -430,6 +520,9 @@ public class TestCluster {
 
                             // Set owner type parameters from new return type
                             GenericAccessibleObject<?> newGenerator = generator.copyWithOwnerFromReturnType(instantiatedGeneratorClazz);
+                            if (newGenerator.getOwnerClass().hasWildcardOrTypeVariables() || newGenerator.hasTypeParameters()) {
+                                dependsOnCastClasses = true;
+                            }
 
                             boolean hadTypeParameters = false;
 
@@ -502,16 +595,26 @@ public class TestCluster {
 
 
         logger.debug("]");
-        generatorCache.put(clazz, targetGenerators);
+        putInGeneratorCache(clazz, targetGenerators, dependsOnCastClasses);
     }
 
     /**
-     * Forget everything we have cached
+     * Forget the cached generators that might be instantiated differently
+     * now that there is a new cast class
      *
-     * @param target
+     * @param target the new cast class
      */
     public void clearGeneratorCache(GenericClass<?> target) {
-        generatorCache.clear();
+        for (GenericClass<?> clazz : new ArrayList<>(castClassDependentTypes)) {
+            removeFromGeneratorCache(clazz);
+        }
+    }
+
+    /**
+     * @return the average time in microseconds to look up the generators of a type, including cache hits
+     */
+    public static double getAverageGeneratorLookupTime() {
+        return generatorLookups == 0 ? 0.0 : generatorLookupTime / 1000.0 / generatorLookups;
     }
 
     /**
@@ -894,11 +997,9 @@ public class TestCluster {
      */
     private void addNumericConstructor(GenericClass<?> clazz) {
         if (!generatorCache.containsKey(clazz)) {
-            generatorCache.put(clazz, new LinkedHashSet<>());
-        }
-        if (!generators.containsKey(clazz)) {
-            generators.put(clazz, new LinkedHashSet<>());
+            putInGeneratorCache(clazz, new LinkedHashSet<>(), false);
         }
+        getOrCreateGenerators(clazz);
         logger.info("addNumericConstructor for class " + clazz);
         for (Constructor<?> constructor : clazz.getRawClass().getConstructors()) {
             if (constructor.getParameterTypes().length == 1) {
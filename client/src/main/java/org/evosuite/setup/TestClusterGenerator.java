@@ -85,6 +85,7 @@ public class TestClusterGenerator {
 
     public void generateCluster(CallGraph callGraph) throws RuntimeException, ClassNotFoundException {
 
+        long start = System.currentTimeMillis();
         TestCluster.setInheritanceTree(inheritanceTree);
 
         if (Properties.INSTRUMENT_CONTEXT
@@ -131,6 +132,8 @@ public class TestClusterGenerator {
         }
 
         gatherStatistics();
+        ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Test_Cluster_Build_Time,
+                System.currentTimeMillis() - start);
     }
 
     public void addNewDependencies(Collection<Class<?>> rawTypes) {
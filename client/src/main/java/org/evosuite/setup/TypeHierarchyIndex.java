@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.utils.generic.GenericClass;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of generic types by their raw classes and the supertypes of those.
+ * <p>
+ * A class or parameterized type can only be assigned to, or instantiated to,
+ * a class or parameterized type if its raw class is a subclass of the other
+ * raw class. The index uses this to narrow down the types on which the
+ * expensive generic checks need to be done. Primitives (because of boxing),
+ * arrays, type variables and wildcards are not indexed, and are always
+ * returned as candidates.
+ * <p>
+ * Primitives are only assignable from primitives and wrappers, and arrays
+ * only from arrays, type variables and wildcards.
+ */
+final class TypeHierarchyIndex {
+
+    /**
+     * All types in insertion order, with their position
+     */
+    private final Map<GenericClass<?>, Integer> positions = new LinkedHashMap<>();
+
+    private int nextPosition = 0;
+
+    /**
+     * Raw classes of the indexed types
+     */
+    private final Map<GenericClass<?>, Class<?>> rawClasses = new HashMap<>();
+
+    private final Map<Class<?>, Set<GenericClass<?>>> typesByRawClass = new HashMap<>();
+
+    /**
+     * For each supertype of an indexed raw class, the indexed raw classes that are its subclasses
+     */
+    private final Map<Class<?>, Set<Class<?>>> subclasses = new HashMap<>();
+
+    private final Set<GenericClass<?>> unindexedTypes = new LinkedHashSet<>();
+
+    private static final List<Class<?>> WRAPPER_CLASSES = Arrays.asList(Boolean.class, Byte.class,
+            Character.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+
+    static boolean isIndexable(GenericClass<?> clazz) {
+        Type type = clazz.getType();
+        if (type instanceof ParameterizedType) {
+            return true;
+        }
+        if (type instanceof Class) {
+            Class<?> rawClass = (Class<?>) type;
+            return !rawClass.isPrimitive() && !rawClass.isArray();
+        }
+        return false;
+    }
+
+    /**
+     * @return the class itself, all its superclasses and all its interfaces
+     */
+    private static List<Class<?>> getSupertypes(Class<?> rawClass) {
+        List<Class<?>> supertypes = new ArrayList<>();
+        supertypes.add(rawClass);
+        supertypes.addAll(ClassUtils.getAllSuperclasses(rawClass));
+        supertypes.addAll(ClassUtils.getAllInterfaces(rawClass));
+        if (rawClass.isInterface()) {
+            supertypes.add(Object.class);
+        }
+        return supertypes;
+    }
+
+    public void add(GenericClass<?> clazz) {
+        if (positions.containsKey(clazz)) {
+            return;
+        }
+        positions.put(clazz, nextPosition++);
+
+        if (!isIndexable(clazz)) {
+            unindexedTypes.add(clazz);
+            return;
+        }
+        Class<?> rawClass = clazz.getRawClass();
+        rawClasses.put(clazz, rawClass);
+        Set<GenericClass<?>> types = typesByRawClass.get(rawClass);
+        if (types == null) {
+            types = new LinkedHashSet<>();
+            typesByRawClass.put(rawClass, types);
+            for (Class<?> supertype : getSupertypes(rawClass)) {
+                subclasses.computeIfAbsent(supertype, c -> new LinkedHashSet<>()).add(rawClass);
+            }
+        }
+        types.add(clazz);
+    }
+
+    public void remove(GenericClass<?> clazz) {
+        if (positions.remove(clazz) == null) {
+            return;
+        }
+
+        Class<?> rawClass = rawClasses.remove(clazz);
+        if (rawClass == null) {
+            unindexedTypes.remove(clazz);
+            return;
+        }
+        Set<GenericClass<?>> types = typesByRawClass.get(rawClass);
+        types.remove(clazz);
+        if (types.isEmpty()) {
+            typesByRawClass.remove(rawClass);
+            for (Class<?> supertype : getSupertypes(rawClass)) {
+                Set<Class<?>> rawSubclasses = subclasses.get(supertype);
+                rawSubclasses.remove(rawClass);
+                if (rawSubclasses.isEmpty()) {
+                    subclasses.remove(supertype);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        positions.clear();
+        rawClasses.clear();
+        typesByRawClass.clear();
+        subclasses.clear();
+        unindexedTypes.clear();
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * @return all types that might be assignable to the given type, in insertion order
+     */
+    public List<GenericClass<?>> getPossibleSubtypes(GenericClass<?> clazz) {
+        Type type = clazz.getType();
+        List<GenericClass<?>> candidates = new ArrayList<>(unindexedTypes);
+        if (isIndexable(clazz)) {
+            Set<Class<?>> rawSubclasses = subclasses.get(clazz.getRawClass());
+            if (rawSubclasses != null) {
+                for (Class<?> rawSubclass : rawSubclasses) {
+                    candidates.addAll(typesByRawClass.get(rawSubclass));
+                }
+            }
+        } else if (type instanceof Class && ((Class<?>) type).isPrimitive()) {
+            for (Class<?> wrapper : WRAPPER_CLASSES) {
+                Set<GenericClass<?>> types = typesByRawClass.get(wrapper);
+                if (types != null) {
+                    candidates.addAll(types);
+                }
+            }
+        } else if (!(type instanceof Class) && !(type instanceof GenericArrayType)) {
+            return new ArrayList<>(positions.keySet());
+        }
+        candidates.sort(Comparator.comparingInt(positions::get));
+        return candidates;
+    }
+
+    /**
+     * @return all types the given type might be assignable to, in no particular order
+     */
+    public List<GenericClass<?>> getPossibleSupertypes(GenericClass<?> clazz) {
+        Type type = clazz.getType();
+        Class<?> rawClass;
+        if (type instanceof Class) {
+            // primitives are boxed
+            rawClass = ClassUtils.primitiveToWrapper((Class<?>) type);
+        } else if (type instanceof ParameterizedType || type instanceof GenericArrayType) {
+            rawClass = clazz.getRawClass();
+        } else {
+            return new ArrayList<>(positions.keySet());
+        }
+        List<GenericClass<?>> candidates = new ArrayList<>(unindexedTypes);
+        for (Class<?> supertype : getSupertypes(rawClass)) {
+            Set<GenericClass<?>> types = typesByRawClass.get(supertype);
+            if (types != null) {
+                candidates.addAll(types);
+            }
+        }
+        return candidates;
+    }
+}
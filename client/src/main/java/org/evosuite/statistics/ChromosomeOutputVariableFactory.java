@@ -19,10 +19,8 @@
  */
 package org.evosuite.statistics;
 
-import org.evosuite.testsuite.TestSuiteChromosome;
-
 /**
- * Factory to create an output variable when given a test suite chromosome
+ * Factory to create an output variable when given the summary of a test suite
  *
  * @param <T>
  * @author gordon
@@ -35,9 +33,9 @@ public abstract class ChromosomeOutputVariableFactory<T> {
         this.variable = variable;
     }
 
-    protected abstract T getData(TestSuiteChromosome individual);
+    protected abstract T getData(IndividualSummary individual);
 
-    public OutputVariable<T> getVariable(TestSuiteChromosome chromosome) {
+    public OutputVariable<T> getVariable(IndividualSummary chromosome) {
         return new OutputVariable<>(variable.name(), getData(chromosome));
     }
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testsuite.TestSuiteChromosome;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The values of a test suite that are needed by the statistics on the master
+ * process. Sending these instead of the whole serialized test suite keeps the
+ * messages from client to master small.
+ */
+public class IndividualSummary implements Serializable {
+
+    private static final long serialVersionUID = 1580963012384727061L;
+
+    private final long timestamp;
+
+    private final double fitness;
+
+    private final double coverage;
+
+    private final int size;
+
+    private final int length;
+
+    private final int numOfNotCoveredGoals;
+
+    private final Map<Class<?>, Double> fitnessValues = new LinkedHashMap<>();
+
+    private final Map<Class<?>, Double> coverageValues = new LinkedHashMap<>();
+
+    public IndividualSummary(TestSuiteChromosome individual) {
+        this.timestamp = System.currentTimeMillis();
+        this.fitness = individual.getFitness();
+        this.coverage = individual.getCoverage();
+        this.size = individual.size();
+        this.length = individual.totalLengthOfTestCases();
+        this.numOfNotCoveredGoals = individual.getNumOfNotCoveredGoals();
+        for (Map.Entry<FitnessFunction<TestSuiteChromosome>, Double> entry : individual.getFitnessValues().entrySet()) {
+            fitnessValues.putIfAbsent(entry.getKey().getClass(), entry.getValue());
+        }
+        for (Map.Entry<FitnessFunction<TestSuiteChromosome>, Double> entry : individual.getCoverageValues().entrySet()) {
+            coverageValues.putIfAbsent(entry.getKey().getClass(), entry.getValue());
+        }
+    }
+
+    /**
+     * @return the time at which the summary was taken
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public double getCoverage() {
+        return coverage;
+    }
+
+    /**
+     * @return the number of tests in the suite
+     */
+    public int size() {
+        return size;
+    }
+
+    public int totalLengthOfTestCases() {
+        return length;
+    }
+
+    public int getNumOfNotCoveredGoals() {
+        return numOfNotCoveredGoals;
+    }
+
+    /**
+     * @param clazz a fitness function class
+     * @return the fitness of the first fitness function that is an instance of the
+     * given class, or 0.0 if there is none
+     */
+    public double getFitnessInstanceOf(Class<?> clazz) {
+        return getInstanceOf(fitnessValues, clazz);
+    }
+
+    /**
+     * @param clazz a fitness function class
+     * @return the coverage of the first fitness function that is an instance of the
+     * given class, or 0.0 if there is none
+     */
+    public double getCoverageInstanceOf(Class<?> clazz) {
+        return getInstanceOf(coverageValues, clazz);
+    }
+
+    private static double getInstanceOf(Map<Class<?>, Double> values, Class<?> clazz) {
+        return values.entrySet().stream()
+                .filter(e -> clazz.isAssignableFrom(e.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(0.0);
+    }
+
+    @Override
+    public String toString() {
+        return "fitness=" + fitness + ", coverage=" + coverage + ", size=" + size + ", length=" + length;
+    }
+}
@@ -58,6 +58,14 @@ public enum RuntimeVariable {
      * Number of classes in classpath
      */
     Classpath_Classes,
+    /**
+     * Number of classes whose instrumented bytecode was reused from the instrumentation cache
+     */
+    Instrumentation_Cache_Hits,
+    /**
+     * Number of classes that were looked up in the instrumentation cache, but had to be instrumented
+     */
+    Instrumentation_Cache_Misses,
     /**
      * Number of classes analyzed for test cluster
      */
@@ -130,6 +138,30 @@ public enum RuntimeVariable {
      * The total number of tests executed during the search
      */
     Tests_Executed,
+    /**
+     * The number of test executions skipped because the result of an identical test was cached
+     */
+    Execution_Cache_Hits,
+    /**
+     * The ratio of test executions answered from the cache of execution results
+     */
+    Execution_Cache_Hit_Rate,
+    /**
+     * The average number of classes re-initialized after each test execution
+     */
+    Static_Resets_Per_Test,
+    /**
+     * The estimated time in milliseconds saved after each test execution by only re-initializing classes with changed static state
+     */
+    Static_Reset_Time_Saved_Per_Test,
+    /**
+     * The time in milliseconds spent building the test cluster
+     */
+    Test_Cluster_Build_Time,
+    /**
+     * The average time in microseconds to look up the generators of a type in the test cluster
+     */
+    Generator_Lookup_Time,
     /**
      * The total number of fitness evaluations during the search
      */
@@ -321,6 +353,14 @@ public enum RuntimeVariable {
      */
     @Deprecated
     Minimized_Length,
+    /**
+     * Number of test executions during minimization
+     */
+    Minimization_Executions,
+    /**
+     * Time in milliseconds spent minimizing the test suite
+     */
+    Minimization_Time,
     /**
      * The random seed used during the search. A random one was used if none was specified at the beginning
      */
@@ -21,7 +21,6 @@ package org.evosuite.statistics;
 
 import org.evosuite.Properties;
 import org.evosuite.TimeController;
-import org.evosuite.testsuite.TestSuiteChromosome;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -50,10 +49,10 @@ public abstract class SequenceOutputVariableFactory<T extends Number> {
         this.startTime = time;
     }
 
-    protected abstract T getValue(TestSuiteChromosome individual);
+    protected abstract T getValue(IndividualSummary individual);
 
-    public void update(TestSuiteChromosome individual) {
-        timeStamps.add(System.currentTimeMillis() - startTime);
+    public void update(IndividualSummary individual) {
+        timeStamps.add(individual.getTimestamp() - startTime);
         values.add(getValue(individual));
     }
 
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Output variables and individuals collected on the client, to be sent to the
+ * master with a single remote call.
+ * <p>
+ * Only the latest value of a variable is kept, unless the variable was set
+ * before an individual that followed it: sequence variables are sampled when an
+ * individual arrives, so the value at that point must not be lost. The order of
+ * variables relative to individuals is preserved.
+ */
+public class StatisticsBatch implements Serializable {
+
+    private static final long serialVersionUID = -3417532871496046112L;
+
+    /**
+     * The variables set before the individual at the same index, plus those set after the last one
+     */
+    private final List<Map<RuntimeVariable, Object>> variables = new ArrayList<>();
+
+    private final List<IndividualSummary> individuals = new ArrayList<>();
+
+    private int size = 0;
+
+    public StatisticsBatch() {
+        variables.add(new LinkedHashMap<>());
+    }
+
+    public void addVariable(RuntimeVariable variable, Object value) {
+        Map<RuntimeVariable, Object> current = variables.get(variables.size() - 1);
+        if (!current.containsKey(variable)) {
+            size++;
+        }
+        current.put(variable, value);
+    }
+
+    public void addIndividual(IndividualSummary individual) {
+        individuals.add(individual);
+        variables.add(new LinkedHashMap<>());
+        size++;
+    }
+
+    /**
+     * @return the number of variables and individuals in this batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Hand the content of this batch to the given consumers, in the order in which it was added
+     *
+     * @param variableConsumer   receives each variable and its value
+     * @param individualConsumer receives each individual
+     */
+    public void replay(BiConsumer<RuntimeVariable, Object> variableConsumer,
+                       Consumer<IndividualSummary> individualConsumer) {
+        for (int i = 0; i < variables.size(); i++) {
+            variables.get(i).forEach(variableConsumer);
+            if (i < individuals.size()) {
+                individualConsumer.accept(individuals.get(i));
+            }
+        }
+    }
+}
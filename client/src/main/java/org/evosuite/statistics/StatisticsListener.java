@@ -27,12 +27,8 @@ import org.evosuite.ga.metaheuristics.SearchListener;
 import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
 import org.evosuite.rmi.ClientServices;
-import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.testsuite.TestSuiteChromosome;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-
 /**
  * Client-side listener that transmits data to master
  *
@@ -42,58 +38,28 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
 
     private static final long serialVersionUID = -8229756367168023616L;
 
-    private final BlockingQueue<T> individuals;
-
-    private volatile boolean done;
-
     private volatile double bestFitness;
 
     private volatile boolean minimizing;
 
     private int numFitnessEvaluations;
 
-    private final Thread notifier;
-
     /**
      * When did we send an individual due to a new generation iteration?
      */
     private volatile long timeFromLastGenerationUpdate = 0;
 
     public StatisticsListener() {
-        individuals = new LinkedBlockingQueue<>();
-        done = false;
         bestFitness = Double.MAX_VALUE;
         minimizing = true;
         numFitnessEvaluations = 0;
-
-        notifier = new Thread(() -> {
-            // Wait for new element in queue
-            // If there is a new element, then send it to master through RMI
-            while (!done || !individuals.isEmpty()) {
-                T individual;
-                try {
-                    individual = individuals.take();
-                    StatisticsSender.sendIndividualToMaster(individual);
-                } catch (InterruptedException e) {
-                    done = true;
-                }
-            }
-        });
-        Sandbox.addPrivilegedThread(notifier);
-        notifier.start();
     }
 
     public StatisticsListener(StatisticsListener<T> that) {
-        this.individuals = new LinkedBlockingQueue<>(that.individuals);
         this.bestFitness = that.bestFitness;
-        this.done = that.done;
         this.minimizing = that.minimizing;
         this.numFitnessEvaluations = that.numFitnessEvaluations;
         this.timeFromLastGenerationUpdate = that.timeFromLastGenerationUpdate;
-
-        this.notifier = new Thread(that.notifier);
-        Sandbox.addPrivilegedThread(this.notifier);
-        this.notifier.start();
     }
 
     @Override
@@ -108,8 +74,8 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
              * is no point in sending too many
              */
             timeFromLastGenerationUpdate = System.currentTimeMillis();
-            // Enqueue current best individual
-            individuals.offer(algorithm.getBestIndividual());
+            // Send summary of current best individual
+            StatisticsSender.sendSummaryToMaster(algorithm.getBestIndividual());
             // send timeline variable directly
             ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.TotalExceptionsTimeline, ExceptionCoverageSuiteFitness.getMaxExceptionsCovered());
         }
@@ -118,9 +84,7 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
     @Override
     public void searchFinished(GeneticAlgorithm<T> algorithm) {
 
-        // If the search is finished, we may want to clear the queue and just send the final element?
-        //individuals.clear(); // TODO: Maybe have a check on size
-        individuals.offer(algorithm.getBestIndividual());
+        StatisticsSender.sendSummaryToMaster(algorithm.getBestIndividual());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Generations, algorithm.getAge());
@@ -130,13 +94,6 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
         if (algorithm.getBestIndividual() instanceof TestSuiteChromosome) {
             reportTestSuiteResult((TestSuiteChromosome) algorithm.getBestIndividual());
         }
-        done = true;
-        try {
-            notifier.join(3000);
-        } catch (InterruptedException e) {
-            notifier.interrupt();
-            Thread.currentThread().interrupt();//interrupted flag was reset
-        }
     }
 
     private void reportTestSuiteResult(TestSuiteChromosome testSuite) {
@@ -145,7 +102,6 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
 
     @Override
     public void searchStarted(GeneticAlgorithm<T> algorithm) {
-        done = false;
         if (algorithm.getFitnessFunction().isMaximizationFunction()) {
             bestFitness = 0.0;
             minimizing = false;
@@ -167,13 +123,13 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
             if (fitness < bestFitness) {
                 bestFitness = fitness;
 
-                individuals.offer(individual);
+                StatisticsSender.sendSummaryToMaster(individual);
             }
         } else {
             if (fitness > bestFitness) {
                 bestFitness = fitness;
 
-                individuals.offer(individual);
+                StatisticsSender.sendSummaryToMaster(individual);
             }
         }
     }
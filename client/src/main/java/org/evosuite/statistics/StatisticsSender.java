@@ -62,6 +62,27 @@ public class StatisticsSender {
         ClientServices.<T>getInstance().getClientNode().updateStatistics(individual);
     }
 
+    /**
+     * Send only the values of the given individual that are needed for the
+     * statistics, eg to update the timelines during the search
+     *
+     * @param individual
+     */
+    public static <T extends Chromosome<T>> void sendSummaryToMaster(T individual) throws IllegalArgumentException {
+        if (individual == null) {
+            throw new IllegalArgumentException("No defined individual to send");
+        }
+        if (!Properties.NEW_STATISTICS)
+            return;
+        if (!(individual instanceof TestSuiteChromosome)) {
+            // Statistics expects TestSuiteChromosome individuals
+            return;
+        }
+
+        ClientServices.getInstance().getClientNode().trackIndividualSummary(
+                new IndividualSummary((TestSuiteChromosome) individual));
+    }
+
 
     /**
      * First execute (if needed) the test cases to be sure to have latest correct data,
@@ -31,6 +31,7 @@ import org.evosuite.rmi.ClientServices;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 
@@ -73,6 +74,8 @@ public abstract class TestGenerationStrategy {
     protected void sendExecutionStatistics() {
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
+        ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Execution_Cache_Hits, ExecutionResultCache.getInstance().getHits());
+        ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Execution_Cache_Hit_Rate, ExecutionResultCache.getInstance().getHitRate());
     }
 
     /**
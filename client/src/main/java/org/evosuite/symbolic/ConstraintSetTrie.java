@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import org.evosuite.symbolic.expr.Constraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Map from sets of constraints to values, indexed as a set-trie (UBTree) so
+ * that besides exact lookups it can efficiently find a stored set that is a
+ * subset or a superset of a query, instead of scanning all the stored sets.
+ * <p>
+ * Each distinct constraint gets a numeric id, and each stored set is a path
+ * of increasing ids from the root. The trie can be bounded, in which case
+ * the least recently used sets are evicted first.
+ */
+public class ConstraintSetTrie<V> {
+
+    private static final class Node<V> {
+        private TreeMap<Integer, Node<V>> children;
+        private Set<Constraint<?>> key;
+        private V value;
+    }
+
+    private static final class Element {
+        private final int id;
+        private int references = 0;
+
+        private Element(int id) {
+            this.id = id;
+        }
+    }
+
+    private final int maxSize;
+
+    private final Node<V> root = new Node<>();
+
+    private final Map<Constraint<?>, Element> elements = new HashMap<>();
+
+    private int nextId = 0;
+
+    /**
+     * Stored sets by access order, for the eviction
+     */
+    private final LinkedHashMap<Set<Constraint<?>>, Node<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param maxSize maximum number of sets to keep, or 0 for no limit
+     */
+    public ConstraintSetTrie(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public ConstraintSetTrie() {
+        this(0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean containsKey(Set<Constraint<?>> constraints) {
+        return entries.containsKey(constraints);
+    }
+
+    /**
+     * @return the value of the given set, or null if it is not stored
+     */
+    public V get(Set<Constraint<?>> constraints) {
+        Node<V> node = entries.get(constraints);
+        return node == null ? null : node.value;
+    }
+
+    public void put(Set<Constraint<?>> constraints, V value) {
+        Node<V> node = entries.get(constraints);
+        if (node != null) {
+            node.value = value;
+            return;
+        }
+
+        Set<Constraint<?>> key = new HashSet<>(constraints);
+        int[] ids = new int[key.size()];
+        int i = 0;
+        for (Constraint<?> constraint : key) {
+            Element element = elements.get(constraint);
+            if (element == null) {
+                element = new Element(nextId++);
+                elements.put(constraint, element);
+            }
+            element.references++;
+            ids[i++] = element.id;
+        }
+        Arrays.sort(ids);
+
+        node = root;
+        for (int id : ids) {
+            if (node.children == null) {
+                node.children = new TreeMap<>();
+            }
+            Node<V> child = node.children.get(id);
+            if (child == null) {
+                child = new Node<>();
+                node.children.put(id, child);
+            }
+            node = child;
+        }
+        node.key = key;
+        node.value = value;
+        entries.put(key, node);
+
+        if (maxSize > 0 && entries.size() > maxSize) {
+            Iterator<Set<Constraint<?>>> eldest = entries.keySet().iterator();
+            Set<Constraint<?>> evicted = eldest.next();
+            eldest.remove();
+            remove(evicted);
+        }
+    }
+
+    public void clear() {
+        root.children = null;
+        root.key = null;
+        root.value = null;
+        elements.clear();
+        entries.clear();
+    }
+
+    /**
+     * @param query  a set of constraints
+     * @param filter condition on the value of the set to find
+     * @return a stored set contained in the query whose value satisfies the
+     * filter, or null if there is none
+     */
+    public Set<Constraint<?>> findSubsetOf(Set<Constraint<?>> query, Predicate<V> filter) {
+        List<Integer> known = new ArrayList<>();
+        for (Constraint<?> constraint : query) {
+            Element element = elements.get(constraint);
+            // constraints never stored cannot be part of a subset
+            if (element != null) {
+                known.add(element.id);
+            }
+        }
+        int[] ids = toSortedArray(known);
+        Node<V> node = findSubsetOf(root, ids, 0, filter);
+        return touch(node);
+    }
+
+    /**
+     * @param query  a set of constraints
+     * @param filter condition on the value of the set to find
+     * @return a stored set containing the query whose value satisfies the
+     * filter, or null if there is none
+     */
+    public Set<Constraint<?>> findSupersetOf(Set<Constraint<?>> query, Predicate<V> filter) {
+        List<Integer> known = new ArrayList<>();
+        for (Constraint<?> constraint : query) {
+            Element element = elements.get(constraint);
+            if (element == null) {
+                // no stored set contains this constraint
+                return null;
+            }
+            known.add(element.id);
+        }
+        int[] ids = toSortedArray(known);
+        Node<V> node = findSupersetOf(root, ids, 0, filter);
+        return touch(node);
+    }
+
+    private Set<Constraint<?>> touch(Node<V> node) {
+        if (node == null) {
+            return null;
+        }
+        entries.get(node.key);
+        return node.key;
+    }
+
+    private static int[] toSortedArray(List<Integer> ids) {
+        int[] array = new int[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    private Node<V> findSubsetOf(Node<V> node, int[] query, int from, Predicate<V> filter) {
+        if (node.key != null && filter.test(node.value)) {
+            return node;
+        }
+        if (node.children == null) {
+            return null;
+        }
+        for (int i = from; i < query.length; i++) {
+            Node<V> child = node.children.get(query[i]);
+            if (child != null) {
+                Node<V> found = findSubsetOf(child, query, i + 1, filter);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Node<V> findSupersetOf(Node<V> node, int[] query, int from, Predicate<V> filter) {
+        if (from == query.length && node.key != null && filter.test(node.value)) {
+            return node;
+        }
+        if (node.children == null) {
+            return null;
+        }
+        // ids are increasing along a path, so children after the next id of the query cannot lead to a superset
+        Map<Integer, Node<V>> candidates = from == query.length ? node.children : node.children.headMap(query[from], true);
+        for (Map.Entry<Integer, Node<V>> child : candidates.entrySet()) {
+            int next = from < query.length && child.getKey() == query[from] ? from + 1 : from;
+            Node<V> found = findSupersetOf(child.getValue(), query, next, filter);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private void remove(Set<Constraint<?>> key) {
+        int[] ids = new int[key.size()];
+        int i = 0;
+        for (Constraint<?> constraint : key) {
+            Element element = elements.get(constraint);
+            ids[i++] = element.id;
+            if (--element.references == 0) {
+                elements.remove(constraint);
+            }
+        }
+        Arrays.sort(ids);
+
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> node = root;
+        path.add(node);
+        for (int id : ids) {
+            node = node.children.get(id);
+            path.add(node);
+        }
+        node.key = null;
+        node.value = null;
+
+        // prune the nodes that no longer lead to any set
+        for (int j = ids.length; j > 0; j--) {
+            Node<V> current = path.get(j);
+            if (current.key != null || (current.children != null && !current.children.isEmpty())) {
+                break;
+            }
+            path.get(j - 1).children.remove(ids[j - 1]);
+        }
+    }
+}
@@ -22,6 +22,7 @@ package org.evosuite.symbolic.dse;
 import org.evosuite.Properties;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.runtime.classhandling.ClassResetter;
+import org.evosuite.symbolic.ConstraintSetTrie;
 import org.evosuite.symbolic.MethodComparator;
 import org.evosuite.symbolic.PathCondition;
 import org.evosuite.symbolic.TestCaseBuilder;
@@ -70,8 +71,8 @@ public class DSELegacyAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
     /**
      * A cache of previous results from the constraint solver
      */
-    private final Map<Set<Constraint<?>>, SolverResult> queryCache =
-            new HashMap<>();
+    private final ConstraintSetTrie<SolverResult> queryCache =
+            new ConstraintSetTrie<>(Properties.DSE_QUERY_CACHE_SIZE);
 
     /**
      * Applies DSE test generation on a static non-private method until a stopping condition is met or
@@ -102,7 +103,7 @@ public class DSELegacyAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
             return;
         }
 
-        HashSet<Set<Constraint<?>>> pathConditions = new HashSet<>();
+        ConstraintSetTrie<Boolean> pathConditions = new ConstraintSetTrie<>();
 
         for (int currentTestIndex = 0; currentTestIndex < generatedTests
                 .size(); currentTestIndex++) {
@@ -126,7 +127,7 @@ public class DSELegacyAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
             statisticsLogger.reportNewPathExplored();
 
             Set<Constraint<?>> constraintsSet = canonicalize(pathCondition.getConstraints());
-            pathConditions.add(constraintsSet);
+            pathConditions.put(constraintsSet, true);
             logger.debug("Number of stored path condition: " + pathConditions.size());
 
             for (int i = pathCondition.size() - 1; i >= 0; i--) {
@@ -169,7 +170,7 @@ public class DSELegacyAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
                     // solver failures / unknowns as already satisfiable in the cache.
                     queryCache.put(constraintSet, result);
                     statisticsLogger.reportNewQueryCachedValue();
-                    logger.debug("Number of stored entries in query cache : " + queryCache.keySet().size());
+                    logger.debug("Number of stored entries in query cache : " + queryCache.size());
 
                     if (result.isSAT()) {
                         logger.debug("query is SAT (solution found)");
@@ -220,7 +221,7 @@ public class DSELegacyAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
      * @param queryCache
      * @return
      */
-    private boolean shouldSkipCurrentConstraintSet(HashSet<Set<Constraint<?>>> pathConditions, Set<Constraint<?>> constraintSet, Map<Set<Constraint<?>>, SolverResult> queryCache) {
+    private boolean shouldSkipCurrentConstraintSet(ConstraintSetTrie<Boolean> pathConditions, Set<Constraint<?>> constraintSet, ConstraintSetTrie<SolverResult> queryCache) {
         statisticsLogger.reportNewQueryCacheCall();
 
         if (queryCache.containsKey(constraintSet)) {
@@ -229,19 +230,19 @@ public class DSELegacyAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
             return true;
         }
 
-        if (isSubSetOf(constraintSet, queryCache.keySet())) {
+        if (queryCache.findSupersetOf(constraintSet, result -> true) != null) {
             statisticsLogger.reportNewQueryCacheHit();
             logger.debug(
                     "skipping solving of current query because it is satisfiable and solved by previous path condition");
             return true;
         }
 
-        if (pathConditions.contains(constraintSet)) {
+        if (pathConditions.containsKey(constraintSet)) {
             logger.debug("skipping solving of current query because of existing path condition");
             return true;
         }
 
-        if (isSubSetOf(constraintSet, pathConditions)) {
+        if (pathConditions.findSupersetOf(constraintSet, seen -> true) != null) {
             logger.debug(
                     "skipping solving of current query because it is satisfiable and solved by previous path condition");
             return true;
@@ -293,24 +294,6 @@ public class DSELegacyAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> {
         return boundsForVariables;
     }
 
-    /**
-     * Returns true if the constraints in the query are a subset of any of the constraints in the set
-     * of queries
-     *
-     * @param query
-     * @param queries
-     * @return
-     */
-    private static boolean isSubSetOf(Set<Constraint<?>> query,
-                                      Collection<Set<Constraint<?>>> queries) {
-        for (Set<Constraint<?>> pathCondition : queries) {
-            if (pathCondition.containsAll(query)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Builds a default test case for a static target method
      *
@@ -20,9 +20,9 @@
 package org.evosuite.symbolic.dse.algorithm;
 
 import org.evosuite.Properties;
+import org.evosuite.symbolic.ConstraintSetTrie;
 import org.evosuite.symbolic.MethodComparator;
 import org.evosuite.symbolic.PathCondition;
-import org.evosuite.symbolic.PathConditionUtils;
 import org.evosuite.symbolic.dse.ConcolicExecutor;
 import org.evosuite.symbolic.dse.ConcolicExecutorImpl;
 import org.evosuite.symbolic.dse.DSEStatistics;
@@ -104,7 +104,7 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     /**
      * A cache of previous results from the constraint solver
      **/
-    protected final transient Map<Set<Constraint<?>>, SolverResult> queryCache = new HashMap<>();
+    protected final transient ConstraintSetTrie<SolverResult> queryCache = new ConstraintSetTrie<>(Properties.DSE_QUERY_CACHE_SIZE);
 
     /**
      * Exploration strategies
@@ -231,7 +231,7 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     @Override
     protected void explore(Method method) {
         // Children cache
-        HashSet<Set<Constraint<?>>> seenChildren = new HashSet();
+        ConstraintSetTrie<Boolean> seenChildren = new ConstraintSetTrie<>();
 
         // WorkList
         Queue<DSETestCase> testCasesWorkList = createWorkList();
@@ -269,7 +269,7 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
             if (!shouldSkipCurrentPathcondition(hasPathConditionDiverged, normalizedPathCondition, seenChildren)) {
 
                 // Adds the new path condition to the already visited set
-                seenChildren.add(normalizedPathCondition);
+                seenChildren.put(normalizedPathCondition, true);
                 logger.debug(NUMBER_OF_SEEN_PATH_CONDITIONS, seenChildren.size());
 
                 // Generates the children
@@ -288,13 +288,13 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
      */
     protected abstract Queue<DSETestCase> createWorkList();
 
-    private boolean shouldSkipCurrentPathcondition(boolean hasPathConditionDiverged, Set<Constraint<?>> seenPathCondition, HashSet<Set<Constraint<?>>> seenChildren) {
+    private boolean shouldSkipCurrentPathcondition(boolean hasPathConditionDiverged, Set<Constraint<?>> seenPathCondition, ConstraintSetTrie<Boolean> seenChildren) {
         return hasPathConditionDiverged && (
-                seenChildren.contains(seenPathCondition)
-                        || PathConditionUtils.isConstraintSetSubSetOf(seenPathCondition, seenChildren));
+                seenChildren.containsKey(seenPathCondition)
+                        || seenChildren.findSupersetOf(seenPathCondition, seen -> true) != null);
     }
 
-    private void processChildren(Queue<DSETestCase> testCasesWorkList, HashSet<Set<Constraint<?>>> seenChildren, DSETestCase currentTestCase, List<GenerationalSearchPathCondition> children, boolean hasPathConditionDiverged) {
+    private void processChildren(Queue<DSETestCase> testCasesWorkList, ConstraintSetTrie<Boolean> seenChildren, DSETestCase currentTestCase, List<GenerationalSearchPathCondition> children, boolean hasPathConditionDiverged) {
         // We look at all the children
         for (GenerationalSearchPathCondition child : children) {
             List<Constraint<?>> childQuery = SolverUtils.buildQuery(child.getPathCondition());
@@ -361,7 +361,7 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
      * @param constraintSet
      * @return
      */
-    private boolean shouldSkipChild(HashSet<Set<Constraint<?>>> pathConditions, Set<Constraint<?>> constraintSet) {
+    private boolean shouldSkipChild(ConstraintSetTrie<Boolean> pathConditions, Set<Constraint<?>> constraintSet) {
         statisticsLogger.reportNewQueryCacheCall();
         if (queryCache.containsKey(constraintSet)) {
             statisticsLogger.reportNewQueryCacheHit();
@@ -369,7 +369,7 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
             return true;
         }
 
-        if (pathConditions.contains(constraintSet)) {
+        if (pathConditions.containsKey(constraintSet)) {
             logger.debug(PATH_PRUNING_BECAUSE_THE_PATH_CONDITION_WAS_ALREADY_EXPLORED);
             return true;
         }
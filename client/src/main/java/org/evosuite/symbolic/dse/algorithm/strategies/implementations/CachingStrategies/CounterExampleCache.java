@@ -19,11 +19,12 @@
  */
 package org.evosuite.symbolic.dse.algorithm.strategies.implementations.CachingStrategies;
 
-import org.evosuite.symbolic.PathConditionUtils;
+import org.evosuite.symbolic.ConstraintSetTrie;
 import org.evosuite.symbolic.dse.DSEStatistics;
 import org.evosuite.symbolic.dse.algorithm.strategies.CachingStrategy;
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.solver.SolverResult;
+import org.evosuite.symbolic.solver.SolverUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,8 +33,8 @@ import java.util.Set;
 
 /**
  * Resembles checks (a) and (b) of a counter-example cache strategy.
- * (b) Is performed only if exactly the same constraint set is found.
- *     TODO: Implement the solution for supersets.
+ * (b) Is performed for exactly the same constraint set and for supersets, reusing only the part of the
+ *     model of the superset that concerns the variables of the query.
  * <p>
  * Counter-example cache strategy: Maps sets of constraints to counter-examples and performs three optimizations:
  * (a)  When a subset of a constraint set has no solution, then neither does the original set. i.e. as the query x>10 ∧ x<5 has no solution, neither does the original query x>10 ∧ x<5 ∧ y=0
@@ -48,13 +49,12 @@ public class CounterExampleCache implements CachingStrategy {
     private static final DSEStatistics statisticsLogger = DSEStatistics.getInstance();
 
     @Override
-    public CacheQueryResult checkCache(Set<Constraint<?>> query, Map<Set<Constraint<?>>, SolverResult> queryCache) {
+    public CacheQueryResult checkCache(Set<Constraint<?>> query, ConstraintSetTrie<SolverResult> queryCache) {
         statisticsLogger.reportNewQueryCacheCall();
 
         // Cache hit of an exact set solution
-        if (queryCache.containsKey(query)) {
-            SolverResult cachedResult = queryCache.get(query);
-
+        SolverResult cachedResult = queryCache.get(query);
+        if (cachedResult != null) {
             if (cachedResult.isSAT()) {
                 statisticsLogger.reportNewQueryCacheHit();
                 logger.debug("skipping solving of current query since it is in the query cache");
@@ -67,44 +67,24 @@ public class CounterExampleCache implements CachingStrategy {
             }
         }
 
-        // Cache hit of a sub set solution
-        if (PathConditionUtils.isConstraintSetSupraSetOf(query, queryCache.keySet())) {
-            Set<Constraint<?>> subSetSolution = PathConditionUtils.getConstraintSetSupraSetOf(query, queryCache.keySet());
-            SolverResult cachedResult = queryCache.get(subSetSolution);
-
-            // Case (a) for sub sets: the query is a supra set of a sat solution. Heuristics can be implemented here
-            if (cachedResult.isSAT()) {
-                // TODO: implement me!
-                return new CacheQueryResult(CacheQueryStatus.MISS);
-
-                // Case (b) for sub sets: the query is a supra set of an unsat solution
-            } else if (cachedResult.isUNSAT()) {
-                statisticsLogger.reportNewQueryCacheHit();
-                logger.debug("skipping current query since it is in the query cache and it unsatisfiable");
-                return new CacheQueryResult(CacheQueryStatus.HIT_UNSAT);
-            }
-
+        // Case (a): the query is a supra set of an unsat solution
+        if (queryCache.findSubsetOf(query, SolverResult::isUNSAT) != null) {
+            statisticsLogger.reportNewQueryCacheHit();
+            logger.debug("skipping current query since it is in the query cache and it unsatisfiable");
+            return new CacheQueryResult(CacheQueryStatus.HIT_UNSAT);
         }
 
-        // Cache hit of a supra set solution
-        if (PathConditionUtils.isConstraintSetSubSetOf(query, queryCache.keySet())) {
-            Set<Constraint<?>> supraSetSolution = PathConditionUtils.getConstraintSetSubSetOf(query, queryCache.keySet());
-            SolverResult cachedResult = queryCache.get(supraSetSolution);
-
-            // Case (c) of Counter-example cache: Heuristics can be implemented here
-            if (cachedResult.isUNSAT()) {
-                // TODO: implement me!
-                return new CacheQueryResult(CacheQueryStatus.MISS);
-
-                // Case (b) for for supra sets: The query is sat as there was a bigger query that was SAT
-            } else if (cachedResult.isSAT()) {
-                // TODO: Implement me!
-                // We cannot use all the solution model from the superset as it may differ with other elements of this path.
-                // Implementation idea: reuse only the necessary elements of the model.
-                return new CacheQueryResult(CacheQueryStatus.MISS);
-            }
+        // Case (b): the query is sat as there was a bigger query that was SAT
+        Set<Constraint<?>> supraSetSolution = queryCache.findSupersetOf(query, SolverResult::isSAT);
+        if (supraSetSolution != null) {
+            statisticsLogger.reportNewQueryCacheHit();
+            logger.debug("skipping solving of current query since a supra set of it is in the query cache");
+            // The rest of the model of the superset may not agree with other elements of this path
+            Map<String, Object> solution = SolverUtils.restrictModel(queryCache.get(supraSetSolution).getModel(), query);
+            return new CacheQueryResult(solution, CacheQueryStatus.HIT_SAT);
         }
 
+        // Case (c) of Counter-example cache: Heuristics can be implemented here
         return new CacheQueryResult(CacheQueryStatus.MISS);
     }
-}
\ No newline at end of file
+}
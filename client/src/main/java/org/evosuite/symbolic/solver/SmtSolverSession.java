@@ -0,0 +1,437 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.apache.commons.exec.CommandLine;
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDefinition;
+import org.evosuite.symbolic.solver.smt.SmtOperation;
+import org.evosuite.symbolic.solver.smt.SmtOperatorCollector;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.evosuite.symbolic.solver.smt.SmtVariable;
+import org.evosuite.symbolic.solver.smt.SmtVariableCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-lived SMT solver process that is fed SMT-LIB commands through its
+ * standard input, instead of launching a new process for each query.
+ * <p>
+ * Each assertion of a query is asserted in its own {@code push} frame,
+ * together with the declarations and definitions it introduces. A new query
+ * only pops the frames that are not a prefix of it, so that path conditions
+ * sharing a common prefix (e.g., the siblings negated by the generational
+ * search) do not have to send and process that prefix again. The variables
+ * in scope are always exactly the ones of the current query, so the model
+ * is the same the solver would produce for the query on its own.
+ * <p>
+ * If the solver crashes, reports an error or does not answer in time, its
+ * process is killed and a new one is started at the next query.
+ */
+public class SmtSolverSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtSolverSession.class);
+
+    private static final Map<String, SmtSolverSession> sessions = new HashMap<>();
+
+    private static final String SUCCESS = "success";
+
+    private static final String UNSUPPORTED = "unsupported";
+
+    private static final String SAT = "sat";
+
+    /**
+     * Marks the end of the output of the solver process in the response queue
+     */
+    private static final String END_OF_OUTPUT = "\u0000";
+
+    private final String solverCmd;
+
+    private Process process;
+
+    private Writer stdin;
+
+    private BlockingQueue<String> responses;
+
+    private List<String> preamble = new ArrayList<>();
+
+    /**
+     * Commands of the frames currently pushed on the solver stack
+     */
+    private final List<List<String>> frames = new ArrayList<>();
+
+    private int launchedProcesses = 0;
+
+    private int reusedFrames = 0;
+
+    public SmtSolverSession(String solverCmd) {
+        this.solverCmd = solverCmd;
+    }
+
+    /**
+     * @param solverCmd the command line of the solver. It has to read SMT-LIB
+     *                  commands interactively from its standard input
+     * @return the session running the given command
+     */
+    public static synchronized SmtSolverSession getSession(String solverCmd) {
+        SmtSolverSession session = sessions.get(solverCmd);
+        if (session == null) {
+            session = new SmtSolverSession(solverCmd);
+            sessions.put(solverCmd, session);
+        }
+        return session;
+    }
+
+    /**
+     * Kill all the solver processes
+     */
+    public static synchronized void closeAllSessions() {
+        for (SmtSolverSession session : sessions.values()) {
+            session.close();
+        }
+        sessions.clear();
+    }
+
+    /**
+     * Check the satisfiability of the query.
+     *
+     * @param query         the query to check
+     * @param timeoutMillis the solver is expected to answer {@code unknown}
+     *                      within this time, otherwise its process is killed
+     *                      after twice this time
+     * @return the output of the solver, i.e. {@code unsat}, {@code unknown} or
+     * {@code sat} followed by the model, like the output of a solver
+     * process run on the query alone
+     */
+    public synchronized String solve(SmtQuery query, long timeoutMillis)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+
+        long deadline = System.currentTimeMillis() + 2 * timeoutMillis;
+
+        List<String> queryPreamble = getPreamble(query);
+        if (process != null && !queryPreamble.equals(preamble)) {
+            close();
+        }
+
+        try {
+            if (process == null) {
+                start(queryPreamble, deadline);
+            }
+
+            List<List<String>> queryFrames = getFrames(query);
+            int common = 0;
+            while (common < frames.size() && common < queryFrames.size()
+                    && frames.get(common).equals(queryFrames.get(common))) {
+                common++;
+            }
+            reusedFrames += common;
+
+            List<String> commands = new ArrayList<>();
+            if (frames.size() > common) {
+                commands.add("(pop " + (frames.size() - common) + ")");
+            }
+            for (List<String> frame : queryFrames.subList(common, queryFrames.size())) {
+                commands.add("(push 1)");
+                commands.addAll(frame);
+            }
+            execute(commands, false, deadline);
+            frames.subList(common, frames.size()).clear();
+            frames.addAll(queryFrames.subList(common, queryFrames.size()));
+
+            send(Arrays.asList("(check-sat)"));
+            String result = readResponse(deadline);
+            if (!result.equals(SAT)) {
+                return result;
+            }
+
+            send(Arrays.asList("(get-model)"));
+            String model = readResponse(deadline);
+            if (model.startsWith("(error")) {
+                throw new SolverErrorException("Solver failed to produce a model: " + model);
+            }
+            return result + "\n" + model;
+
+        } catch (IOException | SolverTimeoutException | SolverErrorException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Kill the solver process, if any
+     */
+    public synchronized void close() {
+        frames.clear();
+        preamble = new ArrayList<>();
+        if (process == null) {
+            return;
+        }
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            // the solver might have died already
+        }
+        process.destroy();
+        process = null;
+    }
+
+    /**
+     * @return how many solver processes this session has started
+     */
+    public int getLaunchedProcesses() {
+        return launchedProcesses;
+    }
+
+    /**
+     * @return how many frames were kept on the solver stack across queries
+     */
+    public int getReusedFrames() {
+        return reusedFrames;
+    }
+
+    private void start(List<String> queryPreamble, long deadline)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        logger.debug("Launching solver session: {}", solverCmd);
+        String[] cmd = CommandLine.parse(solverCmd).toStrings();
+        process = new ProcessBuilder(cmd).start();
+        launchedProcesses++;
+        stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        responses = new LinkedBlockingQueue<>();
+        readResponses(process.getInputStream(), responses);
+        logErrors(process.getErrorStream());
+
+        List<String> commands = new ArrayList<>();
+        commands.add("(set-option :print-success true)");
+        commands.addAll(queryPreamble);
+        execute(commands, true, deadline);
+        preamble = queryPreamble;
+    }
+
+    private static List<String> getPreamble(SmtQuery query) {
+        List<String> commands = new ArrayList<>();
+        if (query.hasLogic()) {
+            commands.add("(set-logic " + query.getLogic() + ")");
+        }
+        for (String optionName : new TreeSet<>(query.getOptions())) {
+            commands.add(String.format("(set-option %s %s)", optionName, query.getOptionValue(optionName)));
+        }
+        return commands;
+    }
+
+    /**
+     * One frame for each assertion: the definitions and declarations needed
+     * by the assertion and not by the previous ones, and the assertion itself
+     */
+    private static List<List<String>> getFrames(SmtQuery query) {
+        SmtQueryPrinter printer = new SmtQueryPrinter();
+
+        Map<String, String> declarations = new LinkedHashMap<>();
+        for (SmtConstantDeclaration declaration : query.getConstantDeclarations()) {
+            declarations.put(declaration.getConstantName(), printer.print(declaration));
+        }
+        for (SmtFunctionDeclaration declaration : query.getFunctionDeclarations()) {
+            declarations.put(declaration.getFunctionName(), printer.print(declaration));
+        }
+
+        Map<String, String> definitions = new LinkedHashMap<>();
+        for (SmtFunctionDefinition definition : query.getFunctionDefinitions()) {
+            definitions.put(getFunctionName(definition), printer.print(definition));
+        }
+
+        Set<String> introduced = new HashSet<>();
+        List<List<String>> frames = new ArrayList<>();
+        for (SmtAssertion assertion : query.getAssertions()) {
+            List<String> frame = new ArrayList<>();
+
+            SmtOperatorCollector operatorCollector = new SmtOperatorCollector();
+            assertion.getFormula().accept(operatorCollector, null);
+            for (SmtOperation.Operator operator : operatorCollector.getOperators()) {
+                String name = operator.toString();
+                if (definitions.containsKey(name) && introduced.add(name)) {
+                    frame.add(definitions.get(name));
+                }
+            }
+
+            SmtVariableCollector variableCollector = new SmtVariableCollector();
+            assertion.getFormula().accept(variableCollector, null);
+            // sorted, so that equal frames are printed the same way
+            Set<String> names = new TreeSet<>();
+            for (SmtVariable variable : variableCollector.getSmtVariables()) {
+                names.add(variable.getName());
+            }
+            for (String name : names) {
+                if (declarations.containsKey(name) && introduced.add(name)) {
+                    frame.add(declarations.get(name));
+                }
+            }
+
+            frame.add(printer.print(assertion));
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static String getFunctionName(SmtFunctionDefinition definition) {
+        String str = definition.getFunctionDefinition().trim();
+        int end = 0;
+        while (end < str.length() && str.charAt(end) != '(' && !Character.isWhitespace(str.charAt(end))) {
+            end++;
+        }
+        return str.substring(0, end);
+    }
+
+    /**
+     * Send all commands at once, then check that each one of them succeeded
+     */
+    private void execute(List<String> commands, boolean allowUnsupported, long deadline)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        send(commands);
+        for (String command : commands) {
+            String response = readResponse(deadline);
+            if (response.equals(SUCCESS) || (allowUnsupported && response.equals(UNSUPPORTED))) {
+                continue;
+            }
+            throw new SolverErrorException("Solver failed to execute " + command + ": " + response);
+        }
+    }
+
+    private void send(List<String> commands) throws IOException {
+        for (String command : commands) {
+            logger.debug("Solver session command: {}", command);
+            stdin.write(command);
+            stdin.write('\n');
+        }
+        stdin.flush();
+    }
+
+    private String readResponse(long deadline) throws SolverTimeoutException, SolverErrorException {
+        String response;
+        try {
+            response = responses.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolverTimeoutException();
+        }
+        if (response == null) {
+            logger.debug("Solver session did not answer in time");
+            throw new SolverTimeoutException();
+        }
+        if (response.equals(END_OF_OUTPUT)) {
+            throw new SolverErrorException("Solver process terminated unexpectedly");
+        }
+        return response;
+    }
+
+    /**
+     * Split the output of the solver into responses, i.e. symbols and
+     * balanced s-expressions
+     */
+    private static void readResponses(final InputStream output, final BlockingQueue<String> responses) {
+        Thread reader = new Thread("SmtSolverSession-reader") {
+            @Override
+            public void run() {
+                try (Reader in = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8))) {
+                    StringBuilder current = new StringBuilder();
+                    int depth = 0;
+                    boolean inString = false;
+                    boolean inQuotedSymbol = false;
+                    int c;
+                    while ((c = in.read()) != -1) {
+                        char ch = (char) c;
+                        if (depth == 0 && !inString && !inQuotedSymbol && Character.isWhitespace(ch)) {
+                            if (current.length() > 0) {
+                                responses.offer(current.toString());
+                                current.setLength(0);
+                            }
+                            continue;
+                        }
+                        current.append(ch);
+                        if (inString) {
+                            // a quote within a string is escaped by doubling it
+                            inString = ch != '"';
+                        } else if (inQuotedSymbol) {
+                            inQuotedSymbol = ch != '|';
+                        } else if (ch == '"') {
+                            inString = true;
+                        } else if (ch == '|') {
+                            inQuotedSymbol = true;
+                        } else if (ch == '(') {
+                            depth++;
+                        } else if (ch == ')') {
+                            depth--;
+                            if (depth == 0) {
+                                responses.offer(current.toString());
+                                current.setLength(0);
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.debug("Stopped reading solver output: " + e);
+                }
+                responses.offer(END_OF_OUTPUT);
+            }
+        };
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private static void logErrors(final InputStream errors) {
+        Thread reader = new Thread("SmtSolverSession-errors") {
+            @Override
+            public void run() {
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(errors, StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        logger.debug("Solver error output: {}", line);
+                    }
+                } catch (IOException e) {
+                    // the process was killed
+                }
+            }
+        };
+        reader.setDaemon(true);
+        reader.start();
+    }
+}
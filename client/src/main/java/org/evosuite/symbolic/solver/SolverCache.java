@@ -19,11 +19,21 @@
  */
 package org.evosuite.symbolic.solver;
 
+import org.evosuite.Properties;
+import org.evosuite.symbolic.ConstraintSetTrie;
 import org.evosuite.symbolic.expr.Constraint;
 
 import java.util.Collection;
-import java.util.HashMap;
-
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache of solver results. Besides exact matches, a query is known to be
+ * UNSAT if a subset of it was UNSAT, and SAT if a superset of it was SAT, in
+ * which case the model of the superset restricted to the variables of the
+ * query is a solution.
+ */
 public final class SolverCache {
 
     private static final SolverCache instance = new SolverCache();
@@ -36,7 +46,7 @@ public final class SolverCache {
     private int cached_unsat_result_count = 0;
     private boolean valid_cached_solution = false;
 
-    private final HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<>();
+    private final ConstraintSetTrie<SolverResult> cached_solver_results = new ConstraintSetTrie<>(Properties.DSE_QUERY_CACHE_SIZE);
     private SolverResult cached_solution = null;
 
     public int getNumberOfUNSATs() {
@@ -56,21 +66,36 @@ public final class SolverCache {
     }
 
     private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-        cached_solver_results.put(unsat_constraints, unsatResult);
+        cached_solver_results.put(new HashSet<>(unsat_constraints), unsatResult);
         cached_unsat_result_count++;
     }
 
     private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-        cached_solver_results.put(sat_constraints, satResult);
+        cached_solver_results.put(new HashSet<>(sat_constraints), satResult);
         cached_sat_result_count++;
     }
 
     public boolean hasCachedResult(Collection<Constraint<?>> constraints) {
         number_of_accesses++;
 
-        if (this.cached_solver_results.containsKey(constraints)) {
+        Set<Constraint<?>> query = new HashSet<>(constraints);
+        SolverResult result = this.cached_solver_results.get(query);
+
+        if (result == null && this.cached_solver_results.findSubsetOf(query, SolverResult::isUNSAT) != null) {
+            result = SolverResult.newUNSAT();
+        }
+
+        if (result == null) {
+            Set<Constraint<?>> superset = this.cached_solver_results.findSupersetOf(query, SolverResult::isSAT);
+            if (superset != null) {
+                Map<String, Object> model = this.cached_solver_results.get(superset).getModel();
+                result = SolverResult.newSAT(SolverUtils.restrictModel(model, query));
+            }
+        }
+
+        if (result != null) {
             valid_cached_solution = true;
-            cached_solution = this.cached_solver_results.get(constraints);
+            cached_solution = result;
             number_of_hits++;
             return true;
         } else {
@@ -65,6 +65,28 @@ public abstract class SolverUtils {
         return solverResult;
     }
 
+    /**
+     * Keeps only the values of the variables that occur in the given constraints.
+     * A model of a superset of the constraints restricted this way is still a
+     * model of the constraints.
+     *
+     * @param model
+     * @param constraints
+     * @return
+     */
+    public static Map<String, Object> restrictModel(Map<String, Object> model, Collection<Constraint<?>> constraints) {
+        Map<String, Object> restricted = new HashMap<>();
+        for (Constraint<?> constraint : constraints) {
+            for (Variable<?> variable : constraint.getVariables()) {
+                String name = variable.getName();
+                if (model.containsKey(name)) {
+                    restricted.put(name, model.get(name));
+                }
+            }
+        }
+        return restricted;
+    }
+
     /**
      * Creates boundaries for the SMT query variables.
      *
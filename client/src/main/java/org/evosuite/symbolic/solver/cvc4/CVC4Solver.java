@@ -105,12 +105,17 @@ public final class CVC4Solver extends SmtSolver {
         logger.debug("CVC4 Query:");
         logger.debug(smtQueryStr);
 
-        String cmd = buildCVC4cmd(cvcTimeout);
-
-        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
         try {
-            launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
-            String output = stdout.toString("UTF-8");
+            String output;
+            if (Properties.DSE_SOLVER_SESSIONS) {
+                String cmd = buildCVC4SessionCmd(cvcTimeout);
+                output = SmtSolverSession.getSession(cmd).solve(query, cvcTimeout);
+            } else {
+                String cmd = buildCVC4cmd(cvcTimeout);
+                ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+                launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+                output = stdout.toString("UTF-8");
+            }
 
             if (output.startsWith("unknown")) {
                 logger.debug("timeout reached when using cvc4");
@@ -267,6 +272,20 @@ public final class CVC4Solver extends SmtSolver {
         return cmd;
     }
 
+    /**
+     * The same options as {@link #buildCVC4cmd(long)}, but for a process
+     * solving several queries incrementally
+     */
+    private static String buildCVC4SessionCmd(long cvcTimeout) {
+        String cmd = Properties.CVC4_PATH;
+        cmd += " --rewrite-divk";
+        cmd += " --lang smt";
+        cmd += " --finite-model-find";
+        cmd += " --incremental"; // needed for push and pop
+        cmd += " --tlimit-per=" + cvcTimeout; // the timeout is for each query, not for the whole process
+        return cmd;
+    }
+
     private static boolean hasNonLinearConstraints(Collection<Constraint<?>> constraints) {
         NonLinearConstraintVisitor v = new NonLinearConstraintVisitor();
         for (Constraint<?> constraint : constraints) {
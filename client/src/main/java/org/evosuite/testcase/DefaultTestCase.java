@@ -20,6 +20,7 @@
 package org.evosuite.testcase;
 
 import org.apache.commons.lang3.reflect.MethodUtils;
+import org.evosuite.Properties;
 import org.evosuite.assertion.Assertion;
 import org.evosuite.assertion.InspectorAssertion;
 import org.evosuite.assertion.PrimitiveFieldAssertion;
@@ -44,6 +45,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -77,6 +79,12 @@ public class DefaultTestCase implements TestCase, Serializable {
      */
     private transient Set<TestFitnessFunction> coveredGoals = new LinkedHashSet<>();
 
+    /**
+     * Whether the covered goals are shared with a clone, and have to be
+     * copied before they are modified
+     */
+    private transient boolean coveredGoalsShared = false;
+
     /**
      * Violations revealed by this test
      */
@@ -92,7 +100,11 @@ public class DefaultTestCase implements TestCase, Serializable {
      * Constructs an empty test case, i.e., initially containing no statements.
      */
     public DefaultTestCase() {
-        statements = new ListenableList<>(new ArrayList<>());
+        this(new ArrayList<>());
+    }
+
+    private DefaultTestCase(List<Statement> statements) {
+        this.statements = new ListenableList<>(statements);
         id = idGenerator.getAndIncrement();
     }
 
@@ -100,6 +112,15 @@ public class DefaultTestCase implements TestCase, Serializable {
         return id;
     }
 
+    /**
+     * Restore the ID of a test that was serialized
+     *
+     * @param id
+     */
+    void setID(int id) {
+        this.id = id;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.testcase.TestCase#accept(org.evosuite.testcase.TestVisitor)
      */
@@ -153,7 +174,7 @@ public class DefaultTestCase implements TestCase, Serializable {
      */
     @Override
     public void addCoveredGoal(TestFitnessFunction goal) {
-        coveredGoals.add(goal);
+        getOwnCoveredGoals().add(goal);
         // TODO: somehow adds the same goal more than once (fitnessfunction.equals()?)
     }
 
@@ -162,7 +183,8 @@ public class DefaultTestCase implements TestCase, Serializable {
      */
     @Override
     public void removeCoveredGoal(TestFitnessFunction goal) {
-        coveredGoals.remove(goal);
+        if (coveredGoals.contains(goal))
+            getOwnCoveredGoals().remove(goal);
     }
 
     @Override
@@ -354,18 +376,38 @@ public class DefaultTestCase implements TestCase, Serializable {
      */
     @Override
     public void clearCoveredGoals() {
-        coveredGoals.clear();
+        if (coveredGoalsShared) {
+            coveredGoals = new LinkedHashSet<>();
+            coveredGoalsShared = false;
+        } else {
+            coveredGoals.clear();
+        }
+    }
+
+    /**
+     * Copy the covered goals if they are still shared with a clone
+     *
+     * @return the covered goals of this test only
+     */
+    private Set<TestFitnessFunction> getOwnCoveredGoals() {
+        if (coveredGoalsShared) {
+            coveredGoals = new LinkedHashSet<>(coveredGoals);
+            coveredGoalsShared = false;
+        }
+        return coveredGoals;
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * Create a copy of the test case
+     * Create a copy of the test case. Statements are bound to the test they
+     * belong to and are copied, whereas the covered goals are shared until
+     * either test changes them.
      */
     @Override
     public DefaultTestCase clone() {
         DefaultTestCase t = null;
-        t = new DefaultTestCase(); //Note: cannot use super.clone() due to final fields :(
+        t = new DefaultTestCase(new ArrayList<>(statements.size())); //Note: cannot use super.clone() due to final fields :(
 		/*
 		try {
 			t = (DefaultTestCase) super.clone();
@@ -379,10 +421,18 @@ public class DefaultTestCase implements TestCase, Serializable {
         for (Statement s : statements) {
             Statement copy = s.clone(t);
             t.statements.add(copy);
-            copy.setRetval(s.getReturnValue().clone(t));
-            copy.setAssertions(s.copyAssertions(t, 0));
+            // A plain reference resolves to the return value of the copy itself
+            VariableReference retval = s.getReturnValue();
+            if (retval.getClass() != VariableReferenceImpl.class && retval.getClass() != ArrayReference.class)
+                copy.setRetval(retval.clone(t));
+            if (s.hasAssertions())
+                copy.setAssertions(s.copyAssertions(t, 0));
+        }
+        if (!coveredGoals.isEmpty()) {
+            t.coveredGoals = coveredGoals;
+            t.coveredGoalsShared = true;
+            coveredGoalsShared = true;
         }
-        t.coveredGoals.addAll(coveredGoals);
         t.accessedEnvironment.copyFrom(accessedEnvironment);
         t.isFailing = isFailing;
         t.id = idGenerator.getAndIncrement(); //always create new ID when making a clone
@@ -496,7 +546,7 @@ public class DefaultTestCase implements TestCase, Serializable {
      */
     @Override
     public Set<TestFitnessFunction> getCoveredGoals() {
-        return coveredGoals;
+        return getOwnCoveredGoals();
     }
 
     /* (non-Javadoc)
@@ -1220,6 +1270,20 @@ public class DefaultTestCase implements TestCase, Serializable {
         contractViolations = new LinkedHashSet<>();
     }
 
+    /**
+     * Serialize the test in the compact format of {@link TestCaseCodec} if
+     * possible, rather than the object graph of its statements
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        if (Properties.BINARY_TEST_SERIALIZATION && getClass() == DefaultTestCase.class) {
+            byte[] data = TestCaseCodec.encode(this);
+            if (data != null) {
+                return new EncodedTestCase(data);
+            }
+        }
+        return this;
+    }
+
     public void setFailing(boolean failing) {
         isFailing = failing;
     }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+/**
+ * Serialized form of a {@link DefaultTestCase} encoded with {@link TestCaseCodec}
+ */
+final class EncodedTestCase implements Serializable {
+
+    private static final long serialVersionUID = 3208446351926707826L;
+
+    private final byte[] data;
+
+    EncodedTestCase(byte[] data) {
+        this.data = data;
+    }
+
+    private Object readResolve() throws ObjectStreamException {
+        try {
+            return TestCaseCodec.decode(data);
+        } catch (IOException | ClassNotFoundException e) {
+            InvalidObjectException exception = new InvalidObjectException("Cannot decode test: " + e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+}
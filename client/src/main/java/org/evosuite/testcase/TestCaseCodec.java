@@ -0,0 +1,896 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.environment.AccessedEnvironment;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericArrayTypeImpl;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericClassFactory;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.WildcardTypeImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a {@link DefaultTestCase}, used instead of Java
+ * serialization of the whole object graph of its statements.
+ * <p>
+ * The encoding starts with a version, followed by a table of all the strings
+ * (class names, member names and descriptors, string values) and then the
+ * statements. Statements refer to strings by their index in the table and to
+ * variables by the position of the statement defining them; integral values
+ * are written as variable-length integers. Classes and members are resolved
+ * against the class loader of the SUT when decoding, each of them only once.
+ * <p>
+ * Only the common kinds of statements are supported, tests with other
+ * statements, assertions or accessed environment are not encoded.
+ */
+public class TestCaseCodec {
+
+    /**
+     * Version of the encoding, to be increased with each incompatible change
+     */
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0xE7;
+
+    // Kinds of statements
+    private static final int INT = 0;
+    private static final int LONG = 1;
+    private static final int SHORT = 2;
+    private static final int BYTE = 3;
+    private static final int CHAR = 4;
+    private static final int BOOLEAN = 5;
+    private static final int FLOAT = 6;
+    private static final int DOUBLE = 7;
+    private static final int STRING = 8;
+    private static final int ENUM = 9;
+    private static final int NULL = 10;
+    private static final int ARRAY = 11;
+    private static final int ASSIGNMENT = 12;
+    private static final int METHOD = 13;
+    private static final int CONSTRUCTOR = 14;
+    private static final int FIELD = 15;
+
+    // Kinds of variables
+    private static final int NO_VARIABLE = 0;
+    private static final int VARIABLE = 1;
+    private static final int CONSTANT = 2;
+    private static final int ARRAY_INDEX = 3;
+    private static final int FIELD_REFERENCE = 4;
+
+    // Kinds of types
+    private static final int NO_TYPE = 0;
+    private static final int CLASS = 1;
+    private static final int PARAMETERIZED = 2;
+    private static final int GENERIC_ARRAY = 3;
+    private static final int WILDCARD = 4;
+    private static final int TYPE_VARIABLE = 5;
+
+    // Kinds of constant values
+    private static final int NULL_VALUE = 0;
+    private static final int INT_VALUE = 1;
+    private static final int LONG_VALUE = 2;
+    private static final int SHORT_VALUE = 3;
+    private static final int BYTE_VALUE = 4;
+    private static final int CHAR_VALUE = 5;
+    private static final int BOOLEAN_VALUE = 6;
+    private static final int FLOAT_VALUE = 7;
+    private static final int DOUBLE_VALUE = 8;
+    private static final int STRING_VALUE = 9;
+
+    private TestCaseCodec() {
+    }
+
+    /**
+     * @param test a test case
+     * @return the encoding of the test, or null if the test cannot be encoded
+     */
+    public static byte[] encode(DefaultTestCase test) {
+        AccessedEnvironment environment = test.getAccessedEnvironment();
+        if (environment.isFileSystemAccessed() || environment.isNetworkAccessed()) {
+            return null;
+        }
+        Encoder encoder = new Encoder();
+        try {
+            return encoder.encode(test);
+        } catch (NotEncodableException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param data the encoding of a test
+     * @return the decoded test, resolved against the class loader of the SUT
+     * @throws IOException            if the data is not a valid encoding
+     * @throws ClassNotFoundException if a class used by the test cannot be loaded
+     */
+    public static DefaultTestCase decode(byte[] data) throws IOException, ClassNotFoundException {
+        return new Decoder(data, TestGenerationContext.getInstance().getClassLoaderForSUT()).decode();
+    }
+
+    /**
+     * Thrown by the encoder when the test contains something it cannot encode
+     */
+    private static final class NotEncodableException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class Encoder {
+
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+        private final Map<VariableReference, Integer> positions = new IdentityHashMap<>();
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        byte[] encode(DefaultTestCase test) throws NotEncodableException {
+            for (int i = 0; i < test.size(); i++) {
+                positions.put(test.getStatement(i).getReturnValue(), i);
+            }
+
+            writeInt(test.getID());
+            writeBoolean(test.isFailing());
+            writeBoolean(test.isUnstable());
+            writeUnsigned(test.size());
+            for (Statement statement : test) {
+                writeStatement(statement);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.size() + 16 * strings.size() + 4);
+            out.write(MAGIC);
+            writeUnsigned(out, VERSION);
+            writeUnsigned(out, strings.size());
+            for (String string : strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                writeUnsigned(out, bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+            byte[] statements = body.toByteArray();
+            out.write(statements, 0, statements.length);
+            return out.toByteArray();
+        }
+
+        private void writeStatement(Statement statement) throws NotEncodableException {
+            if (!statement.getAssertions().isEmpty() || statement.getReturnValue().getOriginalCode() != null) {
+                throw new NotEncodableException();
+            }
+            Class<?> kind = statement.getClass();
+            if (kind == IntPrimitiveStatement.class) {
+                writeKind(INT, statement);
+                writeInt(((IntPrimitiveStatement) statement).getValue());
+            } else if (kind == LongPrimitiveStatement.class) {
+                writeKind(LONG, statement);
+                writeLong(((LongPrimitiveStatement) statement).getValue());
+            } else if (kind == ShortPrimitiveStatement.class) {
+                writeKind(SHORT, statement);
+                writeInt(((ShortPrimitiveStatement) statement).getValue());
+            } else if (kind == BytePrimitiveStatement.class) {
+                writeKind(BYTE, statement);
+                writeInt(((BytePrimitiveStatement) statement).getValue());
+            } else if (kind == CharPrimitiveStatement.class) {
+                writeKind(CHAR, statement);
+                writeUnsigned(((CharPrimitiveStatement) statement).getValue());
+            } else if (kind == BooleanPrimitiveStatement.class) {
+                writeKind(BOOLEAN, statement);
+                writeBoolean(((BooleanPrimitiveStatement) statement).getValue());
+            } else if (kind == FloatPrimitiveStatement.class) {
+                writeKind(FLOAT, statement);
+                writeFixed(Float.floatToRawIntBits(((FloatPrimitiveStatement) statement).getValue()), 4);
+            } else if (kind == DoublePrimitiveStatement.class) {
+                writeKind(DOUBLE, statement);
+                writeFixed(Double.doubleToRawLongBits(((DoublePrimitiveStatement) statement).getValue()), 8);
+            } else if (kind == StringPrimitiveStatement.class) {
+                writeKind(STRING, statement);
+                writeNullableString(((StringPrimitiveStatement) statement).getValue());
+            } else if (kind == EnumPrimitiveStatement.class) {
+                EnumPrimitiveStatement<?> enumStatement = (EnumPrimitiveStatement<?>) statement;
+                writeKind(ENUM, statement);
+                writeString(enumStatement.getEnumClass().getName());
+                Enum<?> value = enumStatement.getValue();
+                writeNullableString(value == null ? null : value.name());
+            } else if (kind == NullStatement.class) {
+                writeKind(NULL, statement);
+            } else if (kind == ArrayStatement.class) {
+                List<Integer> lengths = ((ArrayStatement) statement).getLengths();
+                writeKind(ARRAY, statement);
+                writeUnsigned(lengths.size());
+                for (int length : lengths) {
+                    writeInt(length);
+                }
+            } else if (kind == AssignmentStatement.class) {
+                writeUnsigned(ASSIGNMENT);
+                writeVariable(statement.getReturnValue());
+                writeVariable(((AssignmentStatement) statement).getValue());
+            } else if (kind == MethodStatement.class) {
+                MethodStatement ms = (MethodStatement) statement;
+                Method method = ms.getMethod().getMethod();
+                writeKind(METHOD, statement);
+                writeString(method.getDeclaringClass().getName());
+                writeString(method.getName());
+                writeString(org.objectweb.asm.Type.getMethodDescriptor(method));
+                writeMember(ms.getMethod());
+                writeVariable(ms.isStatic() ? null : ms.getCallee());
+                writeVariables(ms.getParameterReferences());
+            } else if (kind == ConstructorStatement.class) {
+                ConstructorStatement cs = (ConstructorStatement) statement;
+                Constructor<?> constructor = cs.getConstructor().getConstructor();
+                writeKind(CONSTRUCTOR, statement);
+                writeString(constructor.getDeclaringClass().getName());
+                writeString(org.objectweb.asm.Type.getConstructorDescriptor(constructor));
+                writeMember(cs.getConstructor());
+                writeVariables(cs.getParameterReferences());
+            } else if (kind == FieldStatement.class) {
+                FieldStatement fs = (FieldStatement) statement;
+                writeKind(FIELD, statement);
+                writeField(fs.getField());
+                writeVariable(fs.getField().isStatic() ? null : fs.getSource());
+            } else {
+                throw new NotEncodableException();
+            }
+
+            writeUnsigned(statement.getReturnValue().getDistance());
+            writeString(statement.getComment());
+        }
+
+        /**
+         * The type of the defined variable precedes the data of each statement,
+         * except for assignments which do not define a new variable
+         */
+        private void writeKind(int kind, Statement statement) throws NotEncodableException {
+            writeUnsigned(kind);
+            writeType(statement.getReturnValue().getType());
+        }
+
+        private void writeMember(GenericAccessibleObject<?> member) throws NotEncodableException {
+            writeType(member.getOwnerType());
+            List<GenericClass<?>> typeVariables = member.getTypeVariables();
+            writeUnsigned(typeVariables.size());
+            for (GenericClass<?> typeVariable : typeVariables) {
+                writeType(typeVariable.getType());
+            }
+        }
+
+        private void writeField(GenericField field) throws NotEncodableException {
+            writeString(field.getField().getDeclaringClass().getName());
+            writeString(field.getField().getName());
+            writeMember(field);
+        }
+
+        private void writeVariables(List<VariableReference> variables) throws NotEncodableException {
+            writeUnsigned(variables.size());
+            for (VariableReference variable : variables) {
+                writeVariable(variable);
+            }
+        }
+
+        private void writeVariable(VariableReference variable) throws NotEncodableException {
+            if (variable == null) {
+                writeUnsigned(NO_VARIABLE);
+            } else if (variable instanceof ConstantValue) {
+                writeUnsigned(CONSTANT);
+                writeType(variable.getType());
+                writeValue(((ConstantValue) variable).getValue());
+            } else if (variable instanceof ArrayIndex) {
+                ArrayIndex index = (ArrayIndex) variable;
+                writeUnsigned(ARRAY_INDEX);
+                writeVariable(index.getArray());
+                writeUnsigned(index.getArrayIndices().size());
+                for (int i : index.getArrayIndices()) {
+                    writeInt(i);
+                }
+            } else if (variable instanceof FieldReference) {
+                FieldReference field = (FieldReference) variable;
+                writeUnsigned(FIELD_REFERENCE);
+                writeField(field.getField());
+                writeType(field.getType());
+                writeVariable(field.getField().isStatic() ? null : field.getSource());
+            } else {
+                Integer position = positions.get(variable);
+                writeUnsigned(VARIABLE);
+                writeUnsigned(position != null ? position : variable.getStPosition());
+            }
+        }
+
+        private void writeValue(Object value) throws NotEncodableException {
+            if (value == null) {
+                writeUnsigned(NULL_VALUE);
+            } else if (value instanceof Integer) {
+                writeUnsigned(INT_VALUE);
+                writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                writeUnsigned(LONG_VALUE);
+                writeLong((Long) value);
+            } else if (value instanceof Short) {
+                writeUnsigned(SHORT_VALUE);
+                writeInt((Short) value);
+            } else if (value instanceof Byte) {
+                writeUnsigned(BYTE_VALUE);
+                writeInt((Byte) value);
+            } else if (value instanceof Character) {
+                writeUnsigned(CHAR_VALUE);
+                writeUnsigned((Character) value);
+            } else if (value instanceof Boolean) {
+                writeUnsigned(BOOLEAN_VALUE);
+                writeBoolean((Boolean) value);
+            } else if (value instanceof Float) {
+                writeUnsigned(FLOAT_VALUE);
+                writeFixed(Float.floatToRawIntBits((Float) value), 4);
+            } else if (value instanceof Double) {
+                writeUnsigned(DOUBLE_VALUE);
+                writeFixed(Double.doubleToRawLongBits((Double) value), 8);
+            } else if (value instanceof String) {
+                writeUnsigned(STRING_VALUE);
+                writeString((String) value);
+            } else {
+                throw new NotEncodableException();
+            }
+        }
+
+        private void writeType(Type type) throws NotEncodableException {
+            if (type == null) {
+                writeUnsigned(NO_TYPE);
+            } else if (type instanceof Class) {
+                writeUnsigned(CLASS);
+                writeString(((Class<?>) type).getName());
+            } else if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                writeUnsigned(PARAMETERIZED);
+                writeString(((Class<?>) parameterizedType.getRawType()).getName());
+                writeType(parameterizedType.getOwnerType());
+                writeTypes(parameterizedType.getActualTypeArguments());
+            } else if (type instanceof GenericArrayType) {
+                writeUnsigned(GENERIC_ARRAY);
+                writeType(((GenericArrayType) type).getGenericComponentType());
+            } else if (type instanceof WildcardType) {
+                WildcardType wildcardType = (WildcardType) type;
+                writeUnsigned(WILDCARD);
+                writeTypes(wildcardType.getUpperBounds());
+                writeTypes(wildcardType.getLowerBounds());
+            } else if (type instanceof TypeVariable
+                    && ((TypeVariable<?>) type).getGenericDeclaration() instanceof Class) {
+                TypeVariable<?> typeVariable = (TypeVariable<?>) type;
+                writeUnsigned(TYPE_VARIABLE);
+                writeString(((Class<?>) typeVariable.getGenericDeclaration()).getName());
+                writeString(typeVariable.getName());
+            } else {
+                // e.g. capture types, or type variables of methods
+                throw new NotEncodableException();
+            }
+        }
+
+        private void writeTypes(Type[] types) throws NotEncodableException {
+            writeUnsigned(types.length);
+            for (Type type : types) {
+                writeType(type);
+            }
+        }
+
+        private void writeString(String string) {
+            Integer index = strings.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.put(string, index);
+            }
+            writeUnsigned(index);
+        }
+
+        private void writeNullableString(String string) {
+            writeBoolean(string != null);
+            if (string != null) {
+                writeString(string);
+            }
+        }
+
+        private void writeBoolean(boolean value) {
+            body.write(value ? 1 : 0);
+        }
+
+        private void writeInt(int value) {
+            writeUnsigned(body, (value << 1) ^ (value >> 31));
+        }
+
+        private void writeLong(long value) {
+            writeUnsigned(body, (value << 1) ^ (value >> 63));
+        }
+
+        private void writeUnsigned(long value) {
+            writeUnsigned(body, value);
+        }
+
+        private void writeFixed(long bits, int bytes) {
+            for (int i = bytes - 1; i >= 0; i--) {
+                body.write((int) (bits >>> (8 * i)));
+            }
+        }
+
+        private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    private static final class Decoder {
+
+        private final byte[] data;
+
+        private final ClassLoader loader;
+
+        private int offset = 0;
+
+        private String[] strings;
+
+        /**
+         * Classes are resolved when first used, by index in the string table
+         */
+        private final Map<Integer, Class<?>> classes = new HashMap<>();
+
+        private DefaultTestCase test;
+
+        Decoder(byte[] data, ClassLoader loader) {
+            this.data = data;
+            this.loader = loader;
+        }
+
+        DefaultTestCase decode() throws IOException, ClassNotFoundException {
+            if (readByte() != MAGIC) {
+                throw new StreamCorruptedException("Not an encoded test");
+            }
+            int version = readUnsignedInt();
+            if (version != VERSION) {
+                throw new StreamCorruptedException("Unsupported version of encoded test: " + version);
+            }
+            strings = new String[readUnsignedInt()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readUnsignedInt();
+                checkAvailable(length);
+                strings[i] = new String(data, offset, length, StandardCharsets.UTF_8);
+                offset += length;
+            }
+
+            test = new DefaultTestCase();
+            test.setID(readInt());
+            test.setFailing(readBoolean());
+            test.setUnstable(readBoolean());
+            int size = readUnsignedInt();
+            for (int i = 0; i < size; i++) {
+                readStatement();
+            }
+            return test;
+        }
+
+        private void readStatement() throws IOException, ClassNotFoundException {
+            int kind = readUnsignedInt();
+            Type type = kind == ASSIGNMENT ? null : readType();
+            Statement statement;
+            switch (kind) {
+                case INT:
+                    statement = new IntPrimitiveStatement(test, readInt());
+                    break;
+                case LONG:
+                    statement = new LongPrimitiveStatement(test, readLong());
+                    break;
+                case SHORT:
+                    statement = new ShortPrimitiveStatement(test, (short) readInt());
+                    break;
+                case BYTE:
+                    statement = new BytePrimitiveStatement(test, (byte) readInt());
+                    break;
+                case CHAR:
+                    statement = new CharPrimitiveStatement(test, (char) readUnsignedInt());
+                    break;
+                case BOOLEAN:
+                    statement = new BooleanPrimitiveStatement(test, readBoolean());
+                    break;
+                case FLOAT:
+                    statement = new FloatPrimitiveStatement(test, Float.intBitsToFloat((int) readFixed(4)));
+                    break;
+                case DOUBLE:
+                    statement = new DoublePrimitiveStatement(test, Double.longBitsToDouble(readFixed(8)));
+                    break;
+                case STRING:
+                    statement = new StringPrimitiveStatement(test, readNullableString());
+                    break;
+                case ENUM:
+                    statement = readEnum();
+                    break;
+                case NULL:
+                    statement = new NullStatement(test, type);
+                    break;
+                case ARRAY: {
+                    int[] lengths = new int[readUnsignedInt()];
+                    for (int i = 0; i < lengths.length; i++) {
+                        lengths[i] = readInt();
+                    }
+                    statement = new ArrayStatement(test, type, lengths);
+                    break;
+                }
+                case ASSIGNMENT: {
+                    VariableReference variable = readVariable();
+                    VariableReference value = readVariable();
+                    statement = new AssignmentStatement(test, variable, value);
+                    break;
+                }
+                case METHOD: {
+                    Class<?> declaringClass = readClass();
+                    String name = readString();
+                    String descriptor = readString();
+                    Method method = null;
+                    for (Method candidate : declaringClass.getDeclaredMethods()) {
+                        if (candidate.getName().equals(name)
+                                && org.objectweb.asm.Type.getMethodDescriptor(candidate).equals(descriptor)) {
+                            method = candidate;
+                            break;
+                        }
+                    }
+                    if (method == null) {
+                        throw new StreamCorruptedException("Unknown method " + name + descriptor
+                                + " in class " + declaringClass.getName());
+                    }
+                    GenericMethod genericMethod = new GenericMethod(method, readType());
+                    genericMethod.setTypeParameters(readTypeVariables());
+                    VariableReference callee = readVariable();
+                    statement = new MethodStatement(test, genericMethod, callee, readVariables());
+                    break;
+                }
+                case CONSTRUCTOR: {
+                    Class<?> declaringClass = readClass();
+                    String descriptor = readString();
+                    Constructor<?> constructor = null;
+                    for (Constructor<?> candidate : declaringClass.getDeclaredConstructors()) {
+                        if (org.objectweb.asm.Type.getConstructorDescriptor(candidate).equals(descriptor)) {
+                            constructor = candidate;
+                            break;
+                        }
+                    }
+                    if (constructor == null) {
+                        throw new StreamCorruptedException("Unknown constructor " + descriptor
+                                + " in class " + declaringClass.getName());
+                    }
+                    GenericConstructor genericConstructor = new GenericConstructor(constructor, readType());
+                    genericConstructor.setTypeParameters(readTypeVariables());
+                    statement = new ConstructorStatement(test, genericConstructor, readVariables());
+                    break;
+                }
+                case FIELD: {
+                    GenericField field = readField();
+                    statement = new FieldStatement(test, field, readVariable());
+                    break;
+                }
+                default:
+                    throw new StreamCorruptedException("Unknown kind of statement: " + kind);
+            }
+
+            if (type != null && !type.equals(statement.getReturnValue().getType())) {
+                statement.getReturnValue().setType(type);
+            }
+            int distance = readUnsignedInt();
+            String comment = readString();
+            test.addStatement(statement);
+            statement.getReturnValue().setDistance(distance);
+            statement.addComment(comment);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Statement readEnum() throws IOException, ClassNotFoundException {
+            Class enumClass = readClass();
+            String name = readNullableString();
+            if (name == null) {
+                return new EnumPrimitiveStatement(test, enumClass);
+            }
+            return new EnumPrimitiveStatement(test, Enum.valueOf(enumClass, name));
+        }
+
+        private GenericField readField() throws IOException, ClassNotFoundException {
+            Class<?> declaringClass = readClass();
+            String name = readString();
+            Field field;
+            try {
+                field = declaringClass.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                throw new StreamCorruptedException("Unknown field " + name + " in class " + declaringClass.getName());
+            }
+            GenericField genericField = new GenericField(field, readType());
+            genericField.setTypeParameters(readTypeVariables());
+            return genericField;
+        }
+
+        private List<GenericClass<?>> readTypeVariables() throws IOException, ClassNotFoundException {
+            int size = readUnsignedInt();
+            List<GenericClass<?>> typeVariables = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                typeVariables.add(GenericClassFactory.get(readType()));
+            }
+            return typeVariables;
+        }
+
+        private List<VariableReference> readVariables() throws IOException, ClassNotFoundException {
+            int size = readUnsignedInt();
+            List<VariableReference> variables = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                variables.add(readVariable());
+            }
+            return variables;
+        }
+
+        private VariableReference readVariable() throws IOException, ClassNotFoundException {
+            int kind = readUnsignedInt();
+            switch (kind) {
+                case NO_VARIABLE:
+                    return null;
+                case CONSTANT: {
+                    Type type = readType();
+                    return new ConstantValue(test, GenericClassFactory.get(type), readValue());
+                }
+                case ARRAY_INDEX: {
+                    VariableReference array = readVariable();
+                    if (!(array instanceof ArrayReference)) {
+                        throw new StreamCorruptedException("Array index of a variable that is not an array");
+                    }
+                    int size = readUnsignedInt();
+                    List<Integer> indices = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        indices.add(readInt());
+                    }
+                    return new ArrayIndex(test, (ArrayReference) array, indices);
+                }
+                case FIELD_REFERENCE: {
+                    GenericField field = readField();
+                    Type type = readType();
+                    VariableReference source = readVariable();
+                    if (source == null) {
+                        return new FieldReference(test, field, type);
+                    }
+                    return new FieldReference(test, field, type, source);
+                }
+                case VARIABLE: {
+                    int position = readUnsignedInt();
+                    if (position >= test.size()) {
+                        throw new StreamCorruptedException("Reference to undefined variable at position " + position);
+                    }
+                    return test.getStatement(position).getReturnValue();
+                }
+                default:
+                    throw new StreamCorruptedException("Unknown kind of variable: " + kind);
+            }
+        }
+
+        private Object readValue() throws IOException {
+            int kind = readUnsignedInt();
+            switch (kind) {
+                case NULL_VALUE:
+                    return null;
+                case INT_VALUE:
+                    return readInt();
+                case LONG_VALUE:
+                    return readLong();
+                case SHORT_VALUE:
+                    return (short) readInt();
+                case BYTE_VALUE:
+                    return (byte) readInt();
+                case CHAR_VALUE:
+                    return (char) readUnsignedInt();
+                case BOOLEAN_VALUE:
+                    return readBoolean();
+                case FLOAT_VALUE:
+                    return Float.intBitsToFloat((int) readFixed(4));
+                case DOUBLE_VALUE:
+                    return Double.longBitsToDouble(readFixed(8));
+                case STRING_VALUE:
+                    return readString();
+                default:
+                    throw new StreamCorruptedException("Unknown kind of value: " + kind);
+            }
+        }
+
+        private Type readType() throws IOException, ClassNotFoundException {
+            int kind = readUnsignedInt();
+            switch (kind) {
+                case NO_TYPE:
+                    return null;
+                case CLASS:
+                    return readClass();
+                case PARAMETERIZED: {
+                    Class<?> rawType = readClass();
+                    Type ownerType = readType();
+                    return new ParameterizedTypeImpl(rawType, readTypes(), ownerType);
+                }
+                case GENERIC_ARRAY:
+                    return GenericArrayTypeImpl.createArrayType(readType());
+                case WILDCARD: {
+                    Type[] upperBounds = readTypes();
+                    return new WildcardTypeImpl(upperBounds, readTypes());
+                }
+                case TYPE_VARIABLE: {
+                    Class<?> declaration = readClass();
+                    String name = readString();
+                    for (TypeVariable<?> typeVariable : declaration.getTypeParameters()) {
+                        if (typeVariable.getName().equals(name)) {
+                            return typeVariable;
+                        }
+                    }
+                    throw new StreamCorruptedException("Unknown type variable " + name + " of " + declaration.getName());
+                }
+                default:
+                    throw new StreamCorruptedException("Unknown kind of type: " + kind);
+            }
+        }
+
+        private Type[] readTypes() throws IOException, ClassNotFoundException {
+            Type[] types = new Type[readUnsignedInt()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = readType();
+            }
+            return types;
+        }
+
+        private Class<?> readClass() throws IOException, ClassNotFoundException {
+            int index = readUnsignedInt();
+            Class<?> clazz = classes.get(index);
+            if (clazz == null) {
+                clazz = loadClass(string(index));
+                classes.put(index, clazz);
+            }
+            return clazz;
+        }
+
+        private Class<?> loadClass(String name) throws ClassNotFoundException {
+            switch (name) {
+                case "void":
+                    return void.class;
+                case "int":
+                    return int.class;
+                case "long":
+                    return long.class;
+                case "short":
+                    return short.class;
+                case "byte":
+                    return byte.class;
+                case "char":
+                    return char.class;
+                case "boolean":
+                    return boolean.class;
+                case "float":
+                    return float.class;
+                case "double":
+                    return double.class;
+                default:
+                    return Class.forName(name, false, loader);
+            }
+        }
+
+        private String readString() throws IOException {
+            return string(readUnsignedInt());
+        }
+
+        private String string(int index) throws StreamCorruptedException {
+            if (index >= strings.length) {
+                throw new StreamCorruptedException("Unknown string " + index);
+            }
+            return strings[index];
+        }
+
+        private String readNullableString() throws IOException {
+            return readBoolean() ? readString() : null;
+        }
+
+        private boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        private int readInt() throws IOException {
+            int value = (int) readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readLong() throws IOException {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private int readUnsignedInt() throws IOException {
+            long value = readUnsigned();
+            if (value > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Invalid length or index: " + value);
+            }
+            return (int) value;
+        }
+
+        private long readUnsigned() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed variable-length integer");
+        }
+
+        private long readFixed(int bytes) throws IOException {
+            long bits = 0;
+            for (int i = 0; i < bytes; i++) {
+                bits = (bits << 8) | readByte();
+            }
+            return bits;
+        }
+
+        private int readByte() throws IOException {
+            checkAvailable(1);
+            return data[offset++] & 0xFF;
+        }
+
+        private void checkAvailable(int bytes) throws StreamCorruptedException {
+            if (bytes < 0 || offset + bytes > data.length) {
+                throw new StreamCorruptedException("Unexpected end of encoded test");
+            }
+        }
+    }
+}
@@ -31,7 +31,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Remove all statements from a test case that do not contribute to the fitness
@@ -44,6 +47,8 @@ public class TestCaseMinimizer {
 
     private final TestFitnessFunction fitnessFunction;
 
+    private int numExecutions = 0;
+
     /**
      * Constructor
      *
@@ -103,6 +108,14 @@ public class TestCaseMinimizer {
         return !TimeController.getInstance().isThereStillTimeInThisPhase();
     }
 
+    /**
+     * @return number of executions of the test done so far to check whether
+     * a removal worsened the fitness
+     */
+    public int getNumExecutions() {
+        return numExecutions;
+    }
+
     /**
      * Central minimization function. Loop and try to remove until all
      * statements have been checked.
@@ -117,6 +130,7 @@ public class TestCaseMinimizer {
 
 
         double fitness = fitnessFunction.getFitness(c);
+        numExecutions++;
         if (isTimeoutReached()) {
             return;
         }
@@ -128,6 +142,43 @@ public class TestCaseMinimizer {
             return;
         }
 
+        boolean completed;
+        if (Properties.MINIMIZATION_STRATEGY == Properties.MinimizationStrategy.SLICE) {
+            completed = removeOutsideOfSlice(c) && removeChunks(c);
+        } else {
+            completed = removeIteratively(c);
+        }
+        if (!completed) {
+            return;
+        }
+
+        //TODO: add back this check
+        assert (fitnessFunction.isMaximizationFunction() ?
+                fitnessFunction.getFitness(c) >= fitness : fitnessFunction.getFitness(c) <= fitness)
+                :
+                "Minimization worsened " + fitnessFunction.getClass().getName() + " fitness from " + fitness +
+                        " to " + fitnessFunction.getFitness(c) + " on test " + c.getTestCase().toCode();
+
+
+        if (Properties.MINIMIZE_VALUES) {
+            logger.info("Minimizing values of test case");
+            ValueMinimizer minimizer = new ValueMinimizer();
+            minimizer.minimize(c, fitnessFunction);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Minimized test case: ");
+            logger.debug(c.test.toCode());
+        }
+
+    }
+
+    /**
+     * Try to delete one statement at a time, starting from the end
+     *
+     * @return false if the timeout was reached
+     */
+    private boolean removeIteratively(TestChromosome c) {
         boolean changed = true;
 
         while (changed) {
@@ -136,7 +187,7 @@ public class TestCaseMinimizer {
             for (int i = c.test.size() - 1; i >= 0; i--) {
                 if (isTimeoutReached()) {
                     logger.debug("Timeout reached before minimizing statement {}", c.test.getStatement(i).getCode());
-                    return;
+                    return false;
                 }
 
                 logger.debug("Deleting statement {}", c.test.getStatement(i).getCode());
@@ -160,10 +211,10 @@ public class TestCaseMinimizer {
                 if (isTimeoutReached()) {
                     logger.debug("Keeping original version due to timeout");
                     restoreTestCase(c, copy);
-                    return;
+                    return false;
                 }
 
-                if (!isWorse(fitnessFunction, copy, c)) {
+                if (!isWorse(c, copy)) {
                     logger.debug("Keeping shorter version");
                     changed = true;
                     break;
@@ -174,26 +225,162 @@ public class TestCaseMinimizer {
 
             }
         }
+        return true;
+    }
 
-        //TODO: add back this check
-        assert (fitnessFunction.isMaximizationFunction() ?
-                fitnessFunction.getFitness(c) >= fitness : fitnessFunction.getFitness(c) <= fitness)
-                :
-                "Minimization worsened " + fitnessFunction.getClass().getName() + " fitness from " + fitness +
-                        " to " + fitnessFunction.getFitness(c) + " on test " + c.getTestCase().toCode();
+    /**
+     * Reduce the test to the shortest prefix that is as good as the whole
+     * test, and then to the statements its last statement depends on. Each
+     * reduction is checked with a single execution.
+     *
+     * @return false if the timeout was reached
+     */
+    private boolean removeOutsideOfSlice(TestChromosome c) {
+        // Bisect the length of the prefix, assuming that the goal remains
+        // covered once it is covered by a prefix
+        int low = 1;
+        while (low < c.test.size()) {
+            if (isTimeoutReached())
+                return false;
+
+            int length = (low + c.test.size()) / 2;
+            TestChromosome copy = c.clone();
+            c.test.chop(length);
+            c.setChanged(true);
+            if (isWorse(c, copy)) {
+                restoreTestCase(c, copy);
+                low = length + 1;
+            } else {
+                logger.debug("Keeping prefix of length {}", length);
+            }
+        }
 
+        if (isTimeoutReached())
+            return false;
 
-        if (Properties.MINIMIZE_VALUES) {
-            logger.info("Minimizing values of test case");
-            ValueMinimizer minimizer = new ValueMinimizer();
-            minimizer.minimize(c, fitnessFunction);
+        Set<Integer> slice = getBackwardSlice(c.test, c.test.size() - 1);
+        if (slice.size() == c.test.size())
+            return true;
+
+        TestChromosome copy = c.clone();
+        for (int i = c.test.size() - 1; i >= 0; i--) {
+            if (!slice.contains(i))
+                c.test.remove(i);
         }
+        c.setChanged(true);
+        if (isWorse(c, copy)) {
+            logger.debug("Statements outside of the slice are needed");
+            restoreTestCase(c, copy);
+        } else {
+            logger.debug("Reduced test to slice of {} statements", slice.size());
+        }
+        return true;
+    }
 
-        if (logger.isDebugEnabled()) {
-            logger.debug("Minimized test case: ");
-            logger.debug(c.test.toCode());
+    /**
+     * Delta debugging: try to remove chunks of statements, starting with
+     * halves of the test, and use smaller chunks when no chunk can be
+     * removed, until single statements can no longer be removed.
+     *
+     * @return false if the timeout was reached
+     */
+    private boolean removeChunks(TestChromosome c) {
+        int granularity = 2;
+        while (!c.test.isEmpty()) {
+            int size = c.test.size();
+            granularity = Math.min(granularity, size);
+            int chunkSize = (size + granularity - 1) / granularity;
+
+            boolean removed = false;
+            for (int end = size; end > 0 && !removed; end -= chunkSize) {
+                if (isTimeoutReached())
+                    return false;
+                removed = removeChunk(c, Math.max(0, end - chunkSize), end);
+            }
+
+            if (removed) {
+                granularity = Math.max(granularity - 1, 2);
+            } else if (granularity >= size) {
+                break;
+            } else {
+                granularity = Math.min(granularity * 2, size);
+            }
         }
+        return true;
+    }
+
+    /**
+     * @return true if the statements from start (inclusive) to end
+     * (exclusive) were removed without worsening the fitness
+     */
+    private boolean removeChunk(TestChromosome c, int start, int end) {
+        TestChromosome copy = c.clone();
+        boolean modified = false;
+        try {
+            // Deleting a statement only affects the statements after it
+            for (int i = end - 1; i >= start; i--) {
+                modified |= TestFactory.getInstance().deleteStatementGracefully(c.test, i);
+            }
+        } catch (ConstructionFailedException e) {
+            modified = false;
+        }
+
+        if (!modified) {
+            c.setChanged(false);
+            c.test = copy.test;
+            return false;
+        }
+
+        c.setChanged(true);
+        if (isWorse(c, copy)) {
+            restoreTestCase(c, copy);
+            return false;
+        }
+        logger.debug("Removed statements {} to {}", start, end - 1);
+        return true;
+    }
+
+    private boolean isWorse(TestChromosome c, TestChromosome copy) {
+        numExecutions++;
+        return isWorse(fitnessFunction, copy, c);
+    }
+
+    /**
+     * Statements a given statement may depend on: those defining variables
+     * it uses, and those using mutable objects it uses, transitively
+     *
+     * @param test     a test case
+     * @param position position of the statement
+     * @return positions of the statements in the slice, including the
+     * statement itself
+     */
+    static Set<Integer> getBackwardSlice(TestCase test, int position) {
+        Set<Integer> slice = new TreeSet<>();
+        Set<Integer> used = new HashSet<>();
+        for (int i = position; i >= 0; i--) {
+            Statement statement = test.getStatement(i);
+            boolean dependent = i == position || used.contains(i);
+            if (!dependent) {
+                for (VariableReference var : statement.getVariableReferences()) {
+                    int definition = var.getStPosition();
+                    if (definition != i && used.contains(definition) && isMutable(var)) {
+                        dependent = true;
+                        break;
+                    }
+                }
+            }
+            if (dependent) {
+                slice.add(i);
+                for (VariableReference var : statement.getVariableReferences()) {
+                    used.add(var.getStPosition());
+                }
+            }
+        }
+        return slice;
+    }
 
+    private static boolean isMutable(VariableReference var) {
+        return !var.isPrimitive() && !var.isWrapperType() && !var.isString() && !var.isEnum();
     }
 
     private static void restoreTestCase(TestChromosome c, TestChromosome copy) {
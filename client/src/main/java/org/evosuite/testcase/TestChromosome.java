@@ -44,6 +44,8 @@ import org.evosuite.runtime.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.function.BiConsumer;
@@ -69,9 +71,10 @@ public final class TestChromosome extends AbstractTestChromosome<TestChromosome>
 
 
     /**
-     * To keep track of what has changed since last fitness evaluation
+     * To keep track of what has changed since last fitness evaluation. Not
+     * serialized, as the entries refer to the statements of the test
      */
-    protected MutationHistory<TestMutationHistoryEntry> mutationHistory = new MutationHistory<>();
+    protected transient MutationHistory<TestMutationHistoryEntry> mutationHistory = new MutationHistory<>();
 
     /**
      * Secondary objectives used during ranking
@@ -735,5 +738,9 @@ public final class TestChromosome extends AbstractTestChromosome<TestChromosome>
         }
     }
 
-
+    private void readObject(ObjectInputStream ois) throws ClassNotFoundException,
+            IOException {
+        ois.defaultReadObject();
+        mutationHistory = new MutationHistory<>();
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveExpression;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.VariableReference;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical structural representation of a test case: the kind of each
+ * statement, the called methods, constructors and fields, the primitive
+ * values, the declared types and how the statements are wired through their
+ * variables. Two tests with equal fingerprints execute in the same way, so
+ * the fingerprint can be used as a key for the results of an execution.
+ * <p>
+ * Variables are represented by the position of the statement defining them,
+ * so the fingerprint does not depend on the identity of the statements.
+ */
+public final class TestFingerprint {
+
+    private enum Token {
+        NULL, VARIABLE, CONSTANT, ARRAY_INDEX, FIELD
+    }
+
+    private final Object[] tokens;
+
+    private final int hashCode;
+
+    private TestFingerprint(Object[] tokens) {
+        this.tokens = tokens;
+        this.hashCode = Arrays.hashCode(tokens);
+    }
+
+    /**
+     * @param test a test case
+     * @return the fingerprint of the test, or null if the test contains
+     * statements whose execution cannot be described by a fingerprint,
+     * e.g. functional mocks that change their state during execution
+     */
+    public static TestFingerprint of(TestCase test) {
+        Map<VariableReference, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < test.size(); i++) {
+            positions.put(test.getStatement(i).getReturnValue(), i);
+        }
+
+        List<Object> tokens = new ArrayList<>();
+        for (Statement statement : test) {
+            if (!addStatement(statement, positions, tokens)) {
+                return null;
+            }
+        }
+        return new TestFingerprint(tokens.toArray());
+    }
+
+    private static boolean addStatement(Statement statement, Map<VariableReference, Integer> positions,
+                                        List<Object> tokens) {
+        tokens.add(statement.getClass());
+        tokens.add(statement.getReturnValue().getType());
+
+        if (statement instanceof PrimitiveStatement) {
+            tokens.add(((PrimitiveStatement<?>) statement).getValue());
+        } else if (statement instanceof NullStatement) {
+            // the type is all there is
+        } else if (statement instanceof ArrayStatement) {
+            tokens.add(((ArrayStatement) statement).getLengths());
+        } else if (statement instanceof MethodStatement) {
+            MethodStatement ms = (MethodStatement) statement;
+            tokens.add(ms.getMethod().getMethod());
+            addVariable(ms.isStatic() ? null : ms.getCallee(), positions, tokens);
+            addVariables(ms.getParameterReferences(), positions, tokens);
+        } else if (statement instanceof ConstructorStatement) {
+            ConstructorStatement cs = (ConstructorStatement) statement;
+            tokens.add(cs.getConstructor().getConstructor());
+            addVariables(cs.getParameterReferences(), positions, tokens);
+        } else if (statement instanceof FieldStatement) {
+            FieldStatement fs = (FieldStatement) statement;
+            tokens.add(fs.getField().getField());
+            addVariable(fs.getField().isStatic() ? null : fs.getSource(), positions, tokens);
+        } else if (statement instanceof AssignmentStatement) {
+            addVariable(statement.getReturnValue(), positions, tokens);
+            addVariable(((AssignmentStatement) statement).getValue(), positions, tokens);
+        } else if (statement instanceof PrimitiveExpression) {
+            PrimitiveExpression expression = (PrimitiveExpression) statement;
+            tokens.add(expression.getOperator());
+            addVariable(expression.getLeftOperand(), positions, tokens);
+            addVariable(expression.getRightOperand(), positions, tokens);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static void addVariables(List<VariableReference> variables, Map<VariableReference, Integer> positions,
+                                     List<Object> tokens) {
+        tokens.add(variables.size());
+        for (VariableReference variable : variables) {
+            addVariable(variable, positions, tokens);
+        }
+    }
+
+    private static void addVariable(VariableReference variable, Map<VariableReference, Integer> positions,
+                                    List<Object> tokens) {
+        if (variable == null) {
+            tokens.add(Token.NULL);
+        } else if (variable instanceof ConstantValue) {
+            tokens.add(Token.CONSTANT);
+            tokens.add(variable.getType());
+            tokens.add(((ConstantValue) variable).getValue());
+        } else if (variable instanceof ArrayIndex) {
+            ArrayIndex index = (ArrayIndex) variable;
+            tokens.add(Token.ARRAY_INDEX);
+            addVariable(index.getArray(), positions, tokens);
+            tokens.add(new ArrayList<>(index.getArrayIndices()));
+        } else if (variable instanceof FieldReference) {
+            FieldReference field = (FieldReference) variable;
+            tokens.add(Token.FIELD);
+            tokens.add(field.getField().getField());
+            addVariable(field.getSource(), positions, tokens);
+        } else {
+            Integer position = positions.get(variable);
+            tokens.add(Token.VARIABLE);
+            tokens.add(position != null ? position : variable.getStPosition());
+        }
+    }
+
+    public int size() {
+        return tokens.length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null || getClass() != obj.getClass())
+            return false;
+        TestFingerprint other = (TestFingerprint) obj;
+        return hashCode == other.hashCode && Arrays.equals(tokens, other.tokens);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -21,6 +21,7 @@ package org.evosuite.testcase;
 
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testsuite.TestSuiteChromosome;
 
@@ -91,7 +92,7 @@ public abstract class TestFitnessFunction
      * {@inheritDoc}
      */
     public ExecutionResult runTest(TestCase test) {
-        return TestCaseExecutor.runTest(test);
+        return ExecutionResultCache.getInstance().execute(test, TestCaseExecutor::runTest);
     }
 
     /**
@@ -0,0 +1,550 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Branch distances and branch coverage counters of one execution, stored in
+ * primitive arrays indexed by the branch id of the {@link org.evosuite.coverage.branch.BranchPool}.
+ * <p>
+ * While a test is executed the table is <em>dense</em>: every value array has
+ * one slot per branch id, so recording a passed branch neither boxes nor
+ * allocates. The {@link ExecutionTracer} keeps one dense table and resets it in
+ * place between executions; once an execution is over, its data is moved into
+ * a <em>compact</em> table (sorted ids plus values, one slot per touched
+ * branch) that is kept by the {@link ExecutionTrace}.
+ * <p>
+ * The contents are exposed to the rest of EvoSuite through read-only
+ * {@link Map} views, which is what the {@link ExecutionTrace} interface expects.
+ */
+public class BranchDistanceTable {
+
+    private static final int[] NO_INTS = new int[0];
+
+    private static final double[] NO_DOUBLES = new double[0];
+
+    private static final boolean[] NO_BOOLEANS = new boolean[0];
+
+    /**
+     * If true, the value arrays are indexed by branch id, otherwise by the
+     * position of the branch id in {@link #ids}
+     */
+    private boolean dense;
+
+    /**
+     * Dense: the touched branch ids in the order they were first passed.
+     * Compact: the touched branch ids in ascending order.
+     */
+    private int[] ids = NO_INTS;
+
+    private int size = 0;
+
+    /**
+     * Only used when dense: whether a branch id has been passed
+     */
+    private boolean[] seen = NO_BOOLEANS;
+
+    private double[] trueDistances = NO_DOUBLES;
+
+    private double[] falseDistances = NO_DOUBLES;
+
+    private double[] trueDistancesSum = NO_DOUBLES;
+
+    private double[] falseDistancesSum = NO_DOUBLES;
+
+    private int[] predicateCount = NO_INTS;
+
+    private int[] trueCount = NO_INTS;
+
+    private int[] falseCount = NO_INTS;
+
+    private int numPredicates = 0;
+
+    private int numTrue = 0;
+
+    private int numFalse = 0;
+
+    private final Map<Integer, Double> trueDistancesView = new DoubleView() {
+        @Override
+        double value(int slot) {
+            return trueDistances[slot];
+        }
+    };
+
+    private final Map<Integer, Double> falseDistancesView = new DoubleView() {
+        @Override
+        double value(int slot) {
+            return falseDistances[slot];
+        }
+    };
+
+    private final Map<Integer, Double> trueDistancesSumView = new DoubleView() {
+        @Override
+        double value(int slot) {
+            return trueDistancesSum[slot];
+        }
+    };
+
+    private final Map<Integer, Double> falseDistancesSumView = new DoubleView() {
+        @Override
+        double value(int slot) {
+            return falseDistancesSum[slot];
+        }
+    };
+
+    private final Map<Integer, Integer> predicateCountView = new CountView() {
+        @Override
+        int[] counts() {
+            return predicateCount;
+        }
+
+        @Override
+        public int size() {
+            return numPredicates;
+        }
+    };
+
+    /**
+     * Creates an empty dense table that grows on demand
+     */
+    public BranchDistanceTable() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty dense table with room for the branch ids
+     * <code>0..capacity-1</code>
+     *
+     * @param capacity the number of branch ids to allocate slots for
+     */
+    public BranchDistanceTable(int capacity) {
+        dense = true;
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Make sure a dense table has slots for the branch ids
+     * <code>0..capacity-1</code>. Compact tables are not affected.
+     *
+     * @param capacity the number of branch ids to allocate slots for
+     */
+    public synchronized void ensureCapacity(int capacity) {
+        if (!dense || capacity <= seen.length)
+            return;
+
+        seen = Arrays.copyOf(seen, capacity);
+        trueDistances = Arrays.copyOf(trueDistances, capacity);
+        falseDistances = Arrays.copyOf(falseDistances, capacity);
+        trueDistancesSum = Arrays.copyOf(trueDistancesSum, capacity);
+        falseDistancesSum = Arrays.copyOf(falseDistancesSum, capacity);
+        predicateCount = Arrays.copyOf(predicateCount, capacity);
+        trueCount = Arrays.copyOf(trueCount, capacity);
+        falseCount = Arrays.copyOf(falseCount, capacity);
+        if (ids.length < capacity)
+            ids = Arrays.copyOf(ids, capacity);
+    }
+
+    /**
+     * Record one evaluation of a branch
+     *
+     * @param branch        the branch id
+     * @param trueDistance  distance to the true outcome
+     * @param falseDistance distance to the false outcome
+     * @param countCoverage whether the coverage counters are updated as well
+     */
+    public synchronized void branchPassed(int branch, double trueDistance, double falseDistance,
+                                          boolean countCoverage) {
+        if (!dense)
+            inflate();
+
+        if (branch >= seen.length)
+            ensureCapacity(Math.max(branch + 1, 2 * seen.length));
+
+        if (countCoverage) {
+            if (predicateCount[branch]++ == 0)
+                numPredicates++;
+            if (trueDistance == 0.0 && trueCount[branch]++ == 0)
+                numTrue++;
+            if (falseDistance == 0.0 && falseCount[branch]++ == 0)
+                numFalse++;
+        }
+
+        if (!seen[branch]) {
+            seen[branch] = true;
+            ids[size++] = branch;
+            trueDistances[branch] = trueDistance;
+            falseDistances[branch] = falseDistance;
+            trueDistancesSum[branch] = trueDistance;
+            falseDistancesSum[branch] = falseDistance;
+        } else {
+            trueDistances[branch] = Math.min(trueDistances[branch], trueDistance);
+            falseDistances[branch] = Math.min(falseDistances[branch], falseDistance);
+            trueDistancesSum[branch] += trueDistance;
+            falseDistancesSum[branch] += falseDistance;
+        }
+    }
+
+    /**
+     * Forget all recorded branches. A dense table keeps its arrays and only
+     * resets the slots that were touched.
+     */
+    public synchronized void clear() {
+        if (dense) {
+            for (int i = 0; i < size; i++) {
+                int branch = ids[i];
+                seen[branch] = false;
+                trueDistances[branch] = 0.0;
+                falseDistances[branch] = 0.0;
+                trueDistancesSum[branch] = 0.0;
+                falseDistancesSum[branch] = 0.0;
+                predicateCount[branch] = 0;
+                trueCount[branch] = 0;
+                falseCount[branch] = 0;
+            }
+        } else {
+            dense = true;
+            ids = NO_INTS;
+            trueDistances = NO_DOUBLES;
+            falseDistances = NO_DOUBLES;
+            trueDistancesSum = NO_DOUBLES;
+            falseDistancesSum = NO_DOUBLES;
+            predicateCount = NO_INTS;
+            trueCount = NO_INTS;
+            falseCount = NO_INTS;
+        }
+        size = 0;
+        numPredicates = 0;
+        numTrue = 0;
+        numFalse = 0;
+    }
+
+    /**
+     * Turn this table into a compact one and hand its dense arrays over to a
+     * new, empty table. The views of this table remain valid.
+     *
+     * @return a cleared dense table reusing the arrays of this table
+     */
+    public synchronized BranchDistanceTable detach() {
+        BranchDistanceTable storage = new BranchDistanceTable();
+        if (!dense)
+            return storage;
+
+        storage.ids = ids;
+        storage.size = size;
+        storage.seen = seen;
+        storage.trueDistances = trueDistances;
+        storage.falseDistances = falseDistances;
+        storage.trueDistancesSum = trueDistancesSum;
+        storage.falseDistancesSum = falseDistancesSum;
+        storage.predicateCount = predicateCount;
+        storage.trueCount = trueCount;
+        storage.falseCount = falseCount;
+        storage.numPredicates = numPredicates;
+        storage.numTrue = numTrue;
+        storage.numFalse = numFalse;
+
+        storage.copyCompactInto(this);
+        storage.clear();
+        return storage;
+    }
+
+    /**
+     * @return a compact copy of this table
+     */
+    public synchronized BranchDistanceTable copy() {
+        BranchDistanceTable copy = new BranchDistanceTable();
+        copyCompactInto(copy);
+        return copy;
+    }
+
+    private void copyCompactInto(BranchDistanceTable target) {
+        int[] sortedIds = Arrays.copyOf(ids, size);
+        if (dense)
+            Arrays.sort(sortedIds);
+
+        double[] t = new double[size];
+        double[] f = new double[size];
+        double[] tSum = new double[size];
+        double[] fSum = new double[size];
+        int[] pCount = new int[size];
+        int[] tCount = new int[size];
+        int[] fCount = new int[size];
+        for (int i = 0; i < size; i++) {
+            int slot = dense ? sortedIds[i] : i;
+            t[i] = trueDistances[slot];
+            f[i] = falseDistances[slot];
+            tSum[i] = trueDistancesSum[slot];
+            fSum[i] = falseDistancesSum[slot];
+            pCount[i] = predicateCount[slot];
+            tCount[i] = trueCount[slot];
+            fCount[i] = falseCount[slot];
+        }
+
+        target.dense = false;
+        target.ids = sortedIds;
+        target.size = size;
+        target.seen = NO_BOOLEANS;
+        target.trueDistances = t;
+        target.falseDistances = f;
+        target.trueDistancesSum = tSum;
+        target.falseDistancesSum = fSum;
+        target.predicateCount = pCount;
+        target.trueCount = tCount;
+        target.falseCount = fCount;
+        target.numPredicates = numPredicates;
+        target.numTrue = numTrue;
+        target.numFalse = numFalse;
+    }
+
+    /**
+     * A compact table that is written to again (e.g. a cloned trace) goes
+     * back to the dense layout
+     */
+    private void inflate() {
+        int capacity = size == 0 ? 0 : ids[size - 1] + 1;
+        BranchDistanceTable table = new BranchDistanceTable(capacity);
+        for (int i = 0; i < size; i++) {
+            int branch = ids[i];
+            table.seen[branch] = true;
+            table.ids[i] = branch;
+            table.trueDistances[branch] = trueDistances[i];
+            table.falseDistances[branch] = falseDistances[i];
+            table.trueDistancesSum[branch] = trueDistancesSum[i];
+            table.falseDistancesSum[branch] = falseDistancesSum[i];
+            table.predicateCount[branch] = predicateCount[i];
+            table.trueCount[branch] = trueCount[i];
+            table.falseCount[branch] = falseCount[i];
+        }
+        dense = true;
+        ids = table.ids;
+        seen = table.seen;
+        trueDistances = table.trueDistances;
+        falseDistances = table.falseDistances;
+        trueDistancesSum = table.trueDistancesSum;
+        falseDistancesSum = table.falseDistancesSum;
+        predicateCount = table.predicateCount;
+        trueCount = table.trueCount;
+        falseCount = table.falseCount;
+    }
+
+    /**
+     * @param branch a branch id
+     * @return the index of the branch in the value arrays, or -1 if the branch
+     * has not been passed
+     */
+    private int slot(int branch) {
+        if (dense)
+            return branch >= 0 && branch < seen.length && seen[branch] ? branch : -1;
+        int index = Arrays.binarySearch(ids, 0, size, branch);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @return whether the given branch was passed at least once
+     */
+    public synchronized boolean hasBranch(int branch) {
+        return slot(branch) >= 0;
+    }
+
+    /**
+     * @return whether the true outcome of the given branch was covered
+     */
+    public synchronized boolean isCoveredTrue(int branch) {
+        int slot = slot(branch);
+        return slot >= 0 && trueCount[slot] > 0;
+    }
+
+    /**
+     * @return whether the false outcome of the given branch was covered
+     */
+    public synchronized boolean isCoveredFalse(int branch) {
+        int slot = slot(branch);
+        return slot >= 0 && falseCount[slot] > 0;
+    }
+
+    /**
+     * @return the number of distinct branches that were passed
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return whether the table is in its dense layout
+     */
+    public synchronized boolean isDense() {
+        return dense;
+    }
+
+    /**
+     * @return read-only view branch id -> minimal distance to the true outcome
+     */
+    public Map<Integer, Double> getTrueDistances() {
+        return trueDistancesView;
+    }
+
+    /**
+     * @return read-only view branch id -> minimal distance to the false outcome
+     */
+    public Map<Integer, Double> getFalseDistances() {
+        return falseDistancesView;
+    }
+
+    /**
+     * @return read-only view branch id -> sum of distances to the true outcome
+     */
+    public Map<Integer, Double> getTrueDistancesSum() {
+        return trueDistancesSumView;
+    }
+
+    /**
+     * @return read-only view branch id -> sum of distances to the false outcome
+     */
+    public Map<Integer, Double> getFalseDistancesSum() {
+        return falseDistancesSumView;
+    }
+
+    /**
+     * @return read-only view branch id -> number of executions
+     */
+    public Map<Integer, Integer> getPredicateExecutionCount() {
+        return predicateCountView;
+    }
+
+    /**
+     * Read-only map over the touched branches of this table. A slot is
+     * included if {@link #includes(int)} holds.
+     */
+    private abstract class View<V> extends AbstractMap<Integer, V> {
+
+        abstract boolean includes(int slot);
+
+        abstract V boxedValue(int slot);
+
+        @Override
+        public V get(Object key) {
+            if (!(key instanceof Integer))
+                return null;
+            synchronized (BranchDistanceTable.this) {
+                int slot = slot((Integer) key);
+                return slot >= 0 && includes(slot) ? boxedValue(slot) : null;
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (!(key instanceof Integer))
+                return false;
+            synchronized (BranchDistanceTable.this) {
+                int slot = slot((Integer) key);
+                return slot >= 0 && includes(slot);
+            }
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            return new AbstractSet<Entry<Integer, V>>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    return new Iterator<Entry<Integer, V>>() {
+                        private int position = advance(0);
+
+                        private int advance(int from) {
+                            synchronized (BranchDistanceTable.this) {
+                                while (from < size && !includes(dense ? ids[from] : from))
+                                    from++;
+                                return from;
+                            }
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            synchronized (BranchDistanceTable.this) {
+                                return position < size;
+                            }
+                        }
+
+                        @Override
+                        public Entry<Integer, V> next() {
+                            synchronized (BranchDistanceTable.this) {
+                                if (position >= size)
+                                    throw new NoSuchElementException();
+                                int branch = ids[position];
+                                int slot = dense ? branch : position;
+                                Entry<Integer, V> entry = new SimpleImmutableEntry<>(branch, boxedValue(slot));
+                                position = advance(position + 1);
+                                return entry;
+                            }
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return View.this.size();
+                }
+            };
+        }
+    }
+
+    private abstract class DoubleView extends View<Double> {
+
+        abstract double value(int slot);
+
+        @Override
+        boolean includes(int slot) {
+            return true;
+        }
+
+        @Override
+        Double boxedValue(int slot) {
+            return value(slot);
+        }
+
+        @Override
+        public int size() {
+            synchronized (BranchDistanceTable.this) {
+                return size;
+            }
+        }
+    }
+
+    private abstract class CountView extends View<Integer> {
+
+        abstract int[] counts();
+
+        @Override
+        boolean includes(int slot) {
+            return counts()[slot] > 0;
+        }
+
+        @Override
+        Integer boxedValue(int slot) {
+            return counts()[slot];
+        }
+    }
+}
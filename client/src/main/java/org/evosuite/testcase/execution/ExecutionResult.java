@@ -412,6 +412,8 @@ public class ExecutionResult implements Cloneable {
         copy.trace = trace.lazyClone();
         copy.explicitExceptions.putAll(explicitExceptions);
         copy.executionTime = executionTime;
+        copy.executedStatements = executedStatements;
+        copy.hasSecurityException = hasSecurityException;
         copy.inputGoals = new LinkedHashMap<>(inputGoals);
         copy.outputGoals = new LinkedHashMap<>(outputGoals);
         for (Class<?> clazz : traces.keySet()) {
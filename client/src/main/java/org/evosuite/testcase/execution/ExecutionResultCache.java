@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestFingerprint;
+import org.evosuite.testcase.statements.environment.AccessedEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of execution results, keyed by the
+ * {@link TestFingerprint} of the executed test. Crossover and mutation often
+ * produce tests identical to one executed before, whose execution can then
+ * be skipped.
+ * <p>
+ * This is only done as long as the SUT is deterministic under the mocks of
+ * EvoSuite, i.e. when non-deterministic JVM calls are replaced, the file
+ * system and network are virtual, static state is reset between tests and no
+ * execution observer needs to see the execution. Results of tests that timed
+ * out or wrote static state outside of class initializers are not cached.
+ * <p>
+ * A hit counts towards the test and statement budgets like an execution, and
+ * gives the test the environment accessed by the cached execution.
+ */
+public class ExecutionResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionResultCache.class);
+
+    private static ExecutionResultCache instance = null;
+
+    private final Map<TestFingerprint, Entry> results = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private static class Entry {
+        private final ExecutionResult result;
+
+        private final AccessedEnvironment environment = new AccessedEnvironment();
+
+        private Entry(ExecutionResult result, TestCase test) {
+            this.result = result;
+            environment.copyFrom(test.getAccessedEnvironment());
+        }
+    }
+
+    private ExecutionResultCache() {
+    }
+
+    public static synchronized ExecutionResultCache getInstance() {
+        if (instance == null)
+            instance = new ExecutionResultCache();
+        return instance;
+    }
+
+    public static synchronized void resetSingleton() {
+        instance = null;
+    }
+
+    /**
+     * @return whether the execution of tests depends only on their structure
+     */
+    public boolean isEnabled() {
+        return Properties.EXECUTION_CACHE_SIZE > 0
+                && Properties.REPLACE_CALLS
+                && Properties.VIRTUAL_FS
+                && Properties.VIRTUAL_NET
+                && Properties.RESET_STATIC_FIELDS
+                && TestCaseExecutor.getInstance().getExecutionObservers().isEmpty();
+    }
+
+    /**
+     * Returns the cached result of an identical test if there is one, and
+     * otherwise executes the test and caches the result.
+     *
+     * @param test     the test to execute
+     * @param executor executes the test if no result is cached
+     * @return the result of the execution of the test
+     */
+    public ExecutionResult execute(TestCase test, Function<TestCase, ExecutionResult> executor) {
+        TestFingerprint fingerprint = isEnabled() ? TestFingerprint.of(test) : null;
+        if (fingerprint == null)
+            return executor.apply(test);
+
+        ExecutionResult result = get(fingerprint, test);
+        if (result == null) {
+            result = executor.apply(test);
+            put(fingerprint, result);
+        }
+        return result;
+    }
+
+    /**
+     * @param test a test
+     * @return a copy of the cached result of an identical test, or null
+     */
+    public ExecutionResult get(TestCase test) {
+        TestFingerprint fingerprint = isEnabled() ? TestFingerprint.of(test) : null;
+        if (fingerprint == null)
+            return null;
+        return get(fingerprint, test);
+    }
+
+    /**
+     * Cache the result of the given test, if possible
+     *
+     * @param test   an executed test
+     * @param result the result of its execution
+     */
+    public void put(TestCase test, ExecutionResult result) {
+        TestFingerprint fingerprint = isEnabled() ? TestFingerprint.of(test) : null;
+        if (fingerprint != null)
+            put(fingerprint, result);
+    }
+
+    private synchronized ExecutionResult get(TestFingerprint fingerprint, TestCase test) {
+        Entry cached = results.get(fingerprint);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        ExecutionResult result = cached.result.clone();
+        result.setTest(test);
+        test.getAccessedEnvironment().copyFrom(cached.environment);
+        MaxTestsStoppingCondition.testExecuted();
+        MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+        return result;
+    }
+
+    private synchronized void put(TestFingerprint fingerprint, ExecutionResult result) {
+        if (!isCacheable(result))
+            return;
+
+        ExecutionResult copy = result.clone();
+        // the test may still change, and each hit gets its own test anyway
+        copy.setTest(null);
+        results.put(fingerprint, new Entry(copy, result.test));
+        if (results.size() > Properties.EXECUTION_CACHE_SIZE) {
+            results.remove(results.keySet().iterator().next());
+        }
+    }
+
+    private static boolean isCacheable(ExecutionResult result) {
+        if (result == null || result.test == null || result.getTrace() == null || result.hasTimeout())
+            return false;
+
+        ExecutionTrace trace = result.getTrace();
+        Set<String> classes = new HashSet<>(trace.getClassesWithStaticWrites());
+        classes.removeAll(trace.getInitializedClasses());
+        if (!classes.isEmpty()) {
+            logger.debug("Not caching result of test writing static state of {}", classes);
+            return false;
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the ratio of lookups answered from the cache
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -194,16 +194,10 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     public Map<String, Map<String, Map<Integer, Integer>>> coverage = Collections
             .synchronizedMap(new HashMap<>());
 
-    public Map<Integer, Integer> coveredFalse = Collections.synchronizedMap(new HashMap<>());
-
     public Map<String, Integer> coveredMethods = Collections.synchronizedMap(new HashMap<>());
 
     public Map<String, Integer> coveredBranchlessMethods = Collections.synchronizedMap(new HashMap<>());
 
-    public Map<Integer, Integer> coveredPredicates = Collections.synchronizedMap(new HashMap<>());
-
-    public Map<Integer, Integer> coveredTrue = Collections.synchronizedMap(new HashMap<>());
-
     public Map<Integer, Integer> coveredDefs = Collections.synchronizedMap(new HashMap<>());
 
     public Map<Integer, Map<CallContext, Double>> coveredTrueContext = Collections
@@ -223,8 +217,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     // The last explicitly thrown exception is kept here
     private Throwable explicitException = null;
 
-    public Map<Integer, Double> falseDistances = Collections.synchronizedMap(new HashMap<>());
-    private final Map<Integer, Double> falseDistancesSum = Collections.synchronizedMap(new HashMap<>());
+    // branch distances and branch coverage, indexed by branch id
+    private BranchDistanceTable branchDistances;
     // finished_calls;
     public List<MethodCall> finishedCalls = Collections.synchronizedList(new ArrayList<>());
     public Map<Integer, Object> knownCallerObjects = Collections.synchronizedMap(new HashMap<>());
@@ -256,10 +250,6 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 
     public Set<Integer> touchedMutants = Collections.synchronizedSet(new HashSet<>());
 
-    public Map<Integer, Double> trueDistances = Collections.synchronizedMap(new HashMap<>());
-
-    private final Map<Integer, Double> trueDistancesSum = Collections.synchronizedMap(new HashMap<>());
-
     public static Set<Integer> gradientBranches = Collections.synchronizedSet(new HashSet<>());
 
     public static Set<Integer> gradientBranchesCoveredTrue = Collections.synchronizedSet(new HashSet<>());
@@ -281,9 +271,31 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      * </p>
      */
     public ExecutionTraceImpl() {
+        this(new BranchDistanceTable());
+    }
+
+    /**
+     * Create a trace that records branch distances in the given table, which
+     * is owned by the trace from now on until {@link #detachBranchDistances()}
+     *
+     * @param branchDistances an empty dense table
+     */
+    ExecutionTraceImpl(BranchDistanceTable branchDistances) {
+        this.branchDistances = branchDistances;
         stack.add(new MethodCall("", "", 0, 0, 0)); // Main method
     }
 
+    /**
+     * Move the branch distances of this trace into a compact table and return
+     * the dense arrays they were recorded in, so that the next execution can
+     * reuse them
+     *
+     * @return a cleared dense table
+     */
+    BranchDistanceTable detachBranchDistances() {
+        return branchDistances.detach();
+    }
+
     /**
      * <p>
      * addProxy
@@ -320,33 +332,13 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
                 gradientBranches.add(branch);
         }
 
-        if (traceCoverage) {
-            if (!coveredPredicates.containsKey(branch))
-                coveredPredicates.put(branch, 1);
-            else
-                coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
-
-            if (true_distance == 0.0) {
-                if (!coveredTrue.containsKey(branch))
-                    coveredTrue.put(branch, 1);
-                else
-                    coveredTrue.put(branch, coveredTrue.get(branch) + 1);
-
-            }
-
-            if (false_distance == 0.0) {
-                if (!coveredFalse.containsKey(branch))
-                    coveredFalse.put(branch, 1);
-                else
-                    coveredFalse.put(branch, coveredFalse.get(branch) + 1);
-            }
-        }
+        branchDistances.branchPassed(branch, true_distance, false_distance, traceCoverage);
 
         if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
             if (gradientBranches.contains(branch)) {
-                if ((coveredTrue.containsKey(branch)))
+                if (branchDistances.isCoveredTrue(branch))
                     gradientBranchesCoveredTrue.add(branch);
-                if ((coveredFalse.containsKey(branch)))
+                if (branchDistances.isCoveredFalse(branch))
                     gradientBranchesCoveredFalse.add(branch);
             }
         }
@@ -359,8 +351,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
                     .getInstruction().getASMNode().getPrevious() != null)
                 previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
                         .getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-            boolean cTrue = coveredTrue.containsKey(branch);
-            boolean cFalse = coveredFalse.containsKey(branch);
+            boolean cTrue = branchDistances.isCoveredTrue(branch);
+            boolean cFalse = branchDistances.isCoveredFalse(branch);
             switch (previousOpcode) {
                 case Opcodes.LCMP:
                     trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -447,26 +439,6 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
             }
         }
 
-        if (!trueDistances.containsKey(branch))
-            trueDistances.put(branch, true_distance);
-        else
-            trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
-
-        if (!falseDistances.containsKey(branch))
-            falseDistances.put(branch, false_distance);
-        else
-            falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
-
-        if (!trueDistancesSum.containsKey(branch))
-            trueDistancesSum.put(branch, true_distance);
-        else
-            trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
-
-        if (!falseDistancesSum.containsKey(branch))
-            falseDistancesSum.put(branch, false_distance);
-        else
-            falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
-
         if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
                 || ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
                 || ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
@@ -543,15 +515,11 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         duCounter = 0;
         objectCounter = 0;
         knownCallerObjects = new HashMap<>();
-        trueDistances = new HashMap<>();
-        falseDistances = new HashMap<>();
+        branchDistances.clear();
         mutantDistances = new HashMap<>();
         touchedMutants = new HashSet<>();
         coveredMethods = new HashMap<>();
         coveredBranchlessMethods = new HashMap<>();
-        coveredPredicates = new HashMap<>();
-        coveredTrue = new HashMap<>();
-        coveredFalse = new HashMap<>();
         coveredDefs = new HashMap<>();
         passedDefinitions = new HashMap<>();
         passedUses = new HashMap<>();
@@ -591,13 +559,9 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
          * null && stack.peek().method_name.equals("")) { logger.info(
          * "Copying main method"); copy.finished_calls.add(stack.peek()); }
          */
-        copy.trueDistances.putAll(trueDistances);
-        copy.falseDistances.putAll(falseDistances);
+        copy.branchDistances = branchDistances.copy();
         copy.coveredMethods.putAll(coveredMethods);
         copy.coveredBranchlessMethods.putAll(coveredBranchlessMethods);
-        copy.coveredPredicates.putAll(coveredPredicates);
-        copy.coveredTrue.putAll(coveredTrue);
-        copy.coveredFalse.putAll(coveredFalse);
         copy.coveredDefs.putAll(coveredDefs);
         copy.touchedMutants.addAll(touchedMutants);
         copy.mutantDistances.putAll(mutantDistances);
@@ -860,7 +824,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     @Override
     public Set<Integer> getCoveredFalseBranches() {
         Set<Integer> covered = new HashSet<>();
-        for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+        for (Entry<Integer, Double> entry : branchDistances.getFalseDistances().entrySet()) {
             if (entry.getValue() == 0.0)
                 covered.add(entry.getKey());
         }
@@ -938,7 +902,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public Set<Integer> getCoveredPredicates() {
-        return coveredPredicates.keySet();
+        return branchDistances.getPredicateExecutionCount().keySet();
     }
 
     /*
@@ -953,7 +917,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     @Override
     public Set<Integer> getCoveredTrueBranches() {
         Set<Integer> covered = new HashSet<>();
-        for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+        for (Entry<Integer, Double> entry : branchDistances.getTrueDistances().entrySet()) {
             if (entry.getValue() == 0.0)
                 covered.add(entry.getKey());
         }
@@ -1018,7 +982,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public double getFalseDistance(int branchId) {
-        return falseDistances.get(branchId);
+        return branchDistances.getFalseDistances().get(branchId);
     }
 
     /*
@@ -1032,7 +996,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public Map<Integer, Double> getFalseDistances() {
-        return falseDistances;
+        return branchDistances.getFalseDistances();
     }
 
     /*
@@ -1131,7 +1095,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public Map<Integer, Integer> getPredicateExecutionCount() {
-        return coveredPredicates;
+        return branchDistances.getPredicateExecutionCount();
     }
 
     /**
@@ -1319,7 +1283,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public double getTrueDistance(int branchId) {
-        return trueDistances.get(branchId);
+        return branchDistances.getTrueDistances().get(branchId);
     }
 
     /*
@@ -1333,7 +1297,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public Map<Integer, Double> getTrueDistances() {
-        return trueDistances;
+        return branchDistances.getTrueDistances();
     }
 
     /*
@@ -1365,7 +1329,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public boolean hasFalseDistance(int predicateId) {
-        return falseDistances.containsKey(predicateId);
+        return branchDistances.hasBranch(predicateId);
     }
 
     /**
@@ -1393,7 +1357,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public boolean hasTrueDistance(int predicateId) {
-        return trueDistances.containsKey(predicateId);
+        return branchDistances.hasBranch(predicateId);
     }
 
     /*
@@ -1657,15 +1621,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         ret.append("\nCovered predicates: ");
-        for (Entry<Integer, Integer> entry : coveredPredicates.entrySet()) {
+        for (Entry<Integer, Integer> entry : branchDistances.getPredicateExecutionCount().entrySet()) {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         ret.append("\nTrue distances: ");
-        for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+        for (Entry<Integer, Double> entry : branchDistances.getTrueDistances().entrySet()) {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         ret.append("\nFalse distances: ");
-        for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+        for (Entry<Integer, Double> entry : branchDistances.getFalseDistances().entrySet()) {
             ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
         }
         return ret.toString();
@@ -1757,7 +1721,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public Map<Integer, Double> getFalseDistancesSum() {
-        return falseDistancesSum;
+        return branchDistances.getFalseDistancesSum();
     }
 
     /**
@@ -1765,7 +1729,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
      */
     @Override
     public Map<Integer, Double> getTrueDistancesSum() {
-        return trueDistancesSum;
+        return branchDistances.getTrueDistancesSum();
     }
 
     /**
@@ -19,16 +19,23 @@
  */
 package org.evosuite.testcase.execution;
 
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.dataflow.Definition;
 import org.evosuite.coverage.dataflow.Use;
 import org.evosuite.instrumentation.testability.BooleanHelper;
+import org.evosuite.runtime.util.StackInspector;
 import org.evosuite.seeding.ConstantPoolManager;
+import org.evosuite.testcase.execution.reset.StaticStateDependencies;
 import org.objectweb.asm.Opcodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -42,6 +49,32 @@ public class ExecutionTracer {
 
     private static ExecutionTracer instance = null;
 
+    private static final StackInspector.FrameFilter STATIC_INIT_FRAMES = StackInspector.methodNamed("<clinit>");
+
+    /**
+     * Tracers of the worker threads of a {@link ParallelTestExecutor}. Test
+     * threads spawned by a worker inherit the tracer of the worker.
+     */
+    private static final InheritableThreadLocal<ExecutionTracer> workerTracer = new InheritableThreadLocal<>();
+
+    /**
+     * Number of threads that currently have their own tracer. As long as this
+     * is 0 the thread local does not need to be queried.
+     */
+    private static volatile int numWorkerTracers = 0;
+
+    /**
+     * Class initializers (or their <code>__STATIC_RESET</code> duplicates)
+     * currently running on each thread, innermost first
+     */
+    private static final ThreadLocal<Deque<String>> runningClassInits = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Number of class initializers currently running on any thread. As long
+     * as this is 0 the thread local does not need to be queried.
+     */
+    private static final AtomicInteger numRunningClassInits = new AtomicInteger();
+
     /**
      * We need to disable the execution tracer sometimes, e.g. when calling
      * equals in the branch distance function
@@ -57,6 +90,17 @@ public class ExecutionTracer {
 
     private ExecutionTrace trace;
 
+    /**
+     * The trace created by the last call to {@link #clear()}, which records
+     * its branch distances in the reusable dense arrays of {@link #branchDistances}
+     */
+    private ExecutionTraceImpl traceImpl;
+
+    /**
+     * Dense branch distance arrays that are reused across executions
+     */
+    private BranchDistanceTable branchDistances = new BranchDistanceTable();
+
 
     private static boolean checkCallerThread = true;
 
@@ -64,7 +108,7 @@ public class ExecutionTracer {
      * If a thread of a test case survives for some reason (e.g. long call to
      * external library), then we don't want its data in the current trace
      */
-    private static volatile Thread currentThread = null;
+    private volatile Thread currentThread = null;
 
     /**
      * <p>
@@ -74,7 +118,7 @@ public class ExecutionTracer {
      * @param thread a {@link java.lang.Thread} object.
      */
     public static void setThread(Thread thread) {
-        currentThread = thread;
+        getExecutionTracer().currentThread = thread;
     }
 
     /**
@@ -182,17 +226,50 @@ public class ExecutionTracer {
      * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object.
      */
     public static ExecutionTracer getExecutionTracer() {
+        if (numWorkerTracers > 0) {
+            ExecutionTracer tracer = workerTracer.get();
+            if (tracer != null)
+                return tracer;
+        }
         if (instance == null) {
             instance = new ExecutionTracer();
         }
         return instance;
     }
 
+    /**
+     * Give the calling thread (and the test threads it spawns from now on) its
+     * own tracer instead of the global one
+     */
+    static synchronized void attachWorkerTracer() {
+        if (workerTracer.get() != null)
+            return;
+        ExecutionTracer tracer = new ExecutionTracer();
+        tracer.clear();
+        workerTracer.set(tracer);
+        numWorkerTracers++;
+    }
+
+    /**
+     * Make the calling thread use the global tracer again
+     */
+    static synchronized void detachWorkerTracer() {
+        if (workerTracer.get() == null)
+            return;
+        workerTracer.remove();
+        numWorkerTracers--;
+    }
+
     /**
      * Reset for new execution
      */
     public void clear() {
-        trace = new ExecutionTraceProxy();
+        if (traceImpl != null)
+            branchDistances = traceImpl.detachBranchDistances();
+        branchDistances.ensureCapacity(BranchPool.getInstance(TestGenerationContext.getInstance()
+                .getClassLoaderForSUT()).getBranchCounter() + 1);
+        traceImpl = new ExecutionTraceImpl(branchDistances);
+        trace = new ExecutionTraceProxy(traceImpl);
         BooleanHelper.clearStack();
         num_statements = 0;
     }
@@ -208,7 +285,8 @@ public class ExecutionTracer {
         if (!checkCallerThread) {
             return false;
         }
-        if (currentThread == null) {
+        ExecutionTracer tracer = getExecutionTracer();
+        if (tracer.currentThread == null) {
             logger.error("CurrentThread has not been set!");
             Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
             for (Thread t : map.keySet()) {
@@ -218,9 +296,9 @@ public class ExecutionTracer {
                 }
                 logger.error(msg);
             }
-            currentThread = Thread.currentThread();
+            tracer.currentThread = Thread.currentThread();
         }
-        return Thread.currentThread() != currentThread;
+        return Thread.currentThread() != tracer.currentThread;
     }
 
     /**
@@ -376,11 +454,7 @@ public class ExecutionTracer {
     }
 
     private static boolean isInStaticInit() {
-        for (StackTraceElement elem : Thread.currentThread().getStackTrace()) {
-            if (elem.getMethodName().equals("<clinit>"))
-                return true;
-        }
-        return false;
+        return StackInspector.anyFrame(STATIC_INIT_FRAMES);
     }
 
     /**
@@ -475,6 +549,8 @@ public class ExecutionTracer {
     }
 
     public static void passedPutStatic(String classNameWithDots, String fieldName) {
+        passedStaticAccess(classNameWithDots);
+
         ExecutionTracer tracer = getExecutionTracer();
         if (tracer.disabled)
             return;
@@ -488,6 +564,36 @@ public class ExecutionTracer {
     }
 
 
+    /**
+     * If a class initializer is running on this thread, the class being
+     * initialized might now share static state with the class owning the
+     * accessed field. This holds also for the accesses made by the methods
+     * called by the initializer, e.g. <code>static Foo f = Foo.getInstance();</code>.
+     * It is recorded also when the tracer is disabled, as classes are
+     * initialized also outside of test executions.
+     *
+     * @param ownerClassNameWithDots the class owning the accessed field
+     */
+    private static void passedStaticAccess(String ownerClassNameWithDots) {
+        if (numRunningClassInits.get() == 0)
+            return;
+
+        String initializedClass = runningClassInits.get().peek();
+        if (initializedClass != null)
+            StaticStateDependencies.getInstance().addDependency(initializedClass, ownerClassNameWithDots);
+    }
+
+    /**
+     * This method is added in the transformed bytecode at the beginning of
+     * each class initializer
+     *
+     * @param className
+     */
+    public static void enterClassInit(String className) {
+        runningClassInits.get().push(className.replace('/', '.'));
+        numRunningClassInits.incrementAndGet();
+    }
+
     /**
      * This method is added in the transformed bytecode
      *
@@ -497,6 +603,9 @@ public class ExecutionTracer {
 
         final String classNameWithDots = className.replace('/', '.');
 
+        if (runningClassInits.get().removeFirstOccurrence(classNameWithDots))
+            numRunningClassInits.decrementAndGet();
+
         ExecutionTracer tracer = getExecutionTracer();
 //		if (tracer.disabled)
 //			return;
@@ -515,6 +624,8 @@ public class ExecutionTracer {
      * @param fieldName
      */
     public static void passedGetStatic(String classNameWithDots, String fieldName) {
+        passedStaticAccess(classNameWithDots);
+
         ExecutionTracer tracer = getExecutionTracer();
         if (tracer.disabled)
             return;
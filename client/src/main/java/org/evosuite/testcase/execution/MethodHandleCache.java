@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.Properties;
+import org.evosuite.runtime.Reflection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates {@link MethodHandle}s to call the methods, constructors, field
+ * getters and field setters of the SUT instead of going through reflection. The handles are
+ * created lazily from the reflective members, which already belong to the
+ * current instrumenting class loader, and are adapted to a uniform
+ * {@code (Object, Object[])Object} shape.
+ * <p>
+ * The cache is reset together with the class loader of the SUT.
+ */
+public class MethodHandleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandleCache.class);
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Calls a member through its handle, with the same behaviour as the
+     * corresponding reflection call. The handle is only used if receiver and
+     * arguments have exactly the declared types; in all other cases, and if
+     * no handle could be created, the call goes through reflection so that
+     * errors are reported as before. Exceptions thrown by the invoked code
+     * are wrapped in an {@link InvocationTargetException}, as reflection does.
+     */
+    public static final class Invoker {
+        private final Member member;
+        private final MethodHandle handle;
+
+        /**
+         * Handle writing the field, null for methods and constructors
+         */
+        private final MethodHandle setter;
+        private final Class<?> declaringClass;
+        private final boolean isStatic;
+        private final Class<?>[] parameterTypes;
+
+        /**
+         * Wrapper class of each primitive parameter, null for the other parameters
+         */
+        private final Class<?>[] wrapperTypes;
+
+        private Invoker(Member member, MethodHandle handle, MethodHandle setter, Class<?>[] parameterTypes) {
+            this.member = member;
+            this.handle = handle;
+            this.setter = setter;
+            this.declaringClass = member.getDeclaringClass();
+            this.isStatic = Modifier.isStatic(member.getModifiers());
+            this.parameterTypes = parameterTypes;
+            this.wrapperTypes = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (parameterTypes[i].isPrimitive()) {
+                    wrapperTypes[i] = ClassUtils.primitiveToWrapper(parameterTypes[i]);
+                }
+            }
+        }
+
+        /**
+         * @return true if this invoker was created for the given member
+         */
+        public boolean isFor(Member member) {
+            return this.member == member;
+        }
+
+        /**
+         * Same as {@link Method#invoke(Object, Object...)}
+         */
+        public Object invoke(Object callee, Object[] inputs)
+                throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+            if (accepts(handle, callee, inputs)) {
+                try {
+                    return (Object) handle.invokeExact(callee, inputs);
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+            }
+            return ((Method) member).invoke(callee, inputs);
+        }
+
+        /**
+         * Same as {@link Constructor#newInstance(Object...)}
+         */
+        public Object newInstance(Object[] inputs) throws InstantiationException, IllegalAccessException,
+                IllegalArgumentException, InvocationTargetException {
+            if (accepts(handle, null, inputs)) {
+                try {
+                    return (Object) handle.invokeExact((Object) null, inputs);
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+            }
+            return ((Constructor<?>) member).newInstance(inputs);
+        }
+
+        /**
+         * Same as {@link Field#get(Object)}
+         */
+        public Object get(Object source) throws IllegalArgumentException, IllegalAccessException {
+            if (accepts(handle, source)) {
+                try {
+                    return (Object) handle.invokeExact(source);
+                } catch (RuntimeException | Error e) {
+                    // only the class initialization can fail, which reflection does not wrap either
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            }
+            return ((Field) member).get(source);
+        }
+
+        /**
+         * Same as {@link Reflection#setField(Field, Object, Object)}, which
+         * also converts values of other types to the type of the field
+         */
+        public void set(Object target, Object value) throws IllegalArgumentException, IllegalAccessException {
+            if (accepts(setter, target) && acceptsArgument(0, value)) {
+                try {
+                    setter.invokeExact(target, value);
+                    return;
+                } catch (RuntimeException | Error e) {
+                    // only the class initialization can fail, which reflection does not wrap either
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            }
+            Reflection.setField((Field) member, target, value);
+        }
+
+        private boolean accepts(MethodHandle handle, Object receiver) {
+            return handle != null && Properties.METHOD_HANDLE_INVOCATION
+                    && (isStatic || declaringClass.isInstance(receiver));
+        }
+
+        /**
+         * Reflection also widens primitive values, so the handle is only
+         * used if the arguments have exactly the declared types
+         */
+        private boolean accepts(MethodHandle handle, Object receiver, Object[] inputs) {
+            if (!accepts(handle, receiver) || inputs.length != parameterTypes.length) {
+                return false;
+            }
+            for (int i = 0; i < inputs.length; i++) {
+                if (!acceptsArgument(i, inputs[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean acceptsArgument(int i, Object input) {
+            if (wrapperTypes[i] != null) {
+                return input != null && input.getClass() == wrapperTypes[i];
+            }
+            return input == null || parameterTypes[i].isInstance(input);
+        }
+    }
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private final Map<Member, Invoker> invokers = new ConcurrentHashMap<>();
+
+    private static final class Holder {
+        private static final MethodHandleCache INSTANCE = new MethodHandleCache();
+    }
+
+    private MethodHandleCache() {
+    }
+
+    public static MethodHandleCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Forget all handles, e.g. because the class loader of the SUT changed
+     */
+    public static void resetSingleton() {
+        getInstance().invokers.clear();
+    }
+
+    public int size() {
+        return invokers.size();
+    }
+
+    /**
+     * @param member a method, constructor or field
+     * @return the invoker of the member, created the first time it is needed
+     */
+    public Invoker getInvoker(Member member) {
+        return invokers.computeIfAbsent(member, this::createInvoker);
+    }
+
+    private Invoker createInvoker(Member member) {
+        Class<?>[] parameterTypes = new Class<?>[0];
+        MethodHandle handle = null;
+        MethodHandle setter = null;
+        try {
+            if (member instanceof Method) {
+                Method method = (Method) member;
+                parameterTypes = method.getParameterTypes();
+                handle = lookup.unreflect(method).asFixedArity();
+                if (Modifier.isStatic(method.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                handle = toInvoker(handle, parameterTypes.length);
+            } else if (member instanceof Constructor) {
+                Constructor<?> constructor = (Constructor<?>) member;
+                parameterTypes = constructor.getParameterTypes();
+                // reflection reports abstract classes with an InstantiationException
+                if (!Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+                    handle = lookup.unreflectConstructor(constructor).asFixedArity();
+                    handle = toInvoker(MethodHandles.dropArguments(handle, 0, Object.class), parameterTypes.length);
+                }
+            } else {
+                Field field = (Field) member;
+                parameterTypes = new Class<?>[]{field.getType()};
+                handle = lookup.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+                handle = handle.asType(GETTER_TYPE);
+                setter = createSetter(field);
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Using reflection for {}: {}", member, e.toString());
+            handle = null;
+        }
+        return new Invoker(member, handle, setter, parameterTypes);
+    }
+
+    /**
+     * @return the handle writing the field, or null if reflection has to be
+     * used, e.g. for final fields
+     */
+    private MethodHandle createSetter(Field field) {
+        try {
+            MethodHandle setter = lookup.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            return setter.asType(SETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            logger.debug("Using reflection to write {}: {}", field, e.toString());
+            return null;
+        }
+    }
+
+    private static MethodHandle toInvoker(MethodHandle handle, int parameterCount) {
+        return handle.asType(handle.type().generic())
+                .asSpreader(Object[].class, parameterCount)
+                .asType(INVOKER_TYPE);
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.sandbox.PermissionStatistics;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.util.JOptionPaneInputs;
+import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes the tests of a population concurrently on
+ * {@link Properties#PARALLEL_EVALUATION_THREADS} worker threads before their
+ * fitness is computed. Each worker has its own {@link TestCaseExecutor} and
+ * {@link ExecutionTracer}, and a new {@link Scope} per test. The results are
+ * stored in the chromosomes, so that the fitness functions (and the archive,
+ * which is not thread safe) then only see unchanged tests with a cached
+ * result and run sequentially as before.
+ * <p>
+ * Tests running at the same time share the static state of the SUT and of
+ * the EvoSuite runtime. Therefore this is only done as long as no executed
+ * test writes a static field outside of a class initializer, which requires
+ * {@link Properties#RESET_STATIC_FIELDS} to be able to observe such writes.
+ * As soon as a write is observed, the results of that batch are discarded and
+ * all further tests are executed sequentially. The mocked environment and the
+ * loop counter of the runtime are not thread safe, so none of them may be
+ * active. As both are on by default, parallel execution is only usable
+ * after switching them off explicitly. Tests that timed out are executed
+ * sequentially again, as they might only have been slowed down by the tests
+ * running at the same time.
+ * <p>
+ * The workers do not re-initialize classes. After each batch, the classes
+ * initialized by each test are registered and reset in the order of the
+ * tests, as if they had been executed sequentially.
+ */
+public class ParallelTestExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelTestExecutor.class);
+
+    private static final String WORKER_THREAD = "EVOSUITE_PARALLEL_EVALUATION_THREAD";
+
+    private static ParallelTestExecutor instance = null;
+
+    private ExecutorService workers = null;
+
+    private int numWorkers = 0;
+
+    /**
+     * Set once a test wrote static state, from then on tests are executed
+     * sequentially
+     */
+    private boolean staticStateWritten = false;
+
+    private int numBatches = 0;
+
+    private int numParallelTests = 0;
+
+    private boolean warnedAboutRuntimeState = false;
+
+    private ParallelTestExecutor() {
+    }
+
+    public static synchronized ParallelTestExecutor getInstance() {
+        if (instance == null)
+            instance = new ParallelTestExecutor();
+        return instance;
+    }
+
+    public static synchronized void resetSingleton() {
+        if (instance != null)
+            instance.shutdown();
+        instance = null;
+    }
+
+    /**
+     * Shut down the workers and forget the static state writes observed in
+     * the classes of the previous class loader. The number of executed
+     * batches and tests is kept.
+     */
+    public void reset() {
+        shutdown();
+        staticStateWritten = false;
+    }
+
+    /**
+     * @return whether the next batch would be executed in parallel
+     */
+    public boolean isEnabled() {
+        return Properties.PARALLEL_EVALUATION_THREADS > 1
+                && Properties.RESET_STATIC_FIELDS
+                && !staticStateWritten
+                && !usesSharedRuntimeState()
+                && TestCaseExecutor.getInstance().getExecutionObservers().isEmpty();
+    }
+
+    /**
+     * @return whether tests would share the state of the mocked environment
+     * or of the loop counter
+     */
+    private static boolean usesSharedRuntimeState() {
+        return Properties.REPLACE_CALLS
+                || Properties.VIRTUAL_FS
+                || Properties.VIRTUAL_NET
+                || Properties.REPLACE_SYSTEM_IN
+                || Properties.REPLACE_GUI
+                || (Properties.MAX_LOOP_ITERATIONS >= 0 && LoopCounter.getInstance().isActivated());
+    }
+
+    /**
+     * Execute all tests of the given individuals that have changed since their
+     * last execution, if parallel evaluation is enabled. Otherwise, nothing is
+     * done and the tests will be executed sequentially by the fitness
+     * functions.
+     *
+     * @param individuals test chromosomes or test suite chromosomes
+     */
+    public void execute(Collection<? extends Chromosome<?>> individuals) {
+        if (!isEnabled()) {
+            if (Properties.PARALLEL_EVALUATION_THREADS > 1 && usesSharedRuntimeState() && !warnedAboutRuntimeState) {
+                logger.warn("Tests are executed sequentially, as parallel test execution requires "
+                        + "the mocked environment and max_loop_iterations to be off");
+                warnedAboutRuntimeState = true;
+            }
+            return;
+        }
+
+        List<TestChromosome> tests = new ArrayList<>();
+        for (Chromosome<?> individual : individuals) {
+            if (individual instanceof TestChromosome) {
+                addIfChanged((TestChromosome) individual, tests);
+            } else if (individual instanceof TestSuiteChromosome) {
+                for (TestChromosome test : ((TestSuiteChromosome) individual).getTestChromosomes())
+                    addIfChanged(test, tests);
+            }
+        }
+        if (tests.size() < 2)
+            return;
+
+        List<ExecutionResult> results = executeBatch(tests);
+        if (results == null)
+            return;
+
+        for (int i = 0; i < tests.size(); i++) {
+            TestChromosome test = tests.get(i);
+            ExecutionResult result = results.get(i);
+            if (result == null)
+                continue;
+            test.setLastExecutionResult(result);
+            test.setChanged(false);
+            MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+            TestCluster.getInstance().handleRuntimeAccesses(test.getTestCase());
+            ExecutionResultCache.getInstance().put(test.getTestCase(), result);
+        }
+        numBatches++;
+        numParallelTests += tests.size();
+        logger.debug("Executed {} tests in parallel batch {}", tests.size(), numBatches);
+    }
+
+    private static void addIfChanged(TestChromosome test, List<TestChromosome> tests) {
+        if (!test.isChanged() && test.getLastExecutionResult() != null)
+            return;
+
+        ExecutionResult cached = ExecutionResultCache.getInstance().get(test.getTestCase());
+        if (cached != null) {
+            test.setLastExecutionResult(cached);
+            test.setChanged(false);
+        } else {
+            tests.add(test);
+        }
+    }
+
+    /**
+     * @return the results in the order of the tests, or null if the results
+     * cannot be used because a test wrote static state
+     */
+    private List<ExecutionResult> executeBatch(List<TestChromosome> tests) {
+        ensureWorkers();
+
+        Runtime.getInstance().resetRuntime();
+        // important to call it before setting up the sandbox
+        SystemInUtil.getInstance().initForTestCase();
+        JOptionPaneInputs.getInstance().initForTestCase();
+
+        List<Future<ExecutionResult>> futures = new ArrayList<>(tests.size());
+        List<ExecutionResult> results = new ArrayList<>(tests.size());
+        Sandbox.goingToExecuteSUTCode();
+        try {
+            for (TestChromosome test : tests) {
+                futures.add(workers.submit(() -> TestCaseExecutor.getInstance().execute(test.getTestCase())));
+            }
+            for (Future<ExecutionResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    logger.warn("Parallel execution of test failed: " + e.getCause());
+                    results.add(null);
+                }
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            Sandbox.doneWithExecutingSUTCode();
+            PermissionStatistics.getInstance().getAndResetExceptionInfo();
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null)
+                ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tests.get(i).getTestCase(),
+                        results.get(i));
+        }
+
+        for (ExecutionResult result : results) {
+            if (result != null && writesStaticState(result.getTrace())) {
+                logger.info("Test wrote static state, disabling parallel test execution");
+                staticStateWritten = true;
+                shutdown();
+                return null;
+            }
+        }
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null && results.get(i).hasTimeout()) {
+                logger.debug("Test timed out, executing it sequentially");
+                results.set(i, null);
+            }
+        }
+        return results;
+    }
+
+    private static boolean writesStaticState(ExecutionTrace trace) {
+        if (trace == null)
+            return false;
+        Set<String> classes = new HashSet<>(trace.getClassesWithStaticWrites());
+        classes.removeAll(trace.getInitializedClasses());
+        return !classes.isEmpty();
+    }
+
+    private void ensureWorkers() {
+        if (workers != null && numWorkers == Properties.PARALLEL_EVALUATION_THREADS)
+            return;
+        shutdown();
+        numWorkers = Properties.PARALLEL_EVALUATION_THREADS;
+        workers = Executors.newFixedThreadPool(numWorkers, new WorkerThreadFactory());
+    }
+
+    private void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    public int getNumBatches() {
+        return numBatches;
+    }
+
+    public int getNumParallelTests() {
+        return numParallelTests;
+    }
+
+    /**
+     * Worker threads are privileged in the sandbox, as they run EvoSuite code.
+     * The SUT code runs on the test threads each worker spawns.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(() -> {
+                TestCaseExecutor.attachWorker();
+                try {
+                    r.run();
+                } finally {
+                    TestCaseExecutor.detachWorker();
+                }
+            });
+            thread.setName(WORKER_THREAD + "_" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            Sandbox.addPrivilegedThread(thread);
+            return thread;
+        }
+    }
+}
@@ -73,6 +73,19 @@ public class TestCaseExecutor implements ThreadFactory {
 
     private static TestCaseExecutor instance = null;
 
+    /**
+     * Executors of the worker threads of a {@link ParallelTestExecutor}
+     */
+    private static final ThreadLocal<TestCaseExecutor> workerInstance = new ThreadLocal<>();
+
+    /**
+     * A worker executor only runs the test itself: the sandbox, the runtime
+     * and the observers are handled once per batch by the
+     * {@link ParallelTestExecutor}, which also re-initializes the classes
+     * after the batch
+     */
+    private final boolean worker;
+
     private ExecutorService executor;
 
     private Thread currentThread = null;
@@ -114,6 +127,10 @@ public class TestCaseExecutor implements ThreadFactory {
      * object.
      */
     public static synchronized TestCaseExecutor getInstance() {
+        TestCaseExecutor workerExecutor = workerInstance.get();
+        if (workerExecutor != null)
+            return workerExecutor;
+
         if (instance == null)
             instance = new TestCaseExecutor();
 
@@ -146,10 +163,38 @@ public class TestCaseExecutor implements ThreadFactory {
     }
 
     private TestCaseExecutor() {
+        this(false);
+    }
+
+    private TestCaseExecutor(boolean worker) {
+        this.worker = worker;
         executor = Executors.newSingleThreadExecutor(this);
         newObservers();
     }
 
+    /**
+     * Give the calling thread its own executor and execution tracer, which are
+     * returned by {@link #getInstance()} and
+     * {@link ExecutionTracer#getExecutionTracer()} on this thread until
+     * {@link #detachWorker()} is called
+     */
+    static void attachWorker() {
+        ExecutionTracer.attachWorkerTracer();
+        workerInstance.set(new TestCaseExecutor(true));
+    }
+
+    /**
+     * Shut down the executor of the calling worker thread
+     */
+    static void detachWorker() {
+        TestCaseExecutor workerExecutor = workerInstance.get();
+        if (workerExecutor != null) {
+            workerExecutor.executor.shutdownNow();
+            workerInstance.remove();
+        }
+        ExecutionTracer.detachWorkerTracer();
+    }
+
     public static class TimeoutExceeded extends RuntimeException {
         private static final long serialVersionUID = -5314228165430676893L;
     }
@@ -268,7 +313,7 @@ public class TestCaseExecutor implements ThreadFactory {
         Scope scope = new Scope();
         ExecutionResult result = execute(tc, scope, timeout);
 
-        if (Properties.RESET_STATIC_FIELDS) {
+        if (Properties.RESET_STATIC_FIELDS && !worker) {
             logger.debug("Resetting classes after execution");
             ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tc, result);
         }
@@ -288,9 +333,12 @@ public class TestCaseExecutor implements ThreadFactory {
 
         // TODO: Re-insert!
         resetObservers();
-        ExecutionObserver.setCurrentTest(tc);
+        // workers have no observers, and must not overwrite the test of the observers of the main executor
+        if (!worker)
+            ExecutionObserver.setCurrentTest(tc);
         MaxTestsStoppingCondition.testExecuted();
-        Runtime.getInstance().resetRuntime();
+        if (!worker)
+            Runtime.getInstance().resetRuntime();
 
         long startTime = System.currentTimeMillis();
 
@@ -314,21 +362,25 @@ public class TestCaseExecutor implements ThreadFactory {
 
             ExecutionResult result = null;
 
-            // important to call it before setting up the sandbox
-            SystemInUtil.getInstance().initForTestCase();
-            JOptionPaneInputs.getInstance().initForTestCase();
+            if (!worker) {
+                // important to call it before setting up the sandbox
+                SystemInUtil.getInstance().initForTestCase();
+                JOptionPaneInputs.getInstance().initForTestCase();
 
-            Sandbox.goingToExecuteSUTCode();
+                Sandbox.goingToExecuteSUTCode();
+            }
             TestGenerationContext.getInstance().goingToExecuteSUTCode();
             try {
                 result = handler.execute(callable, executor, timeout, Properties.CPU_TIMEOUT);
             } finally {
-                Sandbox.doneWithExecutingSUTCode();
+                if (!worker)
+                    Sandbox.doneWithExecutingSUTCode();
                 TestGenerationContext.getInstance().doneWithExecutingSUTCode();
             }
 
             PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-            result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo());
+            if (!worker)
+                result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo());
             /*
              * TODO: this will need proper care when we ll start to handle
              * threads in the search.
@@ -341,8 +393,10 @@ public class TestCaseExecutor implements ThreadFactory {
              */
 
             long endTime = System.currentTimeMillis();
-            timeExecuted += endTime - startTime;
-            testsExecuted++;
+            synchronized (TestCaseExecutor.class) {
+                timeExecuted += endTime - startTime;
+                testsExecuted++;
+            }
             return result;
         } catch (ThreadDeath t) {
             logger.warn("Caught ThreadDeath during test execution");
@@ -464,7 +518,7 @@ public class TestCaseExecutor implements ThreadFactory {
             ExecutionTracer.disable();
 
             // TODO: If this is true, is this problematic?
-            if (Sandbox.isOnAndExecutingSUTCode()) {
+            if (!worker && Sandbox.isOnAndExecutingSUTCode()) {
                 Sandbox.doneWithExecutingSUTCode();
                 TestGenerationContext.getInstance().doneWithExecutingSUTCode();
             }
@@ -483,7 +537,8 @@ public class TestCaseExecutor implements ThreadFactory {
         } finally {
             if (threadGroup != null)
                 PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
-            TestCluster.getInstance().handleRuntimeAccesses(tc);
+            if (!worker)
+                TestCluster.getInstance().handleRuntimeAccesses(tc);
         }
     }
 
@@ -30,7 +30,7 @@ import org.evosuite.runtime.sandbox.Sandbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 
 /**
@@ -74,48 +74,33 @@ class ClassReInitializeExecutor {
 
         ClassResetter.getInstance().setClassLoader(loader);
 
-        long start = System.currentTimeMillis();
-
-        for (String className : classesToReset) {
-            // re-initialization can be expensive
-            long elapsed = System.currentTimeMillis() - start;
-
-            if (!className.equals(Properties.TARGET_CLASS)
-                    && (!TimeController.getInstance().isThereStillTimeInThisPhase()
-                    || elapsed > Properties.TIMEOUT_RESET)) {
-                // Note: we no longer cancel the class re-initialization since
-                // it might leave the static data in an inconsistent state
-            }
-            resetClass(className);
+        if (classesToReset.isEmpty()) {
+            return;
         }
-    }
 
-    private void resetClass(String className) {
-
-        // className.__STATIC_RESET() exists
-        logger.debug("Resetting class " + className);
+        long start = System.currentTimeMillis();
 
+        // the state of mutation, sandbox and loop counter only needs to be changed once for all the classes
         int mutationActive = MutationObserver.activeMutation;
         MutationObserver.deactivateMutation();
-
-        // execute __STATIC_RESET()
         Sandbox.goingToExecuteSUTCode();
         TestGenerationContext.getInstance().goingToExecuteSUTCode();
-
-        Runtime.getInstance().resetRuntime(); // it is important to initialize
-        // the VFS
         boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
+        LoopCounter.getInstance().setActive(false);
 
         try {
-            Method resetMethod = ClassResetter.getInstance().getResetMethod(className);
-            if (resetMethod != null) {
-                LoopCounter.getInstance().setActive(false);
-                resetMethod.invoke(null, (Object[]) null);
+            for (String className : classesToReset) {
+                // re-initialization can be expensive
+                long elapsed = System.currentTimeMillis() - start;
+
+                if (!className.equals(Properties.TARGET_CLASS)
+                        && (!TimeController.getInstance().isThereStillTimeInThisPhase()
+                        || elapsed > Properties.TIMEOUT_RESET)) {
+                    // Note: we no longer cancel the class re-initialization since
+                    // it might leave the static data in an inconsistent state
+                }
+                resetClass(className);
             }
-        } catch (Throwable e) {
-            ClassResetter.getInstance().logWarn(className,
-                    e.getClass() + " thrown during execution of method  __STATIC_RESET() for class " + className + ", "
-                            + e.getCause());
         } finally {
             Sandbox.doneWithExecutingSUTCode();
             TestGenerationContext.getInstance().doneWithExecutingSUTCode();
@@ -123,4 +108,28 @@ class ClassReInitializeExecutor {
             LoopCounter.getInstance().setActive(wasLoopCheckOn);
         }
     }
+
+    private void resetClass(String className) {
+
+        // className.__STATIC_RESET() exists
+        logger.debug("Resetting class " + className);
+
+        MethodHandle resetMethod;
+        try {
+            resetMethod = ClassResetter.getInstance().getResetMethodHandle(className);
+        } catch (Throwable e) {
+            ClassResetter.getInstance().logWarn(className,
+                    e.getClass() + " thrown while loading method __STATIC_RESET() for class " + className);
+            return;
+        }
+        if (resetMethod == null) {
+            return;
+        }
+
+        Runtime.getInstance().resetRuntime(); // it is important to initialize
+        // the VFS
+
+        // execute __STATIC_RESET()
+        ClassResetter.getInstance().invokeReset(className, resetMethod);
+    }
 }
@@ -32,10 +32,12 @@ import org.evosuite.testcase.statements.reflection.PrivateFieldStatement;
 import org.evosuite.testcase.variable.FieldReference;
 import org.evosuite.testcase.variable.VariableReference;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This singleton class handles the re-initialization of classes after an
@@ -52,6 +54,19 @@ public class ClassReInitializer {
 
     private static ClassReInitializer instance = null;
 
+    /*
+     * Statistics on the re-initializations. These are static, as the singleton
+     * is reset together with the test generation context.
+     */
+
+    private static long numberOfTestsWithResets = 0;
+
+    private static long numberOfResets = 0;
+
+    private static long numberOfSkippedResets = 0;
+
+    private static long resetTimeNanos = 0;
+
     public static void resetSingleton() {
         instance = null;
     }
@@ -152,19 +167,22 @@ public class ClassReInitializer {
 
             // second, re-initialize classes
             if (reset_all_observed_classes) {
-                ClassReInitializeExecutor.getInstance().resetClasses(initializedClasses);
+                List<String> classesToReset = initializedClasses;
+                if (reset_only_dirty_classes) {
+                    classesToReset = getDirtyClasses(executedTestCase, testCaseResult);
+                }
+                resetClasses(classesToReset, null, initializedClasses.size() - classesToReset.size());
             } else {
                 // reset only classes that were "observed" to have some
                 // GETSTATIC/PUTSTATIC updating their state during test
                 // execution
-                List<String> classesToReset = new LinkedList<>(trace.getClassesWithStaticWrites());
+                Set<String> observedClasses = new HashSet<>(trace.getClassesWithStaticWrites());
                 if (Properties.RESET_STATIC_FIELD_GETS) {
-                    classesToReset.addAll(trace.getClassesWithStaticReads());
+                    observedClasses.addAll(trace.getClassesWithStaticReads());
                 }
                 HashSet<String> moreClassesForReset = getMoreClassesToReset(executedTestCase, testCaseResult);
-                classesToReset.addAll(moreClassesForReset);
-                // sort classes to reset
-                Collections.sort(classesToReset);
+                observedClasses.addAll(moreClassesForReset);
+                List<String> classesToReset = inInitializationOrder(observedClasses);
 
                 ClassLoader loader = null;
                 if (executedTestCase instanceof DefaultTestCase) {
@@ -174,15 +192,101 @@ public class ClassReInitializer {
                         loader = changedClassLoader;
                     }
                 }
-                if (loader == null) {
-                    ClassReInitializeExecutor.getInstance().resetClasses(classesToReset);
-                } else {
-                    ClassReInitializeExecutor.getInstance().resetClasses(classesToReset, loader);
-                }
+                resetClasses(classesToReset, loader, 0);
             }
         }
     }
 
+    /**
+     * Classes whose static state might have been changed by the test execution, i.e.,
+     * those initialized or whose static fields were accessed, plus those sharing
+     * static state with them, in the order in which they were initialized
+     *
+     * @param executedTestCase
+     * @param testCaseResult
+     * @return
+     */
+    private List<String> getDirtyClasses(TestCase executedTestCase, ExecutionResult testCaseResult) {
+        final ExecutionTrace trace = testCaseResult.getTrace();
+        Set<String> dirty = new HashSet<>(trace.getClassesWithStaticWrites());
+        dirty.addAll(trace.getClassesWithStaticReads());
+        dirty.addAll(trace.getInitializedClasses());
+        dirty.addAll(getMoreClassesToReset(executedTestCase, testCaseResult));
+        Set<String> closure = StaticStateDependencies.getInstance().getClosure(dirty);
+
+        // as when resetting all classes, only initialized classes are reset
+        List<String> classesToReset = new ArrayList<>();
+        for (String className : initializedClasses) {
+            if (closure.contains(className)) {
+                classesToReset.add(className);
+            }
+        }
+        return classesToReset;
+    }
+
+    /**
+     * Sort the given classes so that each class is reset after the classes
+     * it depends on, i.e., in the order in which they were initialized.
+     * Classes not seen initialized come last, sorted by name.
+     *
+     * @param classNames
+     * @return
+     */
+    private List<String> inInitializationOrder(Set<String> classNames) {
+        List<String> ordered = new ArrayList<>(classNames.size());
+        for (String className : initializedClasses) {
+            if (classNames.contains(className)) {
+                ordered.add(className);
+            }
+        }
+        if (ordered.size() < classNames.size()) {
+            List<String> others = new ArrayList<>(classNames);
+            others.removeAll(ordered);
+            Collections.sort(others);
+            ordered.addAll(others);
+        }
+        return ordered;
+    }
+
+    private void resetClasses(List<String> classesToReset, ClassLoader loader, int skipped) {
+        long start = System.nanoTime();
+        if (loader == null) {
+            ClassReInitializeExecutor.getInstance().resetClasses(classesToReset);
+        } else {
+            ClassReInitializeExecutor.getInstance().resetClasses(classesToReset, loader);
+        }
+        resetTimeNanos += System.nanoTime() - start;
+        numberOfResets += classesToReset.size();
+        numberOfSkippedResets += skipped;
+        numberOfTestsWithResets++;
+    }
+
+    /**
+     * @return the average number of classes re-initialized after a test execution
+     */
+    public static double getAverageNumberOfResets() {
+        return numberOfTestsWithResets == 0 ? 0.0 : (double) numberOfResets / numberOfTestsWithResets;
+    }
+
+    /**
+     * @return the estimated time in milliseconds saved after each test execution
+     * by not re-initializing classes whose static state was not changed
+     */
+    public static double getAverageResetTimeSaved() {
+        if (numberOfTestsWithResets == 0 || numberOfResets == 0) {
+            return 0.0;
+        }
+        double nanosPerReset = (double) resetTimeNanos / numberOfResets;
+        return nanosPerReset * numberOfSkippedResets / numberOfTestsWithResets / 1_000_000.0;
+    }
+
+    public static void resetStatistics() {
+        numberOfTestsWithResets = 0;
+        numberOfResets = 0;
+        numberOfSkippedResets = 0;
+        resetTimeNanos = 0;
+    }
+
     private boolean reset_all_observed_classes = false;
 
     /**
@@ -195,6 +299,20 @@ public class ClassReInitializer {
         reset_all_observed_classes = reInitializeAllClasses;
     }
 
+    private boolean reset_only_dirty_classes = false;
+
+    /**
+     * Indicates if, when re-initializing all classes, those whose static state
+     * the test could not have changed should be skipped. This is only meant for
+     * the search, as assertion generation has to reset the classes the same way
+     * as the scaffolding of the generated tests.
+     *
+     * @param reInitializeOnlyDirtyClasses
+     */
+    public void setReInitializeOnlyDirtyClasses(boolean reInitializeOnlyDirtyClasses) {
+        reset_only_dirty_classes = reInitializeOnlyDirtyClasses;
+    }
+
     /**
      * This method will add the class to the list of those classes that were
      * initialized during this context execution.
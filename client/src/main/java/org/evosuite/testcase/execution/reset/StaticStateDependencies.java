@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classes whose static state might be shared, because the class initializer of
+ * one of them accessed the static fields of the other, directly or through the
+ * methods it called. For example, after <code>static List l = Other.list;</code>
+ * or <code>static Foo f = Foo.getInstance();</code> both classes refer to the
+ * same object, so if either class is re-initialized after a test modified the
+ * object, the other class needs to be re-initialized as well.
+ *
+ * <p>The relation is recorded by the {@link org.evosuite.testcase.execution.ExecutionTracer}
+ * while instrumented class initializers (and their <code>__STATIC_RESET</code>
+ * duplicates) run, which can happen on SUT threads.</p>
+ */
+public class StaticStateDependencies {
+
+    private static final StaticStateDependencies instance = new StaticStateDependencies();
+
+    /**
+     * Symmetric relation between class names
+     */
+    private final Map<String, Set<String>> related = new ConcurrentHashMap<>();
+
+    private StaticStateDependencies() {
+    }
+
+    public static StaticStateDependencies getInstance() {
+        return instance;
+    }
+
+    /**
+     * The class initializer of the first class accessed the static fields of the second one
+     *
+     * @param initializedClass
+     * @param accessedClass
+     */
+    public void addDependency(String initializedClass, String accessedClass) {
+        if (initializedClass.equals(accessedClass)) {
+            return;
+        }
+        getRelated(initializedClass).add(accessedClass);
+        getRelated(accessedClass).add(initializedClass);
+    }
+
+    private Set<String> getRelated(String className) {
+        Set<String> set = related.get(className);
+        if (set == null) {
+            set = Collections.newSetFromMap(new ConcurrentHashMap<>());
+            Set<String> previous = related.putIfAbsent(className, set);
+            if (previous != null) {
+                set = previous;
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @param classNames
+     * @return the given classes, plus all the classes transitively sharing static state with them
+     */
+    public Set<String> getClosure(Collection<String> classNames) {
+        Set<String> closure = new LinkedHashSet<>(classNames);
+        Deque<String> queue = new ArrayDeque<>(closure);
+        while (!queue.isEmpty()) {
+            Set<String> neighbours = related.get(queue.poll());
+            if (neighbours == null) {
+                continue;
+            }
+            for (String neighbour : neighbours) {
+                if (closure.add(neighbour)) {
+                    queue.add(neighbour);
+                }
+            }
+        }
+        return closure;
+    }
+
+    public void clear() {
+        related.clear();
+    }
+}
@@ -526,7 +526,8 @@ public abstract class AbstractStatement implements Statement, Serializable {
     public Statement clone(TestCase newTestCase) {
         Statement result = copy(newTestCase, 0);
         result.getReturnValue().setOriginalCode(retval.getOriginalCode());
-        result.addComment(getComment());
+        if (!comment.isEmpty())
+            result.addComment(comment);
         return result;
     }
 
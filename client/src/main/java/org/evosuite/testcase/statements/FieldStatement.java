@@ -231,7 +231,7 @@ public class FieldStatement extends AbstractStatement {
                         throw new EvosuiteError(e);
                     }
 
-                    Object ret = field.getField().get(source_object);
+                    Object ret = field.get(source_object);
                     if (ret != null && !retval.isAssignableFrom(ret.getClass())) {
                         throw new CodeUnderTestException(new ClassCastException());
                     }
@@ -20,7 +20,6 @@
 
 package org.evosuite.testcase.variable;
 
-import org.evosuite.runtime.Reflection;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.CodeUnderTestException;
 import org.evosuite.testcase.execution.EvosuiteError;
@@ -157,7 +156,7 @@ public class FieldReference extends VariableReferenceImpl {
         }
 
         try {
-            return field.getField().get(s);
+            return field.get(s);
         } catch (IllegalArgumentException e) {
             logger.debug("Error accessing field " + field + " of object " + source + ": "
                     + e, e);
@@ -203,7 +202,7 @@ public class FieldReference extends VariableReferenceImpl {
                                     + " of variable " + source));
                 }
             }
-            Reflection.setField(field.getField(), sourceObject, value);
+            field.set(sourceObject, value);
 
         } catch (IllegalArgumentException e) {
             logger.error("Error while assigning field: " + getName() + " with value "
@@ -24,6 +24,7 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
@@ -57,6 +58,10 @@ public abstract class TestSuiteFitnessFunction extends FitnessFunction<TestSuite
      */
     @Deprecated
     public ExecutionResult runTest(TestCase test) {
+        return ExecutionResultCache.getInstance().execute(test, this::executeTest);
+    }
+
+    private ExecutionResult executeTest(TestCase test) {
         ExecutionResult result = new ExecutionResult(test, null);
 
         try {
@@ -65,6 +65,11 @@ public class TestSuiteMinimizer {
      */
     protected static long startTime = 0L;
 
+    /**
+     * Number of test executions done to check whether statements can be removed
+     */
+    private int numExecutions = 0;
+
     /**
      * <p>
      * Constructor for TestSuiteMinimizer.
@@ -90,6 +95,7 @@ public class TestSuiteMinimizer {
      */
     public void minimize(TestSuiteChromosome suite, boolean minimizePerTest) {
         startTime = System.currentTimeMillis();
+        numExecutions = 0;
 
         SecondaryObjective strategy = Properties.SECONDARY_OBJECTIVE[0];
 
@@ -110,6 +116,13 @@ public class TestSuiteMinimizer {
                 suite.size());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Minimized_Length,
                 suite.totalLengthOfTestCases());
+
+        long time = System.currentTimeMillis() - startTime;
+        logger.info("Minimization executed tests {} times in {}ms", numExecutions, time);
+        ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Minimization_Executions,
+                numExecutions);
+        ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Minimization_Time,
+                time);
     }
 
     private void updateClientStatus(int progress) {
@@ -217,6 +230,7 @@ public class TestSuiteMinimizer {
                         goal);
                 TestChromosome copy = test.clone();
                 minimizer.minimize(copy);
+                numExecutions += minimizer.getNumExecutions();
                 if (isTimeoutReached()) {
                     logger.warn("Minimization timeout. Roll back to original test suite");
                     return;
@@ -351,6 +365,7 @@ public class TestSuiteMinimizer {
                     List<Double> modifiedVerFitness = new ArrayList<>();
                     for (TestFitnessFactory<?> ff : testFitnessFactories)
                         modifiedVerFitness.add(ff.getFitness(suite));
+                    numExecutions++;
 
                     int compare_ff = 0;
                     for (int i_fit = 0; i_fit < modifiedVerFitness.size(); i_fit++) {
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.RegExp;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+import org.jgrapht.DirectedGraph;
+import org.jgrapht.alg.CycleDetector;
+import org.jgrapht.graph.DefaultDirectedGraph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.traverse.TopologicalOrderIterator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * The minimized automaton of a regex, together with the tables needed to
+ * compute the distance of strings to the regex.
+ * <p>
+ * The states of the automaton are numbered in topological order (ignoring
+ * back edges); the number of a state is its column in the cost matrix. For
+ * each column, the transitions going into it are stored as plain arrays, so
+ * that computing a distance does not need to look at the automaton at all.
+ * Instances are immutable apart from the lazily computed examples, and are
+ * shared between threads.
+ */
+final class CompiledRegex {
+
+    private final String regex;
+
+    private final Automaton automaton;
+
+    private final int numColumns;
+
+    /*
+     * For each column, the source column and character range of each incoming transition
+     */
+    private final int[][] incomingFrom;
+    private final char[][] incomingMin;
+    private final char[][] incomingMax;
+
+    private final int[] acceptingColumns;
+
+    private boolean examplesComputed = false;
+    private String example;
+    private String nonMatchingExample;
+
+    /**
+     * Build the automaton of the given regex
+     *
+     * @param regex a Java regex
+     * @throws IllegalArgumentException if the regex is not supported by the automaton library
+     */
+    CompiledRegex(String regex) throws IllegalArgumentException {
+        this.regex = regex;
+
+        String r = RegexDistanceUtils.expandRegex(regex);
+        automaton = new RegExp(r, RegExp.NONE).toAutomaton();
+        automaton.expandSingleton();
+
+        List<State> topologicalOrder = getTopologicalOrder(automaton);
+        numColumns = topologicalOrder.size();
+        Map<State, Integer> columns = new HashMap<>();
+        for (State state : topologicalOrder) {
+            columns.put(state, columns.size());
+        }
+
+        List<List<Transition>> incoming = new ArrayList<>(numColumns);
+        List<List<Integer>> incomingSources = new ArrayList<>(numColumns);
+        for (int col = 0; col < numColumns; col++) {
+            incoming.add(new ArrayList<>());
+            incomingSources.add(new ArrayList<>());
+        }
+        List<Integer> accepting = new ArrayList<>();
+        for (State state : topologicalOrder) {
+            int col = columns.get(state);
+            for (Transition t : state.getTransitions()) {
+                int dest = columns.get(t.getDest());
+                incoming.get(dest).add(t);
+                incomingSources.get(dest).add(col);
+            }
+            if (state.isAccept())
+                accepting.add(col);
+        }
+
+        incomingFrom = new int[numColumns][];
+        incomingMin = new char[numColumns][];
+        incomingMax = new char[numColumns][];
+        for (int col = 0; col < numColumns; col++) {
+            List<Transition> transitions = incoming.get(col);
+            incomingFrom[col] = new int[transitions.size()];
+            incomingMin[col] = new char[transitions.size()];
+            incomingMax[col] = new char[transitions.size()];
+            for (int i = 0; i < transitions.size(); i++) {
+                incomingFrom[col][i] = incomingSources.get(col).get(i);
+                incomingMin[col][i] = transitions.get(i).getMin();
+                incomingMax[col][i] = transitions.get(i).getMax();
+            }
+        }
+        acceptingColumns = new int[accepting.size()];
+        for (int i = 0; i < acceptingColumns.length; i++) {
+            acceptingColumns[i] = accepting.get(i);
+        }
+    }
+
+    private static List<State> getTopologicalOrder(Automaton automaton) {
+        // We convert this to a graph without self-loops in order to determine the topological order
+        DirectedGraph<State, DefaultEdge> regexGraph = new DefaultDirectedGraph<>(
+                DefaultEdge.class);
+        Set<State> visitedStates = new HashSet<>();
+        Queue<State> states = new LinkedList<>();
+        State initialState = automaton.getInitialState();
+        states.add(initialState);
+
+        while (!states.isEmpty()) {
+            State currentState = states.poll();
+            if (visitedStates.contains(currentState))
+                continue;
+            if (!regexGraph.containsVertex(currentState))
+                regexGraph.addVertex(currentState);
+            for (Transition t : currentState.getTransitions()) {
+                // Need to get rid of back edges, otherwise there is no topological order!
+                if (!t.getDest().equals(currentState)) {
+                    regexGraph.addVertex(t.getDest());
+                    regexGraph.addEdge(currentState, t.getDest());
+                    states.add(t.getDest());
+                    CycleDetector<State, DefaultEdge> det = new CycleDetector<>(
+                            regexGraph);
+                    if (det.detectCycles()) {
+                        regexGraph.removeEdge(currentState, t.getDest());
+                    }
+                }
+            }
+            visitedStates.add(currentState);
+        }
+
+        TopologicalOrderIterator<State, DefaultEdge> iterator = new TopologicalOrderIterator<>(
+                regexGraph);
+        List<State> topologicalOrder = new ArrayList<>();
+        while (iterator.hasNext()) {
+            topologicalOrder.add(iterator.next());
+        }
+        return topologicalOrder;
+    }
+
+    String getRegex() {
+        return regex;
+    }
+
+    Automaton getAutomaton() {
+        return automaton;
+    }
+
+    /**
+     * @return number of states of the automaton
+     */
+    int getNumberOfColumns() {
+        return numColumns;
+    }
+
+    int[] getIncomingFrom(int column) {
+        return incomingFrom[column];
+    }
+
+    char[] getIncomingMin(int column) {
+        return incomingMin[column];
+    }
+
+    char[] getIncomingMax(int column) {
+        return incomingMax[column];
+    }
+
+    int[] getAcceptingColumns() {
+        return acceptingColumns;
+    }
+
+    /**
+     * @param accepted whether the example should match the regex
+     * @return a shortest string (not) matching the regex, or null if there is none
+     */
+    synchronized String getShortestExample(boolean accepted) {
+        if (!examplesComputed) {
+            example = automaton.getShortestExample(true);
+            nonMatchingExample = automaton.getShortestExample(false);
+            examplesComputed = true;
+        }
+        return accepted ? example : nonMatchingExample;
+    }
+}
@@ -23,55 +23,84 @@ package org.evosuite.utils;
 import org.evosuite.Properties;
 import org.evosuite.runtime.Randomness;
 
-import java.util.ArrayDeque;
 import java.util.HashSet;
-import java.util.Queue;
 import java.util.Set;
 
 /**
+ * FIFO queue of at most {@link Properties#DYNAMIC_POOL_SIZE} distinct values.
+ * Values are kept in a ring buffer, so that a random one can be drawn
+ * without copying the queue.
+ *
  * @author Gordon Fraser
  */
 public class DefaultRandomAccessQueue<T> implements RandomAccessQueue<T> {
 
     private final Set<T> valueSet = new HashSet<>();
 
-    private final Queue<T> queue = new ArrayDeque<>();
+    private Object[] values = new Object[Properties.DYNAMIC_POOL_SIZE + 1];
+
+    private int head = 0;
+
+    private int size = 0;
 
     /* (non-Javadoc)
      * @see org.evosuite.primitives.RandomAccessQueue#restrictedAdd(java.lang.Object)
      */
     @Override
-    public void restrictedAdd(T value) {
-        if (!valueSet.contains(value)) {
-            queue.add(value);
-            valueSet.add(value);
+    public synchronized void restrictedAdd(T value) {
+        if (valueSet.add(value)) {
+            if (size == values.length) {
+                grow();
+            }
+            values[(head + size) % values.length] = value;
+            size++;
             reduceSize();
         }
     }
 
+    @SuppressWarnings("unchecked")
     private void reduceSize() {
-        if (queue.size() > Properties.DYNAMIC_POOL_SIZE) {
-            T value = queue.poll();
+        if (size > Properties.DYNAMIC_POOL_SIZE) {
+            T value = (T) values[head];
+            values[head] = null;
+            head = (head + 1) % values.length;
+            size--;
             valueSet.remove(value);
         }
     }
 
+    /**
+     * The pool size can be raised after the queue is created
+     */
+    private void grow() {
+        Object[] larger = new Object[Math.max(2 * values.length, 1)];
+        for (int i = 0; i < size; i++) {
+            larger[i] = values[(head + i) % values.length];
+        }
+        values = larger;
+        head = 0;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.primitives.RandomAccessQueue#getRandomValue()
      */
     @Override
-    public T getRandomValue() {
-        return Randomness.choice(valueSet);
+    @SuppressWarnings("unchecked")
+    public synchronized T getRandomValue() {
+        if (size == 0) {
+            return null;
+        }
+        return (T) values[(head + Randomness.nextInt(size)) % values.length];
     }
 
     @Override
-    public String toString() {
-        String res = "[ ";
-        for (final Object element : queue) {
-            res += element + " ";
+    public synchronized String toString() {
+        StringBuilder res = new StringBuilder("[ ");
+        for (int i = 0; i < size; i++) {
+            res.append(values[(head + i) % values.length]).append(" ");
         }
-        res += "]";
-        return res;
+        res.append("]");
+        return res.toString();
     }
 
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.Randomness;
+
+import java.util.function.LongFunction;
+
+/**
+ * Bounded FIFO queue of distinct primitive values, the unboxed counterpart
+ * of {@link DefaultRandomAccessQueue}. Values are stored as the bits of a
+ * long (floating point values through {@link Double#doubleToLongBits} and
+ * {@link Float#floatToIntBits}, so that distinctness is the same as for
+ * the boxed types) in a ring buffer, and indexed by an open addressing hash
+ * set with linear probing. Neither adding nor sampling allocates.
+ */
+public class PrimitiveRandomAccessQueue {
+
+    private long[] values;
+
+    private int head = 0;
+
+    private int size = 0;
+
+    private long[] keys;
+
+    private boolean[] used;
+
+    private int mask;
+
+    public PrimitiveRandomAccessQueue() {
+        allocate(Properties.DYNAMIC_POOL_SIZE + 1);
+    }
+
+    private void allocate(int capacity) {
+        values = new long[Math.max(capacity, 1)];
+        int tableSize = Integer.highestOneBit(Math.max(2 * values.length, 2) - 1) << 1;
+        keys = new long[tableSize];
+        used = new boolean[tableSize];
+        mask = tableSize - 1;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public void restrictedAdd(int value) {
+        restrictedAdd((long) value);
+    }
+
+    public void restrictedAdd(float value) {
+        restrictedAdd((long) Float.floatToIntBits(value));
+    }
+
+    public void restrictedAdd(double value) {
+        restrictedAdd(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Add the value unless it is already in the queue, removing the oldest
+     * value if the queue exceeds {@link Properties#DYNAMIC_POOL_SIZE}
+     *
+     * @param bits a value or the bits of a floating point value
+     */
+    public synchronized void restrictedAdd(long bits) {
+        int slot = find(bits);
+        if (used[slot]) {
+            return;
+        }
+        if (size == values.length) {
+            grow();
+            slot = find(bits);
+        }
+        keys[slot] = bits;
+        used[slot] = true;
+        values[(head + size) % values.length] = bits;
+        size++;
+
+        if (size > Properties.DYNAMIC_POOL_SIZE) {
+            long oldest = values[head];
+            head = (head + 1) % values.length;
+            size--;
+            delete(find(oldest));
+        }
+    }
+
+    public int getRandomInt() {
+        return (int) getRandomValue();
+    }
+
+    public float getRandomFloat() {
+        return Float.intBitsToFloat((int) getRandomValue());
+    }
+
+    public double getRandomDouble() {
+        return Double.longBitsToDouble(getRandomValue());
+    }
+
+    /**
+     * @return the bits of a random value of the queue
+     * @throws IllegalStateException if the queue is empty
+     */
+    public synchronized long getRandomValue() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return values[(head + Randomness.nextInt(size)) % values.length];
+    }
+
+    /**
+     * @return the slot holding the value, or the empty slot where it would go
+     */
+    private int find(long bits) {
+        int slot = hash(bits) & mask;
+        while (used[slot] && keys[slot] != bits) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Empty the slot and move back the following entries of its cluster, so
+     * that lookups do not need tombstones
+     */
+    private void delete(int slot) {
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!used[next]) {
+                break;
+            }
+            int home = hash(keys[next]) & mask;
+            // the entry can move to the free slot unless its home lies cyclically in (slot, next]
+            boolean movable = slot <= next ? (home <= slot || home > next) : (home <= slot && home > next);
+            if (movable) {
+                keys[slot] = keys[next];
+                slot = next;
+            }
+        }
+        used[slot] = false;
+    }
+
+    /**
+     * The pool size can be raised after the queue is created
+     */
+    private void grow() {
+        long[] oldValues = values;
+        allocate(2 * oldValues.length);
+        for (int i = 0; i < size; i++) {
+            long bits = oldValues[(head + i) % oldValues.length];
+            values[i] = bits;
+            int slot = find(bits);
+            keys[slot] = bits;
+            used[slot] = true;
+        }
+        head = 0;
+    }
+
+    private static int hash(long bits) {
+        // finaliser of MurmurHash3, to spread sequential values over the table
+        bits ^= bits >>> 33;
+        bits *= 0xff51afd7ed558ccdL;
+        bits ^= bits >>> 33;
+        bits *= 0xc4ceb9fe1a85ec53L;
+        bits ^= bits >>> 33;
+        return (int) bits;
+    }
+
+    @Override
+    public String toString() {
+        return toString(bits -> bits);
+    }
+
+    /**
+     * @param decoder converts the stored bits back to the value to print
+     */
+    public synchronized String toString(LongFunction<?> decoder) {
+        StringBuilder res = new StringBuilder("[ ");
+        for (int i = 0; i < size; i++) {
+            res.append(decoder.apply(values[(head + i) % values.length])).append(" ");
+        }
+        res.append("]");
+        return res.toString();
+    }
+}
@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 
@@ -251,13 +252,20 @@ public class Randomness implements Serializable {
      * @param <T> a T object.
      * @return a T object or <code>null</code> if <code>set</code> is empty.
      */
-    @SuppressWarnings("unchecked")
     public static <T> T choice(Collection<T> set) {
         if (set.isEmpty())
             return null;
 
         int position = random.nextInt(set.size());
-        return (T) set.toArray()[position];
+        if (set instanceof List) {
+            return ((List<T>) set).get(position);
+        }
+        // same element as toArray()[position], without copying the collection
+        Iterator<T> iterator = set.iterator();
+        for (int i = 0; i < position; i++) {
+            iterator.next();
+        }
+        return iterator.next();
     }
 
     /**
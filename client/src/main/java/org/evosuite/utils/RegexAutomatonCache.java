@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.evosuite.Properties;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the automata of the regexes used by the SUT.
+ * Building an automaton is expensive, but it is needed each time a string
+ * is matched against a regex by instrumented code. The cache can be used by
+ * several threads at the same time; automata are built outside of the lock.
+ */
+public class RegexAutomatonCache {
+
+    private static RegexAutomatonCache instance = null;
+
+    private final Map<String, CompiledRegex> automata = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits = 0;
+
+    private long misses = 0;
+
+    private long evictions = 0;
+
+    private RegexAutomatonCache() {
+    }
+
+    public static synchronized RegexAutomatonCache getInstance() {
+        if (instance == null)
+            instance = new RegexAutomatonCache();
+        return instance;
+    }
+
+    /**
+     * @param regex a Java regex
+     * @return the cached automaton of the regex, built if needed
+     * @throws IllegalArgumentException if the regex is not supported by the automaton library
+     */
+    CompiledRegex get(String regex) throws IllegalArgumentException {
+        synchronized (this) {
+            CompiledRegex compiled = automata.get(regex);
+            if (compiled != null) {
+                hits++;
+                return compiled;
+            }
+            misses++;
+        }
+
+        CompiledRegex compiled = new CompiledRegex(regex);
+
+        synchronized (this) {
+            CompiledRegex other = automata.putIfAbsent(regex, compiled);
+            if (other != null)
+                return other;
+            Iterator<CompiledRegex> eldest = automata.values().iterator();
+            while (automata.size() > Math.max(1, Properties.REGEX_CACHE_SIZE)) {
+                eldest.next();
+                eldest.remove();
+                evictions++;
+            }
+        }
+        return compiled;
+    }
+
+    public synchronized void clear() {
+        automata.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public synchronized int size() {
+        return automata.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the ratio of lookups answered from the cache
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -20,16 +20,8 @@
 package org.evosuite.utils;
 
 import dk.brics.automaton.Automaton;
-import dk.brics.automaton.RegExp;
-import dk.brics.automaton.State;
-import dk.brics.automaton.Transition;
-import org.jgrapht.DirectedGraph;
-import org.jgrapht.alg.CycleDetector;
-import org.jgrapht.graph.DefaultDirectedGraph;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.traverse.TopologicalOrderIterator;
-
-import java.util.*;
+
+import java.util.Arrays;
 import java.util.regex.Pattern;
 
 /**
@@ -38,57 +30,23 @@ import java.util.regex.Pattern;
 public class RegexDistanceUtils {
 
     /*
-     * Automatons for regex can be expensive to build. So we cache them,
-     * as we might need to access to them several times during the search
+     * Cost matrices are reused by each thread. As the search often changes only the end
+     * of a string, the rows of the previous evaluation that only depend on a common prefix
+     * are reused as well.
      */
-    private static final Map<String, List<State>> regexStateCache = new HashMap<>();
-    private static final Map<String, Automaton> regexAutomatonCache = new HashMap<>();
+    private static final ThreadLocal<StandardCostMatrix> standardMatrices = ThreadLocal.withInitial(StandardCostMatrix::new);
+    private static final ThreadLocal<StringAVMCostMatrix> avmMatrices = ThreadLocal.withInitial(StringAVMCostMatrix::new);
 
     public static Automaton getRegexAutomaton(String regex) {
-        if (!regexAutomatonCache.containsKey(regex)) {
-            cacheRegex(regex);
-        }
-        return regexAutomatonCache.get(regex);
+        return RegexAutomatonCache.getInstance().get(regex).getAutomaton();
     }
 
     public static String getRegexInstance(String regex) {
-        if (!regexAutomatonCache.containsKey(regex)) {
-            cacheRegex(regex);
-        }
-        Automaton automaton = regexAutomatonCache.get(regex);
-        return automaton.getShortestExample(true);
+        return RegexAutomatonCache.getInstance().get(regex).getShortestExample(true);
     }
 
     public static String getNonMatchingRegexInstance(String regex) {
-        if (!regexAutomatonCache.containsKey(regex)) {
-            cacheRegex(regex);
-        }
-        Automaton automaton = regexAutomatonCache.get(regex);
-        return automaton.getShortestExample(false);
-    }
-
-    private static class GraphTransition {
-
-        public enum TransitionType {
-            INSERTION, DELETION, REPLACEMENT,
-            /**
-             * A phantom transition is an artificial transition from the sink/final states to a single artificial sink/state.
-             * This is used to simplify the recursion calculation of the subpath costs.
-             */
-            PHANTOM
-        }
-
-        public final double cost;
-        public final int fromRow;
-        public final State fromState;
-        public final TransitionType type;
-
-        public GraphTransition(double cost, int fromRow, State fromState, TransitionType type) {
-            this.cost = cost;
-            this.fromRow = fromRow;
-            this.fromState = fromState;
-            this.type = type;
-        }
+        return RegexAutomatonCache.getInstance().get(regex).getShortestExample(false);
     }
 
     /**
@@ -172,70 +130,6 @@ public class RegexDistanceUtils {
         return regex;
     }
 
-    /**
-     * Ensure that each row has the full data structures containing the target state
-     *
-     * @param transitions
-     * @param state
-     * @param numRows
-     */
-    private static void ensureState(
-            Map<Integer, Map<State, Set<GraphTransition>>> transitions, State state,
-            int numRows) {
-        for (int row = 0; row <= numRows; row++) {
-            if (!transitions.containsKey(row))
-                transitions.put(row, new HashMap<>());
-            if (!transitions.get(row).containsKey(state))
-                transitions.get(row).put(state, new HashSet<>());
-        }
-    }
-
-    private static void cacheRegex(String regex) {
-        String r = expandRegex(regex);
-        Automaton automaton = new RegExp(r, RegExp.NONE).toAutomaton();
-        automaton.expandSingleton();
-
-        // We convert this to a graph without self-loops in order to determine the topological order
-        DirectedGraph<State, DefaultEdge> regexGraph = new DefaultDirectedGraph<>(
-                DefaultEdge.class);
-        Set<State> visitedStates = new HashSet<>();
-        Queue<State> states = new LinkedList<>();
-        State initialState = automaton.getInitialState();
-        states.add(initialState);
-
-        while (!states.isEmpty()) {
-            State currentState = states.poll();
-            if (visitedStates.contains(currentState))
-                continue;
-            if (!regexGraph.containsVertex(currentState))
-                regexGraph.addVertex(currentState);
-            for (Transition t : currentState.getTransitions()) {
-                // Need to get rid of back edges, otherwise there is no topological order!
-                if (!t.getDest().equals(currentState)) {
-                    regexGraph.addVertex(t.getDest());
-                    regexGraph.addEdge(currentState, t.getDest());
-                    states.add(t.getDest());
-                    CycleDetector<State, DefaultEdge> det = new CycleDetector<>(
-                            regexGraph);
-                    if (det.detectCycles()) {
-                        regexGraph.removeEdge(currentState, t.getDest());
-                    }
-                }
-            }
-            visitedStates.add(currentState);
-        }
-
-        TopologicalOrderIterator<State, DefaultEdge> iterator = new TopologicalOrderIterator<>(
-                regexGraph);
-        List<State> topologicalOrder = new ArrayList<>();
-        while (iterator.hasNext()) {
-            topologicalOrder.add(iterator.next());
-        }
-
-        regexStateCache.put(regex, topologicalOrder);
-        regexAutomatonCache.put(regex, automaton);
-    }
-
     /**
      * <p>
      * Get the distance between the arg and the given regex.
@@ -249,9 +143,7 @@ public class RegexDistanceUtils {
             return getDefaultDistance(arg, regex);
         }
 
-        RegexGraph graph = new RegexGraph(arg, regex);
-        CostMatrix matrix = new CostMatrix();
-        return matrix.calculateStandardCost(graph);
+        return standardMatrices.get().calculate(arg, regex);
     }
 
     private static int getDefaultDistance(String arg, String regex) {
@@ -287,365 +179,236 @@ public class RegexDistanceUtils {
      * @return
      */
     public static double getDistanceTailoredForStringAVM(String arg, String regex) {
-        RegexGraph graph = new RegexGraph(arg, regex);
-        CostMatrix matrix = new CostMatrix();
-        return matrix.calculateCostForStringAVM(graph);
+        return avmMatrices.get().calculate(arg, regex);
     }
 
     protected static Automaton getAndCacheAutomaton(String regex) {
-        /*
-         * Cache it if first time we build it
-         */
-        if (!regexAutomatonCache.containsKey(regex)) {
-            /*
-             * Create an automaton representing the regex
-             */
-            cacheRegex(regex);
-        }
-
-        Automaton automaton = regexAutomatonCache.get(regex);
-        return automaton;
+        return getRegexAutomaton(regex);
     }
 
+    /**
+     * Cost of replacing the character c with one in [min,max]
+     */
+    private static double getReplacementCost(char c, char min, char max) {
+        if (c < min || c > max) {
+            int distMin = Math.abs(c - min);
+            int distMax = Math.abs(c - max);
+            return normalize(Math.min(distMin, distMax));
+        }
+        return 0.0;
+    }
 
     /**
-     * A graph created based on an "arg" that is matched against a "regex".
-     * There is going to be arg.length+1 copies of the regex automaton.
-     * Each copy represents a "row".
+     * Matrix used to calculate the cost, ie the actual distance, of an "arg" matched against a "regex".
+     *
+     * <p>
+     * The algorithm is based on what discussed in:
+     *
+     * Mohammad Alshraideh and Leonardo Bottaci
+     * Search-based software test data generation for string data using program-specific search operators
+     * http://neo.lcc.uma.es/mase/attachments/085_TestDataGenerationForStringData.pdf
+     *
+     * and
+     *
+     * EUGENE W. MYERS and WEBB MILLER
+     * APPROXIMATE MATCHING OF REGULAR EXPRESSIONS
+     * http://www.cs.mun.ca/~harold/Courses/Old/Ling6800.W06/Diary/reg.aprox.pdf
+     * </p>
+     *
+     * <p>
+     * There are arg.length+1 copies of the regex automaton, each one a "row".
      * Each automaton state, in topological order, represents a "column".
-     * The graph can be considered as a "rows"x"columns" matrix.
+     * Within a row, each transition of the automaton is an insertion (cost 1).
+     * Between row i and row i+1, each transition is a replacement of the i-th
+     * character of the arg (cost depending on the character), and each state
+     * has a deletion of the character to itself (cost 1). The distance is the
+     * cost of the cheapest path from the initial state in the first row to an
+     * accepting state in the last row.
+     * </p>
      *
-     * @author arcuri
+     * <p>
+     * Row i only depends on the first i characters of the arg, and so the rows
+     * of the previous calculation on the same regex can be reused up to the first
+     * character in which the args differ.
+     * </p>
      */
-    private static class RegexGraph {
-
-        private final Map<Integer, Map<State, Set<GraphTransition>>> transitions;
-        private Map<Integer, State> intToStateMap;
-        private Map<State, Integer> stateToIntMap;
-
-        /**
-         * Build the graph
-         *
-         * @param arg
-         * @param regex
-         */
-        public RegexGraph(String arg, String regex) {
-            transitions = createGraph(arg, regex);
-        }
+    private abstract static class CostMatrix {
 
-        public int getNumberOfRows() {
-            return transitions.keySet().size();
-        }
+        private CompiledRegex regex;
 
-        public int getNumberOfColumns() {
-            return stateToIntMap.size();
-        }
+        private String arg;
 
         /**
-         * Get all the incoming transitions to the node located at coordinate "row" and "column"
-         *
-         * @param row
-         * @param column
-         * @return
+         * @return the distance of the arg to the regex
          */
-        public Set<GraphTransition> getIncomingTransitions(int row, int column) {
-            State state = intToStateMap.get(column);
-            return transitions.get(row).get(state);
-        }
-
-        public int getColumn(State state) {
-            return stateToIntMap.get(state);
-        }
-
-        private Map<Integer, Map<State, Set<GraphTransition>>> createGraph(String arg, String regex) {
-
-            /*
-             * Create a graph to calculate the distance. The algorithm is based on what discussed in:
-             *
-             * Mohammad Alshraideh and Leonardo Bottaci
-             * Search-based software test data generation for string data using program-specific search operators
-             * http://neo.lcc.uma.es/mase/attachments/085_TestDataGenerationForStringData.pdf
-             *
-             * and
-             *
-             * EUGENE W. MYERS and WEBB MILLER
-             * APPROXIMATE MATCHING OF REGULAR EXPRESSIONS
-             * http://www.cs.mun.ca/~harold/Courses/Old/Ling6800.W06/Diary/reg.aprox.pdf
-             */
-
-            Automaton automaton = getAndCacheAutomaton(regex);
-            final int NUM_CHARS = arg.length();
-
-
-            List<State> topologicalOrder = regexStateCache.get(regex);
-
-            Map<Integer, Map<State, Set<GraphTransition>>> transitions = new HashMap<>();
+        protected double calculateCost(String arg, String regex) {
+            CompiledRegex compiled = this.regex;
+            if (compiled == null || !compiled.getRegex().equals(regex)) {
+                compiled = RegexAutomatonCache.getInstance().get(regex);
+            }
 
-            intToStateMap = new HashMap<>();
-            stateToIntMap = new HashMap<>();
-            int numState = 0;
+            final int rows = arg.length() + 1;
+            int row = 0;
+            if (compiled == this.regex && this.arg != null) {
+                final int common = Math.min(arg.length(), this.arg.length());
+                while (row < common && arg.charAt(row) == this.arg.charAt(row)) {
+                    row++;
+                }
+                // rows up to the common prefix are still valid
+                row++;
+            }
 
-            for (State currentState : topologicalOrder) {
+            this.regex = null;
+            this.arg = null;
 
-                /*
-                 * Init data structure to quickly map/access state/index
-                 */
-                stateToIntMap.put(currentState, numState);
-                intToStateMap.put(numState, currentState);
-                numState++;
+            ensureCapacity(rows * compiled.getNumberOfColumns());
+            if (row == 0) {
+                calculateFirstRow(compiled);
+                row = 1;
+            }
+            for (; row < rows; row++) {
+                calculateRow(compiled, row, arg.charAt(row - 1));
+            }
+            double cost = getCostOfAcceptingStates(compiled, rows - 1);
 
-                for (Transition t : currentState.getTransitions()) {
+            this.regex = compiled;
+            this.arg = arg;
+            return cost;
+        }
 
-                    State destination = t.getDest();
-                    ensureState(transitions, destination, NUM_CHARS);
+        /**
+         * Make sure there is space for the given number of cells, keeping the current values
+         */
+        protected abstract void ensureCapacity(int cells);
 
-                    for (int row = 0; row <= NUM_CHARS; row++) {
-                        /*
-                         *  add an insertion edge from currentState in row to target state in same row
-                         */
+        /**
+         * First row is cost of matching empty sequence on regex
+         */
+        protected abstract void calculateFirstRow(CompiledRegex regex);
 
-                        transitions.get(row).get(destination).add(new GraphTransition(1.0, row, currentState, GraphTransition.TransitionType.INSERTION));
-                    }
+        protected abstract void calculateRow(CompiledRegex regex, int row, char c);
 
-                    for (int row = 0; row < NUM_CHARS; row++) {
-                        /*
-                         *  Add a replacement edge from currentState in row to t.getDest in row+1
-                         *  if charAt row+1 == the parameter of this transition, this is a zero-cost edge
-                         */
-
-                        double cost = 0.0;
-
-                        if (arg.charAt(row) < t.getMin() || arg.charAt(row) > t.getMax()) {
-                            int distMin = Math.abs(arg.charAt(row) - t.getMin());
-                            int distMax = Math.abs(arg.charAt(row) - t.getMax());
-                            cost = normalize(Math.min(distMin, distMax));
-                        }
-
-                        /*
-                         * Important: even if the cost is 0 (eg match on the arg/regex in which we replace char X with X), we CANNOT
-                         * use a PHANTOM transition. Even if we do not replace anything, we still need to consider it as a replacement
-                         * transition. Consider the case
-                         *
-                         *  "ac".matches("abc")
-                         *
-                         *  If we used a phantom transition to represent the alignment c/c, then it would be possible to insert 'b' in the
-                         *  middle of "abc". On the other hand, if we use a replacement c/c, then inserting 'b' would not be allowed, as an
-                         *  insertion cannot be followed by a replacement.
-                         */
-
-                        transitions.get(row + 1).get(destination).add(new GraphTransition(cost, row, currentState, GraphTransition.TransitionType.REPLACEMENT));
-                    }
-                }
+        protected abstract double getCostOfAcceptingStates(CompiledRegex regex, int row);
+    }
 
-                ensureState(transitions, currentState, NUM_CHARS);
+    private static class StandardCostMatrix extends CostMatrix {
 
-                for (int row = 0; row < NUM_CHARS; row++) {
+        private static final int MAX = Integer.MAX_VALUE;
 
-                    /*
-                     * add a deletion edge with cost 1 from currentState to currentState in next row
-                     */
+        private int[] matrix = new int[0];
 
-                    transitions.get(row + 1).get(currentState).add(new GraphTransition(1.0, row, currentState, GraphTransition.TransitionType.DELETION));
-                }
-            }
+        public int calculate(String arg, String regex) {
+            return (int) calculateCost(arg, regex);
+        }
 
-            // Add zero-cost transitions from accepting states to final state
-            State finalState = new State();
-            ensureState(transitions, finalState, NUM_CHARS);
-            for (State s : automaton.getStates()) {
-                if (s.isAccept()) {
-                    transitions.get(NUM_CHARS).get(finalState).add(new GraphTransition(0, NUM_CHARS, s, GraphTransition.TransitionType.PHANTOM));
-                }
+        @Override
+        protected void ensureCapacity(int cells) {
+            if (matrix.length < cells) {
+                matrix = Arrays.copyOf(matrix, Math.max(cells, 2 * matrix.length));
             }
-            intToStateMap.put(numState, finalState);
-            stateToIntMap.put(finalState, numState);
-
-            return transitions;
         }
-    }
-
-    /**
-     * Class used to calculate the cost, ie the actual distance, based on a RegexGraph.
-     *
-     * @author arcuri
-     */
-    private static class CostMatrix {
-
-        private final static int DEL = 0;
-        private final static int REP = 1;
-        private final static int INS = 2;
 
-        public CostMatrix() {
-            super();
+        private static int getSubPathCost(int previousStateCost, int transitionCost) {
+            return previousStateCost == MAX ? MAX : previousStateCost + transitionCost;
         }
 
-        public int calculateStandardCost(RegexGraph graph) {
-            final int ROWS = graph.getNumberOfRows();
-            final int COLUMNS = graph.getNumberOfColumns();
-
-            final double[][] matrix = new double[ROWS][COLUMNS];
-
-            // First row is cost of matching empty sequence on regex
-            final int FIRST_ROW = 0;
+        @Override
+        protected void calculateFirstRow(CompiledRegex regex) {
+            final int columns = regex.getNumberOfColumns();
+            /*
+             * states later in topological order are only reached through back edges, and
+             * are read before being calculated (ie, with 0 costs)
+             */
+            Arrays.fill(matrix, 0, columns, 0);
 
             /*
              * init first starting state with 0 costs
              */
-            matrix[FIRST_ROW][0] = 0;
-
-            //look at first row (which is special)
-            for (int col = 1; col < graph.getNumberOfColumns(); col++) {
-
-                double min = Double.MAX_VALUE;
-
-                for (GraphTransition t : graph.getIncomingTransitions(FIRST_ROW, col)) {
-
-                    int otherCol = graph.getColumn(t.fromState);
+            matrix[0] = 0;
 
+            for (int col = 1; col < columns; col++) {
+                int min = MAX;
+                for (int from : regex.getIncomingFrom(col)) {
                     //self transition
-                    if (col == otherCol) {
+                    if (from == col) {
                         continue;
                     }
-
-                    double otherCost = matrix[FIRST_ROW][otherCol];
-
-                    min = Math.min(min, getSubPathCost(otherCost, Math.ceil(t.cost)));
+                    min = Math.min(min, getSubPathCost(matrix[from], 1));
                 }
-
-                matrix[FIRST_ROW][col] = min;
+                matrix[col] = min;
             }
+        }
 
-            //then look at the other rows
-            for (int i = 1; i < ROWS; i++) {
-
-                for (int col = 0; col < COLUMNS; col++) {
-
-                    matrix[i][col] = Double.MAX_VALUE;
-
-                    for (GraphTransition t : graph.getIncomingTransitions(i, col)) {
-
-                        int otherCol = graph.getColumn(t.fromState);
-                        int otherRow = t.fromRow;
-
-                        if (!t.type.equals(GraphTransition.TransitionType.PHANTOM)) {
-                            matrix[i][col] = Math.min(matrix[i][col], getSubPathCost(matrix[otherRow][otherCol], Math.ceil(t.cost)));
-                        } else {
-                            /*
-                             * artificial transition to final/sink state, so just take same values as previous state
-                             */
-                            matrix[i][col] = Math.min(matrix[i][col], matrix[otherRow][otherCol]);
-
-                        }
+        @Override
+        protected void calculateRow(CompiledRegex regex, int row, char c) {
+            final int columns = regex.getNumberOfColumns();
+            final int current = row * columns;
+            final int previous = current - columns;
+            Arrays.fill(matrix, current, current + columns, 0);
+
+            for (int col = 0; col < columns; col++) {
+                // deletion
+                int min = getSubPathCost(matrix[previous + col], 1);
+
+                final int[] incomingFrom = regex.getIncomingFrom(col);
+                final char[] incomingMin = regex.getIncomingMin(col);
+                final char[] incomingMax = regex.getIncomingMax(col);
+                for (int i = 0; i < incomingFrom.length; i++) {
+                    final int from = incomingFrom[i];
+                    // replacement, costing 1 unless the character is already the right one
+                    int cost = (c < incomingMin[i] || c > incomingMax[i]) ? 1 : 0;
+                    min = Math.min(min, getSubPathCost(matrix[previous + from], cost));
+                    // insertion, a self transition cannot improve on this state
+                    if (from != col) {
+                        min = Math.min(min, getSubPathCost(matrix[current + from], 1));
                     }
                 }
+                matrix[current + col] = min;
             }
-
-            double min = matrix[ROWS - 1][COLUMNS - 1];
-            return (int) Math.round(min);
         }
 
-        /**
-         * Note: this is different from normal matching algorithms, as we enforce an order
-         * among the operators: delete, replace and then insert.
-         *
-         * @param graph
-         * @return
-         */
-        public double calculateCostForStringAVM(RegexGraph graph) {
-
-            final int ROWS = graph.getNumberOfRows();
-            final int COLUMNS = graph.getNumberOfColumns();
+        @Override
+        protected double getCostOfAcceptingStates(CompiledRegex regex, int row) {
+            final int offset = row * regex.getNumberOfColumns();
+            int min = MAX;
+            for (int col : regex.getAcceptingColumns()) {
+                min = Math.min(min, matrix[offset + col]);
+            }
+            return min;
+        }
+    }
 
-            /*
-             * we create a matrix based on each row and each column in the graph.
-             * Each cell has 3 values, each representing the cost of thre different types of path:
-             *
-             * 0) only deletion
-             * 1) deletions followed by replacement
-             * 2) as above, and then followed by insertions
-             */
-            final double[][][] matrix = new double[ROWS][COLUMNS][3];
+    /**
+     * Note: this is different from normal matching algorithms, as we enforce an order
+     * among the operators: delete, replace and then insert.
+     *
+     * <p>
+     * Each cell has 3 values, each representing the cost of three different types of path:
+     *
+     * 0) only deletion
+     * 1) deletions followed by replacement
+     * 2) as above, and then followed by insertions
+     * </p>
+     */
+    private static class StringAVMCostMatrix extends CostMatrix {
 
-            calculateInsertionCostOnFirstRow(graph, matrix);
+        private final static int DEL = 0;
+        private final static int REP = 1;
+        private final static int INS = 2;
 
-            for (int i = 1; i < ROWS; i++) {
+        private final static int PATHS = 3;
 
-                for (int col = 0; col < COLUMNS; col++) {
+        private double[] matrix = new double[0];
 
-                    /*
-                     * unless a path is explicitly updated, it will have maximum distance by default
-                     */
-                    matrix[i][col][DEL] = Double.MAX_VALUE;
-                    matrix[i][col][REP] = Double.MAX_VALUE;
-                    matrix[i][col][INS] = Double.MAX_VALUE;
-
-                    for (GraphTransition t : graph.getIncomingTransitions(i, col)) {
-
-                        int otherCol = graph.getColumn(t.fromState);
-                        int otherRow = t.fromRow;
-
-                        if (t.type.equals(GraphTransition.TransitionType.INSERTION)) {
-                            assert otherRow == i;
-                            /*
-                             * if we have an insertion, only the insertion path can be continued.
-                             * that's the reason why on the left side we only update for [INS].
-                             * An insertion can continue any type of path (and so all types are present on the right side).
-                             */
-                            matrix[i][col][INS] = Math.min(matrix[i][col][INS], getSubPathCost(matrix[otherRow][otherCol][DEL], t.cost));
-                            matrix[i][col][INS] = Math.min(matrix[i][col][INS], getSubPathCost(matrix[otherRow][otherCol][REP], t.cost));
-                            matrix[i][col][INS] = Math.min(matrix[i][col][INS], getSubPathCost(matrix[otherRow][otherCol][INS], t.cost));
-                        } else if (t.type.equals(GraphTransition.TransitionType.REPLACEMENT)) {
-                            /*
-                             * if we have a replacement, then we cannot continue a delete path.
-                             * So, no [DEL] on the left side.
-                             * A replacement can continue a delete or replace path, but not an insertion one (and so [DEL] and
-                             * [REP] on right side)
-                             */
-                            matrix[i][col][REP] = Math.min(matrix[i][col][REP], getSubPathCost(matrix[otherRow][otherCol][DEL], t.cost));
-                            matrix[i][col][REP] = Math.min(matrix[i][col][REP], getSubPathCost(matrix[otherRow][otherCol][REP], t.cost));
-                            /*
-                             * from this state on, an insertion path can be followed, with same cost (ie right side) as replacement path
-                             */
-                            matrix[i][col][INS] = Math.min(matrix[i][col][INS], getSubPathCost(matrix[otherRow][otherCol][DEL], t.cost));
-                            matrix[i][col][INS] = Math.min(matrix[i][col][INS], getSubPathCost(matrix[otherRow][otherCol][REP], t.cost));
-                        } else if (t.type.equals(GraphTransition.TransitionType.DELETION)) {
-                            /*
-                             * deletion can only follow a deletion path (so only [DEL] or right side).
-                             * but, from this state on, any new path can be followed (so all on left side)
-                             */
-                            matrix[i][col][DEL] = Math.min(matrix[i][col][DEL], getSubPathCost(matrix[otherRow][otherCol][DEL], t.cost));
-                            matrix[i][col][REP] = Math.min(matrix[i][col][REP], getSubPathCost(matrix[otherRow][otherCol][DEL], t.cost));
-                            matrix[i][col][INS] = Math.min(matrix[i][col][INS], getSubPathCost(matrix[otherRow][otherCol][DEL], t.cost));
-                        } else if (t.type.equals(GraphTransition.TransitionType.PHANTOM)) {
-                            assert t.cost == 0;
-                            /*
-                             * artificial transition to final/sink state, so just take same values as previous state
-                             */
-                            matrix[i][col][DEL] = Math.min(matrix[i][col][DEL], matrix[otherRow][otherCol][DEL]);
-                            matrix[i][col][REP] = Math.min(matrix[i][col][REP], matrix[otherRow][otherCol][REP]);
-                            matrix[i][col][INS] = Math.min(matrix[i][col][INS], matrix[otherRow][otherCol][INS]);
-                        }
-                    }
-                }
+        public double calculate(String arg, String regex) {
+            return calculateCost(arg, regex);
+        }
 
-                /*
-                 * TODO: The algorithm of Myers's paper, at page 12, makes a distinction between D and E transitions.
-                 * Insertions of type E are done last. Not fully clear if it has an effect here: ie, recall that
-                 * here we do minimization (calculate distance) and not maximization (similarity)
-                 */
+        @Override
+        protected void ensureCapacity(int cells) {
+            if (matrix.length < PATHS * cells) {
+                matrix = Arrays.copyOf(matrix, Math.max(PATHS * cells, 2 * matrix.length));
             }
-
-            /*
-             * get the minimum among the 3 different paths in the sink state
-             */
-            double min = Double.MAX_VALUE;
-            for (double value : matrix[ROWS - 1][COLUMNS - 1]) {
-                if (value < min) {
-                    min = value;
-                }
-            }
-
-            return min;
         }
 
         /**
@@ -654,17 +417,9 @@ public class RegexDistanceUtils {
          * @param previousStateCost
          * @param transitionCost
          * @return
-         * @throws IllegalArgumentException
          */
-        private double getSubPathCost(double previousStateCost, double transitionCost) throws IllegalArgumentException {
-            if (previousStateCost < 0) {
-                throw new IllegalArgumentException("previousStateCost cannot be negative: " + previousStateCost);
-            }
-            if (transitionCost < 0) {
-                throw new IllegalArgumentException("transitionCost cannot be negative: " + transitionCost);
-            }
-
-            if (previousStateCost == Double.MAX_VALUE || transitionCost == Double.MAX_VALUE) {
+        private static double getSubPathCost(double previousStateCost, double transitionCost) {
+            if (previousStateCost == Double.MAX_VALUE) {
                 return Double.MAX_VALUE;
             }
 
@@ -682,56 +437,124 @@ public class RegexDistanceUtils {
 
         /**
          * First row is special, ie very different from the others
-         *
-         * @param graph
-         * @param matrix
          */
-        private void calculateInsertionCostOnFirstRow(RegexGraph graph, final double[][][] matrix) {
-
-            // First row is cost of matching empty sequence on regex
-            final int FIRST_ROW = 0;
+        @Override
+        protected void calculateFirstRow(CompiledRegex regex) {
+            final int columns = regex.getNumberOfColumns();
+            /*
+             * states later in topological order are only reached through back edges, and
+             * are read before being calculated (ie, with 0 costs)
+             */
+            Arrays.fill(matrix, 0, PATHS * columns, 0.0);
 
             /*
              * init first starting state with 0 costs
              */
-            matrix[FIRST_ROW][0][0] = 0;
-            matrix[FIRST_ROW][0][1] = 0;
-            matrix[FIRST_ROW][0][2] = 0;
+            matrix[DEL] = 0;
+            matrix[REP] = 0;
+            matrix[INS] = 0;
 
-            for (int col = 1; col < graph.getNumberOfColumns(); col++) {
+            for (int col = 1; col < columns; col++) {
 
                 double min = Double.MAX_VALUE;
 
-                for (GraphTransition t : graph.getIncomingTransitions(FIRST_ROW, col)) {
-
-                    /*
-                     * on first row, there can be only insertions coming from the same row,
-                     * apart from last node that can have a phantom transition to sink state
-                     */
-                    assert t.type.equals(GraphTransition.TransitionType.INSERTION) ||
-                            t.type.equals(GraphTransition.TransitionType.PHANTOM);
-                    assert t.fromRow == 0;
-
-                    int otherCol = graph.getColumn(t.fromState);
-
+                /*
+                 * on first row, there can be only insertions coming from the same row
+                 */
+                for (int from : regex.getIncomingFrom(col)) {
                     //self transition
-                    if (col == otherCol) {
+                    if (from == col) {
                         continue;
                     }
-
-                    double otherCost = matrix[FIRST_ROW][otherCol][2];
-
-                    min = Math.min(min, getSubPathCost(otherCost, t.cost));
+                    min = Math.min(min, getSubPathCost(matrix[PATHS * from + INS], 1.0));
                 }
 
                 /*
                  * as there can be only insertions, the delete and replace paths cannot be followed, and
                  * so maximum distance
                  */
-                matrix[FIRST_ROW][col][0] = Double.MAX_VALUE;
-                matrix[FIRST_ROW][col][1] = Double.MAX_VALUE;
-                matrix[FIRST_ROW][col][2] = min;
+                matrix[PATHS * col + DEL] = Double.MAX_VALUE;
+                matrix[PATHS * col + REP] = Double.MAX_VALUE;
+                matrix[PATHS * col + INS] = min;
             }
         }
+
+        @Override
+        protected void calculateRow(CompiledRegex regex, int row, char c) {
+            final int columns = regex.getNumberOfColumns();
+            final int current = PATHS * row * columns;
+            final int previous = current - PATHS * columns;
+            Arrays.fill(matrix, current, current + PATHS * columns, 0.0);
+
+            for (int col = 0; col < columns; col++) {
+
+                /*
+                 * deletion can only follow a deletion path (so only [DEL] or right side).
+                 * but, from this state on, any new path can be followed (so all on left side)
+                 */
+                final double deletion = getSubPathCost(matrix[previous + PATHS * col + DEL], 1.0);
+                double del = deletion;
+                double rep = deletion;
+                double ins = deletion;
+
+                final int[] incomingFrom = regex.getIncomingFrom(col);
+                final char[] incomingMin = regex.getIncomingMin(col);
+                final char[] incomingMax = regex.getIncomingMax(col);
+                for (int i = 0; i < incomingFrom.length; i++) {
+                    final int from = incomingFrom[i];
+
+                    /*
+                     * if we have a replacement, then we cannot continue a delete path.
+                     * So, no [DEL] on the left side.
+                     * A replacement can continue a delete or replace path, but not an insertion one (and so [DEL] and
+                     * [REP] on right side).
+                     * From this state on, an insertion path can be followed, with same cost as replacement path
+                     */
+                    final double cost = getReplacementCost(c, incomingMin[i], incomingMax[i]);
+                    final double replacement = Math.min(
+                            getSubPathCost(matrix[previous + PATHS * from + DEL], cost),
+                            getSubPathCost(matrix[previous + PATHS * from + REP], cost));
+                    rep = Math.min(rep, replacement);
+                    ins = Math.min(ins, replacement);
+
+                    /*
+                     * if we have an insertion, only the insertion path can be continued.
+                     * An insertion can continue any type of path.
+                     * A self transition cannot improve on this state
+                     */
+                    if (from != col) {
+                        final int other = current + PATHS * from;
+                        ins = Math.min(ins, getSubPathCost(matrix[other + DEL], 1.0));
+                        ins = Math.min(ins, getSubPathCost(matrix[other + REP], 1.0));
+                        ins = Math.min(ins, getSubPathCost(matrix[other + INS], 1.0));
+                    }
+                }
+
+                matrix[current + PATHS * col + DEL] = del;
+                matrix[current + PATHS * col + REP] = rep;
+                matrix[current + PATHS * col + INS] = ins;
+            }
+
+            /*
+             * TODO: The algorithm of Myers's paper, at page 12, makes a distinction between D and E transitions.
+             * Insertions of type E are done last. Not fully clear if it has an effect here: ie, recall that
+             * here we do minimization (calculate distance) and not maximization (similarity)
+             */
+        }
+
+        /**
+         * get the minimum among the 3 different paths in the accepting states
+         */
+        @Override
+        protected double getCostOfAcceptingStates(CompiledRegex regex, int row) {
+            final int offset = PATHS * row * regex.getNumberOfColumns();
+            double min = Double.MAX_VALUE;
+            for (int col : regex.getAcceptingColumns()) {
+                for (int path = 0; path < PATHS; path++) {
+                    min = Math.min(min, matrix[offset + PATHS * col + path]);
+                }
+            }
+            return min;
+        }
     }
 }
@@ -22,6 +22,7 @@ package org.evosuite.utils.generic;
 import com.googlecode.gentyref.GenericTypeReflector;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.evosuite.ga.ConstructionFailedException;
+import org.evosuite.testcase.execution.MethodHandleCache;
 import org.evosuite.utils.ParameterizedTypeImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +55,11 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
 
     protected List<GenericClass<?>> typeVariables = new ArrayList<>();
 
+    /**
+     * Method handle based invoker of the reflected member, shared with the copies
+     */
+    protected transient MethodHandleCache.Invoker invoker;
+
     protected static Type getTypeFromExactReturnType(GenericArrayType returnType,
                                                      GenericArrayType type) {
         return GenericArrayTypeImpl.createArrayType(getTypeFromExactReturnType(returnType.getGenericComponentType(),
@@ -177,6 +183,20 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
         }
     }
 
+    /**
+     * @param member the reflected member of this object
+     * @return the invoker of the member, which is looked up again after the
+     * member changed, e.g. due to a new class loader
+     */
+    protected MethodHandleCache.Invoker getInvoker(Member member) {
+        MethodHandleCache.Invoker current = invoker;
+        if (current == null || !current.isFor(member)) {
+            current = MethodHandleCache.getInstance().getInvoker(member);
+            invoker = current;
+        }
+        return current;
+    }
+
     protected void copyTypeVariables(GenericAccessibleObject<?> copy) {
         for (GenericClass<?> variable : typeVariables) {
             copy.typeVariables.add(GenericClassFactory.get(variable));
@@ -445,6 +465,10 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
         }
     }
 
+    public List<GenericClass<?>> getTypeVariables() {
+        return Collections.unmodifiableList(typeVariables);
+    }
+
     public void setTypeParameters(List<GenericClass<?>> parameterTypes) {
         typeVariables.clear();
         for (GenericClass<?> parameter : parameterTypes)
@@ -26,6 +26,9 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.*;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for {@code GenericClassImpl}.
@@ -34,9 +37,49 @@ public class GenericClassUtils {
 
     private final static Logger logger = LoggerFactory.getLogger(GenericClassUtils.class);
 
+    /**
+     * Assignability only depends on the two types, but resolving their type
+     * variables is expensive, and the same checks are repeated for every
+     * generator and every variable of a test. The cache is emptied when full.
+     */
+    private static final int MAX_CACHED_ASSIGNABILITY_CHECKS = 100_000;
+
+    private static final Map<TypePair, Boolean> assignabilityCache = new ConcurrentHashMap<>();
+
     private GenericClassUtils() {
     }
 
+    private static final class TypePair {
+
+        private final Type lhsType;
+
+        private final Type rhsType;
+
+        private final int hash;
+
+        TypePair(Type lhsType, Type rhsType) {
+            this.lhsType = lhsType;
+            this.rhsType = rhsType;
+            this.hash = 31 * lhsType.hashCode() + rhsType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof TypePair))
+                return false;
+            TypePair other = (TypePair) obj;
+            return hash == other.hash && Objects.equals(lhsType, other.lhsType)
+                    && Objects.equals(rhsType, other.rhsType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     /**
      * Tells whether the type {@code rhsType} (on the right-hand side of an assignment) can be
      * assigned to the type {@code lhsType} (on the left-hand side of an assignment).
@@ -49,12 +92,28 @@ public class GenericClassUtils {
     public static boolean isAssignable(Type lhsType, Type rhsType) {
         if (rhsType == null || lhsType == null) return false;
 
-        try {
-            return TypeUtils.isAssignable(rhsType, lhsType);
-        } catch (Throwable e) {
-            logger.debug("Found unassignable type: " + e);
-            return false;
+        TypePair key = new TypePair(lhsType, rhsType);
+        Boolean assignable = assignabilityCache.get(key);
+        if (assignable == null) {
+            try {
+                assignable = TypeUtils.isAssignable(rhsType, lhsType);
+            } catch (Throwable e) {
+                logger.debug("Found unassignable type: " + e);
+                assignable = false;
+            }
+            if (assignabilityCache.size() >= MAX_CACHED_ASSIGNABILITY_CHECKS) {
+                assignabilityCache.clear();
+            }
+            assignabilityCache.put(key, assignable);
         }
+        return assignable;
+    }
+
+    /**
+     * Forget the cached assignability checks, e.g. when the classes of the SUT are reloaded
+     */
+    public static void clearAssignabilityCache() {
+        assignabilityCache.clear();
     }
 
 
@@ -95,6 +95,7 @@ public class GenericConstructor extends GenericExecutable<GenericConstructor, Co
     public GenericConstructor copy() {
         GenericConstructor copy = new GenericConstructor(constructor, GenericClassFactory.get(owner));
         copyTypeVariables(copy);
+        copy.invoker = invoker;
         return copy;
     }
 
@@ -102,6 +103,7 @@ public class GenericConstructor extends GenericExecutable<GenericConstructor, Co
     public GenericConstructor copyWithNewOwner(GenericClass<?> newOwner) {
         GenericConstructor copy = new GenericConstructor(constructor, newOwner);
         copyTypeVariables(copy);
+        copy.invoker = invoker;
         return copy;
     }
 
@@ -109,6 +111,7 @@ public class GenericConstructor extends GenericExecutable<GenericConstructor, Co
     public GenericConstructor copyWithOwnerFromReturnType(GenericClass<?> returnType) {
         GenericConstructor copy = new GenericConstructor(constructor, returnType);
         copyTypeVariables(copy);
+        copy.invoker = invoker;
         return copy;
     }
 
@@ -116,6 +119,17 @@ public class GenericConstructor extends GenericExecutable<GenericConstructor, Co
         return constructor;
     }
 
+    /**
+     * Creates a new instance, see {@link Constructor#newInstance(Object...)}
+     *
+     * @param inputs the arguments of the constructor
+     * @return the new instance
+     */
+    public Object newInstance(Object[] inputs) throws InstantiationException, IllegalAccessException,
+            IllegalArgumentException, InvocationTargetException {
+        return getInvoker(constructor).newInstance(inputs);
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.utils.GenericAccessibleMember#getAccessibleObject()
      */
@@ -62,14 +62,18 @@ public class GenericField extends GenericAccessibleObject<GenericField> {
 
     @Override
     public GenericField copyWithNewOwner(GenericClass<?> newOwner) {
-        return new GenericField(field, newOwner);
+        GenericField copy = new GenericField(field, newOwner);
+        copy.invoker = invoker;
+        return copy;
     }
 
     @Override
     public GenericField copyWithOwnerFromReturnType(GenericClass<?> returnType)
             throws ConstructionFailedException {
-        return new GenericField(field,
+        GenericField copy = new GenericField(field,
                 getOwnerClass().getGenericInstantiation(returnType.getTypeVariableMap()));
+        copy.invoker = invoker;
+        return copy;
 		/*
 		if (returnType.isParameterizedType()) {
 			GenericClass newOwner = new GenericClass(
@@ -101,13 +105,36 @@ public class GenericField extends GenericAccessibleObject<GenericField> {
 
     @Override
     public GenericField copy() {
-        return new GenericField(field, GenericClassFactory.get(owner));
+        GenericField copy = new GenericField(field, GenericClassFactory.get(owner));
+        copy.invoker = invoker;
+        return copy;
     }
 
     public Field getField() {
         return field;
     }
 
+    /**
+     * Reads the value of the field, see {@link Field#get(Object)}
+     *
+     * @param source the object to read from, ignored for static fields
+     * @return the value of the field
+     */
+    public Object get(Object source) throws IllegalArgumentException, IllegalAccessException {
+        return getInvoker(field).get(source);
+    }
+
+    /**
+     * Writes the value of the field, converting it to the type of the field
+     * as {@link org.evosuite.runtime.Reflection#setField(Field, Object, Object)} does
+     *
+     * @param target the object to write to, ignored for static fields
+     * @param value  the new value of the field
+     */
+    public void set(Object target, Object value) throws IllegalArgumentException, IllegalAccessException {
+        getInvoker(field).set(target, value);
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.utils.GenericAccessibleObject#getAccessibleObject()
      */
@@ -95,6 +95,7 @@ public class GenericMethod extends GenericExecutable<GenericMethod, Method> {
     public GenericMethod copyWithNewOwner(GenericClass<?> newOwner) {
         GenericMethod copy = new GenericMethod(method, newOwner);
         copyTypeVariables(copy);
+        copy.invoker = invoker;
         return copy;
     }
 
@@ -104,6 +105,7 @@ public class GenericMethod extends GenericExecutable<GenericMethod, Method> {
         GenericClass<?> newOwner = getOwnerClass().getGenericInstantiation(returnType.getTypeVariableMap());
         GenericMethod copy = new GenericMethod(method, newOwner);
         copyTypeVariables(copy);
+        copy.invoker = invoker;
         return copy;
     }
 
@@ -111,6 +113,7 @@ public class GenericMethod extends GenericExecutable<GenericMethod, Method> {
     public GenericMethod copy() {
         GenericMethod copy = new GenericMethod(method, GenericClassFactory.get(owner));
         copyTypeVariables(copy);
+        copy.invoker = invoker;
         return copy;
     }
 
@@ -123,6 +126,18 @@ public class GenericMethod extends GenericExecutable<GenericMethod, Method> {
         return method;
     }
 
+    /**
+     * Calls the method, see {@link Method#invoke(Object, Object...)}
+     *
+     * @param callee the object to call the method on, ignored for static methods
+     * @param inputs the arguments of the call
+     * @return the value returned by the method
+     */
+    public Object invoke(Object callee, Object[] inputs)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        return getInvoker(method).invoke(callee, inputs);
+    }
+
 
     @Override
     public AccessibleObject getAccessibleObject() {
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import com.examples.with.different.packagename.ArrayStack;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class InstrumentedBytecodeCacheTest {
+
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        Properties.getInstance().resetToDefaults();
+        cacheDir = Files.createTempDirectory("evosuite-instrumentation-cache").toFile();
+        Properties.INSTRUMENTATION_CACHE_DIR = cacheDir.getAbsolutePath();
+        InstrumentedBytecodeCache.resetSingleton();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Properties.getInstance().resetToDefaults();
+        InstrumentedBytecodeCache.resetSingleton();
+        FileUtils.deleteDirectory(cacheDir);
+    }
+
+    @Test
+    public void testMissThenHit() {
+        InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+        byte[] original = {1, 2, 3};
+        String key = cache.getKey("foo/Bar", original);
+
+        assertNull(cache.get(key));
+        cache.put(key, new byte[]{4, 5});
+        assertArrayEquals(new byte[]{4, 5}, cache.get(key));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testKeyDependsOnBytesAndSettings() {
+        InstrumentedBytecodeCache cache = InstrumentedBytecodeCache.getInstance();
+        byte[] original = {1, 2, 3};
+        String key = cache.getKey("foo/Bar", original);
+
+        assertEquals(key, cache.getKey("foo/Bar", new byte[]{1, 2, 3}));
+        assertNotEquals(key, cache.getKey("foo/Bar", new byte[]{1, 2, 4}));
+        assertNotEquals(key, cache.getKey("foo/Baz", original));
+
+        Properties.CRITERION = new Properties.Criterion[]{Properties.Criterion.LINE};
+        assertNotEquals(key, cache.getKey("foo/Bar", original));
+        Properties.getInstance().resetToDefaults();
+
+        Properties.RESET_STATIC_FIELDS = !Properties.RESET_STATIC_FIELDS;
+        assertNotEquals(key, cache.getKey("foo/Bar", original));
+    }
+
+    @Test
+    public void testTransformationIsReused() throws IOException {
+        Properties.TARGET_CLASS = "foo.Bar";
+        String className = ArrayStack.class.getName().replace('.', '/');
+        byte[] original;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(className + ".class")) {
+            original = IOUtils.toByteArray(is);
+        }
+
+        BytecodeInstrumentation instrumentation = new BytecodeInstrumentation();
+        byte[] first = instrumentation.transformBytes(getClass().getClassLoader(), className, original);
+        byte[] second = instrumentation.transformBytes(getClass().getClassLoader(), className, original);
+
+        assertArrayEquals(first, second);
+        assertEquals(1, InstrumentedBytecodeCache.getInstance().getHits());
+        assertEquals(1, InstrumentedBytecodeCache.getInstance().getMisses());
+    }
+
+    @Test
+    public void testTargetClassIsNotCached() throws IOException {
+        String className = ArrayStack.class.getName().replace('.', '/');
+        Properties.TARGET_CLASS = ArrayStack.class.getName();
+        byte[] original;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(className + ".class")) {
+            original = IOUtils.toByteArray(is);
+        }
+
+        new BytecodeInstrumentation().transformBytes(getClass().getClassLoader(), className, original);
+
+        assertEquals(0, InstrumentedBytecodeCache.getInstance().getHits());
+        assertEquals(0, InstrumentedBytecodeCache.getInstance().getMisses());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation.testability;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the bit-parallel edit distance with the textbook dynamic programming
+ */
+public class BitParallelEditDistanceTest {
+
+    private static final String[] ALPHABETS = {"ab", "abcdefgh", "abcdefghijklmnopqrstuvwxyz0123456789 ", "a\u00e9\u4e2d\u0000\uffff"};
+
+    private static int referenceDistance(String s, String t) {
+        int n = s.length();
+        int m = t.length();
+        if (n == 0) {
+            return m;
+        } else if (m == 0) {
+            return n;
+        }
+
+        int[] p = new int[n + 1];
+        int[] d = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            p[i] = i;
+        }
+        for (int j = 1; j <= m; j++) {
+            char c = t.charAt(j - 1);
+            d[0] = j;
+            for (int i = 1; i <= n; i++) {
+                int cost = s.charAt(i - 1) == c ? 0 : 1;
+                d[i] = Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + cost);
+            }
+            int[] tmp = p;
+            p = d;
+            d = tmp;
+        }
+        return p[n];
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A copy of the string with a few random edits, to get similar strings
+     */
+    private static String mutate(Random random, String alphabet, String s) {
+        StringBuilder builder = new StringBuilder(s);
+        int edits = random.nextInt(5);
+        for (int i = 0; i < edits; i++) {
+            int position = builder.length() == 0 ? 0 : random.nextInt(builder.length());
+            char c = alphabet.charAt(random.nextInt(alphabet.length()));
+            switch (builder.length() == 0 ? 0 : random.nextInt(3)) {
+                case 0:
+                    builder.insert(position, c);
+                    break;
+                case 1:
+                    builder.deleteCharAt(position);
+                    break;
+                default:
+                    builder.setCharAt(position, c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void assertSameDistance(String s, String t) {
+        int expected = referenceDistance(s, t);
+        assertEquals("Distance of '" + s + "' and '" + t + "'", expected, StringHelper.editDistance(s, t));
+        assertEquals("Distance of '" + t + "' and '" + s + "'", expected, StringHelper.editDistance(t, s));
+    }
+
+    @Test
+    public void testSimpleCases() {
+        assertSameDistance("", "");
+        assertSameDistance("", "abc");
+        assertSameDistance("abc", "abc");
+        assertSameDistance("kitten", "sitting");
+        assertSameDistance("flaw", "lawn");
+        assertSameDistance("test1", "test2");
+        assertEquals(3, StringHelper.editDistance("kitten", "sitting"));
+    }
+
+    @Test
+    public void testWordBoundaries() {
+        Random random = new Random(0);
+        for (int length : new int[]{62, 63, 64, 65, 66, 127, 128, 129, 200}) {
+            for (String alphabet : ALPHABETS) {
+                String s = randomString(random, alphabet, length);
+                assertSameDistance(s, randomString(random, alphabet, length));
+                assertSameDistance(s, randomString(random, alphabet, random.nextInt(2 * length)));
+                assertSameDistance(s, mutate(random, alphabet, s));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomStrings() {
+        Random random = new Random(42);
+        for (int i = 0; i < 3000; i++) {
+            String alphabet = ALPHABETS[random.nextInt(ALPHABETS.length)];
+            int maxLength = i % 10 == 0 ? 300 : 80;
+            String s = randomString(random, alphabet, random.nextInt(maxLength));
+            String t = random.nextBoolean() ? mutate(random, alphabet, s) : randomString(random, alphabet, random.nextInt(maxLength));
+            assertSameDistance(s, t);
+        }
+    }
+
+    @Test
+    public void testUpperBound() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            String alphabet = ALPHABETS[random.nextInt(ALPHABETS.length)];
+            String s = randomString(random, alphabet, random.nextInt(150));
+            String t = random.nextBoolean() ? mutate(random, alphabet, s) : randomString(random, alphabet, random.nextInt(150));
+            int expected = referenceDistance(s, t);
+            int max = random.nextInt(expected + 5);
+
+            int distance = StringHelper.editDistance(s, t, max);
+            if (expected <= max) {
+                assertEquals(expected, distance);
+            } else {
+                assertTrue("Distance " + distance + " should exceed " + max, distance > max);
+                assertTrue(distance <= expected);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentThreads() throws InterruptedException {
+        final String s = "The quick brown fox jumps over the lazy dog, and then some more text to get past one word";
+        final String t = "The lazy dog jumps over the quick brown fox";
+        final int expected = referenceDistance(s, t);
+        final boolean[] failed = new boolean[1];
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (StringHelper.editDistance(s, t) != expected) {
+                        failed[0] = true;
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(failed[0]);
+    }
+}
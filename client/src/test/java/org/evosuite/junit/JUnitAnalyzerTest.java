@@ -24,9 +24,17 @@ import org.apache.commons.io.FileUtils;
 import org.evosuite.Properties;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.factories.JUnitTestCarvedChromosomeFactory;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -36,6 +44,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class JUnitAnalyzerTest {
@@ -50,6 +60,8 @@ public class JUnitAnalyzerTest {
     private static final boolean DEFAULT_SANDBOX = Properties.SANDBOX;
     private static final boolean DEFAULT_ASSERTS_FOR_EVO = Properties.ENABLE_ASSERTS_FOR_EVOSUITE;
     private static final boolean DEFAULT_SCAFFOLDING = Properties.TEST_SCAFFOLDING;
+    private static final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
+    private static final String DEFAULT_CLASS_PREFIX = Properties.CLASS_PREFIX;
 
     private File file = new File(OpenStream.FILE_NAME);
 
@@ -75,6 +87,8 @@ public class JUnitAnalyzerTest {
         Properties.SANDBOX = DEFAULT_SANDBOX;
         Properties.ENABLE_ASSERTS_FOR_EVOSUITE = DEFAULT_ASSERTS_FOR_EVO;
         Properties.TEST_SCAFFOLDING = DEFAULT_SCAFFOLDING;
+        Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
+        Properties.CLASS_PREFIX = DEFAULT_CLASS_PREFIX;
     }
 
     @Test
@@ -150,6 +164,43 @@ public class JUnitAnalyzerTest {
         Assert.assertFalse(file.exists());
     }
 
+    private static TestCase buildTest(String value, boolean callPrivateMethod) throws Exception {
+        TestCase test = new DefaultTestCase();
+        VariableReference string = test.addStatement(new StringPrimitiveStatement(test, value));
+        VariableReference builder = test.addStatement(new ConstructorStatement(test,
+                new GenericConstructor(StringBuilder.class.getConstructor(String.class), StringBuilder.class),
+                Collections.singletonList(string)));
+        test.addStatement(new MethodStatement(test,
+                new GenericMethod(StringBuilder.class.getMethod("reverse"), StringBuilder.class),
+                builder, Collections.emptyList()));
+        if (callPrivateMethod) {
+            VariableReference list = test.addStatement(new ConstructorStatement(test,
+                    new GenericConstructor(ArrayList.class.getConstructor(), ArrayList.class),
+                    Collections.emptyList()));
+            VariableReference capacity = test.addStatement(new IntPrimitiveStatement(test, 10));
+            test.addStatement(new MethodStatement(test,
+                    new GenericMethod(ArrayList.class.getDeclaredMethod("grow", int.class), ArrayList.class),
+                    list, Collections.singletonList(capacity)));
+        }
+        return test;
+    }
+
+    @Test
+    public void testRemovalOfTestsThatDoNotCompile() throws Exception {
+        Properties.TARGET_CLASS = OpenStream.class.getCanonicalName();
+        Properties.CLASS_PREFIX = OpenStream.class.getPackage().getName();
+
+        TestCase first = buildTest("foo", false);
+        TestCase broken = buildTest("bar", true);
+        TestCase last = buildTest("foo", false);
+        List<TestCase> list = new ArrayList<>(Arrays.asList(first, broken, last));
+
+        JUnitAnalyzer.removeTestsThatDoNotCompile(list);
+        Assert.assertEquals(2, list.size());
+        Assert.assertSame(first, list.get(0));
+        Assert.assertSame(last, list.get(1));
+    }
+
     @Test
     public void testCreationOfTmpDir() throws IOException {
 
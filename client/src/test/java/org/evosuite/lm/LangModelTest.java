@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.lm;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LangModelTest {
+
+    private static LangModel textModel;
+
+    private static LangModel binaryModel;
+
+    @BeforeClass
+    public static void loadModels() throws IOException {
+        textModel = new LangModel("ukwac_char_lm");
+
+        File file = File.createTempFile("ukwac_char_lm", ".bin");
+        file.deleteOnExit();
+        LangModelConverter.convert("ukwac_char_lm", file);
+        binaryModel = new LangModel(file.getAbsolutePath());
+    }
+
+    @Test
+    public void testScore() {
+        double readable = textModel.score("hello world");
+        double unreadable = textModel.score("xq#z~v!k");
+        assertTrue(readable > unreadable);
+        assertTrue(readable > 0 && readable < 1);
+
+        // unknown characters have the probability of the least likely unigram
+        assertTrue(textModel.score("中文") > 0);
+        assertTrue(Double.isNaN(textModel.score("")));
+    }
+
+    @Test
+    public void testBinaryModelMatchesTextModel() {
+        for (String value : new String[]{"hello world", "xq#z~v!k", "A", "  ", "été", "</s>"}) {
+            assertEquals(textModel.score(value), binaryModel.score(value), 0.0);
+        }
+        for (int n = 0; n < 10; n++) {
+            assertEquals(textModel.predict_char(n), binaryModel.predict_char(n));
+            assertEquals(textModel.predict_char("q", n), binaryModel.predict_char("q", n));
+            assertEquals(textModel.predict_char_prob(" ", n), binaryModel.predict_char_prob(" ", n), 0.0);
+        }
+    }
+
+    @Test
+    public void testPredictions() {
+        // 'u' is the most likely character after 'q'
+        assertEquals("u", binaryModel.predict_char("q", 0));
+        assertTrue(binaryModel.predict_char_prob("q", 0) > binaryModel.predict_char_prob("q", 1));
+        assertNotNull(binaryModel.predict_char(0));
+
+        assertNull(binaryModel.predict_char("q", 10));
+        assertNull(binaryModel.predict_char("q", -1));
+        assertNull(binaryModel.predict_char("中", 0));
+        assertEquals(0.0, binaryModel.predict_char_prob("中", 0), 0.0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnsupportedVersion() throws IOException {
+        File file = File.createTempFile("lm_version", ".bin");
+        file.deleteOnExit();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(LangModel.MAGIC);
+            out.writeInt(LangModel.VERSION + 1);
+            out.write(new byte[LangModel.HEADER_SIZE]);
+        }
+        new LangModel(file.getAbsolutePath());
+    }
+}
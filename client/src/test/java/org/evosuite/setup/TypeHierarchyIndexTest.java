@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericClassFactory;
+import org.junit.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TypeHierarchyIndexTest {
+
+    private final GenericClass<?> object = GenericClassFactory.get(Object.class);
+    private final GenericClass<?> string = GenericClassFactory.get(String.class);
+    private final GenericClass<?> arrayList = GenericClassFactory.get(ArrayList.class);
+    private final GenericClass<?> linkedList = GenericClassFactory.get(LinkedList.class);
+    private final GenericClass<?> collection = GenericClassFactory.get(Collection.class);
+    private final GenericClass<?> primitive = GenericClassFactory.get(int.class);
+    private final GenericClass<?> wrapper = GenericClassFactory.get(Integer.class);
+    private final GenericClass<?> number = GenericClassFactory.get(Number.class);
+    private final GenericClass<?> array = GenericClassFactory.get(String[].class);
+
+    @Test
+    public void testPossibleSubtypes() {
+        TypeHierarchyIndex index = new TypeHierarchyIndex();
+        for (GenericClass<?> clazz : Arrays.asList(linkedList, string, primitive, arrayList, object, array, wrapper)) {
+            index.add(clazz);
+        }
+
+        // in insertion order, with the types that are not indexed
+        assertEquals(Arrays.asList(linkedList, primitive, arrayList, array),
+                index.getPossibleSubtypes(GenericClassFactory.get(AbstractList.class)));
+        assertEquals(Arrays.asList(linkedList, primitive, arrayList, array),
+                index.getPossibleSubtypes(collection));
+        assertEquals(Arrays.asList(string, primitive, array), index.getPossibleSubtypes(string));
+        assertEquals(7, index.getPossibleSubtypes(object).size());
+
+        // primitives can be unboxed, arrays can only be assigned from arrays
+        assertEquals(Arrays.asList(primitive, array, wrapper), index.getPossibleSubtypes(primitive));
+        assertEquals(Arrays.asList(primitive, array), index.getPossibleSubtypes(array));
+    }
+
+    @Test
+    public void testPossibleSupertypes() {
+        TypeHierarchyIndex index = new TypeHierarchyIndex();
+        for (GenericClass<?> clazz : Arrays.asList(collection, string, object, primitive, number)) {
+            index.add(clazz);
+        }
+
+        List<GenericClass<?>> supertypes = index.getPossibleSupertypes(arrayList);
+        assertEquals(3, supertypes.size());
+        assertTrue(supertypes.containsAll(Arrays.asList(collection, object, primitive)));
+        assertFalse(supertypes.contains(string));
+
+        // boxed
+        supertypes = index.getPossibleSupertypes(primitive);
+        assertEquals(3, supertypes.size());
+        assertTrue(supertypes.containsAll(Arrays.asList(number, object, primitive)));
+
+        supertypes = index.getPossibleSupertypes(array);
+        assertEquals(Arrays.asList(primitive, object), supertypes);
+    }
+
+    @Test
+    public void testRemove() {
+        TypeHierarchyIndex index = new TypeHierarchyIndex();
+        index.add(arrayList);
+        index.add(linkedList);
+        index.add(primitive);
+        index.remove(arrayList);
+        index.remove(primitive);
+        index.remove(string);
+
+        assertEquals(1, index.size());
+        assertEquals(Collections.singletonList(linkedList), index.getPossibleSubtypes(collection));
+        assertEquals(Collections.emptyList(), index.getPossibleSupertypes(arrayList));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(Collections.emptyList(), index.getPossibleSubtypes(collection));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteFitnessFunction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatisticsBatchTest {
+
+    private static class SomeSuiteFitness extends TestSuiteFitnessFunction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public double getFitness(TestSuiteChromosome suite) {
+            return 0;
+        }
+    }
+
+    private static class OtherSuiteFitness extends SomeSuiteFitness {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static IndividualSummary summary(double coverage) {
+        TestSuiteChromosome suite = new TestSuiteChromosome();
+        OtherSuiteFitness ff = new OtherSuiteFitness();
+        suite.addFitness(ff, 1.0 - coverage, coverage);
+        return new IndividualSummary(suite);
+    }
+
+    private static List<String> replay(StatisticsBatch batch) {
+        List<String> events = new ArrayList<>();
+        batch.replay((variable, value) -> events.add(variable + "=" + value),
+                individual -> events.add("individual " + individual.getCoverage()));
+        return events;
+    }
+
+    @Test
+    public void testSummaryOfSuite() {
+        IndividualSummary summary = summary(0.25);
+
+        assertEquals(0.75, summary.getFitness(), 0.0);
+        assertEquals(0.25, summary.getCoverage(), 0.0);
+        assertEquals(0, summary.size());
+        assertEquals(0, summary.totalLengthOfTestCases());
+        assertEquals(0.25, summary.getCoverageInstanceOf(SomeSuiteFitness.class), 0.0);
+        assertEquals(0.75, summary.getFitnessInstanceOf(OtherSuiteFitness.class), 0.0);
+        assertEquals(0.0, summary.getCoverageInstanceOf(String.class), 0.0);
+    }
+
+    @Test
+    public void testOverwrittenVariablesAreCoalesced() {
+        StatisticsBatch batch = new StatisticsBatch();
+        batch.addVariable(RuntimeVariable.Generations, 1);
+        batch.addVariable(RuntimeVariable.Size, 3);
+        batch.addVariable(RuntimeVariable.Generations, 2);
+
+        assertEquals(2, batch.size());
+        List<String> events = replay(batch);
+        assertEquals(2, events.size());
+        assertTrue(events.contains("Generations=2"));
+        assertTrue(events.contains("Size=3"));
+    }
+
+    @Test
+    public void testOrderRelativeToIndividualsIsKept() {
+        StatisticsBatch batch = new StatisticsBatch();
+        assertTrue(batch.isEmpty());
+        batch.addVariable(RuntimeVariable.DiversityTimeline, 0.1);
+        batch.addIndividual(summary(0.5));
+        batch.addVariable(RuntimeVariable.DiversityTimeline, 0.2);
+        batch.addVariable(RuntimeVariable.DiversityTimeline, 0.3);
+        batch.addIndividual(summary(1.0));
+
+        assertEquals(4, batch.size());
+        List<String> events = replay(batch);
+        assertEquals("DiversityTimeline=0.1", events.get(0));
+        assertEquals("individual 0.5", events.get(1));
+        assertEquals("DiversityTimeline=0.3", events.get(2));
+        assertEquals("individual 1.0", events.get(3));
+        assertEquals(4, events.size());
+    }
+}
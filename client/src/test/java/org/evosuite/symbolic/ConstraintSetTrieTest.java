@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ConstraintSetTrieTest {
+
+    private static Constraint<?> constraint(int i) {
+        return new IntegerConstraint(new IntegerConstant(i), Comparator.EQ, new IntegerConstant(0));
+    }
+
+    private static Set<Constraint<?>> set(int... elements) {
+        Set<Constraint<?>> set = new HashSet<>();
+        for (int element : elements) {
+            set.add(constraint(element));
+        }
+        return set;
+    }
+
+    @Test
+    public void testExactLookup() {
+        ConstraintSetTrie<String> trie = new ConstraintSetTrie<>();
+        trie.put(set(1, 2), "a");
+        trie.put(set(2, 3), "b");
+
+        assertEquals("a", trie.get(set(2, 1)));
+        assertEquals("b", trie.get(set(3, 2)));
+        assertNull(trie.get(set(1)));
+        assertTrue(trie.containsKey(set(1, 2)));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    public void testSubsetAndSupersetLookup() {
+        ConstraintSetTrie<String> trie = new ConstraintSetTrie<>();
+        trie.put(set(1, 3), "unsat");
+        trie.put(set(2, 4, 6), "sat");
+
+        assertEquals(set(1, 3), trie.findSubsetOf(set(1, 2, 3), v -> true));
+        assertNull(trie.findSubsetOf(set(1, 2), v -> true));
+        assertNull(trie.findSubsetOf(set(1, 3, 5), v -> v.equals("sat")));
+
+        assertEquals(set(2, 4, 6), trie.findSupersetOf(set(2, 6), v -> true));
+        assertEquals(set(2, 4, 6), trie.findSupersetOf(set(), v -> v.equals("sat")));
+        assertNull(trie.findSupersetOf(set(2, 5), v -> true));
+        assertNull(trie.findSupersetOf(set(4), v -> v.equals("unsat")));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        ConstraintSetTrie<String> trie = new ConstraintSetTrie<>(2);
+        trie.put(set(1), "a");
+        trie.put(set(2), "b");
+        trie.get(set(1));
+        trie.put(set(3), "c");
+
+        assertEquals(2, trie.size());
+        assertEquals("a", trie.get(set(1)));
+        assertNull(trie.get(set(2)));
+        assertNull(trie.findSupersetOf(set(2), v -> true));
+        assertEquals(set(3), trie.findSupersetOf(set(3), v -> true));
+    }
+
+    @Test
+    public void testSameResultsAsLinearScan() {
+        Random random = new Random(42);
+        ConstraintSetTrie<Boolean> trie = new ConstraintSetTrie<>();
+        List<Set<Constraint<?>>> stored = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            Set<Constraint<?>> set = randomSet(random);
+            trie.put(set, true);
+            stored.add(set);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            Set<Constraint<?>> query = randomSet(random);
+
+            Set<Constraint<?>> subset = trie.findSubsetOf(query, v -> true);
+            assertEquals(PathConditionUtils.isConstraintSetSupraSetOf(query, new HashSet<>(stored)), subset != null);
+            if (subset != null) {
+                assertTrue(query.containsAll(subset));
+            }
+
+            Set<Constraint<?>> superset = trie.findSupersetOf(query, v -> true);
+            assertEquals(PathConditionUtils.isConstraintSetSubSetOf(query, stored), superset != null);
+            if (superset != null) {
+                assertTrue(superset.containsAll(query));
+            }
+        }
+    }
+
+    private static Set<Constraint<?>> randomSet(Random random) {
+        Integer[] elements = new Integer[1 + random.nextInt(5)];
+        for (int j = 0; j < elements.length; j++) {
+            elements[j] = random.nextInt(12);
+        }
+        Set<Constraint<?>> set = new HashSet<>();
+        for (int element : new HashSet<>(Arrays.asList(elements))) {
+            set.add(constraint(element));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal interactive SMT solver used to test {@link SmtSolverSession}. It
+ * keeps track of the declarations in each push frame, answers {@code sat}
+ * to every query and gives value 0 to all constants in scope. Every command
+ * is appended to the log file given as argument.
+ * <p>
+ * A constant named {@code crash} makes it exit, and one named {@code hang}
+ * makes it stop answering.
+ */
+public class FakeSmtSolver {
+
+    public static void main(String[] args) throws Exception {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        PrintWriter log = new PrintWriter(new FileWriter(args[0], true), true);
+
+        List<Map<String, String>> frames = new ArrayList<>();
+        frames.add(new LinkedHashMap<>());
+
+        String command;
+        while ((command = readCommand(in)) != null) {
+            log.println(command);
+            String[] tokens = command.replace("(", " ").replace(")", " ").trim().split("\\s+");
+            switch (tokens[0]) {
+                case "push":
+                    frames.add(new LinkedHashMap<>());
+                    answer("success");
+                    break;
+                case "pop":
+                    for (int i = 0; i < Integer.parseInt(tokens[1]); i++) {
+                        frames.remove(frames.size() - 1);
+                    }
+                    answer("success");
+                    break;
+                case "declare-const":
+                    if (tokens[1].equals("crash")) {
+                        System.exit(1);
+                    } else if (tokens[1].equals("hang")) {
+                        Thread.sleep(Long.MAX_VALUE);
+                    }
+                    frames.get(frames.size() - 1).put(tokens[1], tokens[2]);
+                    answer("success");
+                    break;
+                case "check-sat":
+                    answer("sat");
+                    break;
+                case "get-model":
+                    StringBuilder model = new StringBuilder("(model\n");
+                    for (Map<String, String> frame : frames) {
+                        for (Map.Entry<String, String> constant : frame.entrySet()) {
+                            model.append("  (define-fun ").append(constant.getKey())
+                                    .append(" () ").append(constant.getValue()).append(" 0)\n");
+                        }
+                    }
+                    answer(model.append(")").toString());
+                    break;
+                default:
+                    answer("success");
+            }
+        }
+    }
+
+    private static void answer(String response) {
+        System.out.println(response);
+        System.out.flush();
+    }
+
+    private static String readCommand(BufferedReader in) throws IOException {
+        StringBuilder command = new StringBuilder();
+        int depth = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            command.append(line).append(' ');
+            for (char c : line.toCharArray()) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                }
+            }
+            if (depth == 0 && command.toString().trim().length() > 0) {
+                return command.toString().trim();
+            }
+        }
+        return null;
+    }
+}
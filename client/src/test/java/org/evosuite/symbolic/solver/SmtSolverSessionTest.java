@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtModelParser;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SmtSolverSessionTest {
+
+    private static final long TIMEOUT = 2000;
+
+    private File log;
+
+    private SmtSolverSession session;
+
+    @Before
+    public void setUp() throws Exception {
+        log = File.createTempFile("fake-smt-solver", ".log");
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classes = new File(FakeSmtSolver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+        session = new SmtSolverSession(java + " -cp " + classes + " " + FakeSmtSolver.class.getName() + " " + log.getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+        log.delete();
+    }
+
+    private static SmtQuery buildQuery(String... variables) {
+        SmtQuery query = new SmtQuery();
+        query.addOption(":timeout", String.valueOf(TIMEOUT));
+        for (String variable : variables) {
+            query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration(variable));
+            query.addAssertion(new SmtAssertion(
+                    SmtExprBuilder.mkGt(SmtExprBuilder.mkIntVariable(variable), SmtExprBuilder.ZERO_INT)));
+        }
+        return query;
+    }
+
+    private List<String> getCommands() throws IOException {
+        return Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testModelOnlyContainsVariablesOfQuery() throws Exception {
+        String output = session.solve(buildQuery("x", "y"), TIMEOUT);
+        SolverResult result = new SmtModelParser().parse(output);
+        assertTrue(result.isSAT());
+        assertEquals(2, result.getModel().size());
+
+        output = session.solve(buildQuery("x", "z"), TIMEOUT);
+        Map<String, Object> model = new SmtModelParser().parse(output).getModel();
+        assertEquals(2, model.size());
+        assertTrue(model.containsKey("x"));
+        assertTrue(model.containsKey("z"));
+        assertEquals(1, session.getLaunchedProcesses());
+    }
+
+    @Test
+    public void testCommonPrefixIsReused() throws Exception {
+        session.solve(buildQuery("a", "b", "c"), TIMEOUT);
+        int commandsFirstQuery = getCommands().size();
+
+        // a sibling path condition: same prefix, different last constraint
+        session.solve(buildQuery("a", "b", "d"), TIMEOUT);
+        List<String> commands = getCommands();
+        List<String> secondQuery = commands.subList(commandsFirstQuery, commands.size());
+
+        assertEquals("(pop 1)", secondQuery.get(0));
+        assertEquals(1, secondQuery.stream().filter(c -> c.startsWith("(push")).count());
+        assertEquals(1, secondQuery.stream().filter(c -> c.startsWith("(assert")).count());
+        assertEquals(2, session.getReusedFrames());
+    }
+
+    @Test
+    public void testRestartAfterCrash() throws Exception {
+        session.solve(buildQuery("x"), TIMEOUT);
+        try {
+            session.solve(buildQuery("x", "crash"), TIMEOUT);
+            fail();
+        } catch (SolverErrorException e) {
+            // expected
+        }
+        String output = session.solve(buildQuery("x"), TIMEOUT);
+        assertTrue(output.startsWith("sat"));
+        assertEquals(2, session.getLaunchedProcesses());
+    }
+
+    @Test
+    public void testRestartAfterTimeout() throws Exception {
+        try {
+            session.solve(buildQuery("hang"), TIMEOUT);
+            fail();
+        } catch (SolverTimeoutException e) {
+            // expected
+        }
+        String output = session.solve(buildQuery("x"), TIMEOUT);
+        assertTrue(output.startsWith("sat"));
+        assertEquals(2, session.getLaunchedProcesses());
+    }
+}
@@ -19,6 +19,10 @@
  */
 package org.evosuite.testcase;
 
+import org.evosuite.coverage.line.LineCoverageTestFitness;
+import org.evosuite.testcase.statements.AbstractStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -31,4 +35,45 @@ public class DefaultTestCaseTest {
         DefaultTestCase clone = tc.clone();
         Assert.assertTrue(tc.statements != clone.statements);
     }
+
+    @Test
+    public void testCloneCopiesStatements() {
+        DefaultTestCase tc = new DefaultTestCase();
+        tc.addStatement(new IntPrimitiveStatement(tc, 42));
+        ((AbstractStatement) tc.getStatement(0)).addComment("answer");
+        VariableReference var = tc.addStatement(new IntPrimitiveStatement(tc, 17));
+
+        DefaultTestCase clone = tc.clone();
+        Assert.assertEquals(tc.size(), clone.size());
+        Assert.assertTrue(tc.isPrefix(clone));
+        Assert.assertNotSame(tc.getStatement(0), clone.getStatement(0));
+        Assert.assertSame(clone, clone.getStatement(1).getReturnValue().getTestCase());
+        Assert.assertEquals(var.getStPosition(), clone.getStatement(1).getReturnValue().getStPosition());
+        Assert.assertEquals("answer", ((AbstractStatement) clone.getStatement(0)).getComment());
+        Assert.assertFalse(clone.hasAssertions());
+    }
+
+    @Test
+    public void testCoveredGoalsAreCopiedOnWrite() {
+        LineCoverageTestFitness first = new LineCoverageTestFitness("Foo", "bar()V", 1);
+        LineCoverageTestFitness second = new LineCoverageTestFitness("Foo", "bar()V", 2);
+
+        DefaultTestCase tc = new DefaultTestCase();
+        tc.addCoveredGoal(first);
+        DefaultTestCase clone = tc.clone();
+        Assert.assertTrue(clone.isGoalCovered(first));
+
+        clone.addCoveredGoal(second);
+        Assert.assertFalse(tc.isGoalCovered(second));
+
+        tc.removeCoveredGoal(first);
+        Assert.assertTrue(clone.isGoalCovered(first));
+
+        DefaultTestCase other = clone.clone();
+        other.getCoveredGoals().clear();
+        Assert.assertEquals(2, clone.getCoveredGoals().size());
+        clone.clearCoveredGoals();
+        Assert.assertTrue(clone.getCoveredGoals().isEmpty());
+        Assert.assertTrue(tc.getCoveredGoals().isEmpty());
+    }
 }
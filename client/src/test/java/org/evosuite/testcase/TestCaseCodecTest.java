@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.Properties;
+import org.evosuite.assertion.NullAssertion;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TestCaseCodecTest {
+
+    private final boolean binary = Properties.BINARY_TEST_SERIALIZATION;
+
+    @After
+    public void restoreProperties() {
+        Properties.BINARY_TEST_SERIALIZATION = binary;
+    }
+
+    private static DefaultTestCase buildTest() throws Exception {
+        DefaultTestCase test = new DefaultTestCase();
+        VariableReference string = test.addStatement(new StringPrimitiveStatement(test, "fooé"));
+        VariableReference index = test.addStatement(new IntPrimitiveStatement(test, -7));
+        test.addStatement(new LongPrimitiveStatement(test, Long.MIN_VALUE));
+        test.addStatement(new DoublePrimitiveStatement(test, -0.5));
+        test.addStatement(new EnumPrimitiveStatement<>(test, TimeUnit.SECONDS));
+        test.addStatement(new NullStatement(test, String.class));
+        VariableReference list = test.addStatement(new ConstructorStatement(test,
+                new GenericConstructor(ArrayList.class.getConstructor(), ArrayList.class),
+                Collections.emptyList()));
+        test.addStatement(new MethodStatement(test,
+                new GenericMethod(ArrayList.class.getMethod("add", Object.class), ArrayList.class),
+                list, Collections.singletonList(string)));
+        VariableReference max = test.addStatement(new FieldStatement(test,
+                new GenericField(Integer.class.getField("MAX_VALUE"), Integer.class), null));
+        ArrayReference array = (ArrayReference) test.addStatement(new ArrayStatement(test, int[].class, 3));
+        test.addStatement(new AssignmentStatement(test, new ArrayIndex(test, array, 1), max));
+        test.addStatement(new MethodStatement(test,
+                new GenericMethod(Arrays.class.getMethod("fill", int[].class, int.class), Arrays.class),
+                null, Arrays.asList(array, index)));
+        test.getStatement(0).addComment("a comment");
+        return test;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DefaultTestCase test = buildTest();
+        byte[] data = TestCaseCodec.encode(test);
+        assertNotNull(data);
+
+        DefaultTestCase copy = TestCaseCodec.decode(data);
+        assertEquals(test.size(), copy.size());
+        assertEquals(test.getID(), copy.getID());
+        assertEquals(test.toCode(), copy.toCode());
+        assertEquals(TestFingerprint.of(test), TestFingerprint.of(copy));
+        assertEquals("a comment", copy.getStatement(0).getComment());
+        for (int i = 0; i < test.size(); i++) {
+            assertEquals(test.getStatement(i).getClass(), copy.getStatement(i).getClass());
+            assertEquals(test.getStatement(i).getReturnValue().getType(),
+                    copy.getStatement(i).getReturnValue().getType());
+        }
+    }
+
+    @Test
+    public void testSerializedChromosomeIsSmaller() throws Exception {
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(buildTest());
+
+        Properties.BINARY_TEST_SERIALIZATION = false;
+        byte[] java = serialize(chromosome);
+        Properties.BINARY_TEST_SERIALIZATION = true;
+        byte[] binary = serialize(chromosome);
+        assertTrue(binary.length < java.length);
+
+        // both formats can be read
+        assertEquals(chromosome.getTestCase().size(), deserialize(java).getTestCase().size());
+        assertEquals(chromosome.getTestCase().toCode(), deserialize(binary).getTestCase().toCode());
+    }
+
+    @Test
+    public void testTestWithAssertionsIsNotEncoded() throws Exception {
+        DefaultTestCase test = buildTest();
+        NullAssertion assertion = new NullAssertion();
+        assertion.setSource(test.getStatement(5).getReturnValue());
+        assertion.setValue(true);
+        test.getStatement(5).addAssertion(assertion);
+        assertNull(TestCaseCodec.encode(test));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void testTruncatedData() throws Exception {
+        byte[] data = TestCaseCodec.encode(buildTest());
+        TestCaseCodec.decode(Arrays.copyOf(data, data.length - 3));
+    }
+
+    private static byte[] serialize(TestChromosome chromosome) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(chromosome);
+        }
+        return baos.toByteArray();
+    }
+
+    private static TestChromosome deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return (TestChromosome) ois.readObject();
+        }
+    }
+}
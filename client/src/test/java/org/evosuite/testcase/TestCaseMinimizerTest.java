@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceProxy;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+public class TestCaseMinimizerTest {
+
+    private final Properties.MinimizationStrategy strategy = Properties.MINIMIZATION_STRATEGY;
+
+    @After
+    public void tearDown() {
+        Properties.MINIMIZATION_STRATEGY = strategy;
+    }
+
+    /**
+     * Covered by any test appending the string "x" to a builder, without
+     * executing the test
+     */
+    private static class AppendGoal extends TestFitnessFunction {
+
+        private static final long serialVersionUID = 1L;
+
+        private int executions = 0;
+
+        @Override
+        public ExecutionResult runTest(TestCase test) {
+            executions++;
+            ExecutionResult result = new ExecutionResult(test);
+            result.setTrace(new ExecutionTraceProxy());
+            return result;
+        }
+
+        @Override
+        public double getFitness(TestChromosome individual, ExecutionResult result) {
+            for (Statement statement : result.test) {
+                if (statement instanceof MethodStatement
+                        && ((MethodStatement) statement).getMethodName().equals("append")) {
+                    VariableReference parameter = ((MethodStatement) statement).getParameterReferences().get(0);
+                    Statement definition = result.test.getStatement(parameter.getStPosition());
+                    if (definition instanceof StringPrimitiveStatement
+                            && "x".equals(((StringPrimitiveStatement) definition).getValue()))
+                        return 0.0;
+                }
+            }
+            return 1.0;
+        }
+
+        @Override
+        public int compareTo(TestFitnessFunction other) {
+            return compareClassName(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other == this;
+        }
+
+        @Override
+        public String getTargetClass() {
+            return StringBuilder.class.getName();
+        }
+
+        @Override
+        public String getTargetMethod() {
+            return "append";
+        }
+    }
+
+    private static VariableReference addBuilder(TestCase test) throws Exception {
+        GenericConstructor constructor = new GenericConstructor(StringBuilder.class.getConstructor(), StringBuilder.class);
+        return test.addStatement(new ConstructorStatement(test, constructor, Collections.emptyList()));
+    }
+
+    private static void addAppend(TestCase test, VariableReference builder, String value) throws Exception {
+        VariableReference string = test.addStatement(new StringPrimitiveStatement(test, value));
+        GenericMethod append = new GenericMethod(StringBuilder.class.getMethod("append", String.class), StringBuilder.class);
+        test.addStatement(new MethodStatement(test, append, builder, Collections.singletonList(string)));
+    }
+
+    /**
+     * 0: int, 1: builder, 2-3: append("a"), 4: other builder, 5-6: append("b")
+     * to the other builder, 7: int, 8-9: append("x"), 10: int, 11-12:
+     * append("c") to the other builder
+     */
+    private static TestCase buildTest() throws Exception {
+        TestCase test = new DefaultTestCase();
+        test.addStatement(new IntPrimitiveStatement(test, 1));
+        VariableReference builder = addBuilder(test);
+        addAppend(test, builder, "a");
+        VariableReference other = addBuilder(test);
+        addAppend(test, other, "b");
+        test.addStatement(new IntPrimitiveStatement(test, 2));
+        addAppend(test, builder, "x");
+        test.addStatement(new IntPrimitiveStatement(test, 3));
+        addAppend(test, other, "c");
+        return test;
+    }
+
+    @Test
+    public void testBackwardSlice() throws Exception {
+        TestCase test = buildTest();
+        assertEquals(new TreeSet<>(Arrays.asList(1, 2, 3, 8, 9)), TestCaseMinimizer.getBackwardSlice(test, 9));
+        assertEquals(new TreeSet<>(Arrays.asList(4, 5, 6, 11, 12)), TestCaseMinimizer.getBackwardSlice(test, 12));
+        assertEquals(new TreeSet<>(Collections.singletonList(7)), TestCaseMinimizer.getBackwardSlice(test, 7));
+    }
+
+    private static TestCase minimize(Properties.MinimizationStrategy strategy, AppendGoal goal) throws Exception {
+        Properties.MINIMIZATION_STRATEGY = strategy;
+        TestChromosome test = new TestChromosome();
+        test.setTestCase(buildTest());
+        TestCaseMinimizer minimizer = new TestCaseMinimizer(goal);
+        minimizer.minimize(test);
+        assertEquals(goal.executions, minimizer.getNumExecutions());
+        assertEquals(0.0, goal.getFitness(test), 0.0);
+        return test.getTestCase();
+    }
+
+    @Test
+    public void testSliceStrategyNeedsFewerExecutions() throws Exception {
+        AppendGoal iterative = new AppendGoal();
+        TestCase iterativeResult = minimize(Properties.MinimizationStrategy.ITERATIVE, iterative);
+
+        AppendGoal slice = new AppendGoal();
+        TestCase sliceResult = minimize(Properties.MinimizationStrategy.SLICE, slice);
+
+        assertEquals(3, iterativeResult.size());
+        assertEquals(iterativeResult.toCode(), sliceResult.toCode());
+        assertTrue(slice.executions + " vs " + iterative.executions, slice.executions < iterative.executions);
+    }
+}
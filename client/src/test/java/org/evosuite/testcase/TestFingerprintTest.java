@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TestFingerprintTest {
+
+    /**
+     * String s0 = first; int i1 = value; StringBuilder sb = new StringBuilder(s0); sb.append(i1);
+     */
+    private static TestCase buildTest(String first, int value, boolean appendString) throws Exception {
+        TestCase test = new DefaultTestCase();
+        VariableReference string = test.addStatement(new StringPrimitiveStatement(test, first));
+        VariableReference integer = test.addStatement(new IntPrimitiveStatement(test, value));
+        VariableReference builder = test.addStatement(new ConstructorStatement(test,
+                new GenericConstructor(StringBuilder.class.getConstructor(String.class), StringBuilder.class),
+                Collections.singletonList(string)));
+        if (appendString) {
+            test.addStatement(new MethodStatement(test,
+                    new GenericMethod(StringBuilder.class.getMethod("append", String.class), StringBuilder.class),
+                    builder, Arrays.asList(string)));
+        } else {
+            test.addStatement(new MethodStatement(test,
+                    new GenericMethod(StringBuilder.class.getMethod("append", int.class), StringBuilder.class),
+                    builder, Arrays.asList(integer)));
+        }
+        return test;
+    }
+
+    @Test
+    public void testIdenticalTestsHaveEqualFingerprints() throws Exception {
+        TestCase test = buildTest("foo", 42, false);
+        TestFingerprint fingerprint = TestFingerprint.of(test);
+
+        assertEquals(fingerprint, TestFingerprint.of(buildTest("foo", 42, false)));
+        assertEquals(fingerprint.hashCode(), TestFingerprint.of(buildTest("foo", 42, false)).hashCode());
+        assertEquals(fingerprint, TestFingerprint.of(test.clone()));
+    }
+
+    @Test
+    public void testDifferentValues() throws Exception {
+        TestFingerprint fingerprint = TestFingerprint.of(buildTest("foo", 42, false));
+        assertNotEquals(fingerprint, TestFingerprint.of(buildTest("bar", 42, false)));
+        assertNotEquals(fingerprint, TestFingerprint.of(buildTest("foo", 43, false)));
+    }
+
+    @Test
+    public void testDifferentCallsAndWiring() throws Exception {
+        TestFingerprint fingerprint = TestFingerprint.of(buildTest("foo", 42, false));
+        assertNotEquals(fingerprint, TestFingerprint.of(buildTest("foo", 42, true)));
+
+        // same statements, but the constructor uses the other string
+        assertNotEquals(TestFingerprint.of(buildTwoStrings(0)), TestFingerprint.of(buildTwoStrings(1)));
+        assertEquals(TestFingerprint.of(buildTwoStrings(1)), TestFingerprint.of(buildTwoStrings(1)));
+    }
+
+    private static TestCase buildTwoStrings(int used) throws Exception {
+        TestCase test = new DefaultTestCase();
+        test.addStatement(new StringPrimitiveStatement(test, "foo"));
+        test.addStatement(new StringPrimitiveStatement(test, "foo"));
+        test.addStatement(new ConstructorStatement(test,
+                new GenericConstructor(StringBuilder.class.getConstructor(String.class), StringBuilder.class),
+                Collections.singletonList(test.getStatement(used).getReturnValue())));
+        return test;
+    }
+
+    @Test
+    public void testMutationChangesFingerprint() throws Exception {
+        TestCase test = buildTest("foo", 42, false);
+        TestFingerprint before = TestFingerprint.of(test);
+        ((IntPrimitiveStatement) test.getStatement(1)).setValue(0);
+        assertNotEquals(before, TestFingerprint.of(test));
+    }
+}
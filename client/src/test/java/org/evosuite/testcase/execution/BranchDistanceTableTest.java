@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BranchDistanceTableTest {
+
+    private static final double DELTA = 0.0;
+
+    @Test
+    public void testMinimumAndSum() {
+        BranchDistanceTable table = new BranchDistanceTable(4);
+        table.branchPassed(2, 3.0, 0.0, true);
+        table.branchPassed(2, 1.0, 0.0, true);
+        table.branchPassed(7, 0.0, 5.0, true);
+
+        assertEquals(1.0, table.getTrueDistances().get(2), DELTA);
+        assertEquals(0.0, table.getFalseDistances().get(2), DELTA);
+        assertEquals(4.0, table.getTrueDistancesSum().get(2), DELTA);
+        assertEquals(5.0, table.getFalseDistancesSum().get(7), DELTA);
+        assertEquals(2, (int) table.getPredicateExecutionCount().get(2));
+        assertTrue(table.isCoveredFalse(2));
+        assertFalse(table.isCoveredTrue(2));
+        assertTrue(table.isCoveredTrue(7));
+        assertNull(table.getTrueDistances().get(3));
+        assertEquals(2, table.getTrueDistances().size());
+    }
+
+    @Test
+    public void testViewsMatchHashMaps() {
+        BranchDistanceTable table = new BranchDistanceTable();
+        Map<Integer, Double> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            int branch = (i * 7) % 13;
+            double distance = (i * 31) % 5;
+            table.branchPassed(branch, distance, 1.0, true);
+            expected.merge(branch, distance, Math::min);
+        }
+        assertEquals(expected, table.getTrueDistances());
+        assertEquals(expected, table.copy().getTrueDistances());
+        assertEquals(expected.keySet(), table.getPredicateExecutionCount().keySet());
+    }
+
+    @Test
+    public void testCoverageNotCounted() {
+        BranchDistanceTable table = new BranchDistanceTable();
+        table.branchPassed(1, 0.0, 1.0, false);
+        assertTrue(table.getPredicateExecutionCount().isEmpty());
+        assertFalse(table.isCoveredTrue(1));
+        assertTrue(table.hasBranch(1));
+    }
+
+    @Test
+    public void testClearKeepsArrays() {
+        BranchDistanceTable table = new BranchDistanceTable(10);
+        table.branchPassed(3, 1.0, 0.0, true);
+        table.clear();
+        assertTrue(table.isDense());
+        assertEquals(0, table.size());
+        assertFalse(table.hasBranch(3));
+
+        table.branchPassed(3, 2.0, 0.0, true);
+        assertEquals(2.0, table.getTrueDistances().get(3), DELTA);
+        assertEquals(1, (int) table.getPredicateExecutionCount().get(3));
+    }
+
+    @Test
+    public void testDetach() {
+        BranchDistanceTable table = new BranchDistanceTable(10);
+        Map<Integer, Double> view = table.getTrueDistances();
+        table.branchPassed(5, 1.0, 0.0, true);
+        table.branchPassed(1, 2.0, 0.0, true);
+
+        BranchDistanceTable storage = table.detach();
+        assertFalse(table.isDense());
+        assertTrue(storage.isDense());
+        assertEquals(0, storage.size());
+
+        storage.branchPassed(5, 9.0, 9.0, true);
+        assertEquals(1.0, view.get(5), DELTA);
+        assertEquals(2.0, view.get(1), DELTA);
+        assertEquals(2, table.getPredicateExecutionCount().size());
+        assertEquals(9.0, storage.getTrueDistances().get(5), DELTA);
+    }
+
+    @Test
+    public void testWriteToCompactTable() {
+        BranchDistanceTable table = new BranchDistanceTable();
+        table.branchPassed(4, 1.0, 0.0, true);
+        BranchDistanceTable copy = table.copy();
+        assertFalse(copy.isDense());
+
+        copy.branchPassed(4, 0.0, 1.0, true);
+        copy.branchPassed(9, 3.0, 0.0, true);
+        assertEquals(0.0, copy.getTrueDistances().get(4), DELTA);
+        assertEquals(3.0, copy.getTrueDistances().get(9), DELTA);
+        assertEquals(2, (int) copy.getPredicateExecutionCount().get(4));
+        assertEquals(1.0, table.getTrueDistances().get(4), DELTA);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ExecutionResultCacheTest {
+
+    private final int cacheSize = Properties.EXECUTION_CACHE_SIZE;
+
+    private ExecutionResultCache cache;
+
+    @Before
+    public void setUp() {
+        ExecutionResultCache.resetSingleton();
+        cache = ExecutionResultCache.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        Properties.EXECUTION_CACHE_SIZE = cacheSize;
+        ExecutionResultCache.resetSingleton();
+    }
+
+    private static TestCase buildTest(int value) {
+        TestCase test = new DefaultTestCase();
+        test.addStatement(new IntPrimitiveStatement(test, value));
+        return test;
+    }
+
+    private static ExecutionResult execute(TestCase test) {
+        ExecutionResult result = new ExecutionResult(test, null);
+        result.setTrace(new ExecutionTraceProxy());
+        result.setExecutedStatements(test.size());
+        return result;
+    }
+
+    @Test
+    public void testIdenticalTestIsNotExecutedAgain() {
+        AtomicInteger executions = new AtomicInteger();
+        TestCase first = buildTest(1);
+        cache.execute(first, t -> {
+            executions.incrementAndGet();
+            return execute(t);
+        });
+
+        TestCase second = buildTest(1);
+        ExecutionResult result = cache.execute(second, t -> {
+            executions.incrementAndGet();
+            return execute(t);
+        });
+
+        assertEquals(1, executions.get());
+        assertSame(second, result.test);
+        assertEquals(1, result.getExecutedStatements());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testHitReplaysSideEffectsOfExecution() {
+        TestCase first = buildTest(1);
+        cache.execute(first, t -> {
+            t.getAccessedEnvironment().addLocalFiles(Collections.singleton("foo.txt"));
+            return execute(t);
+        });
+
+        long tests = MaxTestsStoppingCondition.getNumExecutedTests();
+        long statements = MaxStatementsStoppingCondition.getNumExecutedStatements();
+        TestCase second = buildTest(1);
+        cache.execute(second, t -> {
+            fail("Test should not be executed again");
+            return null;
+        });
+
+        assertEquals(tests + 1, MaxTestsStoppingCondition.getNumExecutedTests());
+        assertEquals(statements + 1, MaxStatementsStoppingCondition.getNumExecutedStatements());
+        assertEquals(Collections.singleton("foo.txt"), second.getAccessedEnvironment().getViewOfAccessedFiles());
+    }
+
+    @Test
+    public void testTimeoutsAreNotCached() {
+        TestCase test = buildTest(1);
+        ExecutionResult result = execute(test);
+        result.reportNewThrownException(test.size(), new TestCaseExecutor.TimeoutExceeded());
+        cache.put(test, result);
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(buildTest(1)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        Properties.EXECUTION_CACHE_SIZE = 2;
+        cache.put(buildTest(1), execute(buildTest(1)));
+        cache.put(buildTest(2), execute(buildTest(2)));
+        assertNotNull(cache.get(buildTest(1)));
+        cache.put(buildTest(3), execute(buildTest(3)));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(buildTest(1)));
+        assertNull(cache.get(buildTest(2)));
+        assertNotNull(cache.get(buildTest(3)));
+    }
+
+    @Test
+    public void testDisabledWithoutStaticReset() {
+        boolean reset = Properties.RESET_STATIC_FIELDS;
+        Properties.RESET_STATIC_FIELDS = false;
+        try {
+            cache.put(buildTest(1), execute(buildTest(1)));
+            assertEquals(0, cache.size());
+            assertNull(cache.get(buildTest(1)));
+        } finally {
+            Properties.RESET_STATIC_FIELDS = reset;
+        }
+    }
+}
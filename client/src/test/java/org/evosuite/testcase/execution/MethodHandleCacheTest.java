@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+
+public class MethodHandleCacheTest {
+
+    public static abstract class AbstractFoo {
+        public AbstractFoo() {
+        }
+    }
+
+    public static class Foo {
+        public static int counter = 0;
+
+        public String name;
+
+        private int secret = 42;
+
+        public final String id = "f";
+
+        public Foo(String name) {
+            this.name = name;
+        }
+
+        public String greet(String other, int times) {
+            StringBuilder sb = new StringBuilder(name);
+            for (int i = 0; i < times; i++) {
+                sb.append(other);
+            }
+            return sb.toString();
+        }
+
+        public static long twice(long x) {
+            return 2 * x;
+        }
+
+        public void increment() {
+            counter++;
+        }
+
+        public static int count(String... values) {
+            return values.length;
+        }
+
+        public void fail(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private MethodHandleCache cache;
+
+    private boolean methodHandleInvocation;
+
+    @Before
+    public void setUp() {
+        methodHandleInvocation = Properties.METHOD_HANDLE_INVOCATION;
+        Properties.METHOD_HANDLE_INVOCATION = true;
+        MethodHandleCache.resetSingleton();
+        cache = MethodHandleCache.getInstance();
+        Foo.counter = 0;
+    }
+
+    @After
+    public void tearDown() {
+        Properties.METHOD_HANDLE_INVOCATION = methodHandleInvocation;
+        MethodHandleCache.resetSingleton();
+    }
+
+    @Test
+    public void testInvokeMethods() throws Exception {
+        Foo foo = new Foo("a");
+        Method greet = Foo.class.getMethod("greet", String.class, int.class);
+        assertEquals("abb", cache.getInvoker(greet).invoke(foo, new Object[]{"b", 2}));
+
+        Method increment = Foo.class.getMethod("increment");
+        assertNull(cache.getInvoker(increment).invoke(foo, new Object[0]));
+        assertEquals(1, Foo.counter);
+
+        Method count = Foo.class.getMethod("count", String[].class);
+        assertEquals(3, cache.getInvoker(count).invoke(null, new Object[]{new String[]{"a", "b", "c"}}));
+
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testSameResultAsReflectionWithoutExactTypes() throws Exception {
+        Method twice = Foo.class.getMethod("twice", long.class);
+        // widening from int is only done by reflection
+        assertEquals(4L, cache.getInvoker(twice).invoke(null, new Object[]{2}));
+        assertEquals(6L, cache.getInvoker(twice).invoke(null, new Object[]{3L}));
+
+        Method greet = Foo.class.getMethod("greet", String.class, int.class);
+        try {
+            cache.getInvoker(greet).invoke("not a foo", new Object[]{"b", 1});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            cache.getInvoker(greet).invoke(new Foo("a"), new Object[]{"b", null});
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testExceptionsAreWrapped() throws Exception {
+        Method fail = Foo.class.getMethod("fail", String.class);
+        try {
+            cache.getInvoker(fail).invoke(new Foo("a"), new Object[]{"boom"});
+            fail();
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+            assertEquals("boom", e.getCause().getMessage());
+            assertEquals(Foo.class.getName(), e.getCause().getStackTrace()[0].getClassName());
+        }
+    }
+
+    @Test
+    public void testConstructors() throws Exception {
+        Constructor<Foo> constructor = Foo.class.getConstructor(String.class);
+        Object foo = cache.getInvoker(constructor).newInstance(new Object[]{"x"});
+        assertEquals("x", ((Foo) foo).name);
+
+        try {
+            cache.getInvoker(AbstractFoo.class.getConstructor()).newInstance(new Object[0]);
+            fail();
+        } catch (InstantiationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        Foo foo = new Foo("y");
+        assertEquals("y", cache.getInvoker(Foo.class.getField("name")).get(foo));
+
+        Foo.counter = 5;
+        assertEquals(5, cache.getInvoker(Foo.class.getField("counter")).get(null));
+
+        Field secret = Foo.class.getDeclaredField("secret");
+        secret.setAccessible(true);
+        assertEquals(42, cache.getInvoker(secret).get(foo));
+    }
+
+    @Test
+    public void testFieldWrites() throws Exception {
+        Foo foo = new Foo("y");
+        cache.getInvoker(Foo.class.getField("name")).set(foo, "z");
+        assertEquals("z", foo.name);
+
+        MethodHandleCache.Invoker counter = cache.getInvoker(Foo.class.getField("counter"));
+        counter.set(null, 7);
+        assertEquals(7, Foo.counter);
+        // values of other types are converted as by Reflection.setField
+        counter.set(null, 3L);
+        assertEquals(3, Foo.counter);
+        counter.set(null, null);
+        assertEquals(0, Foo.counter);
+
+        Field secret = Foo.class.getDeclaredField("secret");
+        secret.setAccessible(true);
+        cache.getInvoker(secret).set(foo, 43);
+        assertEquals(43, secret.get(foo));
+
+        Field id = Foo.class.getField("id");
+        id.setAccessible(true);
+        cache.getInvoker(id).set(foo, "g");
+        assertEquals("g", id.get(foo));
+
+        try {
+            cache.getInvoker(Foo.class.getField("name")).set("not a foo", "z");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCopiesShareInvoker() throws Exception {
+        GenericMethod method = new GenericMethod(Foo.class.getMethod("greet", String.class, int.class), Foo.class);
+        assertEquals("ab", method.invoke(new Foo("a"), new Object[]{"b", 1}));
+
+        MethodHandleCache.resetSingleton();
+        GenericMethod copy = method.copy();
+        assertEquals("abb", copy.invoke(new Foo("a"), new Object[]{"b", 2}));
+        assertEquals(0, MethodHandleCache.getInstance().size());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import com.examples.with.different.packagename.reset.StaticList;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelTestExecutorTest {
+
+    @Before
+    public void setUp() {
+        Properties.getInstance().resetToDefaults();
+        Properties.CLIENT_ON_THREAD = true;
+        Properties.PARALLEL_EVALUATION_THREADS = 2;
+        Properties.RESET_STATIC_FIELDS = true;
+        Properties.REPLACE_CALLS = false;
+        Properties.VIRTUAL_FS = false;
+        Properties.VIRTUAL_NET = false;
+        Properties.REPLACE_SYSTEM_IN = false;
+        Properties.MAX_LOOP_ITERATIONS = -1;
+        TestCaseExecutor.initExecutor();
+        TestGenerationContext.getInstance().resetContext();
+        ClassReInitializer.resetSingleton();
+        ParallelTestExecutor.resetSingleton();
+        ExecutionResultCache.resetSingleton();
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+    }
+
+    @After
+    public void tearDown() {
+        ParallelTestExecutor.resetSingleton();
+        ClassReInitializer.resetSingleton();
+        TestGenerationContext.getInstance().resetContext();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    /**
+     * StaticList.add("x"), which initializes StaticList the first time
+     */
+    private static TestChromosome buildAddTest(Class<?> listClass) throws NoSuchMethodException {
+        DefaultTestCase test = new DefaultTestCase();
+        VariableReference value = test.addStatement(new StringPrimitiveStatement(test, "x"));
+        Method add = listClass.getMethod("add", String.class);
+        test.addStatement(new MethodStatement(test, new GenericMethod(add, listClass), null,
+                Collections.singletonList(value)));
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+        return chromosome;
+    }
+
+    @Test
+    public void testClassesInitializedDuringBatchAreReset() throws Exception {
+        ClassLoader loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+        Class<?> listClass = Class.forName(StaticList.class.getName(), false, loader);
+        ClassReInitializer.getInstance().setReInitializeAllClasses(true);
+
+        TestChromosome first = buildAddTest(listClass);
+        TestChromosome second = buildAddTest(listClass);
+        ParallelTestExecutor executor = ParallelTestExecutor.getInstance();
+        assertTrue(executor.isEnabled());
+        long executedTests = MaxTestsStoppingCondition.getNumExecutedTests();
+        executor.execute(Arrays.asList(first, second));
+
+        assertEquals(1, executor.getNumBatches());
+        assertEquals(executedTests + 2, MaxTestsStoppingCondition.getNumExecutedTests());
+        assertFalse(first.isChanged());
+        assertNotNull(second.getLastExecutionResult());
+        assertTrue(ClassReInitializer.getInstance().getInitializedClasses().contains(StaticList.class.getName()));
+        // the values added by the tests are gone
+        assertEquals(0, listClass.getMethod("size").invoke(null));
+    }
+}
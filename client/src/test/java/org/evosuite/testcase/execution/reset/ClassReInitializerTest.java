@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import com.examples.with.different.packagename.reset.SharedRegistry;
+import com.examples.with.different.packagename.reset.SharedRegistryUser;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClassReInitializerTest {
+
+    @Before
+    public void setUp() {
+        Properties.getInstance().resetToDefaults();
+        Properties.CLIENT_ON_THREAD = true;
+        Properties.RESET_STATIC_FIELDS = true;
+        TestCaseExecutor.initExecutor();
+        ExecutionTracer.getExecutionTracer().clear();
+        TestGenerationContext.getInstance().resetContext();
+        ClassReInitializer.resetSingleton();
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+    }
+
+    @After
+    public void tearDown() {
+        ClassReInitializer.resetSingleton();
+        TestGenerationContext.getInstance().resetContext();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void testClassSharingStateThroughCalledMethodIsReset() throws Exception {
+        ClassLoader loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+        Class<?> userClass = Class.forName(SharedRegistryUser.class.getName(), true, loader);
+        Class<?> registryClass = Class.forName(SharedRegistry.class.getName(), true, loader);
+
+        // the initializer of the user only called a method of the registry
+        assertTrue(StaticStateDependencies.getInstance()
+                .getClosure(Collections.singletonList(SharedRegistry.class.getName()))
+                .contains(SharedRegistryUser.class.getName()));
+
+        ClassReInitializer.getInstance().setReInitializeOnlyDirtyClasses(true);
+        executeRegisterEntry(registryClass);
+
+        assertEquals(0, registryClass.getMethod("size").invoke(registryClass.getMethod("getInstance").invoke(null)));
+        // the user would still refer to the registry with the entry if it was not reset as well
+        assertEquals(0, userClass.getMethod("getRegistrySize").invoke(null));
+    }
+
+    @Test
+    public void testAllClassesAreResetUnlessOnlyDirtyClassesAreRequested() throws Exception {
+        ClassLoader loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+        Class<?> userClass = Class.forName(SharedRegistryUser.class.getName(), true, loader);
+        Class<?> registryClass = Class.forName(SharedRegistry.class.getName(), true, loader);
+
+        // even a sharing that was not observed does not matter, as during
+        // assertion generation all the initialized classes are reset
+        StaticStateDependencies.getInstance().clear();
+        executeRegisterEntry(registryClass);
+
+        assertEquals(0, userClass.getMethod("getRegistrySize").invoke(null));
+    }
+
+    /**
+     * Execute SharedRegistry.getInstance().register("x"), which does not touch
+     * the user of the registry, resetting all the classes initialized so far
+     */
+    private static void executeRegisterEntry(Class<?> registryClass) throws NoSuchMethodException {
+        ClassReInitializer.getInstance().addInitializedClasses(
+                ExecutionTracer.getExecutionTracer().getTrace().getInitializedClasses());
+        ClassReInitializer.getInstance().setReInitializeAllClasses(true);
+
+        DefaultTestCase test = new DefaultTestCase();
+        Method getInstance = registryClass.getMethod("getInstance");
+        VariableReference registry = test.addStatement(new MethodStatement(test,
+                new GenericMethod(getInstance, registryClass), null, Collections.emptyList()));
+        VariableReference entry = test.addStatement(new StringPrimitiveStatement(test, "x"));
+        Method register = registryClass.getMethod("register", String.class);
+        test.addStatement(new MethodStatement(test, new GenericMethod(register, registryClass), registry,
+                Collections.singletonList(entry)));
+        TestCaseExecutor.getInstance().execute(test, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StaticStateDependenciesTest {
+
+    @After
+    public void tearDown() {
+        StaticStateDependencies.getInstance().clear();
+    }
+
+    @Test
+    public void testClosureIsSymmetricAndTransitive() {
+        StaticStateDependencies dependencies = StaticStateDependencies.getInstance();
+        dependencies.addDependency("A", "B");
+        dependencies.addDependency("C", "B");
+        dependencies.addDependency("D", "E");
+
+        Set<String> closure = dependencies.getClosure(Collections.singletonList("A"));
+        assertEquals(3, closure.size());
+        assertTrue(closure.containsAll(Arrays.asList("A", "B", "C")));
+
+        closure = dependencies.getClosure(Collections.singletonList("C"));
+        assertTrue(closure.containsAll(Arrays.asList("A", "B", "C")));
+        assertFalse(closure.contains("D"));
+    }
+
+    @Test
+    public void testUnrelatedClasses() {
+        StaticStateDependencies dependencies = StaticStateDependencies.getInstance();
+        dependencies.addDependency("A", "A");
+
+        assertEquals(Collections.singleton("A"), dependencies.getClosure(Collections.singletonList("A")));
+        assertTrue(dependencies.getClosure(Collections.<String>emptyList()).isEmpty());
+    }
+}
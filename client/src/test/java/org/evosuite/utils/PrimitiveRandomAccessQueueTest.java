@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveRandomAccessQueueTest {
+
+    private final int defaultPoolSize = Properties.DYNAMIC_POOL_SIZE;
+
+    @After
+    public void tearDown() {
+        Properties.DYNAMIC_POOL_SIZE = defaultPoolSize;
+    }
+
+    @Test
+    public void testOldestValueIsEvicted() {
+        Properties.DYNAMIC_POOL_SIZE = 3;
+        PrimitiveRandomAccessQueue queue = new PrimitiveRandomAccessQueue();
+        queue.restrictedAdd(1);
+        queue.restrictedAdd(2);
+        queue.restrictedAdd(1);
+        queue.restrictedAdd(3);
+        queue.restrictedAdd(4);
+
+        assertEquals(3, queue.size());
+        Set<Integer> drawn = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            drawn.add(queue.getRandomInt());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(2, 3, 4)), drawn);
+    }
+
+    @Test
+    public void testFloatingPointValuesAreDistinctAsBoxed() {
+        PrimitiveRandomAccessQueue queue = new PrimitiveRandomAccessQueue();
+        queue.restrictedAdd(0.0);
+        queue.restrictedAdd(-0.0);
+        queue.restrictedAdd(Double.NaN);
+        queue.restrictedAdd(Double.NaN);
+        assertEquals(3, queue.size());
+        assertEquals("[ 0.0 -0.0 NaN ]", queue.toString(Double::longBitsToDouble));
+    }
+
+    @Test
+    public void testSameContentAsReferenceQueue() {
+        Properties.DYNAMIC_POOL_SIZE = 20;
+        PrimitiveRandomAccessQueue queue = new PrimitiveRandomAccessQueue();
+        Deque<Long> reference = new ArrayDeque<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextInt(60);
+            if (i == 5_000) {
+                // the queue has to grow if the pool size is raised
+                Properties.DYNAMIC_POOL_SIZE = 45;
+            }
+            queue.restrictedAdd(value);
+            if (!reference.contains(value)) {
+                reference.add(value);
+                if (reference.size() > Properties.DYNAMIC_POOL_SIZE) {
+                    reference.poll();
+                }
+            }
+            assertEquals(reference.toString().replace(",", "").replace("[", "[ ").replace("]", " ]"),
+                    queue.toString());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEmptyQueue() {
+        new PrimitiveRandomAccessQueue().getRandomValue();
+    }
+}
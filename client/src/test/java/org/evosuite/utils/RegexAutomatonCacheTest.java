@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RegexAutomatonCacheTest {
+
+    private final int cacheSize = Properties.REGEX_CACHE_SIZE;
+
+    private RegexAutomatonCache cache;
+
+    @Before
+    public void setUp() {
+        cache = RegexAutomatonCache.getInstance();
+        cache.clear();
+    }
+
+    @After
+    public void tearDown() {
+        Properties.REGEX_CACHE_SIZE = cacheSize;
+        cache.clear();
+    }
+
+    @Test
+    public void testAutomatonIsBuiltOnce() {
+        CompiledRegex first = cache.get("[a-z]+@[a-z]+");
+        CompiledRegex second = cache.get("[a-z]+@[a-z]+");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        Properties.REGEX_CACHE_SIZE = 2;
+
+        CompiledRegex a = cache.get("a+");
+        cache.get("b+");
+        cache.get("a+");
+        cache.get("c+");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertSame(a, cache.get("a+"));
+        assertEquals(3, cache.getMisses());
+
+        cache.get("b+");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testDistanceIsIndependentOfEviction() {
+        Properties.REGEX_CACHE_SIZE = 1;
+
+        int distance = RegexDistanceUtils.getStandardDistance("abc", "a*b+");
+        RegexDistanceUtils.getStandardDistance("abc", "[0-9]+");
+        assertEquals(distance, RegexDistanceUtils.getStandardDistance("abc", "a*b+"));
+        assertEquals(1, cache.size());
+    }
+}
@@ -286,4 +286,24 @@ public class TestRegexDistance {
             assertTrue(0 < RegexDistanceUtils.getStandardDistance(str, regex));
         }
     }
+
+    @Test
+    public void testChangedTailGivesSameDistanceAsNewString() {
+        final String regex = "[a-z]+@[a-z]+\\.(com|org)";
+        final String[] values = {"foo@bar.com", "foo@bar.co", "foo@bar.c", "foo@bar.org", "foo", "foo@baz", "", "x@y.org"};
+
+        for (String value : values) {
+            RegexDistanceUtils.getStandardDistance("no rows to reuse", "[0-9]+");
+            RegexDistanceUtils.getDistanceTailoredForStringAVM("no rows to reuse", "[0-9]+");
+            int standard = RegexDistanceUtils.getStandardDistance(value, regex);
+            double avm = RegexDistanceUtils.getDistanceTailoredForStringAVM(value, regex);
+
+            for (String previous : values) {
+                RegexDistanceUtils.getStandardDistance(previous, regex);
+                RegexDistanceUtils.getDistanceTailoredForStringAVM(previous, regex);
+                assertEquals(standard, RegexDistanceUtils.getStandardDistance(value, regex));
+                assertEquals(avm, RegexDistanceUtils.getDistanceTailoredForStringAVM(value, regex), 0.0);
+            }
+        }
+    }
 }
@@ -31,7 +31,9 @@ import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -40,6 +42,9 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The class that actually execute the job as a separated process
@@ -54,6 +59,15 @@ public class JobHandler extends Thread {
 
     private Process latestProcess;
 
+    /**
+     * Long-lived JVM running the jobs, if {@link Properties#CTG_WARM_WORKERS}
+     */
+    private Process worker;
+
+    private DataOutputStream workerInput;
+
+    private BlockingQueue<String> workerResults;
+
     /**
      * Main constructor
      */
@@ -87,6 +101,7 @@ public class JobHandler extends Thread {
         JobHandler[] jobs = new JobHandler[n];
         for (int i = 0; i < jobs.length; i++) {
             jobs[i] = new JobHandler(executor);
+            jobs[i].setName("JobHandler-" + i);
             jobs[i].setUpShutdownHook();
         }
         return jobs;
@@ -107,6 +122,11 @@ public class JobHandler extends Thread {
                 break;
             }
 
+            if (Properties.CTG_WARM_WORKERS) {
+                runOnWorker(job);
+                continue;
+            }
+
             Process process = null;
 
             try {
@@ -169,7 +189,117 @@ public class JobHandler extends Thread {
                 executor.doneWithJob(job);
             }
         }
+        stopWorker();
+    }
+
+    private void runOnWorker(JobDefinition job) {
+        try {
+            if (worker == null || !worker.isAlive()) {
+                startWorker(job);
+            }
+
+            List<String> arguments = getEvoSuiteArguments(job, job.memoryInMB);
+            arguments.add("-Dclient_on_thread=true");
+            /*
+             * a client on a thread does not get the -D options that the master adds
+             * to the command of a client process, eg the MOSA defaults
+             */
+            arguments.add(0, "-Dselection_function=" + Properties.SelectionFunction.RANK_CROWD_DISTANCE_TOURNAMENT);
+
+            LocalDateTime endBy = LocalDateTime.now().plus(job.seconds, ChronoUnit.SECONDS);
+            LoggingUtils.getEvoLogger().info("Going to start job for: " + job.cut + " on warm worker of " + getName() +
+                    ". Expected to end in " + job.seconds + " seconds, by " + endBy.toString());
+
+            JobWorker.writeJob(workerInput, arguments);
+
+            /*
+             * contrary to a new process, a stuck worker would block all following jobs,
+             * so here we need a timeout
+             */
+            String result = workerResults.poll(job.seconds * 2L + 60, TimeUnit.SECONDS);
+            if (result == null) {
+                logger.warn("Job for " + job.cut + " did not complete in time, stopping its worker");
+                stopWorker();
+                return;
+            }
+
+            String[] tokens = result.split(" ");
+            if (!Boolean.parseBoolean(tokens[0])) {
+                logger.warn("Job ended with an error: " + job.cut);
+            }
+            if (tokens.length < 2 || Boolean.parseBoolean(tokens[1])) {
+                // the worker is exiting or already dead
+                stopWorker();
+            }
+        } catch (InterruptedException e) {
+            this.interrupt();
+            stopWorker();
+        } catch (Exception e) {
+            logger.error("Failed to run job on worker: " + e.getMessage(), e);
+            stopWorker();
+        } finally {
+            executor.doneWithJob(job);
+        }
     }
+
+    private void startWorker(JobDefinition job) throws IOException {
+        List<String> commands = getWorkerCommandString(job);
+
+        ProcessBuilder builder = new ProcessBuilder(commands);
+        builder.directory(new File(System.getProperty("user.dir")));
+        builder.redirectErrorStream(true);
+
+        logger.debug("Starting warm worker: " + String.join(" ", commands));
+        worker = builder.start();
+        latestProcess = worker;
+        workerInput = new DataOutputStream(new BufferedOutputStream(worker.getOutputStream()));
+        // a new queue, so that results of a previous worker are not mixed up
+        workerResults = new LinkedBlockingQueue<>();
+        handleWorkerOutput(worker, workerResults);
+    }
+
+    private void stopWorker() {
+        if (worker == null) {
+            return;
+        }
+        try {
+            workerInput.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close worker input: " + e);
+        }
+        worker.destroy();
+        worker = null;
+    }
+
+    /**
+     * Log the output of the worker, and collect the results of its jobs. If
+     * the worker dies during a job, that job is considered failed.
+     */
+    private void handleWorkerOutput(final Process process, final BlockingQueue<String> results) {
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    BufferedReader in = new BufferedReader(
+                            new InputStreamReader(process.getInputStream()));
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        if (line.startsWith(JobWorker.JOB_DONE)) {
+                            results.offer(line.substring(JobWorker.JOB_DONE.length()).trim());
+                        } else if (!line.isEmpty()) {
+                            logger.info(line);
+                        }
+                    }
+                } catch (Exception e) {
+                    logger.debug("Exception while reading worker output: " + e);
+                }
+                results.offer(Boolean.FALSE.toString());
+            }
+        };
+        reader.setDaemon(true);
+        reader.start();
+    }
+
     private final void handleProcessOutput(final Process process) {
         Thread reader = new Thread() {
             @Override
@@ -230,6 +360,43 @@ public class JobHandler extends Thread {
 
     private List<String> getCommandString(JobDefinition job) {
 
+        /*
+         * TODO: this will likely need better handling
+         */
+        int masterMB = 250;
+
+        File logs = executor.getStorage().getTmpLogs();
+        List<String> commands = getJvmCommands(logs.getAbsolutePath() + File.separator + job.cut, masterMB);
+
+		/*
+			Actual call to EvoSuite. "Commands" before this line will be applied
+			to the spawn process, whereas the ones after will be its input parameters
+		 */
+        commands.add(org.evosuite.EvoSuite.class.getName());
+
+        commands.addAll(getEvoSuiteArguments(job, job.memoryInMB - masterMB));
+
+        return commands;
+    }
+
+    /**
+     * The command to start a warm worker JVM, to which the EvoSuite arguments
+     * of the jobs are sent afterwards. As the client runs on a thread of the
+     * worker, the worker gets all the memory of a job.
+     */
+    private List<String> getWorkerCommandString(JobDefinition job) {
+        File logs = executor.getStorage().getTmpLogs();
+        List<String> commands = getJvmCommands(logs.getAbsolutePath() + File.separator + getName(), job.memoryInMB);
+
+        commands.add(JobWorker.class.getName());
+        commands.add("" + Properties.CTG_WORKER_MAX_JOBS);
+        commands.add("" + Properties.CTG_WORKER_MAX_HEAP_USAGE);
+
+        return commands;
+    }
+
+    private List<String> getJvmCommands(String logFolder, int memoryInMB) {
+
         List<String> commands = new ArrayList<>();
         commands.add(JavaExecCmdUtil.getJavaBinExecutablePath()/*"java"*/);
 
@@ -252,21 +419,13 @@ public class JobHandler extends Thread {
         commands.add("-D" + LoggingUtils.USE_DIFFERENT_LOGGING_XML_PARAMETER + "=logback-ctg.xml");
         commands.add("-Dlogback.configurationFile=logback-ctg.xml");
 
-        StorageManager storage = executor.getStorage();
-        File logs = storage.getTmpLogs();
-        commands.add("-Devosuite.log.folder=" + logs.getAbsolutePath() + File.separator + job.cut);
+        commands.add("-Devosuite.log.folder=" + logFolder);
 
         if (Properties.LOG_LEVEL != null && !Properties.LOG_LEVEL.isEmpty()) {
             commands.add("-Dlog.level=" + Properties.LOG_LEVEL);
         }
 
-        /*
-         * TODO: this will likely need better handling
-         */
-        int masterMB = 250;
-        int clientMB = job.memoryInMB - masterMB;
-
-        commands.add("-Xmx" + masterMB + "m");
+        commands.add("-Xmx" + memoryInMB + "m");
 
         if (Properties.CTG_DEBUG_PORT != null) {
             //set for Master
@@ -276,11 +435,12 @@ public class JobHandler extends Thread {
             );
         }
 
-		/*
-			Actual call to EvoSuite. "Commands" before this line will be applied
-			to the spawn process, whereas the ones after will be its input parameters
-		 */
-        commands.add(org.evosuite.EvoSuite.class.getName());
+        return commands;
+    }
+
+    private List<String> getEvoSuiteArguments(JobDefinition job, int clientMB) {
+
+        List<String> commands = new ArrayList<>();
 
         if (Properties.CTG_DEBUG_PORT != null) {
             //set for Client
@@ -337,6 +497,7 @@ public class JobHandler extends Thread {
 
         commands.addAll(timeSetUp(job.seconds));
 
+        StorageManager storage = executor.getStorage();
         File reports = storage.getTmpReports();
         File tests = storage.getTmpTests();
         File seedOut = storage.getTmpSeeds();
@@ -409,6 +570,10 @@ public class JobHandler extends Thread {
             commands.add("-Dctg_history_file=" + Properties.CTG_HISTORY_FILE);
         }
 
+        if (Properties.CTG_INSTRUMENTATION_CACHE) {
+            commands.add("-Dinstrumentation_cache_dir=" + StorageManager.getInstrumentationCacheFolder().getAbsolutePath());
+        }
+
         return commands;
     }
 
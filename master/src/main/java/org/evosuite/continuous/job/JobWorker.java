@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.exception.ExceptionCoverageFactory;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.runtime.mock.MockFramework;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Long-lived JVM used by {@link JobHandler} when
+ * {@link Properties#CTG_WARM_WORKERS} is on. It reads the EvoSuite arguments
+ * of each job from its standard input and runs them with the client on a
+ * thread, so that JVM startup, class loading and JIT warm-up are only paid
+ * once for several jobs. Master and client still communicate through RMI as
+ * usual. Between jobs all the state of the previous CUT is reset.
+ * <p>
+ * Once a job is completed, {@link #JOB_DONE} is printed on its own line.
+ * The worker exits after {@code maxJobs} jobs, or if too much of the heap is
+ * still in use after a job, and is then replaced by the handler.
+ */
+public class JobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobWorker.class);
+
+    /**
+     * Printed on the standard output, followed by whether the job succeeded
+     * and whether the worker is going to exit
+     */
+    public static final String JOB_DONE = "EVOSUITE_CTG_JOB_DONE";
+
+    /**
+     * Arguments: the maximum number of jobs, and the maximum ratio of the heap
+     * that can be in use after a job
+     */
+    public static void main(String[] args) {
+        int maxJobs = Integer.parseInt(args[0]);
+        double maxHeapUsage = Double.parseDouble(args[1]);
+
+        // SUT and client can redirect the output streams
+        PrintStream out = System.out;
+        java.util.Properties systemProperties = (java.util.Properties) System.getProperties().clone();
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        int jobs = 0;
+        try {
+            String[] job;
+            while ((job = readJob(in)) != null) {
+                boolean succeeded = runJob(job);
+                resetState(systemProperties);
+                jobs++;
+
+                boolean exit = jobs >= maxJobs || getHeapUsage() > maxHeapUsage;
+                out.println(JOB_DONE + " " + succeeded + " " + exit);
+                out.flush();
+
+                if (exit) {
+                    logger.info("Recycling worker after " + jobs + " jobs");
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read job: " + e.getMessage());
+        }
+
+        // there could still be threads of the SUT running
+        System.exit(0);
+    }
+
+    /**
+     * @return the arguments of the next job, or null if there are no more
+     */
+    private static String[] readJob(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0) {
+            return null;
+        }
+        String[] args = new String[length];
+        for (int i = 0; i < length; i++) {
+            args[i] = in.readUTF();
+        }
+        return args;
+    }
+
+    /**
+     * Send the arguments of a job to a worker
+     */
+    public static void writeJob(DataOutputStream out, List<String> args) throws IOException {
+        out.writeInt(args.size());
+        for (String arg : args) {
+            out.writeUTF(arg);
+        }
+        out.flush();
+    }
+
+    private static boolean runJob(String[] args) {
+        Properties.getInstance().resetToDefaults();
+        try {
+            new EvoSuite().parseCommandLine(args);
+            return true;
+        } catch (Throwable t) {
+            logger.error("Failed to run job for class " + Properties.TARGET_CLASS, t);
+            return false;
+        }
+    }
+
+    private static void resetState(java.util.Properties systemProperties) {
+        TestCaseExecutor.getInstance().newObservers();
+        TestGenerationContext.getInstance().resetContext();
+        ClassReInitializer.resetSingleton();
+        System.setProperties((java.util.Properties) systemProperties.clone());
+        Properties.getInstance().resetToDefaults();
+        ExceptionCoverageFactory.getGoals().clear();
+        Archive.getArchiveInstance().reset();
+        MockFramework.enable();
+    }
+
+    private static double getHeapUsage() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return (double) used / runtime.maxMemory();
+    }
+}
@@ -142,6 +142,10 @@ public class StorageManager {
         return new File(new File(Properties.CTG_DIR), "evosuite-" + Properties.CTG_SEEDS_DIR_NAME);
     }
 
+    public static File getInstrumentationCacheFolder() {
+        return new File(new File(Properties.CTG_DIR), "evosuite-instrumentation-cache");
+    }
+
     /**
      * Create a new tmp folder for this CTG session
      *
@@ -393,6 +393,10 @@ public class TestGeneration {
         Properties.getInstance();// should force the load, just to be sure
         Properties.TARGET_CLASS = target;
         Properties.PROCESS_COMMUNICATION_PORT = port;
+        if (Properties.CLIENT_ON_THREAD) {
+            // otherwise the client would only see the strategy if set by the caller
+            Properties.STRATEGY = strategy;
+        }
 
         for (int i = 0; i < Properties.NUM_PARALLEL_CLIENTS; i++) {
             List<String> cmdLineClone = new ArrayList<>(cmdLine);
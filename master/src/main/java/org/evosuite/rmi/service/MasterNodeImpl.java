@@ -24,8 +24,8 @@ import org.evosuite.Properties;
 import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
-import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.statistics.SearchStatistics;
+import org.evosuite.statistics.StatisticsBatch;
 import org.evosuite.utils.Listener;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
@@ -164,9 +164,9 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
     }
 
     @Override
-    public void evosuite_collectStatistics(String clientRmiIdentifier, RuntimeVariable variable, Object value)
+    public void evosuite_collectStatistics(String clientRmiIdentifier, StatisticsBatch batch)
             throws RemoteException {
-        SearchStatistics.getInstance(clientRmiIdentifier).setOutputVariable(variable, value);
+        SearchStatistics.getInstance(clientRmiIdentifier).collectStatistics(batch);
     }
 
     @Override
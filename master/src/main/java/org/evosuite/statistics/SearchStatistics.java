@@ -75,6 +75,11 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
      */
     private TestSuiteChromosome bestIndividual = null;
 
+    /**
+     * The summary of the last individual received from the client
+     */
+    private IndividualSummary currentSummary = null;
+
     /**
      * Backend used to output the data
      */
@@ -197,14 +202,36 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
 
         logger.debug("Received individual");
         bestIndividual = (TestSuiteChromosome) individual;
+        currentIndividual(new IndividualSummary(bestIndividual));
+    }
+
+    /**
+     * This method is called when a summary of a new individual is sent from a client.
+     *
+     * @param summary summary of the best individual of current generation
+     */
+    public void currentIndividual(IndividualSummary summary) {
+        if (backend == null)
+            return;
+
+        currentSummary = summary;
         for (ChromosomeOutputVariableFactory<?> v : variableFactories.values()) {
-            setOutputVariable(v.getVariable((TestSuiteChromosome) individual));
+            setOutputVariable(v.getVariable(summary));
         }
         for (SequenceOutputVariableFactory<?> v : sequenceOutputVariableFactories.values()) {
-            v.update((TestSuiteChromosome) individual);
+            v.update(summary);
         }
     }
 
+    /**
+     * Process the output variables and individuals sent by a client in a single batch
+     *
+     * @param batch
+     */
+    public void collectStatistics(StatisticsBatch batch) {
+        batch.replay(this::setOutputVariable, this::currentIndividual);
+    }
+
     /**
      * Set an output variable to a value directly
      *
@@ -292,7 +319,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
     /**
      * Shorthand for getOutputVariables(individual, false)
      */
-    private Map<String, OutputVariable<?>> getOutputVariables(TestSuiteChromosome individual) {
+    private Map<String, OutputVariable<?>> getOutputVariables(IndividualSummary individual) {
         return getOutputVariables(individual, false);
     }
 
@@ -304,7 +331,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
      * @param skip_missing whether or not to skip missing output variables
      * @return <code>null</code> if some data is missing
      */
-    private Map<String, OutputVariable<?>> getOutputVariables(TestSuiteChromosome individual, boolean skip_missing) {
+    private Map<String, OutputVariable<?>> getOutputVariables(IndividualSummary individual, boolean skip_missing) {
         Map<String, OutputVariable<?>> variables = new LinkedHashMap<>();
 
         for (String variableName : getOutputVariableNames()) {
@@ -355,8 +382,9 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         TestSuiteChromosome individual = bestIndividual;
+        IndividualSummary summary = currentSummary;
 
-        Map<String, OutputVariable<?>> map = getOutputVariables(individual);
+        Map<String, OutputVariable<?>> map = getOutputVariables(summary);
         if (map == null) {
 
             try {
@@ -380,13 +408,13 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
                     }
 
                     //retry
-                    map = getOutputVariables(individual);
+                    map = getOutputVariables(summary);
                     counter++;
                 }
             }
 
             if (map == null && Properties.IGNORE_MISSING_STATISTICS) {
-                map = getOutputVariables(individual, true);
+                map = getOutputVariables(summary, true);
             }
 
             if (map == null) {
@@ -420,7 +448,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         outputVariables.put(RuntimeVariable.Total_Time.name(), new OutputVariable<Object>(RuntimeVariable.Total_Time.name(), System.currentTimeMillis() - startTime));
 
         TestSuiteChromosome individual = new TestSuiteChromosome();
-        Map<String, OutputVariable<?>> map = getOutputVariables(individual);
+        Map<String, OutputVariable<?>> map = getOutputVariables(new IndividualSummary(individual));
         if (map == null) {
             logger.error("Not going to write down statistics data, as some are missing");
             return false;
@@ -476,7 +504,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        protected Integer getData(TestSuiteChromosome individual) {
+        protected Integer getData(IndividualSummary individual) {
             return individual.totalLengthOfTestCases();
         }
     }
@@ -490,7 +518,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        protected Integer getData(TestSuiteChromosome individual) {
+        protected Integer getData(IndividualSummary individual) {
             return individual.size();
         }
     }
@@ -504,7 +532,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        protected Double getData(TestSuiteChromosome individual) {
+        protected Double getData(IndividualSummary individual) {
             return individual.getFitness();
         }
     }
@@ -518,7 +546,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        protected Double getData(TestSuiteChromosome individual) {
+        protected Double getData(IndividualSummary individual) {
             return individual.getCoverage();
         }
     }
@@ -533,7 +561,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        protected Double getValue(TestSuiteChromosome individual) {
+        protected Double getValue(IndividualSummary individual) {
             return individual.getFitness();
         }
     }
@@ -548,7 +576,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverage();
         }
     }
@@ -563,7 +591,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Integer getValue(TestSuiteChromosome individual) {
+        public Integer getValue(IndividualSummary individual) {
             return individual.size();
         }
     }
@@ -578,7 +606,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Integer getValue(TestSuiteChromosome individual) {
+        public Integer getValue(IndividualSummary individual) {
             return individual.totalLengthOfTestCases();
         }
     }
@@ -593,7 +621,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Integer getValue(TestSuiteChromosome individual) {
+        public Integer getValue(IndividualSummary individual) {
             return individual.getNumOfNotCoveredGoals();
         }
     }
@@ -605,7 +633,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(BranchCoverageSuiteFitness.class);
         }
     }
@@ -617,7 +645,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(OnlyBranchCoverageSuiteFitness.class);
         }
     }
@@ -629,7 +657,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(OnlyBranchCoverageSuiteFitness.class);
         }
     }
@@ -641,7 +669,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(CBranchSuiteFitness.class);
         }
     }
@@ -653,7 +681,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(CBranchSuiteFitness.class);
         }
     }
@@ -665,7 +693,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(MethodTraceCoverageSuiteFitness.class);
         }
     }
@@ -677,7 +705,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(MethodTraceCoverageSuiteFitness.class);
         }
     }
@@ -689,7 +717,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(MethodCoverageSuiteFitness.class);
         }
     }
@@ -701,7 +729,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(MethodCoverageSuiteFitness.class);
         }
     }
@@ -713,7 +741,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(MethodNoExceptionCoverageSuiteFitness.class);
         }
     }
@@ -725,7 +753,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(MethodNoExceptionCoverageSuiteFitness.class);
         }
     }
@@ -737,7 +765,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             Double d = individual.getFitnessInstanceOf(RhoCoverageSuiteFitness.class);
             return d > 1.0 ? 0.0 : d;
         }
@@ -750,7 +778,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(AmbiguityCoverageSuiteFitness.class);
         }
     }
@@ -762,7 +790,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(LineCoverageSuiteFitness.class);
         }
     }
@@ -774,7 +802,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(LineCoverageSuiteFitness.class);
         }
     }
@@ -786,7 +814,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(OutputCoverageSuiteFitness.class);
         }
     }
@@ -798,7 +826,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(OutputCoverageSuiteFitness.class);
         }
     }
@@ -810,7 +838,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(InputCoverageSuiteFitness.class);
         }
     }
@@ -822,7 +850,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(InputCoverageSuiteFitness.class);
         }
     }
@@ -834,7 +862,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(ExceptionCoverageSuiteFitness.class);
         }
     }
@@ -846,7 +874,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(ExceptionCoverageSuiteFitness.class);
         }
     }
@@ -858,7 +886,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(WeakMutationSuiteFitness.class);
         }
     }
@@ -870,7 +898,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getFitnessInstanceOf(OnlyMutationSuiteFitness.class);
         }
     }
@@ -882,7 +910,7 @@ public class SearchStatistics implements Listener<ClientStateInformation> {
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualSummary individual) {
             return individual.getCoverageInstanceOf(OnlyMutationSuiteFitness.class);
         }
     }
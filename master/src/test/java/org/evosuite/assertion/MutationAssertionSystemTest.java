@@ -22,20 +22,92 @@ package org.evosuite.assertion;
 
 import com.examples.with.different.packagename.*;
 import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
 import org.evosuite.SystemTestBase;
+import org.evosuite.TimeController;
+import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.runtime.Randomness;
 import org.evosuite.strategy.TestGenerationStrategy;
 import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.junit.Assert;
 import org.junit.Test;
 
 import org.junit.Ignore;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * @author fraser
  */
 public class MutationAssertionSystemTest extends SystemTestBase {
+
+    /**
+     * Records, for every run on the original unit, the mutants that were
+     * touched and infected, and the mutants the test was then executed on
+     */
+    private static class RecordingMutationAssertionGenerator extends SimpleMutationAssertionGenerator {
+        protected final List<Set<Integer>> touched = new ArrayList<>();
+        protected final List<Set<Integer>> infected = new ArrayList<>();
+        protected final List<Set<Integer>> executed = new ArrayList<>();
+
+        @Override
+        protected ExecutionResult runTest(TestCase test, Mutation mutant) {
+            ExecutionResult result = super.runTest(test, mutant);
+            if (mutant == null) {
+                touched.add(new HashSet<>(result.getTrace().getTouchedMutants()));
+                infected.add(new HashSet<>(result.getTrace().getInfectedMutants()));
+                executed.add(new HashSet<>());
+            } else {
+                executed.get(executed.size() - 1).add(mutant.getId());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Reports every touched mutant as infected, so that all of them are
+     * executed as before the infection check was introduced
+     */
+    private static class InfectAllMutationAssertionGenerator extends RecordingMutationAssertionGenerator {
+        @Override
+        protected ExecutionResult runTest(TestCase test, Mutation mutant) {
+            ExecutionResult result = super.runTest(test, mutant);
+            if (mutant == null) {
+                for (Integer id : result.getTrace().getTouchedMutants())
+                    result.getTrace().mutationPassed(id, 0.0);
+            }
+            return result;
+        }
+    }
+
+    private TestSuiteChromosome generateSuiteWithoutAssertions(Class<?> clazz) {
+        EvoSuite evosuite = new EvoSuite();
+
+        String targetClass = clazz.getCanonicalName();
+
+        String[] command = new String[]{
+                "-generateSuite", "-class", targetClass,
+                "-Djunit_tests=false", "-Dshow_progress=false",
+                "-Dassertions=false"};
+
+        Object result = evosuite.parseCommandLine(command);
+
+        GeneticAlgorithm<TestSuiteChromosome> ga = getGAFromResult(result);
+        return ga.getBestIndividual();
+    }
+
+    private <T extends RecordingMutationAssertionGenerator> T addAssertions(T generator, TestSuiteChromosome suite) {
+        TimeController.resetSingleton();
+        Randomness.setSeed(42);
+        generator.addAssertions(suite);
+        return generator;
+    }
     private TestSuiteChromosome generateSuite(Class<?> clazz) {
         EvoSuite evosuite = new EvoSuite();
         int generations = 1;
@@ -132,4 +204,47 @@ public class MutationAssertionSystemTest extends SystemTestBase {
         Assert.assertEquals("Wrong number of goals: ", 3, goals);
         Assert.assertEquals("Non-optimal coverage: ", 1d, suite.getCoverage(), 0.05);
     }
+
+    @Test
+    public void testMutantsThatAreNotInfectedAreNotExecuted() {
+        TestSuiteChromosome suite = generateSuiteWithoutAssertions(ExampleUninfectedMutantClass.class);
+        Assert.assertTrue(suite.size() > 0);
+
+        Properties.MAX_MUTANTS_PER_TEST = 0;
+        TestSuiteChromosome gatedSuite = suite.clone();
+        TestSuiteChromosome allSuite = suite.clone();
+        RecordingMutationAssertionGenerator gated = addAssertions(new RecordingMutationAssertionGenerator(), gatedSuite);
+        RecordingMutationAssertionGenerator all = addAssertions(new InfectAllMutationAssertionGenerator(), allSuite);
+
+        int numNotInfected = 0;
+        for (int i = 0; i < gated.touched.size(); i++) {
+            numNotInfected += gated.touched.get(i).size() - gated.infected.get(i).size();
+            Assert.assertEquals(gated.infected.get(i), gated.executed.get(i));
+            Assert.assertEquals(gated.touched.get(i), all.executed.get(i));
+        }
+        Assert.assertTrue("Expected some mutants to be reached without infection", numNotInfected > 0);
+
+        boolean hasAssertions = false;
+        for (int i = 0; i < suite.size(); i++) {
+            TestCase test = gatedSuite.getTestChromosome(i).getTestCase();
+            Assert.assertEquals(allSuite.getTestChromosome(i).getTestCase().toCode(), test.toCode());
+            hasAssertions |= test.hasAssertions();
+        }
+        Assert.assertTrue(hasAssertions);
+    }
+
+    @Test
+    public void testMaxMutantsPerTestOnlyCountsInfectedMutants() {
+        TestSuiteChromosome suite = generateSuiteWithoutAssertions(ExampleUninfectedMutantClass.class);
+        Assert.assertTrue(suite.size() > 0);
+
+        Properties.MAX_MUTANTS_PER_TEST = 1;
+        RecordingMutationAssertionGenerator gated = addAssertions(new RecordingMutationAssertionGenerator(), suite);
+
+        for (int i = 0; i < gated.touched.size(); i++) {
+            Set<Integer> executed = gated.executed.get(i);
+            Assert.assertEquals(Math.min(1, gated.infected.get(i).size()), executed.size());
+            Assert.assertTrue(gated.infected.get(i).containsAll(executed));
+        }
+    }
 }
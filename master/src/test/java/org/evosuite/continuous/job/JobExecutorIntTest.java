@@ -63,6 +63,20 @@ public class JobExecutorIntTest {
 
     @Test(timeout = 90_000)
     public void testActualExecutionOfSchedule() throws IOException {
+        checkActualExecutionOfSchedule();
+    }
+
+    @Test(timeout = 90_000)
+    public void testActualExecutionOfScheduleOnWarmWorker() throws IOException {
+        Properties.CTG_WARM_WORKERS = true;
+        try {
+            checkActualExecutionOfSchedule();
+        } finally {
+            Properties.CTG_WARM_WORKERS = false;
+        }
+    }
+
+    private void checkActualExecutionOfSchedule() throws IOException {
 
         Properties.TEST_SCAFFOLDING = true;
 
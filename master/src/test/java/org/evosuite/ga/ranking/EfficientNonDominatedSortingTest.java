@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ * <p>
+ * This file is part of EvoSuite.
+ * <p>
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.ranking;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.operators.ranking.EfficientNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.FastNonDominatedSorting;
+import org.evosuite.ga.operators.ranking.RankingFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EfficientNonDominatedSortingTest {
+
+    @After
+    public void tearDown() {
+        Properties.PARALLEL_RANKING = false;
+    }
+
+    private static Set<FitnessFunction<TestChromosome>> createGoals(int number) {
+        Set<FitnessFunction<TestChromosome>> goals = new LinkedHashSet<>();
+        for (int i = 0; i < number; i++) {
+            goals.add(Mockito.mock(TestFitnessFunction.class));
+        }
+        return goals;
+    }
+
+    private static List<TestChromosome> createPopulation(int size, Set<FitnessFunction<TestChromosome>> goals,
+                                                         Random random) {
+        List<TestChromosome> population = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TestChromosome test = new TestChromosome();
+            for (FitnessFunction<TestChromosome> goal : goals) {
+                // few distinct values, to have ties and duplicates
+                test.setFitness(goal, random.nextInt(4) / 2.0);
+            }
+            population.add(test);
+        }
+        return population;
+    }
+
+    @Test
+    public void testComputeRankingAssignment() {
+        List<FitnessFunction<TestChromosome>> goals = new ArrayList<>(createGoals(2));
+        TestChromosome tch1 = new TestChromosome();
+        tch1.setFitness(goals.get(0), 1);
+        tch1.setFitness(goals.get(1), 0.5);
+        TestChromosome tch2 = new TestChromosome();
+        tch2.setFitness(goals.get(0), 1);
+        tch2.setFitness(goals.get(1), 2);
+        TestChromosome tch3 = new TestChromosome();
+        tch3.setFitness(goals.get(0), 0.5);
+        tch3.setFitness(goals.get(1), 1);
+
+        List<TestChromosome> population = new ArrayList<>();
+        population.add(tch1);
+        population.add(tch2);
+        population.add(tch3);
+
+        EfficientNonDominatedSorting<TestChromosome> sorting = new EfficientNonDominatedSorting<>();
+        sorting.computeRankingAssignment(population, new LinkedHashSet<>(goals));
+
+        assertEquals(2, sorting.getNumberOfSubfronts());
+        assertEquals(2, sorting.getSubfront(0).size());
+        assertSame(tch1, sorting.getSubfront(0).get(0));
+        assertSame(tch3, sorting.getSubfront(0).get(1));
+        assertEquals(1, sorting.getSubfront(1).size());
+        assertSame(tch2, sorting.getSubfront(1).get(0));
+        assertEquals(1, tch1.getRank());
+        assertEquals(2, tch2.getRank());
+    }
+
+    private static void assertSameFronts(int populationSize, int goals, long seed) {
+        Random random = new Random(seed);
+        Set<FitnessFunction<TestChromosome>> objectives = createGoals(goals);
+        List<TestChromosome> population = createPopulation(populationSize, objectives, random);
+
+        RankingFunction<TestChromosome> expected = new FastNonDominatedSorting<>();
+        expected.computeRankingAssignment(population, objectives);
+        RankingFunction<TestChromosome> actual = new EfficientNonDominatedSorting<>();
+        actual.computeRankingAssignment(population, objectives);
+
+        assertEquals(expected.getNumberOfSubfronts(), actual.getNumberOfSubfronts());
+        for (int i = 0; i < expected.getNumberOfSubfronts(); i++) {
+            List<TestChromosome> expectedFront = new ArrayList<>(expected.getSubfront(i));
+            // FastNonDominatedSorting only keeps the population order in the first front
+            expectedFront.sort((a, b) -> indexOf(population, a) - indexOf(population, b));
+            List<TestChromosome> actualFront = actual.getSubfront(i);
+            assertEquals(expectedFront.size(), actualFront.size());
+            for (int j = 0; j < expectedFront.size(); j++) {
+                assertSame(expectedFront.get(j), actualFront.get(j));
+            }
+        }
+    }
+
+    private static int indexOf(List<TestChromosome> population, TestChromosome test) {
+        // TestChromosome.equals compares the tests, which are all empty here
+        for (int i = 0; i < population.size(); i++) {
+            if (population.get(i) == test) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void testSameFrontsAsFastNonDominatedSorting() {
+        for (int seed = 0; seed < 20; seed++) {
+            assertSameFronts(60, 1 + seed % 6, seed);
+        }
+    }
+
+    @Test
+    public void testSameFrontsInParallel() {
+        Properties.PARALLEL_RANKING = true;
+        assertSameFronts(400, 100, 42);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.testcase.execution.ParallelTestExecutor;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.BMICalculator;
+import com.examples.with.different.packagename.staticfield.StaticIntField;
+
+public class ParallelTestExecutorSystemTest extends SystemTestBase {
+
+    @Before
+    public void setUpProperties() {
+        Properties.PARALLEL_EVALUATION_THREADS = 4;
+        Properties.RESET_STATIC_FIELDS = true;
+        // the mocks and the loop counter are shared by all tests
+        Properties.REPLACE_CALLS = false;
+        Properties.VIRTUAL_FS = false;
+        Properties.VIRTUAL_NET = false;
+        Properties.REPLACE_SYSTEM_IN = false;
+        Properties.MAX_LOOP_ITERATIONS = -1;
+        ParallelTestExecutor.resetSingleton();
+    }
+
+    private TestSuiteChromosome generate(String targetClass) {
+        EvoSuite evosuite = new EvoSuite();
+        Properties.TARGET_CLASS = targetClass;
+        String[] command = new String[]{"-generateSuite", "-class", targetClass};
+
+        Object result = evosuite.parseCommandLine(command);
+        GeneticAlgorithm<TestSuiteChromosome> ga = getGAFromResult(result);
+        return ga.getBestIndividual();
+    }
+
+    @Test
+    public void testMonotonicGA() {
+        TestSuiteChromosome best = generate(BMICalculator.class.getCanonicalName());
+        Assert.assertEquals("Non-optimal coverage: ", 1d, best.getCoverage(), 0.001);
+        Assert.assertTrue(ParallelTestExecutor.getInstance().getNumBatches() > 0);
+    }
+
+    @Test
+    public void testMockedEnvironmentIsNotShared() {
+        Properties.REPLACE_CALLS = true;
+        TestSuiteChromosome best = generate(BMICalculator.class.getCanonicalName());
+        Assert.assertEquals("Non-optimal coverage: ", 1d, best.getCoverage(), 0.001);
+        Assert.assertEquals(0, ParallelTestExecutor.getInstance().getNumBatches());
+    }
+
+    @Test
+    public void testStaticStateFallsBackToSequential() {
+        Properties.RESET_STATIC_FIELD_GETS = true;
+        TestSuiteChromosome best = generate(StaticIntField.class.getCanonicalName());
+        Assert.assertEquals("Optimal coverage was not achieved ", 0.0, best.getFitness(), 0.0);
+    }
+}
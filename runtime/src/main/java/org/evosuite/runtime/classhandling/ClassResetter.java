@@ -29,7 +29,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -58,8 +59,14 @@ public class ClassResetter {
 
     private final Map<ClassLoader, Map<String, Method>> resetMethodCache;
 
+    /**
+     * Reset methods unreflected to handles, which are cheaper to invoke
+     */
+    private final Map<ClassLoader, Map<String, MethodHandle>> resetHandleCache;
+
     private ClassResetter() {
         resetMethodCache = new HashMap<>();
+        resetHandleCache = new HashMap<>();
     }
 
     /**
@@ -109,8 +116,14 @@ public class ClassResetter {
 
             Method m = clazz.getDeclaredMethod(STATIC_RESET, (Class<?>[]) null);
             m.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(m);
             methodMap.put(classNameWithDots, m);
 
+            if (!resetHandleCache.containsKey(loader)) {
+                resetHandleCache.put(loader, new HashMap<>());
+            }
+            resetHandleCache.get(loader).put(classNameWithDots, handle);
+
         } catch (NoSuchMethodException e) {
             //this can happen if class was not instrumented with a static reset
             logger.debug("__STATIC_RESET() method does not exists in class {}", classNameWithDots);
@@ -124,6 +137,17 @@ public class ClassResetter {
         return resetMethodCache.get(loader).get(classNameWithDots);
     }
 
+    /**
+     * @param classNameWithDots
+     * @return a handle of type {@code ()void} on the reset method of the class,
+     * or {@code null} if the class has none
+     */
+    public MethodHandle getResetMethodHandle(String classNameWithDots) {
+        cacheResetMethod(classNameWithDots);
+        Map<String, MethodHandle> handles = resetHandleCache.get(loader);
+        return handles == null ? null : handles.get(classNameWithDots);
+    }
+
     /**
      * Invoke the duplicated version of class initializar <clinit>
      *
@@ -138,7 +162,7 @@ public class ClassResetter {
             throw new IllegalStateException("No specified loader");
         }
 
-        Method m = getResetMethod(classNameWithDots);
+        MethodHandle m = getResetMethodHandle(classNameWithDots);
         if (m == null) {
             return;
         }
@@ -156,22 +180,7 @@ public class ClassResetter {
                 Sandbox.goingToExecuteUnsafeCodeOnSameThread();
             }
             LoopCounter.getInstance().setActive(false);
-            m.invoke(null, (Object[]) null);
-        } catch (IllegalAccessException | IllegalArgumentException e) {
-            logger.error("" + e, e);
-        } catch (NoClassDefFoundError e) {
-            AtMostOnceLogger.error(logger, e.toString());
-        } catch (InvocationTargetException e) {
-
-            Throwable cause = e.getCause();
-            if (cause instanceof TooManyResourcesException || cause instanceof NoClassDefFoundError) {
-                logWarn(classNameWithDots, e + ", caused by: " + cause);
-            } else {
-                StringWriter errors = new StringWriter();
-                cause.printStackTrace(new PrintWriter(errors));
-                logWarn(classNameWithDots, e + ", caused by: " + cause + "\n" + errors);
-                // we are only interested in the stack trace of the cause
-            }
+            invokeReset(classNameWithDots, m);
         } finally {
             if (!safe) {
                 Sandbox.doneWithExecutingUnsafeCodeOnSameThread();
@@ -182,4 +191,23 @@ public class ClassResetter {
         InstrumentingAgent.deactivate();
     }
 
+    /**
+     * Invoke the given reset method, logging whatever it throws
+     *
+     * @param classNameWithDots
+     * @param resetMethod       handle of type {@code ()void}
+     */
+    public void invokeReset(String classNameWithDots, MethodHandle resetMethod) {
+        try {
+            resetMethod.invokeExact();
+        } catch (TooManyResourcesException | NoClassDefFoundError e) {
+            // unlike Method.invoke, the handle does not wrap what the reset method throws
+            logWarn(classNameWithDots, e.getClass() + " thrown while resetting class " + classNameWithDots + ": " + e);
+        } catch (Throwable e) {
+            StringWriter errors = new StringWriter();
+            e.printStackTrace(new PrintWriter(errors));
+            logWarn(classNameWithDots, e.getClass() + " thrown while resetting class " + classNameWithDots + ": " + e + "\n" + errors);
+        }
+    }
+
 }
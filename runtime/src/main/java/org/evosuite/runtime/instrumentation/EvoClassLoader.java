@@ -20,6 +20,7 @@
 package org.evosuite.runtime.instrumentation;
 
 import org.evosuite.runtime.util.Inputs;
+import org.evosuite.runtime.util.PrefixTrie;
 import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +42,7 @@ public class EvoClassLoader extends ClassLoader {
     private final ClassLoader classLoader;
     private final Map<String, Class<?>> classes = new HashMap<>();
     private final Set<String> skipInstrumentationForPrefix = new HashSet<>();
+    private volatile PrefixTrie skipInstrumentationTrie = new PrefixTrie();
 
     public EvoClassLoader() {
         this(new RuntimeInstrumentation());
@@ -62,7 +64,10 @@ public class EvoClassLoader extends ClassLoader {
 
     public void skipInstrumentation(String prefix) throws IllegalArgumentException {
         Inputs.checkNull(prefix);
-        skipInstrumentationForPrefix.add(prefix);
+        synchronized (skipInstrumentationForPrefix) {
+            skipInstrumentationForPrefix.add(prefix);
+            skipInstrumentationTrie = new PrefixTrie(skipInstrumentationForPrefix);
+        }
     }
 
     /**
@@ -108,7 +113,7 @@ public class EvoClassLoader extends ClassLoader {
                 throw new ClassNotFoundException("Class '" + className + ".class"
                         + "' should be in target project, but could not be found!");
             }
-            boolean shouldSkip = skipInstrumentationForPrefix.stream().anyMatch(s -> fullyQualifiedTargetClass.startsWith(s));
+            boolean shouldSkip = skipInstrumentationTrie.matches(fullyQualifiedTargetClass);
             byte[] byteBuffer = instrumentation.transformBytes(this, className,
                     new ClassReader(is), shouldSkip);
             createPackageDefinition(fullyQualifiedTargetClass);
@@ -21,6 +21,7 @@ package org.evosuite.runtime.instrumentation;
 
 import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.util.ComputeClassWriter;
+import org.evosuite.runtime.util.PrefixTrie;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
@@ -28,6 +29,9 @@ import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * This class is responsible for the bytecode instrumentation
  * needed for the generated JUnit test cases.
@@ -55,6 +59,12 @@ public class RuntimeInstrumentation {
      */
     private static boolean avoidInstrumentingShadedClasses = false;
 
+    /**
+     * Rules of {@link #checkIfCanInstrument(String)}, which is called each time a class is loaded.
+     * Rebuilt when {@link #avoidInstrumentingShadedClasses} changes.
+     */
+    private static volatile ExclusionRules exclusionRules = null;
+
     public RuntimeInstrumentation() {
         retransformingMode = false;
     }
@@ -75,10 +85,32 @@ public class RuntimeInstrumentation {
     }
 
     public static boolean checkIfCanInstrument(String className) {
-        for (String s : ExcludedClasses.getPackagesShouldNotBeInstrumented()) {
-            if (className.startsWith(s)) {
-                return false;
-            }
+        ExclusionRules rules = exclusionRules;
+        if (rules == null || rules.avoidShadedClasses != avoidInstrumentingShadedClasses) {
+            rules = createExclusionRules();
+        }
+
+        Boolean decision = rules.decisions.get(className);
+        if (decision == null) {
+            decision = checkIfCanInstrument(rules.excludedPackages, className);
+            rules.decisions.put(className, decision);
+        }
+        return decision;
+    }
+
+    private static synchronized ExclusionRules createExclusionRules() {
+        ExclusionRules rules = exclusionRules;
+        if (rules == null || rules.avoidShadedClasses != avoidInstrumentingShadedClasses) {
+            rules = new ExclusionRules(avoidInstrumentingShadedClasses,
+                    new PrefixTrie(ExcludedClasses.getPackagesShouldNotBeInstrumented()));
+            exclusionRules = rules;
+        }
+        return rules;
+    }
+
+    private static boolean checkIfCanInstrument(PrefixTrie excludedPackages, String className) {
+        if (excludedPackages.matches(className)) {
+            return false;
         }
 
         if (className.contains("EnhancerByMockito")) {
@@ -90,6 +122,23 @@ public class RuntimeInstrumentation {
         return !className.contains("__CLR");
     }
 
+    /**
+     * Excluded packages, and the decisions taken so far for each class name
+     */
+    private static final class ExclusionRules {
+
+        private final boolean avoidShadedClasses;
+
+        private final PrefixTrie excludedPackages;
+
+        private final Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+
+        private ExclusionRules(boolean avoidShadedClasses, PrefixTrie excludedPackages) {
+            this.avoidShadedClasses = avoidShadedClasses;
+            this.excludedPackages = excludedPackages;
+        }
+    }
+
     public boolean isAlreadyInstrumented(ClassReader reader) {
         ClassNode classNode = new ClassNode();
 
@@ -133,26 +133,30 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 		int counter = 0;
 
 		synchronized(readWriteMonitor){
-			for(int j=offset; j<length; j++){
+			for(int j=offset; j<offset+length; j++){
 				ByteBuffer dst = dsts[j];
-				int r = dst.remaining();
-				for(int i=0; i<r; i++){
-					int b = NativeMockedIO.read(path, posToUpdate);
-					if(b < 0){ //end of stream
-						return -1;
-					}
-
-					if(closed){
-						throw new AsynchronousCloseException();
-					}
-
-					if(Thread.currentThread().isInterrupted()){
-						close();
-						throw new ClosedByInterruptException();
-					}
-
-					dst.put((byte)b);
-					counter++;
+				if(!dst.hasRemaining()){
+					continue;
+				}
+
+				int n = NativeMockedIO.read(path, posToUpdate, dst);
+
+				if(closed){
+					throw new AsynchronousCloseException();
+				}
+
+				if(Thread.currentThread().isInterrupted()){
+					close();
+					throw new ClosedByInterruptException();
+				}
+
+				if(n < 0){ //end of stream
+					return counter==0 ? -1 : counter;
+				}
+				counter += n;
+				if(dst.hasRemaining()){
+					//no more data in the file
+					break;
 				}
 			}
 		}
@@ -203,26 +207,20 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 
 		int counter = 0;
 
-		byte[] buffer = new byte[1];
-
 		synchronized(readWriteMonitor){
-			for(int j=offset; j<length; j++){
+			for(int j=offset; j<offset+length; j++){
 				ByteBuffer src = srcs[j];
 				int r = src.remaining();
-				for(int i=0; i<r; i++){
-					byte b = src.get();
-					buffer[0] = b;
-					NativeMockedIO.writeBytes(path, posToUpdate, buffer, 0, 1);
-					counter++;
-
-					if(closed){
-						throw new AsynchronousCloseException();
-					}
-
-					if(Thread.currentThread().isInterrupted()){
-						close();
-						throw new ClosedByInterruptException();
-					}
+				NativeMockedIO.writeBytes(path, posToUpdate, src);
+				counter += r;
+
+				if(closed){
+					throw new AsynchronousCloseException();
+				}
+
+				if(Thread.currentThread().isInterrupted()){
+					close();
+					throw new ClosedByInterruptException();
 				}
 			}
 		}
@@ -20,6 +20,7 @@
 package org.evosuite.runtime.sandbox;
 
 import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.util.StackInspector;
 import org.evosuite.runtime.vfs.VirtualFileSystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,6 +50,7 @@ import java.net.UnknownHostException;
 import java.security.*;
 import java.sql.SQLPermission;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.logging.FileHandler;
 import java.util.logging.LoggingPermission;
@@ -139,6 +141,34 @@ public class MSecurityManager extends SecurityManager {
         boolean forceLoading = RuntimeSettings.mockJVMNonDeterminism;
     }
 
+    /*
+     * Filters on the stack frames, created here as no class should be loaded during a permission check
+     */
+
+    private static final StackInspector.FrameFilter AWT_FRAMES = StackInspector.classStartingWith(
+            "java.awt", "javax.swing",
+            // Also treat the logmanager like AWT stuff, it is just as weird
+            "java.util.logging.LogManager");
+
+    private static final StackInspector.FrameFilter RMI_FRAMES = StackInspector.classStartingWith("sun.rmi.");
+
+    private static final StackInspector.FrameFilter MASTER_NODE_FRAMES = new StackInspector.FrameFilter() {
+        @Override
+        public boolean accept(String className, String methodName) {
+            Set<String> names = masterNodeRemoteMethodNames;
+            return names != null && names.contains(methodName);
+        }
+    };
+
+    private static final StackInspector.FrameFilter FILE_HANDLER_FRAMES =
+            StackInspector.method(FileHandler.class.getName(), "isParentWritable");
+
+    private static final StackInspector.FrameFilter JACOCO_FRAMES = StackInspector.classStartingWith("org.jacoco.");
+
+    private static final StackInspector.FrameFilter GZOLTAR_FRAMES = StackInspector.classStartingWith("com.gzoltar.");
+
+    private static final StackInspector.FrameFilter CLOVER_FRAMES = StackInspector.classStartingWith("com.atlassian.clover.");
+
     private final PermissionStatistics statistics = PermissionStatistics.getInstance();
 
     private final SecurityManager defaultManager;
@@ -177,6 +207,21 @@ public class MSecurityManager extends SecurityManager {
      */
     private final Set<Permission> unrecognizedPermissions;
 
+    /**
+     * Maximum number of decisions in {@link #decisionCache}, further decisions are not cached
+     */
+    private static final int MAX_CACHED_DECISIONS = 10_000;
+
+    /**
+     * Decisions taken on permissions whose outcome depends neither on the stack nor
+     * on the state of the test execution, see {@link #isDecisionCacheable(Permission)}.
+     * They are keyed on the class, name and actions of the permission rather than on
+     * the permission itself, as equals/hashCode of some permissions are expensive,
+     * e.g. SocketPermission resolves host names. This way the SUT asking many times
+     * for the same permission is resolved with a lookup.
+     */
+    private final Map<String, Boolean> decisionCache;
+
     /**
      * Create a custom security manager for the SUT. The thread that create this
      * instance is automatically added as "privileged"
@@ -188,6 +233,7 @@ public class MSecurityManager extends SecurityManager {
         executingTestCase = false;
         privilegedThreadToIgnore = null;
         unrecognizedPermissions = new CopyOnWriteArraySet<>();
+        decisionCache = new ConcurrentHashMap<>();
 
         filesToDelete = new CopyOnWriteArraySet<>();
     }
@@ -420,10 +466,6 @@ public class MSecurityManager extends SecurityManager {
     public void checkPermission(Permission perm) throws SecurityException {
         // check access
         if (!allowPermission(perm)) {
-            String stack = "\n";
-            for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-                stack += e + "\n";
-            }
             if (executingTestCase) {
                 /*
                  * report statistics only during test case execution, although still log them. The reason is to avoid EvoSuite threads which might not
@@ -431,9 +473,12 @@ public class MSecurityManager extends SecurityManager {
                  */
                 statistics.permissionDenied(perm);
             }
-            logger.debug("Security manager blocks permission " + perm + stack);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Security manager blocks permission " + perm + StackInspector.getStackAsString());
+            }
 
-            throw new SecurityException("Security manager blocks " + perm + stack);
+            // no need to add the stack to the message, as it is already in the exception
+            throw new SecurityException("Security manager blocks " + perm);
         } else {
             if (executingTestCase) {
                 statistics.permissionAllowed(perm);
@@ -446,18 +491,7 @@ public class MSecurityManager extends SecurityManager {
     // ------------------------------------------------------------------------------------------
 
     private boolean isAWTThread() {
-        for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-            if (e.getClassName().startsWith("java.awt"))
-                return true;
-
-            if (e.getClassName().startsWith("javax.swing"))
-                return true;
-
-            // Also treat the logmanager like AWT stuff, it is just as weird
-            if (e.getClassName().startsWith("java.util.logging.LogManager"))
-                return true;
-        }
-        return false;
+        return StackInspector.anyFrame(AWT_FRAMES);
     }
 
     /**
@@ -559,6 +593,46 @@ public class MSecurityManager extends SecurityManager {
          * following are not checked if sandbox is in IO mode, in which only FilePermissions are checked
          */
 
+        if (!isDecisionCacheable(perm)) {
+            return checkPermissionByType(perm);
+        }
+
+        String key = perm.getClass().getName() + '\n' + perm.getName() + '\n' + perm.getActions();
+        Boolean decision = decisionCache.get(key);
+        if (decision == null) {
+            decision = checkPermissionByType(perm);
+            if (decisionCache.size() < MAX_CACHED_DECISIONS) {
+                decisionCache.put(key, decision);
+            }
+        }
+        return decision;
+    }
+
+    /**
+     * Whether the decision on the given permission can be reused for any later
+     * request of an equal permission, regardless of the requesting thread and stack.
+     * File and property permissions depend on the state of the VFS and of the test execution,
+     * whereas shutdown hooks depend on AWT frames in the stack.
+     *
+     * @param perm
+     * @return
+     */
+    private boolean isDecisionCacheable(Permission perm) {
+        if (perm instanceof RuntimePermission) {
+            return !"shutdownHooks".equals(perm.getName().trim());
+        }
+
+        return perm instanceof ReflectPermission
+                || perm instanceof SecurityPermission
+                || perm instanceof LoggingPermission
+                || perm instanceof AWTPermission
+                || perm instanceof SerializablePermission
+                || perm instanceof NetPermission
+                || perm instanceof SocketPermission;
+    }
+
+    private boolean checkPermissionByType(Permission perm) {
+
         if (perm instanceof AllPermission) {
             return checkAllPermission((AllPermission) perm);
         }
@@ -710,35 +784,13 @@ public class MSecurityManager extends SecurityManager {
             return false;
         }
 
-        final String pattern = "sun.rmi.";
-        boolean foundRMI = false;
-
         //first check if there is any reference to RMI in the stack trace
-        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
-            if (element.toString().startsWith(pattern)) {
-                foundRMI = true;
-                break;
-            }
-        }
-
-        if (!foundRMI) {
+        if (!StackInspector.anyFrame(RMI_FRAMES)) {
             //found no reference to RMI
             return false;
         }
 
-        boolean foundMasterNode = false;
-
-        traceLoop:
-        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
-            for (String masterNodeMethod : masterNodeRemoteMethodNames) {
-                if (element.toString().contains(masterNodeMethod)) {
-                    foundMasterNode = true;
-                    break traceLoop;
-                }
-            }
-        }
-
-        if (!foundMasterNode) {
+        if (!StackInspector.anyFrame(MASTER_NODE_FRAMES)) {
             //found no reference to RMI
             return false;
         }
@@ -1207,15 +1259,7 @@ public class MSecurityManager extends SecurityManager {
     private boolean isFileHandlerCall(FilePermission fp) {
         if (fp.getName().contains(FILE_HANDLER_NAME_PATTERN))
             return true;
-        if (fp.getActions().equals("write")) {
-            for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-                if (e.getClassName().equals(FileHandler.class.getName()) && e.getMethodName().equals("isParentWritable")) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return fp.getActions().equals("write") && StackInspector.anyFrame(FILE_HANDLER_FRAMES);
     }
 
     protected boolean checkFilePermission(FilePermission fp) {
@@ -1294,10 +1338,8 @@ public class MSecurityManager extends SecurityManager {
                  * This is not 100% secure, but Jacoco support
                  * is important
                  */
-                for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-                    if (e.getClassName().startsWith("org.jacoco.")) {
-                        return true;
-                    }
+                if (StackInspector.anyFrame(JACOCO_FRAMES)) {
+                    return true;
                 }
             } else if (fp.getName().contains("gzoltar") || fp.getName().equals(System.getProperty("user.dir"))) {
                 // By default, GZoltar writes the gzoltar.ser file that holds the coverage
@@ -1305,20 +1347,16 @@ public class MSecurityManager extends SecurityManager {
                 // As user.dir might not exist, EvoSuite must grant access write access to
                 // GZoltar.
                 // Note: The following is not 100% secure, but GZoltar support is important.
-                for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-                    if (e.getClassName().startsWith("com.gzoltar.")) {
-                        return true;
-                    }
+                if (StackInspector.anyFrame(GZOLTAR_FRAMES)) {
+                    return true;
                 }
             } else if (fp.getName().contains("clover")) {
                 /*
                  * To make sure this is really clover trying to write a report
                  * we also check that this is invoked by clover
                  */
-                for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-                    if (e.getClassName().startsWith("com.atlassian.clover.")) {
-                        return true;
-                    }
+                if (StackInspector.anyFrame(CLOVER_FRAMES)) {
+                    return true;
                 }
             }
         } else if (action.equals("delete")) {
@@ -1327,10 +1365,8 @@ public class MSecurityManager extends SecurityManager {
                  * To make sure this is really clover trying to write a report
                  * we also check that this is invoked by clover
                  */
-                for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-                    if (e.getClassName().startsWith("com.atlassian.clover.")) {
-                        return true;
-                    }
+                if (StackInspector.anyFrame(CLOVER_FRAMES)) {
+                    return true;
                 }
             }
         }
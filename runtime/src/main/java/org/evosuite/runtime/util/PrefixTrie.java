@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable set of prefixes, compiled into a trie, to check whether a string starts
+ * with any of them in time linear in the length of the matched prefix,
+ * regardless of how many prefixes there are.
+ *
+ * <p>The trie is stored in flat arrays: the edges of node {@code n} are at the indices
+ * from {@code firstEdge[n]} (inclusive) to {@code firstEdge[n + 1]} (exclusive),
+ * sorted by label. Prefixes that extend another prefix are redundant, and pruned.</p>
+ */
+public final class PrefixTrie {
+
+    private final int[] firstEdge;
+
+    private final char[] edgeLabels;
+
+    private final int[] edgeTargets;
+
+    private final boolean[] terminal;
+
+    private final int numberOfPrefixes;
+
+    public PrefixTrie(String... prefixes) {
+        this(Arrays.asList(prefixes));
+    }
+
+    public PrefixTrie(Collection<String> prefixes) {
+        Inputs.checkNull(prefixes);
+
+        BuildNode root = new BuildNode();
+        int numberOfNodes = 1;
+        for (String prefix : prefixes) {
+            Inputs.checkNull(prefix);
+            BuildNode node = root;
+            for (int i = 0; i < prefix.length() && !node.terminal; i++) {
+                BuildNode child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    child = new BuildNode();
+                    node.children.put(prefix.charAt(i), child);
+                    numberOfNodes++;
+                }
+                node = child;
+            }
+            if (!node.terminal) {
+                node.terminal = true;
+                numberOfNodes -= node.prune();
+            }
+        }
+
+        firstEdge = new int[numberOfNodes + 1];
+        edgeLabels = new char[numberOfNodes - 1];
+        edgeTargets = new int[numberOfNodes - 1];
+        terminal = new boolean[numberOfNodes];
+
+        // breadth first, so that the children of each node get consecutive indices
+        Deque<BuildNode> queue = new ArrayDeque<>();
+        queue.add(root);
+        int node = 0;
+        int edge = 0;
+        int nextNode = 1;
+        int prefixCount = 0;
+        while (!queue.isEmpty()) {
+            BuildNode current = queue.poll();
+            terminal[node] = current.terminal;
+            if (current.terminal) {
+                prefixCount++;
+            }
+            firstEdge[node] = edge;
+            for (Map.Entry<Character, BuildNode> child : current.children.entrySet()) {
+                edgeLabels[edge] = child.getKey();
+                edgeTargets[edge] = nextNode++;
+                edge++;
+                queue.add(child.getValue());
+            }
+            node++;
+        }
+        firstEdge[numberOfNodes] = edge;
+        numberOfPrefixes = prefixCount;
+    }
+
+    /**
+     * @param s
+     * @return whether {@code s} starts with any of the prefixes of this trie
+     */
+    public boolean matches(String s) {
+        int node = 0;
+        int i = 0;
+        while (!terminal[node]) {
+            if (i == s.length()) {
+                return false;
+            }
+            int edge = findEdge(node, s.charAt(i++));
+            if (edge < 0) {
+                return false;
+            }
+            node = edgeTargets[edge];
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of prefixes in this trie, without the redundant ones
+     */
+    public int size() {
+        return numberOfPrefixes;
+    }
+
+    private int findEdge(int node, char c) {
+        int low = firstEdge[node];
+        int high = firstEdge[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = edgeLabels[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static final class BuildNode {
+
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+
+        private boolean terminal;
+
+        /**
+         * Remove all the descendants of this node
+         *
+         * @return the number of removed nodes
+         */
+        private int prune() {
+            int removed = 0;
+            for (BuildNode child : children.values()) {
+                removed += 1 + child.prune();
+            }
+            children.clear();
+            return removed;
+        }
+    }
+}
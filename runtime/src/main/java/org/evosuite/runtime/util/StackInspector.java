@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Lazy inspection of the stack of the current thread.
+ *
+ * <p>On Java 9 and later, frames are visited with {@code java.lang.StackWalker},
+ * which stops at the first matching frame and never materializes the whole stack.
+ * As the runtime is compiled for Java 8, the walker is accessed through method handles.
+ * On older JVMs, this falls back to {@link Thread#getStackTrace()}.</p>
+ *
+ * <p>Note: this class is used by the sandbox while checking permissions. Filters should
+ * hence be created before the sandbox is on (eg, in static fields), as loading new
+ * classes during a permission check would lead to further permission checks.</p>
+ */
+public class StackInspector {
+
+    /**
+     * Condition on a single frame of the stack
+     */
+    public interface FrameFilter {
+        boolean accept(String className, String methodName);
+    }
+
+    private static final Object walker;
+
+    /**
+     * {@code StackWalker.walk}, adapted to {@code (Object, Function) -> Object}
+     */
+    private static final MethodHandle walk;
+
+    /**
+     * {@code StackFrame.getClassName}, adapted to {@code (Object) -> String}
+     */
+    private static final MethodHandle getClassName;
+
+    /**
+     * {@code StackFrame.getMethodName}, adapted to {@code (Object) -> String}
+     */
+    private static final MethodHandle getMethodName;
+
+    static {
+        Object instance = null;
+        MethodHandle walkHandle = null;
+        MethodHandle classNameHandle = null;
+        MethodHandle methodNameHandle = null;
+        try {
+            Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+            Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+            // walk is caller sensitive, so it cannot be looked up with a public lookup
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            instance = lookup.findStatic(walkerClass, "getInstance", MethodType.methodType(walkerClass)).invoke();
+            walkHandle = lookup.findVirtual(walkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, Function.class));
+            classNameHandle = lookup.findVirtual(frameClass, "getClassName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            methodNameHandle = lookup.findVirtual(frameClass, "getMethodName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+        } catch (Throwable e) {
+            //not available before Java 9
+            instance = null;
+        }
+        walker = instance;
+        walk = walkHandle;
+        getClassName = classNameHandle;
+        getMethodName = methodNameHandle;
+
+        //do a first walk, so that all the classes it needs are loaded
+        anyFrame(methodNamed("<clinit>"));
+    }
+
+    private StackInspector() {
+    }
+
+    /**
+     * @return whether the stack is walked lazily with {@code java.lang.StackWalker}
+     */
+    public static boolean isStackWalkerAvailable() {
+        return walker != null;
+    }
+
+    /**
+     * Check whether any frame in the stack of the current thread satisfies the given filter.
+     * Frames are visited from the top of the stack, and the visit stops at the first match.
+     *
+     * @param filter
+     * @return
+     */
+    public static boolean anyFrame(FrameFilter filter) {
+        Inputs.checkNull(filter);
+
+        if (walker != null) {
+            Function<Stream<?>, Boolean> visitor = new FrameVisitor(filter);
+            try {
+                return (Boolean) (Object) walk.invokeExact(walker, visitor);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+            if (filter.accept(e.getClassName(), e.getMethodName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param prefixes
+     * @return a filter accepting frames of classes whose name starts with any of the given prefixes
+     */
+    public static FrameFilter classStartingWith(final String... prefixes) {
+        Inputs.checkNull((Object[]) prefixes);
+        final String[] copy = prefixes.clone();
+        return new FrameFilter() {
+            @Override
+            public boolean accept(String className, String methodName) {
+                for (String prefix : copy) {
+                    if (className.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param methodName
+     * @return a filter accepting frames of methods with the given name, in any class
+     */
+    public static FrameFilter methodNamed(final String methodName) {
+        Inputs.checkNull(methodName);
+        return new FrameFilter() {
+            @Override
+            public boolean accept(String className, String name) {
+                return methodName.equals(name);
+            }
+        };
+    }
+
+    /**
+     * @param className
+     * @param methodName
+     * @return a filter accepting frames of the given method in the given class
+     */
+    public static FrameFilter method(final String className, final String methodName) {
+        Inputs.checkNull(className, methodName);
+        return new FrameFilter() {
+            @Override
+            public boolean accept(String frameClassName, String frameMethodName) {
+                return className.equals(frameClassName) && methodName.equals(frameMethodName);
+            }
+        };
+    }
+
+    /**
+     * Textual representation of the whole stack of the current thread, one frame per line.
+     * This is expensive, and meant only for logging.
+     *
+     * @return
+     */
+    public static String getStackAsString() {
+        StringBuilder sb = new StringBuilder("\n");
+        for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+            sb.append(e).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static final class FrameVisitor implements Function<Stream<?>, Boolean> {
+
+        private final FrameFilter filter;
+
+        private FrameVisitor(FrameFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public Boolean apply(Stream<?> frames) {
+            Iterator<?> iterator = frames.iterator();
+            try {
+                while (iterator.hasNext()) {
+                    Object frame = iterator.next();
+                    String className = (String) getClassName.invokeExact(frame);
+                    String methodName = (String) getMethodName.invokeExact(frame);
+                    if (filter.accept(className, methodName)) {
+                        return Boolean.TRUE;
+                    }
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            return Boolean.FALSE;
+        }
+    }
+}
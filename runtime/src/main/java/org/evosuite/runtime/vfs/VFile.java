@@ -19,8 +19,8 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
@@ -30,44 +30,45 @@ import java.util.List;
 public class VFile extends FSObject {
 
     /**
-     * the actual data contained in file as a list of bytes
+     * the actual data contained in file, in the first {@code size} bytes of the array
      */
-    private final List<Byte> data;
+    private byte[] data;
+
+    private int size;
 
     public VFile(String path, VFolder parent) {
         super(path, parent);
 
         //TODO might need a better type of data structure supporting multi-threading
-        data = new ArrayList<>(1024);
+        data = new byte[1024];
+        size = 0;
     }
 
-    public void eraseData() {
-        data.clear();
+    public synchronized void eraseData() {
+        size = 0;
     }
 
     public synchronized int getDataSize() {
-        return data.size();
+        return size;
     }
 
 
     public synchronized void setLength(int newLength) {
-
-        /*
-         * Note: this implementation is not particularly efficient...
-         * but setLength is rarely called
-         */
-
-        while (newLength > data.size()) {
-            data.add((byte) 0);
-        }
-
-        if (newLength == 0) {
-            data.clear();
-            return;
+        if (newLength > size) {
+            ensureCapacity(newLength);
+            //the array might still contain bytes from before a truncation
+            Arrays.fill(data, size, newLength, (byte) 0);
         }
+        size = newLength;
+    }
 
-        while (data.size() > newLength) {
-            data.remove(data.size() - 1);
+    private void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            int newCapacity = Math.max(capacity, data.length + (data.length >> 1));
+            if (newCapacity < 0) { //overflow
+                newCapacity = capacity;
+            }
+            data = Arrays.copyOf(data, newCapacity);
         }
     }
 
@@ -80,15 +81,61 @@ public class VFile extends FSObject {
             throw new IllegalArgumentException("Position in the file cannot be negative");
         }
 
-        if (position >= data.size()) {
+        if (position >= size) {
             return -1; //this represent the end of the stream
         }
 
-        return data.get(position) & 0xFF;
+        return data[position] & 0xFF;
+    }
+
+    /**
+     * Copy up to {@code len} bytes starting from {@code position} into {@code b}
+     *
+     * @return the number of bytes read, or -1 if {@code position} is at the end of the file
+     */
+    public synchronized int read(int position, byte[] b, int off, int len) throws IllegalArgumentException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position in the file cannot be negative");
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position >= size) {
+            return -1;
+        }
+
+        int n = Math.min(len, size - position);
+        System.arraycopy(data, position, b, off, n);
+        return n;
+    }
+
+    /**
+     * Copy bytes starting from {@code position} into the remaining space of {@code dst}
+     *
+     * @return the number of bytes read, or -1 if {@code position} is at the end of the file
+     */
+    public synchronized int read(int position, ByteBuffer dst) throws IllegalArgumentException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position in the file cannot be negative");
+        }
+
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+
+        if (position >= size) {
+            return -1;
+        }
+
+        int n = Math.min(dst.remaining(), size - position);
+        dst.put(data, position, n);
+        return n;
     }
 
     public synchronized int writeBytes(byte[] b, int off, int len) {
-        return writeBytes(data.size(), b, off, len);
+        return writeBytes(size, b, off, len);
     }
 
 
@@ -102,26 +149,50 @@ public class VFile extends FSObject {
             return 0;
         }
 
-        if (position >= data.size()) {
-            setLength(position);
+        int written = Math.max(0, Math.min(len, b.length - off));
+        makeRoom(position, written);
+        System.arraycopy(b, off, data, position, written);
+
+        setLastModified(getCurrentTimeMillis());
+
+        return written;
+    }
+
+    /**
+     * Write all the remaining bytes of {@code src} starting from {@code position}
+     *
+     * @return the number of bytes written
+     */
+    public synchronized int writeBytes(int position, ByteBuffer src) throws IllegalArgumentException {
+
+        if (position < 0) {
+            throw new IllegalArgumentException("Position in the file cannot be negative");
         }
 
-        int written = 0;
-        for (int i = off; i < b.length & (i - off) < len; i++) {
-            if (position < data.size()) {
-                data.set(position, (b[i]));
-            } else {
-                data.add(b[i]);
-            }
-            position++;
-            written++;
+        if (deleted || !isWritePermission()) {
+            return 0;
         }
 
+        int written = src.remaining();
+        makeRoom(position, written);
+        src.get(data, position, written);
+
         setLastModified(getCurrentTimeMillis());
 
         return written;
     }
 
+    private void makeRoom(int position, int len) {
+        if (position >= size) {
+            setLength(position);
+        }
+        int end = position + len;
+        if (end > size) {
+            ensureCapacity(end);
+            size = end;
+        }
+    }
+
 
     @Override
     public synchronized boolean delete() {
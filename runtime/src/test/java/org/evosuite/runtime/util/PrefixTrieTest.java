@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrefixTrieTest {
+
+    @Test
+    public void testMatches() {
+        PrefixTrie trie = new PrefixTrie("java.", "javax.", "org.junit.", "org.apache");
+
+        assertTrue(trie.matches("java.lang.Object"));
+        assertTrue(trie.matches("javax.swing.JFrame"));
+        assertTrue(trie.matches("org.apache.commons.Foo"));
+        assertTrue(trie.matches("org.apache"));
+        assertTrue(trie.matches("org.apachefoo.Bar"));
+
+        assertFalse(trie.matches("java"));
+        assertFalse(trie.matches("javafx.Foo"));
+        assertFalse(trie.matches("org.junitx.Foo"));
+        assertFalse(trie.matches("com.example.Foo"));
+        assertFalse(trie.matches(""));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertFalse(new PrefixTrie().matches("java.lang.Object"));
+        assertFalse(new PrefixTrie().matches(""));
+        assertEquals(0, new PrefixTrie().size());
+
+        PrefixTrie all = new PrefixTrie("", "java.");
+        assertTrue(all.matches("com.example.Foo"));
+        assertTrue(all.matches(""));
+        assertEquals(1, all.size());
+    }
+
+    @Test
+    public void testRedundantPrefixes() {
+        PrefixTrie trie = new PrefixTrie("org.apache.commons.", "org.apache", "org.apache.log4j.", "org.apache");
+        assertEquals(1, trie.size());
+        assertTrue(trie.matches("org.apache.log4j.Logger"));
+        assertTrue(trie.matches("org.apachex"));
+        assertFalse(trie.matches("org.apach"));
+    }
+
+    @Test
+    public void testSameAsStartsWith() {
+        Random random = new Random(42);
+        String alphabet = "ab.$";
+
+        for (int round = 0; round < 100; round++) {
+            List<String> prefixes = new ArrayList<>();
+            int n = random.nextInt(10);
+            for (int i = 0; i < n; i++) {
+                prefixes.add(randomString(random, alphabet, 1 + random.nextInt(5)));
+            }
+            PrefixTrie trie = new PrefixTrie(prefixes);
+
+            for (int k = 0; k < 200; k++) {
+                String s = randomString(random, alphabet, random.nextInt(8));
+                boolean expected = false;
+                for (String prefix : prefixes) {
+                    expected |= s.startsWith(prefix);
+                }
+                assertEquals(prefixes + " on " + s, expected, trie.matches(s));
+            }
+        }
+    }
+
+    @Test
+    public void testInputIsCopied() {
+        List<String> prefixes = new ArrayList<>(Collections.singletonList("java."));
+        PrefixTrie trie = new PrefixTrie(prefixes);
+        prefixes.addAll(Arrays.asList("com.", "org."));
+        assertFalse(trie.matches("com.example.Foo"));
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StackInspectorTest {
+
+    private static class InitializedInStaticInit {
+        static final boolean IN_STATIC_INIT = StackInspector.anyFrame(StackInspector.methodNamed("<clinit>"));
+    }
+
+    @Test
+    public void testFindsCurrentMethod() {
+        assertTrue(StackInspector.anyFrame(StackInspector.method(StackInspectorTest.class.getName(), "testFindsCurrentMethod")));
+        assertFalse(StackInspector.anyFrame(StackInspector.method(StackInspectorTest.class.getName(), "testStaticInit")));
+    }
+
+    @Test
+    public void testClassPrefixes() {
+        assertTrue(StackInspector.anyFrame(StackInspector.classStartingWith("foo.", "org.junit.")));
+        assertFalse(StackInspector.anyFrame(StackInspector.classStartingWith("foo.", "bar.")));
+    }
+
+    @Test
+    public void testStaticInit() {
+        assertFalse(StackInspector.anyFrame(StackInspector.methodNamed("<clinit>")));
+        assertTrue(InitializedInStaticInit.IN_STATIC_INIT);
+    }
+
+    @Test
+    public void testStopsAtFirstMatch() {
+        final AtomicInteger visited = new AtomicInteger(0);
+        assertTrue(StackInspector.anyFrame(new StackInspector.FrameFilter() {
+            @Override
+            public boolean accept(String className, String methodName) {
+                visited.incrementAndGet();
+                return methodName.equals("testStopsAtFirstMatch");
+            }
+        }));
+
+        int depth = Thread.currentThread().getStackTrace().length;
+        assertTrue(visited.get() < depth);
+    }
+
+    @Test
+    public void testStackAsString() {
+        String stack = StackInspector.getStackAsString();
+        assertTrue(stack.contains("testStackAsString"));
+        assertEquals('\n', stack.charAt(0));
+    }
+}
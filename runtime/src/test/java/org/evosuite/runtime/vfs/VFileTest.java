@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class VFileTest {
+
+    private static VFile createFile() {
+        VFile file = new VFile("/foo", null);
+        file.setWritePermission(true);
+        return file;
+    }
+
+    @Test
+    public void testWriteBeyondEnd() {
+        VFile file = createFile();
+        Assert.assertEquals(2, file.writeBytes(3, new byte[]{7, 8}, 0, 2));
+        Assert.assertEquals(5, file.getDataSize());
+        Assert.assertEquals(0, file.read(0));
+        Assert.assertEquals(7, file.read(3));
+        Assert.assertEquals(8, file.read(4));
+        Assert.assertEquals(-1, file.read(5));
+    }
+
+    @Test
+    public void testGrowAfterTruncate() {
+        VFile file = createFile();
+        file.writeBytes(new byte[]{1, 2, 3, 4}, 0, 4);
+        file.setLength(1);
+        file.setLength(3);
+
+        byte[] buffer = new byte[5];
+        Assert.assertEquals(3, file.read(0, buffer, 0, 5));
+        Assert.assertArrayEquals(new byte[]{1, 0, 0, 0, 0}, buffer);
+        Assert.assertEquals(-1, file.read(3, buffer, 0, 5));
+    }
+
+    @Test
+    public void testLargeWriteAndRead() {
+        VFile file = createFile();
+        byte[] data = new byte[3_000_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        for (int i = 0; i < data.length; i += 1000) {
+            file.writeBytes(data, i, 1000);
+        }
+        Assert.assertEquals(data.length, file.getDataSize());
+
+        ByteBuffer dst = ByteBuffer.allocateDirect(data.length + 10);
+        Assert.assertEquals(data.length, file.read(0, dst));
+        dst.flip();
+        byte[] copy = new byte[dst.remaining()];
+        dst.get(copy);
+        Assert.assertArrayEquals(data, copy);
+    }
+
+    @Test
+    public void testNoWritePermission() {
+        VFile file = new VFile("/foo", null);
+        file.setWritePermission(false);
+        Assert.assertEquals(0, file.writeBytes(0, ByteBuffer.wrap(new byte[]{1})));
+    }
+}
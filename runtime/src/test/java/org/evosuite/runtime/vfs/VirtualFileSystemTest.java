@@ -31,6 +31,8 @@ import org.junit.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 
 public class VirtualFileSystemTest {
@@ -129,6 +131,32 @@ public class VirtualFileSystemTest {
         Assert.assertEquals(0, buffer[3]);
     }
 
+    @Test
+    public void testChannelReadAfterWrite() throws IOException {
+
+        File file = MockFile.createTempFile("foo", ".tmp");
+
+        ByteBuffer src = ByteBuffer.allocateDirect(3);
+        src.put(new byte[]{1, 2, 3});
+        src.flip();
+        MockFileOutputStream out = new MockFileOutputStream(file);
+        Assert.assertEquals(3, out.getChannel().write(src));
+        out.close();
+
+        MockFileInputStream in = new MockFileInputStream(file);
+        FileChannel channel = in.getChannel();
+        ByteBuffer dst = ByteBuffer.allocateDirect(5);
+        Assert.assertEquals(3, channel.read(dst));
+        Assert.assertEquals(-1, channel.read(dst));
+        in.close();
+
+        dst.flip();
+        Assert.assertEquals(3, dst.remaining());
+        Assert.assertEquals(1, dst.get());
+        Assert.assertEquals(2, dst.get());
+        Assert.assertEquals(3, dst.get());
+    }
+
     @Test
     public void testReadingNonExistingFile() throws IOException {
         String fileName = "this_file_should_not_exist";